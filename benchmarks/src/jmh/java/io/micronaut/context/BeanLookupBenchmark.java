@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.annotation.processing.test.JavaParser;
+import io.micronaut.inject.BeanDefinitionReference;
+import io.micronaut.inject.writer.BeanDefinitionReferenceWriter;
+import io.micronaut.inject.writer.BeanDefinitionWriter;
+import org.codehaus.groovy.runtime.IOGroovyMethods;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Measures bean lookups against contexts with an increasing number of bean definitions, which shows how the
+ * candidate caches and the type index of {@link DefaultBeanContext} scale.
+ */
+@State(Scope.Benchmark)
+public class BeanLookupBenchmark {
+
+    private static final int SERVICE_TYPES = 10;
+
+    @Param({"100", "1000", "5000"})
+    int beanCount;
+
+    ApplicationContext context;
+    Class<?>[] beanTypes;
+    Class<?>[] serviceTypes;
+    int next;
+
+    @Setup(Level.Trial)
+    public void prepare() throws ClassNotFoundException {
+        StringBuilder source = new StringBuilder("package test;\n\n");
+        for (int i = 0; i < SERVICE_TYPES; i++) {
+            source.append("interface Service").append(i).append(" {}\n");
+        }
+        for (int i = 0; i < beanCount; i++) {
+            source.append("@jakarta.inject.Singleton class Bean").append(i)
+                    .append(" implements Service").append(i % SERVICE_TYPES).append(" {}\n");
+        }
+        Map<String, byte[]> classes = compile(source.toString());
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes != null) {
+                    return defineClass(name, bytes, 0, bytes.length);
+                }
+                return super.findClass(name);
+            }
+        };
+        List<BeanDefinitionReference> references = new ArrayList<>(beanCount);
+        String suffix = BeanDefinitionWriter.CLASS_SUFFIX + BeanDefinitionReferenceWriter.REF_SUFFIX;
+        for (String name : classes.keySet()) {
+            if (name.endsWith(suffix)) {
+                try {
+                    references.add((BeanDefinitionReference) classLoader.loadClass(name).getDeclaredConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot instantiate reference: " + name, e);
+                }
+            }
+        }
+        context = new DefaultApplicationContext((ApplicationContextConfiguration) ApplicationContext.builder().classLoader(classLoader)) {
+            @Override
+            protected List<BeanDefinitionReference> resolveBeanDefinitionReferences(Predicate<BeanDefinitionReference> predicate) {
+                List<BeanDefinitionReference> all = new ArrayList<>(super.resolveBeanDefinitionReferences(predicate));
+                all.addAll(references);
+                return all;
+            }
+        }.start();
+        beanTypes = new Class[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            beanTypes[i] = classLoader.loadClass("test.Bean" + i);
+        }
+        serviceTypes = new Class[SERVICE_TYPES];
+        for (int i = 0; i < SERVICE_TYPES; i++) {
+            serviceTypes[i] = classLoader.loadClass("test.Service" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getBean() {
+        return context.getBean(beanTypes[next++ % beanTypes.length]);
+    }
+
+    @Benchmark
+    public Collection<?> getBeansOfType() {
+        return context.getBeansOfType(serviceTypes[next++ % serviceTypes.length]);
+    }
+
+    @Benchmark
+    public Collection<?> getBeanDefinitions() {
+        return context.getBeanDefinitions(beanTypes[next++ % beanTypes.length]);
+    }
+
+    private static Map<String, byte[]> compile(String source) {
+        Map<String, byte[]> classes = new HashMap<>();
+        for (JavaFileObject file : new JavaParser().generate("test.Beans", source)) {
+            if (file.getKind() == JavaFileObject.Kind.CLASS) {
+                String name = file.toUri().toString().substring("mem:///CLASS_OUTPUT/".length());
+                name = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                try {
+                    classes.put(name, IOGroovyMethods.getBytes(file.openInputStream()));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read compiled class: " + name, e);
+                }
+            }
+        }
+        return classes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + BeanLookupBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -26,17 +26,28 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @State(Scope.Benchmark)
 public class PropertySourcePropertyResolverBenchmark {
 
     Map<String, String> props = new HashMap<>();
+    PropertySourcePropertyResolver resolver;
 
     @Setup
     public void prepare() {
         for (int i = 0; i < 600; i++) {
              props.put(i + "}_A_B_C_D_E_F_G_SERVICE_PORT", "foo");
         }
+        Map<String, Object> app = new HashMap<>();
+        for (int i = 0; i < 600; i++) {
+            app.put("app.service" + i + ".port", String.valueOf(i));
+            app.put("app.service" + i + ".enabled", "true");
+        }
+        resolver = new PropertySourcePropertyResolver(
+                new EnvironmentPropertySource(props),
+                PropertySource.of("app", app)
+        );
     }
 
     @Benchmark
@@ -44,6 +55,27 @@ public class PropertySourcePropertyResolverBenchmark {
         new PropertySourcePropertyResolver(new EnvironmentPropertySource(props));
     }
 
+    @Benchmark
+    public Optional<Integer> benchmarkGetProperty() {
+        return resolver.getProperty("app.service300.port", Integer.class);
+    }
+
+    @Benchmark
+    public Optional<Boolean> benchmarkGetMissingProperty() {
+        return resolver.getProperty("app.service300.missing", Boolean.class);
+    }
+
+    @Benchmark
+    public boolean benchmarkContainsProperty() {
+        return resolver.containsProperty("app.service300.enabled");
+    }
+
+    @Benchmark
+    public Optional<Integer> benchmarkGetPropertyAfterReset() {
+        resolver.resetCaches();
+        return resolver.getProperty("app.service300.port", Integer.class);
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(".*" + PropertySourcePropertyResolverBenchmark.class.getSimpleName() + ".*")
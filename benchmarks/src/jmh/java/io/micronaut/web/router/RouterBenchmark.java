@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.server.binding.TestController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compares the indexed lookup of {@link DefaultRouter} with a linear scan over all routes.
+ */
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int routeCount;
+
+    ApplicationContext applicationContext;
+    DefaultRouter router;
+    List<UriRoute> routes;
+    String uri;
+
+    @Setup
+    public void setup() {
+        applicationContext = ApplicationContext.run();
+        DefaultRouteBuilder builder = new DefaultRouteBuilder(applicationContext) { };
+        for (int i = 0; i < routeCount; i++) {
+            builder.GET("/resource" + i + "/{name}/{age}", TestController.class, "show", String.class, int.class);
+            builder.POST("/resource" + i + "/{name}/{age}", TestController.class, "show", String.class, int.class);
+        }
+        router = new DefaultRouter(builder);
+        routes = new ArrayList<>();
+        router.uriRoutes().filter(route -> route.getHttpMethod() == HttpMethod.GET).forEach(routes::add);
+        uri = "/resource" + (routeCount / 2) + "/foo/10";
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public Optional<UriRouteMatch<Object, Object>> indexedRouter() {
+        return router.route(HttpMethod.GET, uri);
+    }
+
+    @Benchmark
+    public Optional<UriRouteMatch> linearScan() {
+        for (UriRoute route : routes) {
+            Optional<UriRouteMatch> match = route.match(uri);
+            if (match.isPresent()) {
+                return match;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + RouterBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -22,11 +22,10 @@ import io.micronaut.context.env.Environment;
 import io.micronaut.core.annotation.Nullable;
 import jakarta.inject.Singleton;
 
-import java.util.concurrent.locks.Lock;
-
 /**
- * <p>A {@link MethodInterceptor} that will lock the bean preventing it from being destroyed by a
- * {@link RefreshEvent} until the method completes.</p>
+ * <p>A {@link MethodInterceptor} that tracks the call as in flight, preventing the bean from being destroyed by a
+ * {@link RefreshEvent} until the method completes. No lock is taken. A call whose target was destroyed by a refresh
+ * before the call started is invoked on the current instance of the bean.</p>
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -48,12 +47,19 @@ public class RefreshInterceptor implements MethodInterceptor {
     @Override
     public Object intercept(MethodInvocationContext context) {
         Object target = context.getTarget();
-        Lock lock = refreshScope.getLock(target).readLock();
+        RefreshScope.RefreshableBean refreshableBean = refreshScope.enter(target);
+        if (refreshableBean == null) {
+            return context.proceed();
+        }
         try {
-            lock.lock();
+            Object bean = refreshableBean.getBean();
+            if (bean != target) {
+                // a refresh destroyed the target after the proxy resolved it, invoke the current instance instead
+                return context.getExecutableMethod().invoke(bean, context.getParameterValues());
+            }
             return context.proceed();
         } finally {
-            lock.unlock();
+            refreshableBean.exit();
         }
     }
 }
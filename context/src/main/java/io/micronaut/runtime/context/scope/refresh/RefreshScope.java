@@ -15,6 +15,7 @@
  */
 package io.micronaut.runtime.context.scope.refresh;
 
+
 import io.micronaut.aop.InterceptedProxy;
 import io.micronaut.context.BeanContext;
 import io.micronaut.context.BeanRegistration;
@@ -27,6 +28,7 @@ import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.context.scope.BeanCreationContext;
 import io.micronaut.context.scope.CreatedBean;
 import io.micronaut.context.scope.CustomScope;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.BeanIdentifier;
@@ -35,21 +37,29 @@ import io.micronaut.runtime.context.scope.Refreshable;
 import io.micronaut.scheduling.TaskExecutors;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Implementation of {@link Refreshable}.
  *
+ * <p>Calls to refreshable beans are not locked. Each created bean counts its in-flight calls and a refresh replaces
+ * the bean for subsequent lookups and retires the old instance, which is destroyed once the calls that were already
+ * in flight complete.</p>
+ *
  * @author Graeme Rocher
  * @see Refreshable
  * @see RefreshEvent
@@ -59,8 +69,12 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Requires(notEnv = {Environment.FUNCTION, Environment.ANDROID})
 public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<RefreshScope>, ApplicationEventListener<RefreshEvent> {
 
-    private final Map<BeanIdentifier, CreatedBean<?>> refreshableBeans = new ConcurrentHashMap<>(10);
-    private final ConcurrentMap<Object, ReadWriteLock> locks = new ConcurrentHashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshScope.class);
+
+    private final Map<BeanIdentifier, RefreshableBean> refreshableBeans = new ConcurrentHashMap<>(10);
+    // beans are compared by identity, a refreshed bean may be equal to the one it replaces. Destroyed beans are kept
+    // until the next refresh so that a call which resolved the bean before it was destroyed is moved to the new instance
+    private volatile Map<Object, RefreshableBean> instances = Collections.emptyMap();
     private final BeanContext beanContext;
     private final Executor executorService;
 
@@ -87,29 +101,28 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     @Override
     public <T> T getOrCreate(BeanCreationContext<T> creationContext) {
         final BeanIdentifier id = creationContext.id();
-        CreatedBean<?> created = refreshableBeans.computeIfAbsent(id, key -> {
-            CreatedBean<T> createdBean = creationContext.create();
-            locks.putIfAbsent(createdBean.bean(), new ReentrantReadWriteLock());
-            return createdBean;
+        RefreshableBean created = refreshableBeans.computeIfAbsent(id, key -> {
+            RefreshableBean refreshableBean = new RefreshableBean(creationContext.create());
+            addInstance(refreshableBean);
+            return refreshableBean;
         });
-        return (T) created.bean();
+        return (T) created.createdBean.bean();
     }
 
     @Override
     public RefreshScope stop() {
         disposeOfAllBeans();
-        locks.clear();
         return this;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Optional<T> remove(BeanIdentifier identifier) {
-        CreatedBean<?> createdBean = refreshableBeans.get(identifier);
-        if (createdBean != null) {
-            createdBean.close();
+        RefreshableBean refreshableBean = refreshableBeans.remove(identifier);
+        if (refreshableBean != null) {
+            refreshableBean.retire();
             //noinspection ConstantConditions
-            return Optional.ofNullable((T) createdBean.bean());
+            return Optional.ofNullable((T) refreshableBean.createdBean.bean());
         }
         return Optional.empty();
     }
@@ -125,6 +138,7 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
      * @param event The event
      */
     public final void onRefreshEvent(RefreshEvent event) {
+        removeDestroyedInstances();
         Map<String, Object> changes = event.getSource();
         if (changes == RefreshEvent.ALL_KEYS) {
             disposeOfAllBeans();
@@ -140,7 +154,8 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
         if (bean instanceof InterceptedProxy) {
             bean = ((InterceptedProxy<T>) bean).interceptedTarget();
         }
-        for (CreatedBean<?> created : refreshableBeans.values()) {
+        for (RefreshableBean refreshableBean : refreshableBeans.values()) {
+            CreatedBean<?> created = refreshableBean.createdBean;
             if (created.bean() == bean) {
                 //noinspection unchecked
                 return Optional.of(new BeanRegistration<>(
@@ -154,15 +169,44 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     /**
+     * Marks the start of a call to the given bean. The bean is not destroyed by a refresh until
+     * {@link RefreshableBean#exit()} is invoked on the returned value. If a refresh destroyed the bean after the
+     * call resolved it, the call is moved to the current instance of the bean, see {@link RefreshableBean#getBean()}.
+     *
+     * @param bean The bean
+     * @return The refreshable bean to exit once the call completes or {@code null} if the bean is not part of the scope
+     */
+    @Nullable
+    RefreshableBean enter(Object bean) {
+        RefreshableBean refreshableBean = instances.get(bean);
+        if (refreshableBean == null) {
+            return null;
+        }
+        while (!refreshableBean.enter()) {
+            BeanDefinition<?> definition = refreshableBean.createdBean.definition();
+            refreshableBean = instances.get(getCurrentBean(definition));
+            if (refreshableBean == null) {
+                throw new IllegalStateException("Refreshable bean [" + definition + "] was not created by the refresh scope");
+            }
+        }
+        return refreshableBean;
+    }
+
+    /**
+     * Calls to refreshable beans no longer take a lock, the returned lock is not used by the scope and does not
+     * prevent a refresh from destroying the bean.
+     *
      * @param object The bean
      * @return The lock on the object
+     * @deprecated Calls in flight are tracked without a lock, see {@link RefreshInterceptor}
      */
+    @Deprecated
     protected ReadWriteLock getLock(Object object) {
-        ReadWriteLock readWriteLock = locks.get(object);
-        if (readWriteLock == null) {
+        RefreshableBean refreshableBean = instances.get(object);
+        if (refreshableBean == null) {
             throw new IllegalStateException("No lock present for object: " + object);
         }
-        return readWriteLock;
+        return refreshableBean.lock;
     }
 
     private void refreshSubsetOfConfigurationProperties(Set<String> keySet) {
@@ -173,7 +217,7 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
             Optional<String> value = definition.stringValue(ConfigurationReader.class, "prefix");
             if (value.isPresent()) {
                 String configPrefix = value.get();
-                if (keySet.stream().anyMatch(key -> key.startsWith(configPrefix))) {
+                if (keySet.stream().anyMatch(key -> intersects(key, configPrefix))) {
                     beanContext.refreshBean(registration.getIdentifier());
                 }
             }
@@ -189,24 +233,37 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     private void disposeOfBeanSubset(Collection<String> keys) {
-        for (BeanIdentifier beanKey : refreshableBeans.keySet()) {
-            CreatedBean<?> createdBean = refreshableBeans.get(beanKey);
-            BeanDefinition<?> definition = createdBean.definition();
+        for (Map.Entry<BeanIdentifier, RefreshableBean> entry : refreshableBeans.entrySet()) {
+            BeanDefinition<?> definition = entry.getValue().createdBean.definition();
             String[] strings = definition.stringValues(Refreshable.class);
-            if (!ArrayUtils.isEmpty(strings)) {
-                for (String prefix : strings) {
-                    for (String k : keys) {
-                        if (k.startsWith(prefix)) {
-                            disposeOfBean(beanKey);
-                        }
-                    }
-                }
-            } else {
-                disposeOfBean(beanKey);
+            if (ArrayUtils.isEmpty(strings) || Arrays.stream(strings).anyMatch(prefix -> keys.stream().anyMatch(k -> intersects(k, prefix)))) {
+                disposeOfBean(entry.getKey());
             }
         }
     }
 
+    /**
+     * Whether a change to the given key affects the properties under the given prefix. That is the case when the key
+     * is the prefix itself, is nested under the prefix or encloses the prefix, for example a changed map or list.
+     *
+     * @param key    The changed key
+     * @param prefix The prefix
+     * @return True if the key affects the prefix
+     */
+    private static boolean intersects(String key, String prefix) {
+        if (!key.startsWith(prefix)) {
+            return prefix.startsWith(key) && isSeparator(prefix.charAt(key.length()));
+        }
+        if (key.length() == prefix.length() || prefix.isEmpty()) {
+            return true;
+        }
+        return isSeparator(prefix.charAt(prefix.length() - 1)) || isSeparator(key.charAt(prefix.length()));
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == '[';
+    }
+
     private void disposeOfAllBeans() {
         for (BeanIdentifier key : refreshableBeans.keySet()) {
             disposeOfBean(key);
@@ -214,16 +271,110 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     private void disposeOfBean(BeanIdentifier key) {
-        CreatedBean<?> createdBean = refreshableBeans.remove(key);
-        if (createdBean != null) {
-            Object bean = createdBean.bean();
-            Lock lock = getLock(bean).writeLock();
-            try {
-                lock.lock();
-                createdBean.close();
-                locks.remove(bean);
-            } finally {
-                lock.unlock();
+        // removing the bean makes the next lookup create a new instance, calls in flight complete on the old one
+        RefreshableBean refreshableBean = refreshableBeans.remove(key);
+        if (refreshableBean != null) {
+            refreshableBean.retire();
+        }
+    }
+
+    private <T> T getCurrentBean(BeanDefinition<T> definition) {
+        return beanContext.getProxyTargetBean(definition.asArgument(), definition.getDeclaredQualifier());
+    }
+
+    private synchronized void addInstance(RefreshableBean refreshableBean) {
+        Map<Object, RefreshableBean> newInstances = new IdentityHashMap<>(instances);
+        newInstances.put(refreshableBean.createdBean.bean(), refreshableBean);
+        instances = newInstances;
+    }
+
+    private synchronized void removeDestroyedInstances() {
+        Map<Object, RefreshableBean> newInstances = new IdentityHashMap<>(instances);
+        if (newInstances.values().removeIf(RefreshableBean::isDestroyed)) {
+            instances = newInstances;
+        }
+    }
+
+    private void destroy(RefreshableBean refreshableBean) {
+        try {
+            refreshableBean.createdBean.close();
+        } catch (RuntimeException e) {
+            if (LOG.isErrorEnabled()) {
+                LOG.error("Error destroying refreshable bean [" + refreshableBean.createdBean.id() + "]: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * A bean created by the scope with a count of its in-flight calls. The count and the retired and destroyed
+     * flags share a single atomic value, so a call cannot enter a bean that a refresh has decided to destroy.
+     */
+    final class RefreshableBean {
+        private static final long RETIRED = 1L << 62;
+        private static final long DESTROYED = 1L << 61;
+
+        private final CreatedBean<?> createdBean;
+        private final AtomicLong state = new AtomicLong();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private RefreshableBean(CreatedBean<?> createdBean) {
+            this.createdBean = createdBean;
+        }
+
+        /**
+         * @return The bean the call entered
+         */
+        Object getBean() {
+            return createdBean.bean();
+        }
+
+        /**
+         * @return False if the bean has already been destroyed
+         */
+        private boolean enter() {
+            while (true) {
+                long current = state.get();
+                if ((current & DESTROYED) != 0) {
+                    return false;
+                }
+                if (state.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Marks the end of a call, destroying the bean if it was retired by a refresh and this was the last call in flight.
+         */
+        void exit() {
+            if (state.decrementAndGet() == RETIRED) {
+                tryDestroy();
+            }
+        }
+
+        private void retire() {
+            while (true) {
+                long current = state.get();
+                if ((current & RETIRED) != 0) {
+                    return;
+                }
+                if (state.compareAndSet(current, current | RETIRED)) {
+                    if (current == 0) {
+                        tryDestroy();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private boolean isDestroyed() {
+            return (state.get() & DESTROYED) != 0;
+        }
+
+        private void tryDestroy() {
+            // fails if a call entered after the last call in flight exited, that call destroys the bean on exit
+            if (state.compareAndSet(RETIRED, RETIRED | DESTROYED)) {
+                destroy(this);
             }
         }
     }
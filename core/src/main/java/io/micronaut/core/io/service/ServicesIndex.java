@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.core.io.service;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>The services indexes of the artifacts on the classpath of a class loader. A services index is written at build
+ * time by {@link ServicesIndexWriter} and merges all of the {@code META-INF/services} files of an artifact into a
+ * single resource, so that the services of an indexed artifact are read once instead of from a file per service.</p>
+ *
+ * <p>The index is a text file with a {@code [service type] length} header followed by the implementation class names
+ * of the service type, one per line. The length is the size in bytes of the service file the entries were read from.
+ * The indexes are validated once per artifact when they are read, a service is only resolved from the index while its
+ * service file still has that size. The service file is read instead for the services the index does not list, that
+ * have no length or whose service file changed.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class ServicesIndex {
+
+    /**
+     * The location of the services index within an artifact.
+     */
+    static final String INDEX_PATH = "META-INF/micronaut/services-index";
+
+    private static final ServicesIndex EMPTY = new ServicesIndex(Collections.emptyMap());
+    private static final Map<ClassLoader, ServicesIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Map<String, List<String>>> servicesByRoot;
+
+    private ServicesIndex(Map<String, Map<String, List<String>>> servicesByRoot) {
+        this.servicesByRoot = servicesByRoot;
+    }
+
+    /**
+     * Resolves the implementation names of the given service from the indexes of all the indexed artifacts, in class
+     * path order. No service file is read.
+     *
+     * @param serviceName The service type name
+     * @return The implementation names
+     */
+    @NonNull
+    List<String> getServiceEntries(@NonNull String serviceName) {
+        List<String> entries = null;
+        for (Map<String, List<String>> services : servicesByRoot.values()) {
+            List<String> indexed = services.get(serviceName);
+            if (indexed != null) {
+                if (entries == null) {
+                    entries = new ArrayList<>(indexed);
+                } else {
+                    entries.addAll(indexed);
+                }
+            }
+        }
+        return entries != null ? entries : Collections.emptyList();
+    }
+
+    /**
+     * Whether the entries of the given service file are resolved by {@link #getServiceEntries(String)}.
+     *
+     * @param serviceUrl  The URL of the {@code META-INF/services} file
+     * @param serviceName The service type name
+     * @return True if the service file does not have to be read
+     */
+    boolean isIndexed(@NonNull URL serviceUrl, @NonNull String serviceName) {
+        if (servicesByRoot.isEmpty()) {
+            return false;
+        }
+        String url = serviceUrl.toString();
+        String path = SoftServiceLoader.META_INF_SERVICES + '/' + serviceName;
+        if (!url.endsWith(path)) {
+            return false;
+        }
+        Map<String, List<String>> services = servicesByRoot.get(url.substring(0, url.length() - path.length()));
+        return services != null && services.containsKey(serviceName);
+    }
+
+    /**
+     * Returns the index for the given class loader. The indexes are read once per class loader.
+     *
+     * @param classLoader The class loader
+     * @return The index
+     */
+    @NonNull
+    static ServicesIndex of(@NonNull ClassLoader classLoader) {
+        ServicesIndex index = INDEXES.get(classLoader);
+        if (index == null) {
+            index = read(classLoader);
+            INDEXES.put(classLoader, index);
+        }
+        return index;
+    }
+
+    /**
+     * Reads an index.
+     *
+     * @param inputStream The input stream
+     * @return The indexed services by service type name
+     * @throws IOException If the index cannot be read
+     */
+    @NonNull
+    static Map<String, IndexedService> read(@NonNull InputStream inputStream) throws IOException {
+        Map<String, IndexedService> services = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            IndexedService service = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                int end = line.indexOf(']');
+                if (line.charAt(0) == '[' && end > 0) {
+                    service = new IndexedService(length(line.substring(end + 1).trim()));
+                    services.put(line.substring(1, end), service);
+                } else if (service != null) {
+                    service.entries.add(line);
+                }
+            }
+        }
+        return services;
+    }
+
+    private static ServicesIndex read(ClassLoader classLoader) {
+        Map<String, Map<String, List<String>>> servicesByRoot = new LinkedHashMap<>();
+        Enumeration<URL> indexes;
+        try {
+            indexes = classLoader.getResources(INDEX_PATH);
+        } catch (IOException e) {
+            // ignore, fall back to the service files, can't log because class used in compiler
+            return EMPTY;
+        }
+        while (indexes.hasMoreElements()) {
+            URL url = indexes.nextElement();
+            String root = url.toString();
+            root = root.substring(0, root.length() - INDEX_PATH.length());
+            try {
+                URLConnection connection = url.openConnection();
+                Map<String, IndexedService> services;
+                try (InputStream inputStream = connection.getInputStream()) {
+                    services = read(inputStream);
+                }
+                servicesByRoot.put(root, validate(connection, root, services));
+            } catch (IOException | UncheckedIOException e) {
+                // ignore, the service files of the artifact are read instead
+            }
+        }
+        return servicesByRoot.isEmpty() ? EMPTY : new ServicesIndex(servicesByRoot);
+    }
+
+    /**
+     * Validates the index of an artifact against the sizes of its service files. The sizes are resolved from the
+     * central directory of a JAR or from the file system, the service files are not opened.
+     *
+     * @param connection The connection the index was read from
+     * @param root       The root URL of the artifact
+     * @param services   The indexed services
+     * @return The entries of the services whose service file has the indexed size by service type name
+     * @throws IOException If the JAR of the artifact cannot be opened
+     */
+    private static Map<String, List<String>> validate(URLConnection connection, String root, Map<String, IndexedService> services) throws IOException {
+        JarFile jarFile = connection instanceof JarURLConnection ? ((JarURLConnection) connection).getJarFile() : null;
+        boolean file = "file".equals(connection.getURL().getProtocol());
+        Map<String, List<String>> valid = new HashMap<>(services.size());
+        for (Map.Entry<String, IndexedService> entry : services.entrySet()) {
+            IndexedService service = entry.getValue();
+            if (service.length < 0) {
+                continue;
+            }
+            String path = SoftServiceLoader.META_INF_SERVICES + '/' + entry.getKey();
+            long length = -1;
+            if (jarFile != null) {
+                JarEntry jarEntry = jarFile.getJarEntry(path);
+                length = jarEntry != null ? jarEntry.getSize() : -1;
+            } else if (file) {
+                length = fileLength(root + path);
+            }
+            if (service.length == length) {
+                valid.put(entry.getKey(), service.entries);
+            }
+        }
+        return valid;
+    }
+
+    private static long length(String value) {
+        try {
+            return value.isEmpty() ? -1 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Resolves the size of a service file on the file system without reading it.
+     *
+     * @param url The URL of the service file
+     * @return The size in bytes or -1 if it is unknown
+     */
+    private static long fileLength(String url) {
+        try {
+            File file = new File(new URI(url));
+            return file.isFile() ? file.length() : -1;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The entries of a service type in an index.
+     */
+    static final class IndexedService {
+        final long length;
+        final List<String> entries = new ArrayList<>();
+
+        IndexedService(long length) {
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.core.io.service;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Merges the {@code META-INF/services} files of an artifact into the single services index read by
+ * {@link SoftServiceLoader}.</p>
+ *
+ * <p>The {@link #main(String...)} method is intended to be invoked by the build before the artifact is packaged, for
+ * example from a Gradle {@code JavaExec} task, with the output directory of the artifact followed by any additional
+ * directories whose service files are packaged into the same artifact. The first argument can also be a JAR file, in
+ * which case the index is written into the JAR. This is how the index of a JAR that merges several artifacts, such as
+ * a shadow JAR, is written: the indexes of the merged artifacts share the same path and only one of them ends up in
+ * the JAR, which is replaced by an index of the merged service files.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public final class ServicesIndexWriter {
+
+    private ServicesIndexWriter() {
+    }
+
+    /**
+     * Writes the services index of the given directories.
+     *
+     * @param args The output directory followed by optional additional directories to merge
+     * @throws IOException If the service files cannot be read or the index cannot be written
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ServicesIndexWriter <output directory> [<additional directory>...]");
+            System.exit(1);
+            return;
+        }
+        List<Path> roots = Stream.of(args).map(Paths::get).collect(Collectors.toCollection(ArrayList::new));
+        FileSystem jar = null;
+        if (Files.isRegularFile(roots.get(0))) {
+            jar = FileSystems.newFileSystem(roots.get(0), (ClassLoader) null);
+            roots.set(0, jar.getPath("/"));
+        }
+        try {
+            Path target = roots.get(0).resolve(ServicesIndex.INDEX_PATH);
+            Files.createDirectories(target.getParent());
+            try (OutputStream output = Files.newOutputStream(target)) {
+                write(merge(roots), lengths(roots), output);
+            }
+        } finally {
+            if (jar != null) {
+                jar.close();
+            }
+        }
+    }
+
+    /**
+     * Merges the service files of the given directories.
+     *
+     * @param roots The directories that contain a {@code META-INF/services} directory
+     * @return The implementation names by service type name, sorted by service type name
+     * @throws IOException If a service file cannot be read
+     */
+    @NonNull
+    public static Map<String, Set<String>> merge(@NonNull Collection<Path> roots) throws IOException {
+        Map<String, Set<String>> services = new TreeMap<>();
+        for (Path root : roots) {
+            Path directory = root.resolve(SoftServiceLoader.META_INF_SERVICES);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                Set<String> entries = services.computeIfAbsent(file.getFileName().toString(), key -> new LinkedHashSet<>());
+                try (InputStream input = Files.newInputStream(file)) {
+                    entries.addAll(readServiceFile(input));
+                }
+            }
+        }
+        return services;
+    }
+
+    /**
+     * Resolves the sizes of the service files of the given directories, which the index records so that a service
+     * file that changed after the index was written is read instead of the index. A service file that is contained
+     * in several of the directories has no single size and is omitted.
+     *
+     * @param roots The directories that contain a {@code META-INF/services} directory
+     * @return The sizes in bytes of the service files by service type name
+     * @throws IOException If the size of a service file cannot be read
+     */
+    @NonNull
+    public static Map<String, Long> lengths(@NonNull Collection<Path> roots) throws IOException {
+        Map<String, Long> lengths = new HashMap<>();
+        Set<String> merged = new LinkedHashSet<>();
+        for (Path root : roots) {
+            Path directory = root.resolve(SoftServiceLoader.META_INF_SERVICES);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (lengths.put(name, Files.size(file)) != null) {
+                    merged.add(name);
+                }
+            }
+        }
+        lengths.keySet().removeAll(merged);
+        return lengths;
+    }
+
+    /**
+     * Writes a services index without the sizes of the service files, the services of such an index are always read
+     * from their service files.
+     *
+     * @param services The implementation names by service type name
+     * @param output   The output stream
+     * @throws IOException If the index cannot be written
+     */
+    public static void write(@NonNull Map<String, ? extends Collection<String>> services, @NonNull OutputStream output) throws IOException {
+        write(services, Collections.emptyMap(), output);
+    }
+
+    /**
+     * Writes a services index.
+     *
+     * @param services The implementation names by service type name
+     * @param lengths  The sizes in bytes of the service files by service type name
+     * @param output   The output stream
+     * @throws IOException If the index cannot be written
+     */
+    public static void write(@NonNull Map<String, ? extends Collection<String>> services,
+                             @NonNull Map<String, Long> lengths,
+                             @NonNull OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        for (Map.Entry<String, ? extends Collection<String>> entry : services.entrySet()) {
+            writer.write('[');
+            writer.write(entry.getKey());
+            writer.write(']');
+            Long length = lengths.get(entry.getKey());
+            if (length != null) {
+                writer.write(' ');
+                writer.write(String.valueOf(length));
+            }
+            writer.write('\n');
+            for (String name : entry.getValue()) {
+                writer.write(name);
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static List<String> readServiceFile(InputStream input) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int i = line.indexOf('#');
+                if (i > -1) {
+                    line = line.substring(0, i);
+                }
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    entries.add(line);
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -24,7 +24,9 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -55,6 +57,7 @@ public final class SoftServiceLoader<S> implements Iterable<ServiceDefinition<S>
     private final Map<String, ServiceDefinition<S>> loadedServices = new LinkedHashMap<>();
     private final Iterator<ServiceDefinition<S>> unloadedServices;
     private final Predicate<String> condition;
+    private List<String> names;
 
     private SoftServiceLoader(Class<S> serviceType, ClassLoader classLoader) {
         this(serviceType, classLoader, (String name) -> true);
@@ -156,6 +159,49 @@ public final class SoftServiceLoader<S> implements Iterable<ServiceDefinition<S>
         collectAll(values, null);
     }
 
+    /**
+     * Collects the class names of the service implementations without loading or instantiating any of them. The
+     * names are read from the services index of indexed artifacts. The class path is only scanned by the first
+     * invocation, the names are cached by this loader.
+     *
+     * @return The names of the service implementations in class path order
+     * @since 3.0.2
+     */
+    @NonNull
+    public List<String> collectNames() {
+        List<String> names = this.names;
+        if (names == null) {
+            names = Collections.unmodifiableList(readNames());
+            this.names = names;
+        }
+        return names;
+    }
+
+    /**
+     * Finds the service implementation with the given class name. Only the named class is loaded, the other
+     * implementations are neither loaded nor instantiated.
+     *
+     * @param name The class name of the service implementation
+     * @return The service definition if the implementation is registered for the service
+     * @since 3.0.2
+     */
+    @NonNull
+    public Optional<ServiceDefinition<S>> findByName(@NonNull String name) {
+        ServiceDefinition<S> loaded = loadedServices.get(name);
+        if (loaded != null) {
+            return Optional.of(loaded);
+        }
+        if (!collectNames().contains(name)) {
+            return Optional.empty();
+        }
+        try {
+            final Class<?> loadedClass = Class.forName(name, false, classLoader);
+            return Optional.of(newService(name, Optional.of(loadedClass)));
+        } catch (NoClassDefFoundError | ClassNotFoundException e) {
+            return Optional.of(newService(name, Optional.empty()));
+        }
+    }
+
     /**
      * @return The iterator
      */
@@ -202,51 +248,113 @@ public final class SoftServiceLoader<S> implements Iterable<ServiceDefinition<S>
         return new DefaultServiceDefinition(name, loadedClass);
     }
 
+    private List<String> readNames() {
+        String name = serviceType.getName();
+        ServicesIndex index = ServicesIndex.of(classLoader);
+        List<String> names = indexedEntries(index, name, condition);
+        try {
+            Enumeration<URL> serviceConfigs = classLoader.getResources(META_INF_SERVICES + '/' + name);
+            while (serviceConfigs.hasMoreElements()) {
+                URL url = serviceConfigs.nextElement();
+                if (index.isIndexed(url, name)) {
+                    continue;
+                }
+                try {
+                    names.addAll(readEntries(url, condition));
+                } catch (IOException | UncheckedIOException e) {
+                    // ignore, can't do anything here and can't log because class used in compiler
+                }
+            }
+        } catch (IOException e) {
+            throw new ServiceConfigurationError("Failed to load resources for service: " + name, e);
+        }
+        return names;
+    }
+
+    /**
+     * Resolves the implementation names of the indexed artifacts from the services index. The service files of the
+     * other artifacts are read with {@link #readEntries(URL, Predicate)}.
+     *
+     * @param index       The services index
+     * @param serviceName The service type name
+     * @param condition   The condition the entries have to match
+     * @return The implementation names
+     */
+    private static List<String> indexedEntries(ServicesIndex index, String serviceName, Predicate<String> condition) {
+        List<String> entries = new ArrayList<>();
+        for (String entry : index.getServiceEntries(serviceName)) {
+            if (condition.test(entry)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the implementation names of a service file.
+     *
+     * @param url       The URL of the service file
+     * @param condition The condition the entries have to match
+     * @return The implementation names
+     * @throws IOException If the service file cannot be read
+     */
+    private static List<String> readEntries(URL url, Predicate<String> condition) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                if (line.length() == 0 || line.charAt(0) == '#') {
+                    continue;
+                }
+                if (!condition.test(line)) {
+                    continue;
+                }
+                int i = line.indexOf('#');
+                if (i > -1) {
+                    line = line.substring(0, i);
+                }
+                entries.add(line);
+            }
+        }
+        return entries;
+    }
+
     /**
      * A service loader iterator implementation.
      */
     private final class ServiceLoaderIterator implements Iterator<ServiceDefinition<S>> {
+        private ServicesIndex index = null;
         private Enumeration<URL> serviceConfigs = null;
         private Iterator<String> unprocessed = null;
 
         @Override
         public boolean hasNext() {
-
-            if (serviceConfigs == null) {
-                String name = serviceType.getName();
+            String name = serviceType.getName();
+            if (index == null) {
+                // the indexed artifacts are resolved first, the class path is only scanned once they are exhausted
+                index = ServicesIndex.of(classLoader);
+                unprocessed = indexedEntries(index, name, condition).iterator();
+            }
+            if (serviceConfigs == null && !unprocessed.hasNext()) {
                 try {
                     serviceConfigs = classLoader.getResources(META_INF_SERVICES + '/' + name);
                 } catch (IOException e) {
                     throw new ServiceConfigurationError("Failed to load resources for service: " + name, e);
                 }
             }
-            while (unprocessed == null || !unprocessed.hasNext()) {
+            while (!unprocessed.hasNext()) {
                 if (!serviceConfigs.hasMoreElements()) {
                     return false;
                 }
                 URL url = serviceConfigs.nextElement();
+                if (index.isIndexed(url, name)) {
+                    continue;
+                }
                 try {
-                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
-                        List<String> lines = new LinkedList<>();
-                        while (true) {
-                            String line = reader.readLine();
-                            if (line == null) {
-                                break;
-                            }
-                            if (line.length() == 0 || line.charAt(0) == '#') {
-                                continue;
-                            }
-                            if (!condition.test(line)) {
-                                continue;
-                            }
-                            int i = line.indexOf('#');
-                            if (i > -1) {
-                                line = line.substring(0, i);
-                            }
-                            lines.add(line);
-                        }
-                        unprocessed = lines.iterator();
-                    }
+                    unprocessed = readEntries(url, condition).iterator();
                 } catch (IOException | UncheckedIOException e) {
                     // ignore, can't do anything here and can't log because class used in compiler
                 }
@@ -292,10 +400,19 @@ public final class SoftServiceLoader<S> implements Iterable<ServiceDefinition<S>
 
         @Override
         protected void compute() {
+            ServicesIndex index = ServicesIndex.of(classLoader);
+            for (String name : indexedEntries(index, serviceName, lineCondition)) {
+                ServiceInstanceLoader<S> task = new ServiceInstanceLoader<>(name, classLoader, predicate);
+                tasks.add(task);
+                task.fork();
+            }
             try {
                 Enumeration<URL> serviceConfigs = classLoader.getResources(META_INF_SERVICES + '/' + serviceName);
                 while (serviceConfigs.hasMoreElements()) {
                     URL url = serviceConfigs.nextElement();
+                    if (index.isIndexed(url, serviceName)) {
+                        continue;
+                    }
                     UrlServicesLoader<S> task = new UrlServicesLoader<>(url, lineCondition, classLoader, predicate);
                     tasks.add(task);
                     task.fork();
@@ -336,26 +453,10 @@ public final class SoftServiceLoader<S> implements Iterable<ServiceDefinition<S>
         @Override
         protected void compute() {
             try {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
-                    while (true) {
-                        String line = reader.readLine();
-                        if (line == null) {
-                            break;
-                        }
-                        if (line.length() == 0 || line.charAt(0) == '#') {
-                            continue;
-                        }
-                        if (!lineCondition.test(line)) {
-                            continue;
-                        }
-                        int i = line.indexOf('#');
-                        if (i > -1) {
-                            line = line.substring(0, i);
-                        }
-                        ServiceInstanceLoader<S> task = new ServiceInstanceLoader<>(line, classLoader, predicate);
-                        tasks.add(task);
-                        task.fork();
-                    }
+                for (String name : readEntries(url, lineCondition)) {
+                    ServiceInstanceLoader<S> task = new ServiceInstanceLoader<>(name, classLoader, predicate);
+                    tasks.add(task);
+                    task.fork();
                 }
             } catch (IOException | UncheckedIOException e) {
                 // ignore, can't do anything here and can't log because class used in compiler
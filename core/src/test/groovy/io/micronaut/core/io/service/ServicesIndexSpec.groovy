@@ -0,0 +1,128 @@
+package io.micronaut.core.io.service
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+class ServicesIndexSpec extends Specification {
+
+    private static final String SERVICE = ServiceDefinition.name
+
+    @TempDir
+    Path tempDir
+
+    void "test the writer merges the service files of an artifact"() {
+        given:
+        Path classes = tempDir.resolve("classes")
+        Path resources = tempDir.resolve("resources")
+        writeServiceFile(classes, SERVICE, "# comment\ncom.example.A\ncom.example.B # trailing\n")
+        writeServiceFile(resources, SERVICE, "com.example.B\ncom.example.C\n")
+        writeServiceFile(resources, "com.example.Other", "com.example.D\n")
+
+        when:
+        ServicesIndexWriter.main(classes.toString(), resources.toString())
+        Path index = classes.resolve(ServicesIndex.INDEX_PATH)
+
+        then:
+        new String(Files.readAllBytes(index), StandardCharsets.UTF_8) == "[com.example.Other] 14\ncom.example.D\n[$SERVICE]\ncom.example.A\ncom.example.B\ncom.example.C\n"
+        ServicesIndex.read(Files.newInputStream(index)).collectEntries { name, service -> [name, [service.length, service.entries]] } == [
+                'com.example.Other': [14L, ['com.example.D']],
+                (SERVICE)          : [-1L, ['com.example.A', 'com.example.B', 'com.example.C']]
+        ]
+    }
+
+    void "test the services index is preferred over the service files of an indexed artifact"() {
+        given:
+        Path indexed = tempDir.resolve("indexed")
+        Path plain = tempDir.resolve("plain")
+        writeServiceFile(indexed, SERVICE, "com.example.A\n")
+        ServicesIndexWriter.main(indexed.toString())
+        // the index is used instead of the file, which is not read while it has the same size
+        writeServiceFile(indexed, SERVICE, "com.example.Z\n")
+        writeServiceFile(plain, SERVICE, "com.example.B\n")
+        URLClassLoader classLoader = new URLClassLoader([indexed.toUri().toURL(), plain.toUri().toURL()] as URL[], getClass().classLoader)
+
+        when:
+        SoftServiceLoader<ServiceDefinition> loader = SoftServiceLoader.load(ServiceDefinition, classLoader)
+
+        then:
+        loader.collectNames() == ['com.example.A', 'com.example.B']
+        loader.collect { it.name } == ['com.example.A', 'com.example.B']
+        SoftServiceLoader.load(ServiceDefinition, classLoader, { it != 'com.example.A' }).collectNames() == ['com.example.B']
+
+        cleanup:
+        classLoader.close()
+    }
+
+    void "test the service files are read for the services an index does not list or that changed"() {
+        given:
+        Path unlisted = tempDir.resolve("unlisted")
+        Path changed = tempDir.resolve("changed")
+        Files.createDirectories(unlisted)
+        ServicesIndexWriter.main(unlisted.toString())
+        writeServiceFile(unlisted, SERVICE, "com.example.A\n")
+        writeServiceFile(changed, SERVICE, "com.example.B\n")
+        ServicesIndexWriter.main(changed.toString())
+        writeServiceFile(changed, SERVICE, "com.example.B\ncom.example.C\n")
+        URLClassLoader classLoader = new URLClassLoader([unlisted.toUri().toURL(), changed.toUri().toURL()] as URL[], getClass().classLoader)
+
+        expect:
+        Files.exists(unlisted.resolve(ServicesIndex.INDEX_PATH))
+        SoftServiceLoader.load(ServiceDefinition, classLoader).collectNames() == ['com.example.A', 'com.example.B', 'com.example.C']
+
+        cleanup:
+        classLoader.close()
+    }
+
+    void "test the index of a merged JAR is replaced with an index of its service files"() {
+        given:
+        Path jar = tempDir.resolve("merged.jar")
+        new JarOutputStream(Files.newOutputStream(jar)).withCloseable { output ->
+            output.putNextEntry(new JarEntry("META-INF/services/$SERVICE"))
+            output.write("com.example.A\ncom.example.B\n".getBytes(StandardCharsets.UTF_8))
+            // the index of one of the merged artifacts
+            output.putNextEntry(new JarEntry(ServicesIndex.INDEX_PATH))
+            output.write("[$SERVICE] 14\ncom.example.A\n".getBytes(StandardCharsets.UTF_8))
+        }
+
+        when:
+        ServicesIndexWriter.main(jar.toString())
+        URLClassLoader classLoader = new URLClassLoader([jar.toUri().toURL()] as URL[], getClass().classLoader)
+
+        then:
+        ServicesIndex.read(classLoader.getResourceAsStream(ServicesIndex.INDEX_PATH))[SERVICE].length == 28L
+        SoftServiceLoader.load(ServiceDefinition, classLoader).collectNames() == ['com.example.A', 'com.example.B']
+
+        cleanup:
+        classLoader?.close()
+    }
+
+    void "test a service can be found by name without loading the others"() {
+        given:
+        Path root = tempDir.resolve("root")
+        writeServiceFile(root, SERVICE, "com.example.Missing\n${DefaultServiceDefinition.name}\n")
+        ServicesIndexWriter.main(root.toString())
+        URLClassLoader classLoader = new URLClassLoader([root.toUri().toURL()] as URL[], getClass().classLoader)
+        SoftServiceLoader<ServiceDefinition> loader = SoftServiceLoader.load(ServiceDefinition, classLoader)
+
+        expect:
+        loader.collectNames().is(loader.collectNames())
+        loader.findByName(DefaultServiceDefinition.name).get().present
+        !loader.findByName("com.example.Missing").get().present
+        !loader.findByName("com.example.Unknown").isPresent()
+
+        cleanup:
+        classLoader.close()
+    }
+
+    private static void writeServiceFile(Path root, String service, String content) {
+        Path file = root.resolve(SoftServiceLoader.META_INF_SERVICES).resolve(service)
+        Files.createDirectories(file.parent)
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8))
+    }
+}
@@ -74,6 +74,17 @@ public class DefaultHttpClientConfiguration extends HttpClientConfiguration {
         }
     }
 
+    /**
+     * Uses the default response cache configuration.
+     *
+     * @param responseCacheConfiguration The response cache configuration
+     * @since 3.0.2
+     */
+    @Inject
+    public void setDefaultResponseCacheConfiguration(@Nullable DefaultResponseCacheConfiguration responseCacheConfiguration) {
+        super.setResponseCacheConfiguration(responseCacheConfiguration);
+    }
+
     /**
      * The default connection pool configuration.
      */
@@ -82,4 +93,13 @@ public class DefaultHttpClientConfiguration extends HttpClientConfiguration {
     @Primary
     public static class DefaultConnectionPoolConfiguration extends ConnectionPoolConfiguration {
     }
+
+    /**
+     * The default response cache configuration.
+     */
+    @ConfigurationProperties(ResponseCacheConfiguration.PREFIX)
+    @BootstrapContextCompatible
+    @Primary
+    public static class DefaultResponseCacheConfiguration extends ResponseCacheConfiguration {
+    }
 }
@@ -20,6 +20,7 @@ import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.format.ReadableBytes;
 import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.core.util.Toggleable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpVersion;
 import io.micronaut.http.ssl.ClientSslConfiguration;
 import io.micronaut.http.ssl.SslConfiguration;
@@ -35,7 +36,9 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -97,6 +100,23 @@ public abstract class HttpClientConfiguration {
     @SuppressWarnings("WeakerAccess")
     public static final boolean DEFAULT_EXCEPTION_ON_ERROR_STATUS = true;
 
+    /**
+     * The default value for coalescing identical concurrent requests.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_COALESCE_REQUESTS = false;
+
+    /**
+     * The request headers that are part of the key of coalesced requests by default.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final List<String> DEFAULT_COALESCING_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            HttpHeaders.ACCEPT,
+            HttpHeaders.ACCEPT_LANGUAGE,
+            HttpHeaders.AUTHORIZATION,
+            HttpHeaders.COOKIE
+    ));
+
     private Map<String, Object> channelOptions = Collections.emptyMap();
 
     private Integer numOfThreads = null;
@@ -138,6 +158,10 @@ public abstract class HttpClientConfiguration {
 
     private boolean exceptionOnErrorStatus = DEFAULT_EXCEPTION_ON_ERROR_STATUS;
 
+    private boolean coalesceRequests = DEFAULT_COALESCE_REQUESTS;
+
+    private List<String> coalescingHeaders = DEFAULT_COALESCING_HEADERS;
+
     private SslConfiguration sslConfiguration = new ClientSslConfiguration();
 
     private String loggerName;
@@ -148,6 +172,8 @@ public abstract class HttpClientConfiguration {
 
     private LogLevel logLevel;
 
+    private ResponseCacheConfiguration responseCacheConfiguration = new ResponseCacheConfiguration();
+
     /**
      * Default constructor.
      */
@@ -194,6 +220,9 @@ public abstract class HttpClientConfiguration {
             this.sslConfiguration = copy.sslConfiguration;
             this.threadFactory = copy.threadFactory;
             this.httpVersion = copy.httpVersion;
+            this.responseCacheConfiguration = copy.responseCacheConfiguration;
+            this.coalesceRequests = copy.coalesceRequests;
+            this.coalescingHeaders = copy.coalescingHeaders;
         }
     }
 
@@ -253,6 +282,28 @@ public abstract class HttpClientConfiguration {
      */
     public abstract ConnectionPoolConfiguration getConnectionPoolConfiguration();
 
+    /**
+     * Obtains the response cache configuration.
+     *
+     * @return The response cache configuration
+     * @since 3.0.2
+     */
+    public ResponseCacheConfiguration getResponseCacheConfiguration() {
+        return responseCacheConfiguration;
+    }
+
+    /**
+     * Sets the response cache configuration.
+     *
+     * @param responseCacheConfiguration The response cache configuration
+     * @since 3.0.2
+     */
+    protected void setResponseCacheConfiguration(@Nullable ResponseCacheConfiguration responseCacheConfiguration) {
+        if (responseCacheConfiguration != null) {
+            this.responseCacheConfiguration = responseCacheConfiguration;
+        }
+    }
+
     /**
      * @return The {@link SslConfiguration} for the client
      */
@@ -292,6 +343,47 @@ public abstract class HttpClientConfiguration {
         this.exceptionOnErrorStatus = exceptionOnErrorStatus;
     }
 
+    /**
+     * @return Whether identical concurrent {@code GET} requests share a single request to the server
+     * @since 3.0.2
+     */
+    public boolean isCoalesceRequests() {
+        return coalesceRequests;
+    }
+
+    /**
+     * Sets whether identical concurrent {@code GET} requests share a single request to the server. While a request
+     * is in flight, requests with the same URI and the same values of the {@link #getCoalescingHeaders() coalescing
+     * headers} wait for its response instead of being sent. Default value ({@value io.micronaut.http.client.HttpClientConfiguration#DEFAULT_COALESCE_REQUESTS}).
+     *
+     * @param coalesceRequests Whether to coalesce requests
+     * @since 3.0.2
+     */
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
+    /**
+     * @return The request headers whose values must match for requests to be coalesced
+     * @since 3.0.2
+     */
+    public List<String> getCoalescingHeaders() {
+        return coalescingHeaders;
+    }
+
+    /**
+     * Sets the request headers whose values must match for requests to be coalesced. Any header that changes the
+     * response, in particular credentials, must be listed. Default value (Accept, Accept-Language, Authorization, Cookie).
+     *
+     * @param coalescingHeaders The header names
+     * @since 3.0.2
+     */
+    public void setCoalescingHeaders(@Nullable List<String> coalescingHeaders) {
+        if (coalescingHeaders != null) {
+            this.coalescingHeaders = coalescingHeaders;
+        }
+    }
+
     /**
      * @return The client-specific logger name if configured
      */
@@ -657,8 +749,24 @@ public abstract class HttpClientConfiguration {
         @SuppressWarnings("WeakerAccess")
         public static final int DEFAULT_MAXCONNECTIONS = -1;
 
+        /**
+         * The default max HTTP/2 connections value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAXHTTP2CONNECTIONS = 4;
+
+        /**
+         * The default health check interval in seconds.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_HEALTHCHECKINTERVAL_SECONDS = 30;
+
         private int maxConnections = DEFAULT_MAXCONNECTIONS;
 
+        private int maxHttp2Connections = DEFAULT_MAXHTTP2CONNECTIONS;
+
+        private Duration healthCheckInterval = Duration.ofSeconds(DEFAULT_HEALTHCHECKINTERVAL_SECONDS);
+
         private int maxPendingAcquires = Integer.MAX_VALUE;
 
         private Duration acquireTimeout;
@@ -702,6 +810,47 @@ public abstract class HttpClientConfiguration {
             this.maxConnections = maxConnections;
         }
 
+        /**
+         * The maximum number of HTTP/2 connections per host. Requests are multiplexed as streams over these
+         * connections and a new connection is only opened once the existing connections reach the maximum number of
+         * concurrent streams of the server. Defaults to ({@value io.micronaut.http.client.HttpClientConfiguration.ConnectionPoolConfiguration#DEFAULT_MAXHTTP2CONNECTIONS}).
+         *
+         * @return The max HTTP/2 connections
+         */
+        public int getMaxHttp2Connections() {
+            return maxHttp2Connections;
+        }
+
+        /**
+         * Sets the maximum number of HTTP/2 connections per host. Default value ({@value io.micronaut.http.client.HttpClientConfiguration.ConnectionPoolConfiguration#DEFAULT_MAXHTTP2CONNECTIONS}).
+         *
+         * @param maxHttp2Connections The count
+         */
+        public void setMaxHttp2Connections(int maxHttp2Connections) {
+            this.maxHttp2Connections = maxHttp2Connections;
+        }
+
+        /**
+         * The interval in which idle HTTP/2 connections are checked with a ping. Connections that did not acknowledge
+         * the previous ping are closed. Defaults to 30 seconds.
+         *
+         * @return The health check interval
+         */
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        /**
+         * Sets the interval in which idle HTTP/2 connections are checked with a ping. Defaults to 30 seconds.
+         *
+         * @param healthCheckInterval The health check interval
+         */
+        public void setHealthCheckInterval(@Nullable Duration healthCheckInterval) {
+            if (healthCheckInterval != null) {
+                this.healthCheckInterval = healthCheckInterval;
+            }
+        }
+
         /**
          * Maximum number of futures awaiting connection acquisition. Defaults to no maximum.
          *
@@ -738,4 +887,96 @@ public abstract class HttpClientConfiguration {
             this.acquireTimeout = acquireTimeout;
         }
     }
+
+    /**
+     * Configuration for the private HTTP response cache of the client, which stores the responses to {@code GET}
+     * requests according to their {@code Cache-Control} and {@code Expires} headers.
+     *
+     * @since 3.0.2
+     */
+    public static class ResponseCacheConfiguration implements Toggleable {
+        /**
+         * The prefix to use for configuration.
+         */
+        public static final String PREFIX = "cache";
+
+        /**
+         * The default enable value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
+
+        /**
+         * The default maximum size of the cache in bytes.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAXSIZE = 1024 * 1024 * 10; // 10MiB
+
+        /**
+         * The default maximum size of a single response in bytes.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAXENTRYSIZE = 1024 * 1024; // 1MiB
+
+        private boolean enabled = DEFAULT_ENABLED;
+
+        private long maxSize = DEFAULT_MAXSIZE;
+
+        private int maxEntrySize = DEFAULT_MAXENTRYSIZE;
+
+        /**
+         * Whether the response cache is enabled.
+         *
+         * @return True if the response cache is enabled
+         */
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether the response cache is enabled. Default value ({@value io.micronaut.http.client.HttpClientConfiguration.ResponseCacheConfiguration#DEFAULT_ENABLED}).
+         *
+         * @param enabled True if it is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * The maximum size of the cached responses in bytes, the least recently used responses are evicted first.
+         *
+         * @return The maximum size
+         */
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * Sets the maximum size of the cached responses in bytes. Default value ({@value io.micronaut.http.client.HttpClientConfiguration.ResponseCacheConfiguration#DEFAULT_MAXSIZE} => 10MB).
+         *
+         * @param maxSize The maximum size
+         */
+        public void setMaxSize(@ReadableBytes long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * The maximum size of a single response in bytes, larger responses are not cached.
+         *
+         * @return The maximum entry size
+         */
+        public int getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        /**
+         * Sets the maximum size of a single response in bytes. Default value ({@value io.micronaut.http.client.HttpClientConfiguration.ResponseCacheConfiguration#DEFAULT_MAXENTRYSIZE} => 1MB).
+         *
+         * @param maxEntrySize The maximum entry size
+         */
+        public void setMaxEntrySize(@ReadableBytes int maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+    }
 }
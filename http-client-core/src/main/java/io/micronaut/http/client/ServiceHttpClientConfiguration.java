@@ -20,6 +20,9 @@ import io.micronaut.context.annotation.EachProperty;
 import io.micronaut.context.annotation.Parameter;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.Toggleable;
+import io.micronaut.http.client.loadbalance.AbstractLoadAwareLoadBalancer;
+import io.micronaut.http.client.loadbalance.LoadBalancingStrategy;
 import io.micronaut.http.context.ClientContextPathProvider;
 import io.micronaut.http.ssl.SslConfiguration;
 import io.micronaut.runtime.ApplicationConfiguration;
@@ -65,13 +68,22 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
     @SuppressWarnings("WeakerAccess")
     public static final long DEFAULT_HEALTHCHECKINTERVAL_SECONDS = 30;
 
+    /**
+     * The default load balancing strategy.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final LoadBalancingStrategy DEFAULT_LOADBALANCER = LoadBalancingStrategy.ROUND_ROBIN;
+
     private final String serviceId;
     private final ServiceConnectionPoolConfiguration connectionPoolConfiguration;
+    private final OutlierDetectionConfiguration outlierDetection;
     private List<URI> urls = Collections.emptyList();
     private String healthCheckUri = DEFAULT_HEALTHCHECKURI;
     private boolean healthCheck = DEFAULT_HEALTHCHECK;
     private Duration healthCheckInterval = Duration.ofSeconds(DEFAULT_HEALTHCHECKINTERVAL_SECONDS);
     private String path;
+    private LoadBalancingStrategy loadBalancer = DEFAULT_LOADBALANCER;
+    private Duration loadBalancerDecay = AbstractLoadAwareLoadBalancer.DEFAULT_DECAY;
 
     /**
      * Creates a new client configuration for the given service ID.
@@ -96,6 +108,7 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
         } else {
             this.connectionPoolConfiguration = new ServiceConnectionPoolConfiguration();
         }
+        this.outlierDetection = new OutlierDetectionConfiguration();
     }
 
     /**
@@ -106,11 +119,30 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
      * @param sslConfiguration The SSL configuration
      * @param defaultHttpClientConfiguration The default HTTP client configuration
      */
+    public ServiceHttpClientConfiguration(
+            @Parameter String serviceId,
+            @Nullable ServiceConnectionPoolConfiguration connectionPoolConfiguration,
+            @Nullable ServiceSslClientConfiguration sslConfiguration,
+            HttpClientConfiguration defaultHttpClientConfiguration) {
+        this(serviceId, connectionPoolConfiguration, sslConfiguration, null, defaultHttpClientConfiguration);
+    }
+
+    /**
+     * Creates a new client configuration for the given service ID.
+     *
+     * @param serviceId The service id
+     * @param connectionPoolConfiguration The connection pool configuration
+     * @param sslConfiguration The SSL configuration
+     * @param outlierDetection The outlier detection configuration
+     * @param defaultHttpClientConfiguration The default HTTP client configuration
+     * @since 3.0.2
+     */
     @Inject
     public ServiceHttpClientConfiguration(
             @Parameter String serviceId,
             @Nullable ServiceConnectionPoolConfiguration connectionPoolConfiguration,
             @Nullable ServiceSslClientConfiguration sslConfiguration,
+            @Nullable OutlierDetectionConfiguration outlierDetection,
             HttpClientConfiguration defaultHttpClientConfiguration) {
         super(defaultHttpClientConfiguration);
         this.serviceId = serviceId;
@@ -122,6 +154,7 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
         } else {
             this.connectionPoolConfiguration = new ServiceConnectionPoolConfiguration();
         }
+        this.outlierDetection = outlierDetection != null ? outlierDetection : new OutlierDetectionConfiguration();
     }
 
     /**
@@ -242,11 +275,75 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
         }
     }
 
+    /**
+     * The strategy used to select between the URLs of the service.
+     *
+     * @return The load balancing strategy
+     */
+    public LoadBalancingStrategy getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * Sets the strategy used to select between the URLs of the service. The {@code least-outstanding} and
+     * {@code power-of-two-choices} strategies take the requests in flight and the latency of each URL into account.
+     * Default value (round-robin).
+     *
+     * @param loadBalancer The load balancing strategy
+     */
+    public void setLoadBalancer(LoadBalancingStrategy loadBalancer) {
+        if (loadBalancer != null) {
+            this.loadBalancer = loadBalancer;
+        }
+    }
+
+    /**
+     * The time after which a latency observation has decayed to 1/e of its weight in the latency average used by the
+     * load aware load balancing strategies.
+     *
+     * @return The decay
+     */
+    public Duration getLoadBalancerDecay() {
+        return loadBalancerDecay;
+    }
+
+    /**
+     * Sets the time after which a latency observation has decayed to 1/e of its weight in the latency average used by
+     * the load aware load balancing strategies. Default value (10 seconds).
+     *
+     * @param loadBalancerDecay The decay
+     */
+    public void setLoadBalancerDecay(Duration loadBalancerDecay) {
+        if (loadBalancerDecay != null) {
+            this.loadBalancerDecay = loadBalancerDecay;
+        }
+    }
+
     @Override
     public ConnectionPoolConfiguration getConnectionPoolConfiguration() {
         return connectionPoolConfiguration;
     }
 
+    /**
+     * Uses the response cache configuration of the service.
+     *
+     * @param responseCacheConfiguration The response cache configuration
+     * @since 3.0.2
+     */
+    @Inject
+    public void setServiceResponseCacheConfiguration(@Nullable ServiceResponseCacheConfiguration responseCacheConfiguration) {
+        super.setResponseCacheConfiguration(responseCacheConfiguration);
+    }
+
+    /**
+     * The configuration of the passive outlier detection.
+     *
+     * @return The outlier detection configuration
+     */
+    public OutlierDetectionConfiguration getOutlierDetection() {
+        return outlierDetection;
+    }
+
     /**
      * The default connection pool configuration.
      */
@@ -254,6 +351,234 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
     public static class ServiceConnectionPoolConfiguration extends ConnectionPoolConfiguration {
     }
 
+    /**
+     * The response cache configuration of the service.
+     */
+    @ConfigurationProperties(ResponseCacheConfiguration.PREFIX)
+    public static class ServiceResponseCacheConfiguration extends ResponseCacheConfiguration {
+    }
+
+    /**
+     * The configuration of the passive outlier detection that ejects instances of the service from load balancing
+     * after repeated failures, see {@link io.micronaut.http.client.loadbalance.OutlierDetector}.
+     */
+    @ConfigurationProperties(OutlierDetectionConfiguration.PREFIX)
+    public static class OutlierDetectionConfiguration implements Toggleable {
+
+        /**
+         * The prefix to use for configuration.
+         */
+        public static final String PREFIX = "outlier-detection";
+
+        /**
+         * The default enable value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
+
+        /**
+         * The default number of consecutive failures.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_CONSECUTIVEFAILURES = 5;
+
+        /**
+         * The default failure ratio.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final double DEFAULT_FAILURERATIO = 0.5;
+
+        /**
+         * The default minimum number of requests for the failure ratio.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MINIMUMREQUESTS = 10;
+
+        /**
+         * The default interval in seconds.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_INTERVAL_SECONDS = 10;
+
+        /**
+         * The default base ejection time in seconds.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_BASEEJECTIONTIME_SECONDS = 30;
+
+        /**
+         * The default maximum ejection time in seconds.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAXEJECTIONTIME_SECONDS = 300;
+
+        /**
+         * The default maximum ejection percentage.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAXEJECTIONPERCENT = 50;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private int consecutiveFailures = DEFAULT_CONSECUTIVEFAILURES;
+        private double failureRatio = DEFAULT_FAILURERATIO;
+        private int minimumRequests = DEFAULT_MINIMUMREQUESTS;
+        private Duration interval = Duration.ofSeconds(DEFAULT_INTERVAL_SECONDS);
+        private Duration baseEjectionTime = Duration.ofSeconds(DEFAULT_BASEEJECTIONTIME_SECONDS);
+        private Duration maxEjectionTime = Duration.ofSeconds(DEFAULT_MAXEJECTIONTIME_SECONDS);
+        private int maxEjectionPercent = DEFAULT_MAXEJECTIONPERCENT;
+
+        /**
+         * Whether outlier detection is enabled.
+         *
+         * @return True if it is enabled
+         */
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether outlier detection is enabled. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled True if it is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * The number of consecutive failures after which an instance is ejected.
+         *
+         * @return The number of consecutive failures
+         */
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        /**
+         * Sets the number of consecutive failures after which an instance is ejected. Default value ({@value #DEFAULT_CONSECUTIVEFAILURES}).
+         *
+         * @param consecutiveFailures The number of consecutive failures
+         */
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = Math.max(1, consecutiveFailures);
+        }
+
+        /**
+         * The ratio of failed requests within the interval after which an instance is ejected.
+         *
+         * @return The failure ratio
+         */
+        public double getFailureRatio() {
+            return failureRatio;
+        }
+
+        /**
+         * Sets the ratio of failed requests within the interval after which an instance is ejected. Default value ({@value #DEFAULT_FAILURERATIO}).
+         *
+         * @param failureRatio The failure ratio
+         */
+        public void setFailureRatio(double failureRatio) {
+            this.failureRatio = failureRatio;
+        }
+
+        /**
+         * The minimum number of requests within the interval before the failure ratio is evaluated.
+         *
+         * @return The minimum number of requests
+         */
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        /**
+         * Sets the minimum number of requests within the interval before the failure ratio is evaluated. Default value ({@value #DEFAULT_MINIMUMREQUESTS}).
+         *
+         * @param minimumRequests The minimum number of requests
+         */
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        /**
+         * The interval over which the failure ratio is computed.
+         *
+         * @return The interval
+         */
+        public Duration getInterval() {
+            return interval;
+        }
+
+        /**
+         * Sets the interval over which the failure ratio is computed. Default value ({@value #DEFAULT_INTERVAL_SECONDS} seconds).
+         *
+         * @param interval The interval
+         */
+        public void setInterval(Duration interval) {
+            if (interval != null) {
+                this.interval = interval;
+            }
+        }
+
+        /**
+         * The time an instance is ejected for the first time, doubled on every further ejection.
+         *
+         * @return The base ejection time
+         */
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        /**
+         * Sets the time an instance is ejected for the first time. Default value ({@value #DEFAULT_BASEEJECTIONTIME_SECONDS} seconds).
+         *
+         * @param baseEjectionTime The base ejection time
+         */
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            if (baseEjectionTime != null) {
+                this.baseEjectionTime = baseEjectionTime;
+            }
+        }
+
+        /**
+         * The maximum time an instance is ejected.
+         *
+         * @return The maximum ejection time
+         */
+        public Duration getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        /**
+         * Sets the maximum time an instance is ejected. Default value ({@value #DEFAULT_MAXEJECTIONTIME_SECONDS} seconds).
+         *
+         * @param maxEjectionTime The maximum ejection time
+         */
+        public void setMaxEjectionTime(Duration maxEjectionTime) {
+            if (maxEjectionTime != null) {
+                this.maxEjectionTime = maxEjectionTime;
+            }
+        }
+
+        /**
+         * The maximum percentage of the instances that can be ejected at the same time.
+         *
+         * @return The maximum ejection percentage
+         */
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        /**
+         * Sets the maximum percentage of the instances that can be ejected at the same time. Default value ({@value #DEFAULT_MAXEJECTIONPERCENT}).
+         *
+         * @param maxEjectionPercent The maximum ejection percentage
+         */
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = Math.max(0, Math.min(100, maxEjectionPercent));
+        }
+    }
+
     /**
      * The default connection pool configuration.
      */
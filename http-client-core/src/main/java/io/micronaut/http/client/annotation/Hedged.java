@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>Enables request hedging for a declarative {@link Client}. When the response to a request has not been received
+ * after the hedging delay a second request is sent, which the load balancer usually routes to another instance of
+ * the service. The first response received is used and the other request is cancelled.</p>
+ *
+ * <p>When declared on the client interface only idempotent methods ({@code GET}, {@code HEAD} and {@code OPTIONS})
+ * are hedged. Declaring the annotation on a method enables hedging for that method whatever the HTTP method is.
+ * Only methods with a single result are hedged, streaming methods are not. Requests are only hedged if they have no
+ * body or the body is a simple value, such as a string, number or byte array, that can be sent twice.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Hedged {
+
+    /**
+     * The delay after which a second request is sent. If not specified the delay is the {@link #percentile()} of the
+     * latency observed for the method, and no request is hedged until enough latencies have been observed.
+     *
+     * @return The delay, for example {@code 50ms}
+     */
+    String delay() default "";
+
+    /**
+     * @return The percentile of the observed latency used as the delay when no delay is specified
+     */
+    double percentile() default 95;
+
+    /**
+     * The maximum percentage of requests that may be hedged, so that hedging does not amplify the load of a service
+     * that is slow for every request.
+     *
+     * @return The percentage
+     */
+    double budget() default 10;
+}
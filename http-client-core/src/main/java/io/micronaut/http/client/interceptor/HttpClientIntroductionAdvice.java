@@ -57,24 +57,31 @@ import io.micronaut.http.client.ReactiveClientResultTransformer;
 import io.micronaut.http.client.HttpClientRegistry;
 import io.micronaut.http.client.StreamingHttpClient;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.annotation.Hedged;
 import io.micronaut.http.client.bind.ClientArgumentRequestBinder;
 import io.micronaut.http.client.bind.ClientRequestUriContext;
 import io.micronaut.http.client.bind.HttpClientBinderRegistry;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.http.client.sse.SseClient;
+import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.sse.Event;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.http.uri.UriMatchTemplate;
+import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.jackson.codec.JsonMediaTypeCodec;
 import jakarta.inject.Singleton;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.Closeable;
 import java.lang.annotation.Annotation;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -86,6 +93,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -114,6 +122,7 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
     private final HttpClientBinderRegistry binderRegistry;
     private final JsonMediaTypeCodec jsonMediaTypeCodec;
     private final HttpClientRegistry<?> clientFactory;
+    private final Map<ExecutableMethod<?, ?>, Optional<RequestHedger>> hedgers = new ConcurrentHashMap<>();
 
     /**
      * Constructor for advice class to setup things like Headers, Cookies, Parameters for Clients.
@@ -311,6 +320,7 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
             }
 
             ReturnType<?> returnType = context.getReturnType();
+            RequestHedger hedger = isReplayable(request) ? findHedger(context, httpMethod) : null;
 
             InterceptedMethod interceptedMethod = InterceptedMethod.of(context);
             try {
@@ -326,6 +336,8 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
                         Publisher<?> publisher;
                         if (!isSingle && httpClient instanceof StreamingHttpClient) {
                             publisher = httpClientResponseStreamingPublisher((StreamingHttpClient) httpClient, acceptTypes, request, valueType);
+                        } else if (hedger != null) {
+                            publisher = hedgedResponsePublisher(hedger, httpClient, request, returnType, errorType, valueType);
                         } else {
                             publisher = httpClientResponsePublisher(httpClient, request, returnType, errorType, valueType);
                         }
@@ -335,7 +347,9 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
                         }
                         return finalPublisher;
                     case COMPLETION_STAGE:
-                        Publisher<?> csPublisher = httpClientResponsePublisher(httpClient, request, returnType, errorType, valueType);
+                        Publisher<?> csPublisher = hedger != null ?
+                                hedgedResponsePublisher(hedger, httpClient, request, returnType, errorType, valueType) :
+                                httpClientResponsePublisher(httpClient, request, returnType, errorType, valueType);
                         CompletableFuture<Object> future = new CompletableFuture<>();
                         csPublisher.subscribe(new CompletionAwareSubscriber<Object>() {
                             AtomicReference<Object> reference = new AtomicReference<>();
@@ -381,7 +395,9 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
                         return interceptedMethod.handleResult(future);
                     case SYNCHRONOUS:
                         Class<?> javaReturnType = returnType.getType();
-                        BlockingHttpClient blockingHttpClient = httpClient.toBlocking();
+                        BlockingHttpClient blockingHttpClient = hedger != null ?
+                                hedgedBlockingClient(hedger, httpClient) :
+                                httpClient.toBlocking();
 
                         if (void.class == javaReturnType || httpMethod == HttpMethod.HEAD) {
                             request.getHeaders().remove(HttpHeaders.ACCEPT);
@@ -427,6 +443,109 @@ public class HttpClientIntroductionAdvice implements MethodInterceptor<Object, O
         }
     }
 
+    private Publisher hedgedResponsePublisher(RequestHedger hedger,
+                                              HttpClient httpClient,
+                                              MutableHttpRequest<?> request,
+                                              ReturnType<?> returnType,
+                                              Argument<?> errorType,
+                                              Argument<?> reactiveValueArgument) {
+        return Flux.defer(() -> {
+            MutableHttpRequest<?> hedgeRequest = copyRequest(request);
+            return hedger.hedge(
+                    () -> httpClientResponsePublisher(httpClient, request, returnType, errorType, reactiveValueArgument),
+                    () -> httpClientResponsePublisher(httpClient, hedgeRequest, returnType, errorType, reactiveValueArgument)
+            );
+        });
+    }
+
+    private BlockingHttpClient hedgedBlockingClient(RequestHedger hedger, HttpClient httpClient) {
+        BlockingHttpClient blockingHttpClient = httpClient.toBlocking();
+        return new BlockingHttpClient() {
+            @Override
+            public <I, O, E> HttpResponse<O> exchange(HttpRequest<I> req, Argument<O> bodyType, Argument<E> errorType) {
+                if (!(req instanceof MutableHttpRequest)) {
+                    return blockingHttpClient.exchange(req, bodyType, errorType);
+                }
+                MutableHttpRequest<?> hedgeRequest = copyRequest((MutableHttpRequest<?>) req);
+                HttpRequest<Object> parentRequest = ServerRequestContext.currentRequest().orElse(null);
+                // both exchanges go through the blocking client, which releases the response whichever wins
+                return hedger.<HttpResponse<O>>hedge(
+                        () -> blockingExchange(blockingHttpClient, parentRequest, req, bodyType, errorType),
+                        () -> blockingExchange(blockingHttpClient, parentRequest, hedgeRequest, bodyType, errorType)
+                ).block();
+            }
+
+            @Override
+            public void close() {
+                // the client is managed by the registry
+            }
+        };
+    }
+
+    private <O, E> Mono<HttpResponse<O>> blockingExchange(BlockingHttpClient blockingHttpClient,
+                                                          @Nullable HttpRequest<Object> parentRequest,
+                                                          HttpRequest<?> request,
+                                                          Argument<O> bodyType,
+                                                          Argument<E> errorType) {
+        return Mono.fromCallable(() -> ServerRequestContext.with(parentRequest,
+                        (Supplier<HttpResponse<O>>) () -> blockingHttpClient.exchange(request, bodyType, errorType)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Finds the {@link RequestHedger} of the invoked method. Methods are hedged if the client declares
+     * {@link Hedged} and the HTTP method is idempotent or if the method itself declares it.
+     */
+    @Nullable
+    private RequestHedger findHedger(MethodInvocationContext<Object, Object> context, HttpMethod httpMethod) {
+        if (!context.hasAnnotation(Hedged.class)) {
+            return null;
+        }
+        return hedgers.computeIfAbsent(context.getExecutableMethod(), method -> {
+            boolean idempotent = httpMethod == HttpMethod.GET || httpMethod == HttpMethod.HEAD || httpMethod == HttpMethod.OPTIONS;
+            if (!idempotent && !context.hasDeclaredAnnotation(Hedged.class)) {
+                return Optional.empty();
+            }
+            AnnotationValue<Hedged> hedged = context.getAnnotation(Hedged.class);
+            Duration delay = hedged.stringValue("delay")
+                    .filter(StringUtils::isNotEmpty)
+                    .map(value -> ConversionService.SHARED.convert(value, Duration.class).orElseThrow(() ->
+                            new ConfigurationException("Invalid hedging delay [" + value + "] on client method: " + method)))
+                    .orElse(null);
+            return Optional.of(new RequestHedger(
+                    delay,
+                    hedged.doubleValue("percentile").orElse(RequestHedger.DEFAULT_PERCENTILE),
+                    hedged.doubleValue("budget").orElse(RequestHedger.DEFAULT_BUDGET)));
+        }).orElse(null);
+    }
+
+    /**
+     * A request is only hedged if its body can be sent twice, so streaming bodies such as publishers are not.
+     */
+    private static boolean isReplayable(HttpRequest<?> request) {
+        Object body = request.getBody().orElse(null);
+        return body == null ||
+                body instanceof CharSequence ||
+                body instanceof Number ||
+                body instanceof Boolean ||
+                body instanceof Enum ||
+                body instanceof byte[];
+    }
+
+    private MutableHttpRequest<?> copyRequest(MutableHttpRequest<?> request) {
+        MutableHttpRequest<Object> copy = HttpRequest.create(request.getMethod(), request.getUri().toString(), request.getMethodName());
+        request.getHeaders().forEach((name, values) -> {
+            for (String value : values) {
+                copy.getHeaders().add(name, value);
+            }
+        });
+        request.getAttributes().forEach(entry -> copy.setAttribute(entry.getKey(), entry.getValue()));
+        request.getBody()
+                .map(body -> body instanceof byte[] ? ((byte[]) body).clone() : body)
+                .ifPresent(copy::body);
+        return copy;
+    }
+
     private Publisher httpClientResponseStreamingPublisher(StreamingHttpClient streamingHttpClient,
                                                            MediaType[] acceptTypes,
                                                            MutableHttpRequest<?> request,
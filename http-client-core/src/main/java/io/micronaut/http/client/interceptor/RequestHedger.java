@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.interceptor;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedges the requests of a single client method, see {@link io.micronaut.http.client.annotation.Hedged}. Keeps a
+ * window of the recent latencies to compute the adaptive delay and a token bucket that limits the hedged requests.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class RequestHedger {
+
+    static final double DEFAULT_PERCENTILE = 95;
+    static final double DEFAULT_BUDGET = 10;
+    static final int WINDOW = 256;
+    static final int MIN_SAMPLES = 32;
+    private static final int RECOMPUTE_INTERVAL = 16;
+    private static final long TOKEN = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final Duration fixedDelay;
+    private final double percentile;
+    private final long deposit;
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicLong tokens = new AtomicLong(TOKEN);
+    private volatile long adaptiveDelayNanos = -1;
+
+    /**
+     * @param fixedDelay The fixed delay or {@code null} to use the percentile of the observed latency
+     * @param percentile The percentile
+     * @param budget     The maximum percentage of hedged requests
+     */
+    RequestHedger(@Nullable Duration fixedDelay, double percentile, double budget) {
+        this.fixedDelay = fixedDelay;
+        this.percentile = Math.max(0, Math.min(100, percentile));
+        this.deposit = (long) (TOKEN * Math.max(0, Math.min(100, budget)) / 100);
+    }
+
+    /**
+     * Subscribes to the request and, if it has not completed after the delay and the budget allows it, to the hedged
+     * request. The first request to complete successfully wins and the other request is cancelled. A failed request
+     * does not win while the other request is in flight, the first error is only emitted once both requests failed.
+     * The hedged request is not sent if the request fails before the delay.
+     *
+     * @param request The request
+     * @param hedge   The hedged request
+     * @param <T>     The result type
+     * @return The publisher of the first result
+     */
+    @NonNull
+    <T> Mono<T> hedge(@NonNull Supplier<? extends Publisher<T>> request,
+                      @NonNull Supplier<? extends Publisher<T>> hedge) {
+        return Mono.defer(() -> {
+            deposit();
+            long start = System.nanoTime();
+            Mono<T> first = Mono.from(request.get());
+            Duration delay = getDelay();
+            Mono<T> result;
+            if (delay == null) {
+                result = first;
+            } else {
+                AtomicReference<Throwable> firstError = new AtomicReference<>();
+                Sinks.One<Boolean> failed = Sinks.one();
+                // empty results are wrapped, firstWithValue only lets a request with a value win
+                Mono<Optional<T>> primary = toOptional(first).doOnError(error -> {
+                    firstError.compareAndSet(null, error);
+                    failed.tryEmitValue(true);
+                });
+                Mono<Optional<T>> second = Mono.delay(delay)
+                        .takeUntilOther(failed.asMono())
+                        .flatMap(tick -> tryWithdraw() ? toOptional(Mono.from(hedge.get())) : Mono.<Optional<T>>empty())
+                        .doOnError(error -> firstError.compareAndSet(null, error));
+                result = Mono.firstWithValue(primary, second)
+                        .onErrorMap(error -> firstError.get() != null ? firstError.get() : error)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get);
+            }
+            return result.doOnSuccess(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * @return The current delay or {@code null} if requests are not hedged yet
+     */
+    @Nullable
+    Duration getDelay() {
+        if (fixedDelay != null) {
+            return fixedDelay;
+        }
+        long nanos = adaptiveDelayNanos;
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    void record(long nanos) {
+        int count = samples.updateAndGet(n -> n < Integer.MAX_VALUE - WINDOW ? n + 1 : WINDOW + 1);
+        latencies.set((count - 1) & (WINDOW - 1), nanos);
+        if (fixedDelay == null && count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0) {
+            int size = Math.min(count, WINDOW);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = latencies.get(i);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            adaptiveDelayNanos = sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+
+    private static <T> Mono<Optional<T>> toOptional(Mono<T> mono) {
+        return mono.map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private void deposit() {
+        tokens.getAndUpdate(current -> Math.min(MAX_TOKENS, current + deposit));
+    }
+
+    private boolean tryWithdraw() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.ServiceInstanceList;
+import io.micronaut.discovery.exceptions.NoAvailableServiceException;
+import io.micronaut.health.HealthStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Abstract {@link RequestTrackingLoadBalancer} for a {@link ServiceInstanceList} that keeps the
+ * {@link ServiceInstanceStatistics} of every instance and lets subclasses choose an instance based on them.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public abstract class AbstractLoadAwareLoadBalancer implements RequestTrackingLoadBalancer {
+
+    /**
+     * The default time after which a latency observation has decayed to 1/e of its weight.
+     */
+    public static final Duration DEFAULT_DECAY = Duration.ofSeconds(10);
+
+    private final ServiceInstanceList serviceInstanceList;
+    private final long decayNanos;
+    private final Map<URI, ServiceInstanceStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param serviceInstanceList The service instance list
+     * @param decay               The time after which a latency observation has decayed to 1/e of its weight
+     */
+    protected AbstractLoadAwareLoadBalancer(@NonNull ServiceInstanceList serviceInstanceList, @Nullable Duration decay) {
+        this.serviceInstanceList = serviceInstanceList;
+        this.decayNanos = (decay != null ? decay : DEFAULT_DECAY).toNanos();
+    }
+
+    /**
+     * @return The service ID
+     */
+    public String getServiceID() {
+        return serviceInstanceList.getID();
+    }
+
+    @Override
+    public Publisher<ServiceInstance> select(@Nullable Object discriminator) {
+        return Mono.fromCallable(() -> getNextAvailable(serviceInstanceList.getInstances()));
+    }
+
+    @Override
+    public Optional<String> getContextPath() {
+        return serviceInstanceList.getContextPath();
+    }
+
+    @Override
+    public void requestStarted(@NonNull ServiceInstance instance) {
+        getStatistics(instance).requestStarted();
+    }
+
+    @Override
+    public void requestCompleted(@NonNull ServiceInstance instance, long latencyNanos, @Nullable Throwable error) {
+        ServiceInstanceStatistics statistics = getStatistics(instance);
+        if (isFailure(error)) {
+            statistics.requestFailed(latencyNanos);
+        } else {
+            statistics.requestCompleted(latencyNanos);
+        }
+    }
+
+    /**
+     * @param instance The instance
+     * @return The statistics of the instance
+     */
+    @NonNull
+    public ServiceInstanceStatistics getStatistics(@NonNull ServiceInstance instance) {
+        return statistics.computeIfAbsent(instance.getURI(), uri -> new ServiceInstanceStatistics(decayNanos));
+    }
+
+    /**
+     * Whether the given error counts as a failure of the instance, which is penalized in the latency average. By
+     * default responses with a 5xx status, timeouts and connection errors are failures while other client errors
+     * are not.
+     *
+     * @param error The error or {@code null}
+     * @return True if it is a failure
+     */
+    protected boolean isFailure(@Nullable Throwable error) {
+        return InstanceFailures.isFailure(error);
+    }
+
+    /**
+     * @param serviceInstances A list of service instances
+     * @return The next available instance or a {@link NoAvailableServiceException} if none
+     */
+    protected ServiceInstance getNextAvailable(List<ServiceInstance> serviceInstances) {
+        List<ServiceInstance> availableServices = serviceInstances.stream()
+                .filter(si -> si.getHealthStatus().equals(HealthStatus.UP))
+                .collect(Collectors.toList());
+        if (availableServices.isEmpty()) {
+            throw new NoAvailableServiceException(getServiceID());
+        }
+        if (statistics.size() > availableServices.size() * 2) {
+            // drop the statistics of instances that have been removed
+            Set<URI> available = new HashSet<>(availableServices.size());
+            for (ServiceInstance instance : availableServices) {
+                available.add(instance.getURI());
+            }
+            statistics.keySet().retainAll(available);
+        }
+        if (availableServices.size() == 1) {
+            return availableServices.get(0);
+        }
+        return choose(availableServices);
+    }
+
+    /**
+     * Chooses one of the given instances.
+     *
+     * @param availableServices The available instances, at least two
+     * @return The chosen instance
+     */
+    protected abstract ServiceInstance choose(List<ServiceInstance> availableServices);
+}
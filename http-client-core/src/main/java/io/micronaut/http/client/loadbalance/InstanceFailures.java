@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+
+import java.io.IOException;
+
+/**
+ * The classification of request errors shared by the load balancers and the outlier detection.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+final class InstanceFailures {
+
+    private InstanceFailures() {
+    }
+
+    /**
+     * Whether the given error counts as a failure of the instance. Responses with a 5xx status, timeouts and
+     * connection errors are failures while other client errors are not.
+     *
+     * @param error The error or {@code null}
+     * @return True if it is a failure
+     */
+    static boolean isFailure(@Nullable Throwable error) {
+        if (error == null) {
+            return false;
+        }
+        if (error instanceof HttpClientResponseException) {
+            return ((HttpClientResponseException) error).getStatus().getCode() >= 500;
+        }
+        return error instanceof HttpClientException || error instanceof IOException;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.ServiceInstanceList;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>A {@link io.micronaut.http.client.LoadBalancer} that selects the instance with the least requests in flight
+ * from this client. Ties are broken by the latency average and then randomly, so that idle instances are not
+ * selected in a fixed order.</p>
+ *
+ * <p>Instances that are slow to respond accumulate requests in flight and therefore receive less traffic.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class LeastOutstandingLoadBalancer extends AbstractLoadAwareLoadBalancer {
+
+    /**
+     * @param serviceInstanceList The service instance list
+     */
+    public LeastOutstandingLoadBalancer(@NonNull ServiceInstanceList serviceInstanceList) {
+        this(serviceInstanceList, null);
+    }
+
+    /**
+     * @param serviceInstanceList The service instance list
+     * @param decay               The time after which a latency observation has decayed to 1/e of its weight
+     */
+    public LeastOutstandingLoadBalancer(@NonNull ServiceInstanceList serviceInstanceList, @Nullable Duration decay) {
+        super(serviceInstanceList, decay);
+    }
+
+    @Override
+    protected ServiceInstance choose(List<ServiceInstance> availableServices) {
+        int size = availableServices.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        ServiceInstance best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        double bestLatency = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance instance = availableServices.get((offset + i) % size);
+            ServiceInstanceStatistics statistics = getStatistics(instance);
+            int outstanding = statistics.getOutstandingRequests();
+            if (outstanding > bestOutstanding) {
+                continue;
+            }
+            double latency = statistics.getLatencyNanos();
+            if (outstanding < bestOutstanding || latency < bestLatency) {
+                best = instance;
+                bestOutstanding = outstanding;
+                bestLatency = latency;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+/**
+ * The strategies a {@link io.micronaut.http.client.LoadBalancer} created for a configured service can use to
+ * select between the instances of the service.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public enum LoadBalancingStrategy {
+
+    /**
+     * Selects the available instances in turn, see {@link ServiceInstanceListRoundRobinLoadBalancer}.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Selects the instance with the least requests in flight, see {@link LeastOutstandingLoadBalancer}.
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Selects the less loaded of two random instances, see {@link PowerOfTwoChoicesLoadBalancer}.
+     */
+    POWER_OF_TWO_CHOICES
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.http.client.LoadBalancer;
+import org.reactivestreams.Publisher;
+
+import java.util.Optional;
+
+/**
+ * A {@link RequestTrackingLoadBalancer} that records the outcome of every request with an {@link OutlierDetector}
+ * before notifying the {@link LoadBalancer} it decorates. The decorated load balancer is expected to select from the
+ * instances filtered by {@link OutlierDetector#filter(io.micronaut.discovery.ServiceInstanceList)}.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class OutlierDetectingLoadBalancer implements RequestTrackingLoadBalancer {
+
+    private final LoadBalancer loadBalancer;
+    private final OutlierDetector outlierDetector;
+
+    /**
+     * @param loadBalancer    The load balancer to decorate
+     * @param outlierDetector The outlier detector
+     */
+    public OutlierDetectingLoadBalancer(@NonNull LoadBalancer loadBalancer, @NonNull OutlierDetector outlierDetector) {
+        this.loadBalancer = loadBalancer;
+        this.outlierDetector = outlierDetector;
+    }
+
+    /**
+     * @return The decorated load balancer
+     */
+    @NonNull
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * @return The outlier detector
+     */
+    @NonNull
+    public OutlierDetector getOutlierDetector() {
+        return outlierDetector;
+    }
+
+    @Override
+    public Publisher<ServiceInstance> select(@Nullable Object discriminator) {
+        return loadBalancer.select(discriminator);
+    }
+
+    @Override
+    public Optional<String> getContextPath() {
+        return loadBalancer.getContextPath();
+    }
+
+    @Override
+    public void requestStarted(@NonNull ServiceInstance instance) {
+        if (loadBalancer instanceof RequestTrackingLoadBalancer) {
+            ((RequestTrackingLoadBalancer) loadBalancer).requestStarted(instance);
+        }
+    }
+
+    @Override
+    public void requestCompleted(@NonNull ServiceInstance instance, long latencyNanos, @Nullable Throwable error) {
+        outlierDetector.record(instance, error);
+        if (loadBalancer instanceof RequestTrackingLoadBalancer) {
+            ((RequestTrackingLoadBalancer) loadBalancer).requestCompleted(instance, latencyNanos, error);
+        }
+    }
+}
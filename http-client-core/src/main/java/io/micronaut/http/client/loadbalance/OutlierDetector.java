@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.ServiceInstanceList;
+import io.micronaut.http.client.ServiceHttpClientConfiguration.OutlierDetectionConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Passive outlier detection for the instances of a service. The outcome of every request is recorded and an
+ * instance is ejected from load balancing after a number of consecutive failures or when the ratio of failed requests
+ * within an interval exceeds a threshold. A failure is a 5xx response, a timeout or a connection error.</p>
+ *
+ * <p>The ejection time doubles every time an instance is ejected again, up to a maximum, and is reset once the
+ * instance has not been ejected for the maximum ejection time. No more than the configured percentage of the
+ * instances is ejected at the same time, but at least one instance may be ejected.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class OutlierDetector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutlierDetector.class);
+
+    private final String serviceId;
+    private final OutlierDetectionConfiguration configuration;
+    private final Map<URI, InstanceState> states = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+    private volatile int instanceCount;
+
+    /**
+     * @param serviceId     The service ID
+     * @param configuration The configuration
+     */
+    public OutlierDetector(@NonNull String serviceId, @NonNull OutlierDetectionConfiguration configuration) {
+        this(serviceId, configuration, System::nanoTime);
+    }
+
+    /**
+     * @param serviceId     The service ID
+     * @param configuration The configuration
+     * @param nanoTime      The source of the current time in nanoseconds, {@link System#nanoTime()} by default
+     */
+    public OutlierDetector(@NonNull String serviceId,
+                           @NonNull OutlierDetectionConfiguration configuration,
+                           @NonNull LongSupplier nanoTime) {
+        this.serviceId = serviceId;
+        this.configuration = configuration;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param serviceInstanceList The service instance list
+     * @return A service instance list that excludes the ejected instances of the given list
+     */
+    @NonNull
+    public ServiceInstanceList filter(@NonNull ServiceInstanceList serviceInstanceList) {
+        return new ServiceInstanceList() {
+            @Override
+            public String getID() {
+                return serviceInstanceList.getID();
+            }
+
+            @Override
+            public List<ServiceInstance> getInstances() {
+                return filter(serviceInstanceList.getInstances());
+            }
+
+            @Override
+            public Optional<String> getContextPath() {
+                return serviceInstanceList.getContextPath();
+            }
+        };
+    }
+
+    /**
+     * @param instances The instances
+     * @return The instances that are not ejected or all instances if every instance is ejected
+     */
+    @NonNull
+    public List<ServiceInstance> filter(@NonNull List<ServiceInstance> instances) {
+        instanceCount = instances.size();
+        if (states.isEmpty()) {
+            return instances;
+        }
+        long now = nanoTime.getAsLong();
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceState state = states.get(instance.getURI());
+            if (state == null || !state.isEjected(now)) {
+                available.add(instance);
+            }
+        }
+        return available.isEmpty() ? instances : available;
+    }
+
+    /**
+     * @param instance The instance
+     * @return Whether the instance is currently ejected
+     */
+    public boolean isEjected(@NonNull ServiceInstance instance) {
+        InstanceState state = states.get(instance.getURI());
+        return state != null && state.isEjected(nanoTime.getAsLong());
+    }
+
+    /**
+     * Records the outcome of a request to the given instance.
+     *
+     * @param instance The instance
+     * @param error    The error or {@code null} if a response was received
+     */
+    public void record(@NonNull ServiceInstance instance, @Nullable Throwable error) {
+        InstanceState state = states.computeIfAbsent(instance.getURI(), uri -> new InstanceState());
+        long now = nanoTime.getAsLong();
+        boolean failure = isFailure(error);
+        if (state.record(failure, now) && failure && tryEject(state, now)) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Ejected instance {} of service {} from load balancing for {}ms after repeated failures",
+                        instance.getURI(), serviceId, (state.ejectedUntil - now) / 1_000_000);
+            }
+        }
+        if (states.size() > Math.max(16, instanceCount * 2)) {
+            states.values().removeIf(s -> !s.isEjected(now) && s.isIdle(now));
+        }
+    }
+
+    /**
+     * Whether the given error counts as a failure of the instance. By default responses with a 5xx status, timeouts
+     * and connection errors are failures while other client errors are not.
+     *
+     * @param error The error or {@code null}
+     * @return True if it is a failure
+     */
+    protected boolean isFailure(@Nullable Throwable error) {
+        return InstanceFailures.isFailure(error);
+    }
+
+    private synchronized boolean tryEject(InstanceState state, long now) {
+        int maxEjectionPercent = configuration.getMaxEjectionPercent();
+        if (maxEjectionPercent == 0) {
+            return false;
+        }
+        int ejected = 0;
+        for (InstanceState s : states.values()) {
+            if (s.isEjected(now)) {
+                ejected++;
+            }
+        }
+        int maxEjected = Math.max(1, instanceCount * maxEjectionPercent / 100);
+        if (ejected >= maxEjected) {
+            return false;
+        }
+        return state.eject(now,
+                configuration.getBaseEjectionTime().toNanos(),
+                configuration.getMaxEjectionTime().toNanos());
+    }
+
+    /**
+     * The outcome of the requests to an instance.
+     */
+    private final class InstanceState {
+        private int consecutiveFailures;
+        private int requests;
+        private int failures;
+        private long intervalStart = nanoTime.getAsLong();
+        private int ejections;
+        private long ejectedUntil;
+        private long lastRequest = intervalStart;
+
+        /**
+         * @return Whether the instance should be ejected
+         */
+        synchronized boolean record(boolean failure, long now) {
+            lastRequest = now;
+            if (now - intervalStart > configuration.getInterval().toNanos()) {
+                intervalStart = now;
+                requests = 0;
+                failures = 0;
+            }
+            requests++;
+            if (!failure) {
+                consecutiveFailures = 0;
+                return false;
+            }
+            failures++;
+            consecutiveFailures++;
+            if (isEjected(now)) {
+                return false;
+            }
+            return consecutiveFailures >= configuration.getConsecutiveFailures() ||
+                    (requests >= configuration.getMinimumRequests() &&
+                            failures >= configuration.getFailureRatio() * requests);
+        }
+
+        synchronized boolean eject(long now, long baseEjectionNanos, long maxEjectionNanos) {
+            if (isEjected(now)) {
+                return false;
+            }
+            if (ejections > 0 && now - ejectedUntil > maxEjectionNanos) {
+                ejections = 0;
+            }
+            long ejectionNanos = baseEjectionNanos << Math.min(ejections, 30);
+            if (ejectionNanos <= 0 || ejectionNanos > maxEjectionNanos) {
+                ejectionNanos = maxEjectionNanos;
+            }
+            ejections++;
+            ejectedUntil = now + ejectionNanos;
+            consecutiveFailures = 0;
+            requests = 0;
+            failures = 0;
+            intervalStart = now;
+            return true;
+        }
+
+        synchronized boolean isEjected(long now) {
+            return ejections > 0 && now - ejectedUntil < 0;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastRequest > configuration.getMaxEjectionTime().toNanos();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.ServiceInstanceList;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>A {@link io.micronaut.http.client.LoadBalancer} that picks two distinct instances at random and selects the one
+ * with the lower {@link ServiceInstanceStatistics#getCost() cost}, the latency average weighted by the requests in
+ * flight.</p>
+ *
+ * <p>Comparing only two random instances avoids sending every client's requests to the same instance that looks the
+ * least loaded while still steering traffic away from slow instances.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class PowerOfTwoChoicesLoadBalancer extends AbstractLoadAwareLoadBalancer {
+
+    /**
+     * @param serviceInstanceList The service instance list
+     */
+    public PowerOfTwoChoicesLoadBalancer(@NonNull ServiceInstanceList serviceInstanceList) {
+        this(serviceInstanceList, null);
+    }
+
+    /**
+     * @param serviceInstanceList The service instance list
+     * @param decay               The time after which a latency observation has decayed to 1/e of its weight
+     */
+    public PowerOfTwoChoicesLoadBalancer(@NonNull ServiceInstanceList serviceInstanceList, @Nullable Duration decay) {
+        super(serviceInstanceList, decay);
+    }
+
+    @Override
+    protected ServiceInstance choose(List<ServiceInstance> availableServices) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = availableServices.size();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = availableServices.get(first);
+        ServiceInstance b = availableServices.get(second);
+        return getStatistics(a).getCost() <= getStatistics(b).getCost() ? a : b;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.http.client.LoadBalancer;
+
+/**
+ * A {@link LoadBalancer} that is notified by the HTTP client when a request to a selected {@link ServiceInstance}
+ * starts and completes, allowing it to take the load and latency of the instances into account.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public interface RequestTrackingLoadBalancer extends LoadBalancer {
+
+    /**
+     * Invoked before a request is sent to an instance returned by {@link #select(Object)}.
+     *
+     * @param instance The instance
+     */
+    void requestStarted(@NonNull ServiceInstance instance);
+
+    /**
+     * Invoked once for every started request when the response is received or the request failed or was cancelled.
+     *
+     * @param instance     The instance
+     * @param latencyNanos The time until the response or error was received in nanoseconds
+     * @param error        The error or {@code null} if a response was received
+     */
+    void requestCompleted(@NonNull ServiceInstance instance, long latencyNanos, @Nullable Throwable error);
+}
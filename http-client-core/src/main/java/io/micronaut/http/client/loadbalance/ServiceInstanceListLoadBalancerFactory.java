@@ -15,9 +15,15 @@
  */
 package io.micronaut.http.client.loadbalance;
 
+import io.micronaut.context.BeanLocator;
 import io.micronaut.context.annotation.BootstrapContextCompatible;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.discovery.ServiceInstanceList;
 import io.micronaut.http.client.LoadBalancer;
+import io.micronaut.http.client.ServiceHttpClientConfiguration;
+import io.micronaut.http.client.ServiceHttpClientConfiguration.OutlierDetectionConfiguration;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 /**
@@ -31,6 +37,27 @@ import jakarta.inject.Singleton;
 @BootstrapContextCompatible
 public class ServiceInstanceListLoadBalancerFactory {
 
+    private final BeanLocator beanLocator;
+
+    /**
+     * Creates a factory that always uses round-robin load balancing.
+     */
+    public ServiceInstanceListLoadBalancerFactory() {
+        this(null);
+    }
+
+    /**
+     * Creates a factory that uses the {@link LoadBalancingStrategy} of the {@link ServiceHttpClientConfiguration}
+     * with the same ID as the service instance list.
+     *
+     * @param beanLocator The bean locator
+     * @since 3.0.2
+     */
+    @Inject
+    public ServiceInstanceListLoadBalancerFactory(@Nullable BeanLocator beanLocator) {
+        this.beanLocator = beanLocator;
+    }
+
     /**
      * Creates a {@link LoadBalancer} from the given {@link ServiceInstanceList}.
      *
@@ -38,6 +65,29 @@ public class ServiceInstanceListLoadBalancerFactory {
      * @return The {@link LoadBalancer}
      */
     public LoadBalancer create(ServiceInstanceList serviceInstanceList) {
-        return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
+        ServiceHttpClientConfiguration configuration = beanLocator == null ? null : beanLocator
+                .findBean(ServiceHttpClientConfiguration.class, Qualifiers.byName(serviceInstanceList.getID()))
+                .orElse(null);
+        if (configuration == null) {
+            return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
+        }
+        OutlierDetectionConfiguration outlierDetection = configuration.getOutlierDetection();
+        if (outlierDetection.isEnabled()) {
+            OutlierDetector outlierDetector = new OutlierDetector(serviceInstanceList.getID(), outlierDetection);
+            LoadBalancer loadBalancer = create(outlierDetector.filter(serviceInstanceList), configuration);
+            return new OutlierDetectingLoadBalancer(loadBalancer, outlierDetector);
+        }
+        return create(serviceInstanceList, configuration);
+    }
+
+    private LoadBalancer create(ServiceInstanceList serviceInstanceList, ServiceHttpClientConfiguration configuration) {
+        switch (configuration.getLoadBalancer()) {
+            case LEAST_OUTSTANDING:
+                return new LeastOutstandingLoadBalancer(serviceInstanceList, configuration.getLoadBalancerDecay());
+            case POWER_OF_TWO_CHOICES:
+                return new PowerOfTwoChoicesLoadBalancer(serviceInstanceList, configuration.getLoadBalancerDecay());
+            default:
+                return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
+        }
     }
 }
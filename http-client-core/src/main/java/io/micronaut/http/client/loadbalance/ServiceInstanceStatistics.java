@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The load of a single {@link io.micronaut.discovery.ServiceInstance} as seen by this client: the requests in flight
+ * and a peak sensitive exponentially weighted moving average (EWMA) of the latency. A latency above the average
+ * replaces it immediately so an instance that stalls, for example during a garbage collection pause, is avoided
+ * right away, and the average decays towards zero while no responses are received so the instance is retried later.
+ * A failed request counts as a latency of at least {@link #FAILURE_PENALTY_NANOS} so an instance that fails fast
+ * does not attract the traffic of its healthy peers.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public final class ServiceInstanceStatistics {
+
+    /**
+     * The minimum latency in nanoseconds recorded for a failed request.
+     */
+    public static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private final double decayNanos;
+    private double latencyNanos;
+    private long timestamp;
+
+    /**
+     * @param decayNanos The time in nanoseconds after which a latency observation has decayed to 1/e of its weight
+     */
+    public ServiceInstanceStatistics(long decayNanos) {
+        this.decayNanos = Math.max(1, decayNanos);
+        this.timestamp = System.nanoTime();
+    }
+
+    /**
+     * @return The number of requests in flight
+     */
+    public int getOutstandingRequests() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return The number of failed requests
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return The latency average in nanoseconds, decayed to the current time
+     */
+    public synchronized double getLatencyNanos() {
+        return decay(System.nanoTime());
+    }
+
+    /**
+     * The cost of sending another request to the instance, the latency average weighted by the requests in flight.
+     *
+     * @return The cost
+     */
+    public double getCost() {
+        return (getLatencyNanos() + 1) * (outstanding.get() + 1);
+    }
+
+    /**
+     * Records the start of a request.
+     */
+    public void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records the completion of a request.
+     *
+     * @param latencyNanos The observed latency in nanoseconds
+     */
+    public void requestCompleted(long latencyNanos) {
+        outstanding.decrementAndGet();
+        record(latencyNanos);
+    }
+
+    /**
+     * Records the failure of a request, the latency is raised to at least {@link #FAILURE_PENALTY_NANOS}.
+     *
+     * @param latencyNanos The observed latency in nanoseconds
+     */
+    public void requestFailed(long latencyNanos) {
+        outstanding.decrementAndGet();
+        failures.incrementAndGet();
+        record(Math.max(latencyNanos, FAILURE_PENALTY_NANOS));
+    }
+
+    private void record(long latencyNanos) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (latencyNanos > this.latencyNanos) {
+                this.latencyNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-Math.max(0, now - timestamp) / decayNanos);
+                this.latencyNanos = this.latencyNanos * weight + latencyNanos * (1 - weight);
+            }
+            this.timestamp = now;
+        }
+    }
+
+    private double decay(long now) {
+        long elapsed = Math.max(0, now - timestamp);
+        return latencyNanos * Math.exp(-elapsed / decayNanos);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.pool;
+
+/**
+ * The reason a pooled connection was closed.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public enum ConnectionCloseReason {
+    /**
+     * The connection reached the configured {@code connect-ttl}.
+     */
+    EXPIRED,
+    /**
+     * The connection was closed while idle in the pool, because the idle timeout elapsed or the server closed it.
+     */
+    IDLE,
+    /**
+     * The connection was closed while in use, for example because of an error or a {@code Connection: close}
+     * response.
+     */
+    ACTIVE
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.pool;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Identifies the connection pool of an HTTP client for a single host.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Introspected
+public final class ConnectionPoolKey {
+
+    private final String clientId;
+    private final String host;
+    private final int port;
+    private final boolean secure;
+
+    /**
+     * @param clientId The client id or {@code null} for a client without id
+     * @param host     The host
+     * @param port     The port
+     * @param secure   Whether connections use TLS
+     */
+    public ConnectionPoolKey(@Nullable String clientId, @NonNull String host, int port, boolean secure) {
+        this.clientId = clientId;
+        this.host = Objects.requireNonNull(host, "host");
+        this.port = port;
+        this.secure = secure;
+    }
+
+    /**
+     * @return The id of the client or {@code null} for a client without id
+     */
+    @Nullable
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * @return The host
+     */
+    @NonNull
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @return The port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return Whether connections use TLS
+     */
+    public boolean isSecure() {
+        return secure;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConnectionPoolKey that = (ConnectionPoolKey) o;
+        return port == that.port &&
+                secure == that.secure &&
+                Objects.equals(clientId, that.clientId) &&
+                host.equals(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(clientId, host, port, secure);
+    }
+
+    @Override
+    public String toString() {
+        return (clientId != null ? clientId + " " : "") + (secure ? "https://" : "http://") + host + ":" + port;
+    }
+}
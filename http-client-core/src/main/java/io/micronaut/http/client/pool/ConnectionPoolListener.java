@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.pool;
+
+import io.micronaut.core.annotation.NonNull;
+
+/**
+ * A listener notified of the events of HTTP client connection pools. Beans of this type are registered with the
+ * clients created by the client registry. Listeners are called on the event loop and must not block.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public interface ConnectionPoolListener {
+
+    /**
+     * Called when the pool opened a new connection.
+     *
+     * @param pool The pool
+     */
+    default void connectionCreated(@NonNull ConnectionPoolKey pool) {
+    }
+
+    /**
+     * Called when a connection of the pool was closed.
+     *
+     * @param pool   The pool
+     * @param reason The reason
+     */
+    default void connectionClosed(@NonNull ConnectionPoolKey pool, @NonNull ConnectionCloseReason reason) {
+    }
+
+    /**
+     * Called when a connection was acquired from the pool.
+     *
+     * @param pool             The pool
+     * @param acquireTimeNanos The time it took to acquire the connection, including the time to connect
+     */
+    default void connectionAcquired(@NonNull ConnectionPoolKey pool, long acquireTimeNanos) {
+    }
+
+    /**
+     * Called when a connection could not be acquired from the pool.
+     *
+     * @param pool             The pool
+     * @param acquireTimeNanos The time until the acquire operation failed
+     * @param cause            The failure
+     */
+    default void acquireFailed(@NonNull ConnectionPoolKey pool, long acquireTimeNanos, @NonNull Throwable cause) {
+    }
+
+    /**
+     * Called when a connection was released to the pool.
+     *
+     * @param pool The pool
+     */
+    default void connectionReleased(@NonNull ConnectionPoolKey pool) {
+    }
+}
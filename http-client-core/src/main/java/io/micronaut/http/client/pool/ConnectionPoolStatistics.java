@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.pool;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time snapshot of the statistics of a connection pool. Counters are cumulative since the pool was
+ * created. For multiplexed HTTP/2 pools the active connections are the open streams.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Introspected
+public final class ConnectionPoolStatistics {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConnectionPoolKey key;
+    private final int openConnections;
+    private final int activeConnections;
+    private final int pendingAcquires;
+    private final long acquireCount;
+    private final long acquireFailureCount;
+    private final long totalAcquireTimeNanos;
+    private final long maxAcquireTimeNanos;
+    private final long createdConnections;
+    private final long expiredConnections;
+    private final long idleClosedConnections;
+    private final long closedConnections;
+
+    /**
+     * @param key                   The pool
+     * @param openConnections       The number of open connections
+     * @param activeConnections     The number of connections in use
+     * @param pendingAcquires       The number of acquire operations waiting for a connection
+     * @param acquireCount          The number of successful acquire operations
+     * @param acquireFailureCount   The number of failed acquire operations
+     * @param totalAcquireTimeNanos The total time of the successful acquire operations
+     * @param maxAcquireTimeNanos   The longest successful acquire operation
+     * @param createdConnections    The number of connections opened
+     * @param expiredConnections    The number of connections closed because they reached their time-to-live
+     * @param idleClosedConnections The number of connections closed while idle
+     * @param closedConnections     The number of connections closed for any reason
+     */
+    public ConnectionPoolStatistics(@NonNull ConnectionPoolKey key,
+                                    int openConnections,
+                                    int activeConnections,
+                                    int pendingAcquires,
+                                    long acquireCount,
+                                    long acquireFailureCount,
+                                    long totalAcquireTimeNanos,
+                                    long maxAcquireTimeNanos,
+                                    long createdConnections,
+                                    long expiredConnections,
+                                    long idleClosedConnections,
+                                    long closedConnections) {
+        this.key = key;
+        this.openConnections = openConnections;
+        this.activeConnections = activeConnections;
+        this.pendingAcquires = pendingAcquires;
+        this.acquireCount = acquireCount;
+        this.acquireFailureCount = acquireFailureCount;
+        this.totalAcquireTimeNanos = totalAcquireTimeNanos;
+        this.maxAcquireTimeNanos = maxAcquireTimeNanos;
+        this.createdConnections = createdConnections;
+        this.expiredConnections = expiredConnections;
+        this.idleClosedConnections = idleClosedConnections;
+        this.closedConnections = closedConnections;
+    }
+
+    /**
+     * @return The pool
+     */
+    @NonNull
+    public ConnectionPoolKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return The number of open connections
+     */
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    /**
+     * @return The number of connections in use
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * @return The number of open connections that are not in use
+     */
+    public int getIdleConnections() {
+        return Math.max(0, openConnections - activeConnections);
+    }
+
+    /**
+     * @return The number of acquire operations waiting for a connection
+     */
+    public int getPendingAcquires() {
+        return pendingAcquires;
+    }
+
+    /**
+     * @return The number of successful acquire operations
+     */
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * @return The number of failed acquire operations, for example because of a connect error or acquire timeout
+     */
+    public long getAcquireFailureCount() {
+        return acquireFailureCount;
+    }
+
+    /**
+     * @return The mean time of the successful acquire operations in milliseconds
+     */
+    public double getMeanAcquireTimeMillis() {
+        return acquireCount == 0 ? 0 : totalAcquireTimeNanos / NANOS_PER_MILLI / acquireCount;
+    }
+
+    /**
+     * @return The longest successful acquire operation in milliseconds
+     */
+    public double getMaxAcquireTimeMillis() {
+        return maxAcquireTimeNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return The number of connections opened
+     */
+    public long getCreatedConnections() {
+        return createdConnections;
+    }
+
+    /**
+     * @return The number of connections closed because they reached their time-to-live
+     */
+    public long getExpiredConnections() {
+        return expiredConnections;
+    }
+
+    /**
+     * @return The number of connections closed while idle
+     */
+    public long getIdleClosedConnections() {
+        return idleClosedConnections;
+    }
+
+    /**
+     * @return The number of connections closed for any reason
+     */
+    public long getClosedConnections() {
+        return closedConnections;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStatistics{" +
+                "key=" + key +
+                ", open=" + openConnections +
+                ", active=" + activeConnections +
+                ", pending=" + pendingAcquires +
+                ", acquired=" + acquireCount +
+                ", acquireFailures=" + acquireFailureCount +
+                ", created=" + createdConnections +
+                ", closed=" + closedConnections +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.pool;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Provides the statistics of the connection pools of HTTP clients.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public interface ConnectionPoolStatisticsProvider {
+
+    /**
+     * @return The statistics of each connection pool, one per client and host
+     */
+    @NonNull
+    List<ConnectionPoolStatistics> getConnectionPoolStatistics();
+}
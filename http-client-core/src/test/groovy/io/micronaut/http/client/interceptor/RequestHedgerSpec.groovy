@@ -0,0 +1,101 @@
+package io.micronaut.http.client.interceptor
+
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RequestHedgerSpec extends Specification {
+
+    void "test the delay is the percentile of the observed latencies"() {
+        given:
+        RequestHedger hedger = new RequestHedger(null, 50, 100)
+
+        expect:"requests are not hedged until enough latencies have been observed"
+        hedger.getDelay() == null
+
+        when:
+        for (int i = 1; i <= RequestHedger.MIN_SAMPLES; i++) {
+            hedger.record(Duration.ofMillis(i).toNanos())
+        }
+
+        then:
+        hedger.getDelay() == Duration.ofMillis(16)
+    }
+
+    void "test a request is not hedged before the delay is known"() {
+        given:
+        RequestHedger hedger = new RequestHedger(null, 95, 100)
+        int hedged = 0
+
+        when:
+        String result = hedger.hedge(
+                { Mono.just('first') },
+                { hedged++; Mono.just('second') }
+        ).block()
+
+        then:
+        result == 'first'
+        hedged == 0
+    }
+
+    void "test a hedged request that fails does not win over the request"() {
+        given:
+        RequestHedger hedger = new RequestHedger(Duration.ofMillis(10), 95, 100)
+
+        when:
+        String result = hedger.hedge(
+                { Mono.just('first').delayElement(Duration.ofMillis(200)) },
+                { Mono.error(new IllegalStateException('hedge failed')) }
+        ).block()
+
+        then:
+        result == 'first'
+    }
+
+    void "test the first error is emitted once both requests failed"() {
+        given:
+        RequestHedger hedger = new RequestHedger(Duration.ofMillis(10), 95, 100)
+
+        when:
+        hedger.hedge(
+                { Mono.error(new IllegalStateException('first failed')).delaySubscription(Duration.ofMillis(200)) },
+                { Mono.error(new IllegalStateException('hedge failed')) }
+        ).block()
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == 'hedge failed'
+    }
+
+    void "test a request that fails before the delay is not hedged"() {
+        given:
+        RequestHedger hedger = new RequestHedger(Duration.ofMillis(200), 95, 100)
+        int hedged = 0
+
+        when:
+        hedger.hedge(
+                { Mono.error(new IllegalStateException('first failed')) },
+                { hedged++; Mono.just('second') }
+        ).block(Duration.ofMillis(100))
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == 'first failed'
+        hedged == 0
+    }
+
+    void "test an empty request wins over the hedged request"() {
+        given:
+        RequestHedger hedger = new RequestHedger(Duration.ofMillis(10), 95, 100)
+
+        when:
+        String result = hedger.hedge(
+                { Mono.<String>empty().delaySubscription(Duration.ofMillis(50)) },
+                { Mono.just('second').delayElement(Duration.ofMillis(500)) }
+        ).block()
+
+        then:
+        result == null
+    }
+}
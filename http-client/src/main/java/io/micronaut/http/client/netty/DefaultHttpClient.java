@@ -37,6 +37,7 @@ import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.discovery.ServiceInstance;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpResponseWrapper;
 import io.micronaut.http.HttpStatus;
@@ -53,6 +54,7 @@ import io.micronaut.http.client.HttpClientConfiguration;
 import io.micronaut.http.client.LoadBalancer;
 import io.micronaut.http.client.ProxyHttpClient;
 import io.micronaut.http.client.StreamingHttpClient;
+import io.micronaut.http.client.loadbalance.RequestTrackingLoadBalancer;
 import io.micronaut.http.client.exceptions.ContentLengthExceededException;
 import io.micronaut.http.client.exceptions.HttpClientErrorDecoder;
 import io.micronaut.http.client.exceptions.HttpClientException;
@@ -66,6 +68,9 @@ import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.http.client.multipart.MultipartDataFactory;
 import io.micronaut.http.client.netty.ssl.NettyClientSslBuilder;
 import io.micronaut.http.client.netty.websocket.NettyWebSocketClientHandler;
+import io.micronaut.http.client.pool.ConnectionPoolKey;
+import io.micronaut.http.client.pool.ConnectionPoolListener;
+import io.micronaut.http.client.pool.ConnectionPoolStatistics;
 import io.micronaut.http.client.sse.SseClient;
 import io.micronaut.http.codec.CodecException;
 import io.micronaut.http.codec.MediaTypeCodec;
@@ -115,6 +120,7 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.EmptyByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.pool.AbstractChannelPoolHandler;
 import io.netty.channel.pool.AbstractChannelPoolMap;
@@ -181,6 +187,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -215,6 +222,7 @@ public class DefaultHttpClient implements
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultHttpClient.class);
     private static final AttributeKey<Http2Stream> STREAM_KEY = AttributeKey.valueOf("micronaut.http2.stream");
+    private static final String SELECTED_INSTANCE = "micronaut.http.client.loadbalance.instance";
     private static final int DEFAULT_HTTP_PORT = 80;
     private static final int DEFAULT_HTTPS_PORT = 443;
 
@@ -243,6 +251,12 @@ public class DefaultHttpClient implements
     private final WebSocketBeanRegistry webSocketRegistry;
     private final RequestBinderRegistry requestBinderRegistry;
     private final Collection<ChannelPipelineListener> pipelineListeners = new ArrayList<>(2);
+    private final Collection<ConnectionPoolListener> connectionPoolListeners = new CopyOnWriteArrayList<>();
+    private final @Nullable
+    HttpResponseCache responseCache;
+    private final @Nullable
+    RequestCoalescer requestCoalescer;
+    private volatile String clientId;
     private final List<InvocationInstrumenterFactory> invocationInstrumenterFactories;
 
     /**
@@ -351,46 +365,64 @@ public class DefaultHttpClient implements
         // HTTP/2 defaults to keep alive connections so should we should always use a pool
         if (connectionPoolConfiguration.isEnabled() || this.httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0) {
             int maxConnections = connectionPoolConfiguration.getMaxConnections();
-            if (maxConnections > -1) {
-                poolMap = new AbstractChannelPoolMap<RequestKey, ChannelPool>() {
-                    @Override
-                    protected ChannelPool newPool(RequestKey key) {
-                        Bootstrap newBootstrap = bootstrap.clone(group);
-                        newBootstrap.remoteAddress(key.getRemoteAddress());
-
-                        AbstractChannelPoolHandler channelPoolHandler = newPoolHandler(key);
-                        final long acquireTimeoutMillis = connectionPoolConfiguration.getAcquireTimeout().map(Duration::toMillis).orElse(-1L);
-                        return new FixedChannelPool(
+            poolMap = new AbstractChannelPoolMap<RequestKey, ChannelPool>() {
+                @Override
+                protected ChannelPool newPool(RequestKey key) {
+                    Bootstrap newBootstrap = bootstrap.clone(group);
+                    newBootstrap.remoteAddress(key.getRemoteAddress());
+
+                    ConnectionPoolKey poolKey = new ConnectionPoolKey(clientId, key.getHost(), key.getPort(), key.isSecure());
+                    final long acquireTimeoutMillis = connectionPoolConfiguration.getAcquireTimeout().map(Duration::toMillis).orElse(-1L);
+                    if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0 && key.isSecure()) {
+                        // HTTP/2 negotiated with ALPN multiplexes requests over a few connections
+                        return new InstrumentedChannelPool(poolKey, connectionPoolListeners, newPoolHandler(key, true), handler -> new Http2ChannelPool(
                                 newBootstrap,
-                                channelPoolHandler,
-                                ChannelHealthChecker.ACTIVE,
-                                acquireTimeoutMillis > -1 ? FixedChannelPool.AcquireTimeoutAction.FAIL : null,
-                                acquireTimeoutMillis,
-                                maxConnections,
-                                connectionPoolConfiguration.getMaxPendingAcquires()
-
-                        );
+                                handler,
+                                newHttp2StreamInitializer(),
+                                connectionPoolConfiguration.getMaxHttp2Connections(),
+                                connectionPoolConfiguration.getMaxPendingAcquires(),
+                                connectionPoolConfiguration.getAcquireTimeout().orElse(null),
+                                configuration.getConnectionPoolIdleTimeout().orElse(null),
+                                connectionPoolConfiguration.getHealthCheckInterval()
+                        ));
                     }
-                };
-            } else {
-                poolMap = new AbstractChannelPoolMap<RequestKey, ChannelPool>() {
-                    @Override
-                    protected ChannelPool newPool(RequestKey key) {
-                        Bootstrap newBootstrap = bootstrap.clone(group);
-                        newBootstrap.remoteAddress(key.getRemoteAddress());
+                    return new InstrumentedChannelPool(poolKey, connectionPoolListeners, newPoolHandler(key, false), handler -> {
+                        if (maxConnections > -1) {
+                            return new FixedChannelPool(
+                                    newBootstrap,
+                                    handler,
+                                    ChannelHealthChecker.ACTIVE,
+                                    acquireTimeoutMillis > -1 ? FixedChannelPool.AcquireTimeoutAction.FAIL : null,
+                                    acquireTimeoutMillis,
+                                    maxConnections,
+                                    connectionPoolConfiguration.getMaxPendingAcquires()
 
-                        AbstractChannelPoolHandler channelPoolHandler = newPoolHandler(key);
-                        return new SimpleChannelPool(
-                                newBootstrap,
-                                channelPoolHandler
-                        );
-                    }
-                };
-            }
+                            );
+                        } else {
+                            return new SimpleChannelPool(
+                                    newBootstrap,
+                                    handler
+                            );
+                        }
+                    });
+                }
+            };
         } else {
             this.poolMap = null;
         }
 
+        HttpClientConfiguration.ResponseCacheConfiguration responseCacheConfiguration = configuration.getResponseCacheConfiguration();
+        if (responseCacheConfiguration != null && responseCacheConfiguration.isEnabled()) {
+            this.responseCache = new HttpResponseCache(
+                    responseCacheConfiguration.getMaxSize(),
+                    responseCacheConfiguration.getMaxEntrySize(),
+                    this::revalidate
+            );
+        } else {
+            this.responseCache = null;
+        }
+        this.requestCoalescer = configuration.isCoalesceRequests() ? new RequestCoalescer(configuration.getCoalescingHeaders()) : null;
+
         Optional<Duration> connectTimeout = configuration.getConnectTimeout();
         connectTimeout.ifPresent(duration -> this.bootstrap.option(
                 ChannelOption.CONNECT_TIMEOUT_MILLIS,
@@ -493,6 +525,9 @@ public class DefaultHttpClient implements
                 Iterable<Map.Entry<RequestKey, ChannelPool>> i = (Iterable) poolMap;
                 for (Map.Entry<RequestKey, ChannelPool> entry : i) {
                     ChannelPool cp = entry.getValue();
+                    if (cp instanceof InstrumentedChannelPool) {
+                        cp = ((InstrumentedChannelPool) cp).getPool();
+                    }
                     try {
                         if (cp instanceof SimpleChannelPool) {
                             addInstrumentedListener(((SimpleChannelPool) cp).closeAsync(), future -> {
@@ -735,7 +770,7 @@ public class DefaultHttpClient implements
 
     @Override
     public <I> Publisher<ByteBuffer<?>> dataStream(io.micronaut.http.HttpRequest<I> request) {
-        return new MicronautFlux<>(Flux.from(resolveRequestURI(request)).flatMap(buildDataStreamPublisher(request)))
+        return new MicronautFlux<>(Flux.from(resolveRequestURI(request)).flatMap(trackRequest(request, buildDataStreamPublisher(request))))
                 .doAfterNext(buffer -> {
                     Object o = buffer.asNativeBuffer();
                     if (o instanceof ByteBuf) {
@@ -749,7 +784,7 @@ public class DefaultHttpClient implements
 
     @Override
     public <I> Publisher<io.micronaut.http.HttpResponse<ByteBuffer<?>>> exchangeStream(io.micronaut.http.HttpRequest<I> request) {
-        return new MicronautFlux<>(Flux.from(resolveRequestURI(request)).flatMap(buildExchangeStreamPublisher(request)))
+        return new MicronautFlux<>(Flux.from(resolveRequestURI(request)).flatMap(trackRequest(request, buildExchangeStreamPublisher(request))))
                 .doAfterNext(byteBufferHttpResponse -> {
                     ByteBuffer<?> buffer = byteBufferHttpResponse.body();
                     if (buffer instanceof ReferenceCounted) {
@@ -762,7 +797,7 @@ public class DefaultHttpClient implements
     public <I, O> Publisher<O> jsonStream(io.micronaut.http.HttpRequest<I> request, io.micronaut.core.type.Argument<O> type) {
         final io.micronaut.http.HttpRequest<Object> parentRequest = ServerRequestContext.currentRequest().orElse(null);
         return Flux.from(resolveRequestURI(request))
-                .flatMap(buildJsonStreamPublisher(parentRequest, request, type));
+                .flatMap(trackRequest(request, buildJsonStreamPublisher(parentRequest, request, type)));
     }
 
     @SuppressWarnings("unchecked")
@@ -781,7 +816,7 @@ public class DefaultHttpClient implements
         final io.micronaut.http.HttpRequest<Object> parentRequest = ServerRequestContext.currentRequest().orElse(null);
         Publisher<URI> uriPublisher = resolveRequestURI(request);
         return Flux.from(uriPublisher)
-                .switchMap(buildExchangePublisher(parentRequest, request, bodyType, errorType));
+                .switchMap(trackRequest(request, buildExchangePublisher(parentRequest, request, bodyType, errorType)));
     }
 
     @Override
@@ -1127,68 +1162,9 @@ public class DefaultHttpClient implements
             Argument<E> errorType) {
         AtomicReference<io.micronaut.http.HttpRequest> requestWrapper = new AtomicReference<>(request);
         return requestURI -> {
-            Flux<io.micronaut.http.HttpResponse<O>> responsePublisher = Flux.create(emitter -> {
-
-                boolean multipart = MediaType.MULTIPART_FORM_DATA_TYPE.equals(request.getContentType().orElse(null));
-                if (poolMap != null && !multipart) {
-                    try {
-                        ChannelPool channelPool = poolMap.get(new RequestKey(requestURI));
-                        Future<Channel> channelFuture = channelPool.acquire();
-                        addInstrumentedListener(channelFuture, future -> {
-                            if (future.isSuccess()) {
-                                Channel channel = future.get();
-                                try {
-                                    sendRequestThroughChannel(
-                                            requestWrapper,
-                                            bodyType,
-                                            errorType,
-                                            emitter,
-                                            channel,
-                                            channelPool
-                                    );
-                                } catch (Exception e) {
-                                    emitter.error(e);
-                                }
-                            } else {
-                                Throwable cause = future.cause();
-                                emitter.error(
-                                        new HttpClientException("Connect Error: " + cause.getMessage(), cause)
-                                );
-                            }
-                        });
-                    } catch (HttpClientException e) {
-                        emitter.error(e);
-                    }
-                } else {
-                    SslContext sslContext = buildSslContext(requestURI);
-                    ChannelFuture connectionFuture = doConnect(request, requestURI, sslContext, false, null);
-                    addInstrumentedListener(connectionFuture, future -> {
-                        if (!future.isSuccess()) {
-                            Throwable cause = future.cause();
-                            if (emitter.isCancelled()) {
-                                log.trace("Connection to {} failed, but emitter already cancelled.", requestURI, cause);
-                            } else {
-                                emitter.error(
-                                        new HttpClientException("Connect Error: " + cause.getMessage(), cause)
-                                );
-                            }
-                        } else {
-                            try {
-                                sendRequestThroughChannel(
-                                        requestWrapper,
-                                        bodyType,
-                                        errorType,
-                                        emitter,
-                                        connectionFuture.channel(),
-                                        null);
-                            } catch (Throwable e) {
-                                emitter.error(e);
-                            }
-                        }
-                    });
-                }
-
-            }, FluxSink.OverflowStrategy.ERROR);
+            Flux<io.micronaut.http.HttpResponse<O>> responsePublisher = notifyCoalescedRequests(Flux.create(emitter ->
+                    exchangeThroughChannel(request, requestURI, requestWrapper, bodyType, errorType, emitter),
+                    FluxSink.OverflowStrategy.ERROR), requestWrapper);
 
             Publisher<io.micronaut.http.HttpResponse<O>> finalPublisher = applyFilterToResponsePublisher(
                     parentRequest,
@@ -1224,6 +1200,183 @@ public class DefaultHttpClient implements
         };
     }
 
+    /**
+     * Sends the request of an exchange through a pooled or new channel, or completes the exchange with a response
+     * from the response cache or of an identical request in flight.
+     *
+     * @param request        The request
+     * @param requestURI     The URI of the request
+     * @param requestWrapper The request wrapper, holding the request after the filters have been applied
+     * @param bodyType       The body type
+     * @param errorType      The error type
+     * @param emitter        The emitter of the response
+     * @param <O>            The output type
+     * @param <E>            The error type
+     */
+    private <O, E> void exchangeThroughChannel(
+            io.micronaut.http.HttpRequest<?> request,
+            URI requestURI,
+            AtomicReference<io.micronaut.http.HttpRequest> requestWrapper,
+            Argument<O> bodyType,
+            Argument<E> errorType,
+            FluxSink<io.micronaut.http.HttpResponse<O>> emitter) {
+        io.micronaut.http.HttpRequest<?> finalRequest = requestWrapper.get();
+        if (responseCache != null) {
+            FullHttpResponse cachedResponse = responseCache.beforeRequest(finalRequest);
+            if (cachedResponse != null) {
+                emitFullResponse(finalRequest, cachedResponse, emitter, bodyType, errorType);
+                return;
+            }
+        }
+        if (requestCoalescer != null) {
+            boolean joined = requestCoalescer.join(finalRequest, new RequestCoalescer.Follower() {
+                @Override
+                public void onResponse(FullHttpResponse response) {
+                    emitFullResponse(finalRequest, response, emitter, bodyType, errorType);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    if (!emitter.isCancelled()) {
+                        emitter.error(error);
+                    }
+                }
+
+                @Override
+                public void onAbandoned() {
+                    connectAndSend(request, requestURI, requestWrapper, bodyType, errorType, emitter);
+                }
+            });
+            if (joined) {
+                return;
+            }
+        }
+        connectAndSend(request, requestURI, requestWrapper, bodyType, errorType, emitter);
+    }
+
+    private <O, E> void connectAndSend(
+            io.micronaut.http.HttpRequest<?> request,
+            URI requestURI,
+            AtomicReference<io.micronaut.http.HttpRequest> requestWrapper,
+            Argument<O> bodyType,
+            Argument<E> errorType,
+            FluxSink<io.micronaut.http.HttpResponse<O>> emitter) {
+        boolean multipart = MediaType.MULTIPART_FORM_DATA_TYPE.equals(request.getContentType().orElse(null));
+        if (poolMap != null && !multipart) {
+            try {
+                ChannelPool channelPool = poolMap.get(new RequestKey(requestURI));
+                Future<Channel> channelFuture = channelPool.acquire();
+                addInstrumentedListener(channelFuture, future -> {
+                    if (future.isSuccess()) {
+                        Channel channel = future.get();
+                        try {
+                            sendRequestThroughChannel(
+                                    requestWrapper,
+                                    bodyType,
+                                    errorType,
+                                    emitter,
+                                    channel,
+                                    channelPool
+                            );
+                        } catch (Exception e) {
+                            emitter.error(e);
+                        }
+                    } else {
+                        Throwable cause = future.cause();
+                        emitter.error(
+                                new HttpClientException("Connect Error: " + cause.getMessage(), cause)
+                        );
+                    }
+                });
+            } catch (HttpClientException e) {
+                emitter.error(e);
+            }
+        } else {
+            SslContext sslContext = buildSslContext(requestURI);
+            ChannelFuture connectionFuture = doConnect(request, requestURI, sslContext, false, null);
+            addInstrumentedListener(connectionFuture, future -> {
+                if (!future.isSuccess()) {
+                    Throwable cause = future.cause();
+                    if (emitter.isCancelled()) {
+                        log.trace("Connection to {} failed, but emitter already cancelled.", requestURI, cause);
+                    } else {
+                        emitter.error(
+                                new HttpClientException("Connect Error: " + cause.getMessage(), cause)
+                        );
+                    }
+                } else {
+                    try {
+                        sendRequestThroughChannel(
+                                requestWrapper,
+                                bodyType,
+                                errorType,
+                                emitter,
+                                connectionFuture.channel(),
+                                null);
+                    } catch (Throwable e) {
+                        emitter.error(e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends a background revalidation request of the response cache. The request already carries the headers added
+     * by the filters of the request that was served from the cache, so the filters are not applied again.
+     *
+     * @param request The revalidation request
+     * @return The publisher of the response
+     */
+    private Publisher<?> revalidate(MutableHttpRequest<?> request) {
+        AtomicReference<io.micronaut.http.HttpRequest> requestWrapper = new AtomicReference<>(request);
+        return notifyCoalescedRequests(Flux.<io.micronaut.http.HttpResponse<Void>>create(emitter ->
+                exchangeThroughChannel(request, request.getUri(), requestWrapper, Argument.VOID, HttpClient.DEFAULT_ERROR_TYPE, emitter),
+                FluxSink.OverflowStrategy.ERROR), requestWrapper);
+    }
+
+    /**
+     * Completes the exchange with the given response, using the response handling of the pipeline without a
+     * connection.
+     *
+     * @param request   The request
+     * @param response  The response, which is released once it has been handled
+     * @param emitter   The emitter of the response
+     * @param bodyType  The body type
+     * @param errorType The error type
+     * @param <O>       The output type
+     * @param <E>       The error type
+     */
+    private <O, E> void emitFullResponse(
+            io.micronaut.http.HttpRequest<?> request,
+            FullHttpResponse response,
+            FluxSink<io.micronaut.http.HttpResponse<O>> emitter,
+            Argument<O> bodyType,
+            Argument<E> errorType) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        addFullHttpResponseHandler(request, channel, null, null, null, emitter, bodyType, errorType);
+        channel.writeInbound(response);
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * Notifies the requests coalesced with the request of the given exchange if it fails or is cancelled before
+     * it receives a response.
+     *
+     * @param responsePublisher The publisher of the exchange
+     * @param requestWrapper    The request wrapper
+     * @param <T>               The response type
+     * @return The publisher
+     */
+    private <T> Flux<T> notifyCoalescedRequests(Flux<T> responsePublisher, AtomicReference<io.micronaut.http.HttpRequest> requestWrapper) {
+        if (requestCoalescer == null) {
+            return responsePublisher;
+        }
+        return responsePublisher
+                .doOnError(error -> requestCoalescer.fail(requestWrapper.get(), error))
+                .doFinally(signal -> requestCoalescer.fail(requestWrapper.get(), null));
+    }
+
     /**
      * @param channel The channel to close asynchronously
      */
@@ -1742,6 +1895,68 @@ public class DefaultHttpClient implements
         pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION, connectionHandler);
     }
 
+    /**
+     * Configures a pooled HTTP/2 connection over SSL whose requests are multiplexed as stream channels, see
+     * {@link Http2ChannelPool}. If the server only supports HTTP/1.1 the connection is used for one request at a time.
+     *
+     * @param httpClientInitializer The client initializer
+     * @param ch                    The channel
+     * @param sslCtx                The SSL context
+     * @param host                  The host
+     * @param port                  The port
+     */
+    private void configureHttp2Multiplexed(
+            HttpClientInitializer httpClientInitializer,
+            @NonNull SocketChannel ch,
+            @NonNull SslContext sslCtx,
+            String host,
+            int port) {
+        ChannelPipeline pipeline = ch.pipeline();
+        pipeline.addLast(ChannelPipelineCustomizer.HANDLER_SSL, sslCtx.newHandler(ch.alloc(), host, port));
+        pipeline.addLast(
+                ChannelPipelineCustomizer.HANDLER_HTTP2_PROTOCOL_NEGOTIATOR,
+                new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_2) {
+
+            @Override
+            protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+                ChannelPipeline p = ctx.pipeline();
+                if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                    final Http2FrameCodecBuilder builder = Http2FrameCodecBuilder.forClient()
+                            .validateHeaders(true)
+                            .initialSettings(Http2Settings.defaultSettings().pushEnabled(false));
+                    configuration.getLogLevel().ifPresent(logLevel -> {
+                        try {
+                            final io.netty.handler.logging.LogLevel nettyLevel = io.netty.handler.logging.LogLevel.valueOf(
+                                    logLevel.name()
+                            );
+                            builder.frameLogger(new Http2FrameLogger(nettyLevel, DefaultHttpClient.class));
+                        } catch (IllegalArgumentException e) {
+                            throw new HttpClientException("Unsupported log level: " + logLevel);
+                        }
+                    });
+                    p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION, builder.build());
+                    // server push is disabled so there are no inbound streams to handle
+                    p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_MULTIPLEX, new Http2MultiplexHandler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel stream) {
+                            stream.close();
+                        }
+                    }));
+                    Http2ChannelPool.protocolNegotiated(ctx.channel(), true);
+                    for (ChannelPipelineListener pipelineListener : pipelineListeners) {
+                        pipelineListener.onConnect(p);
+                    }
+                } else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                    httpClientInitializer.addHttp1Handlers(p);
+                    Http2ChannelPool.protocolNegotiated(ctx.channel(), false);
+                } else {
+                    ctx.close();
+                    throw new HttpClientException("Unknown Protocol: " + protocol);
+                }
+            }
+        });
+    }
+
     /**
      * Configures HTTP/2 handling for plaintext (non-SSL) connections.
      *
@@ -1815,6 +2030,9 @@ public class DefaultHttpClient implements
         }
 
         return Flux.from(loadBalancer.select(getLoadBalancerDiscriminator())).map(server -> {
+                    if (loadBalancer instanceof RequestTrackingLoadBalancer) {
+                        request.setAttribute(SELECTED_INSTANCE, server);
+                    }
                     Optional<String> authInfo = server.getMetadata().get(io.micronaut.http.HttpHeaders.AUTHORIZATION_INFO, String.class);
                     if (request instanceof MutableHttpRequest && authInfo.isPresent()) {
                         ((MutableHttpRequest) request).getHeaders().auth(authInfo.get());
@@ -1824,6 +2042,37 @@ public class DefaultHttpClient implements
         );
     }
 
+    /**
+     * Notifies a {@link RequestTrackingLoadBalancer} of the start of the request to the instance selected by
+     * {@link #resolveURI(io.micronaut.http.HttpRequest, boolean)} and of its completion, which is the first emitted
+     * item, an error or the cancellation.
+     */
+    private <T> Function<URI, Publisher<T>> trackRequest(io.micronaut.http.HttpRequest<?> request,
+                                                         Function<URI, ? extends Publisher<? extends T>> publisherFunction) {
+        if (!(loadBalancer instanceof RequestTrackingLoadBalancer)) {
+            return uri -> Flux.from(publisherFunction.apply(uri));
+        }
+        RequestTrackingLoadBalancer tracker = (RequestTrackingLoadBalancer) loadBalancer;
+        return uri -> {
+            ServiceInstance instance = request.getAttribute(SELECTED_INSTANCE, ServiceInstance.class).orElse(null);
+            if (instance == null) {
+                return Flux.from(publisherFunction.apply(uri));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean completed = new AtomicBoolean();
+            Consumer<Throwable> complete = error -> {
+                if (completed.compareAndSet(false, true)) {
+                    tracker.requestCompleted(instance, System.nanoTime() - start, error);
+                }
+            };
+            tracker.requestStarted(instance);
+            return Flux.<T>from(publisherFunction.apply(uri))
+                    .doOnNext(value -> complete.accept(null))
+                    .doOnError(complete)
+                    .doFinally(signal -> complete.accept(null));
+        };
+    }
+
     private <I, O, E> void sendRequestThroughChannel(
             AtomicReference<io.micronaut.http.HttpRequest> requestWrapper,
             Argument<O> bodyType,
@@ -1874,6 +2123,8 @@ public class DefaultHttpClient implements
                 finalRequest,
                 channel,
                 channelPool,
+                responseCache,
+                requestCoalescer,
                 emitter,
                 bodyType,
                 errorType
@@ -2103,6 +2354,8 @@ public class DefaultHttpClient implements
             io.micronaut.http.HttpRequest<?> request,
             Channel channel,
             ChannelPool channelPool,
+            @Nullable HttpResponseCache cache,
+            @Nullable RequestCoalescer coalescer,
             FluxSink<io.micronaut.http.HttpResponse<O>> emitter,
             Argument<O> bodyType, Argument<E> errorType) {
         ChannelPipeline pipeline = channel.pipeline();
@@ -2112,7 +2365,11 @@ public class DefaultHttpClient implements
             boolean keepAlive = true;
 
             @Override
-            protected void channelReadInstrumented(ChannelHandlerContext channelHandlerContext, FullHttpResponse fullResponse) {
+            protected void channelReadInstrumented(ChannelHandlerContext channelHandlerContext, FullHttpResponse receivedResponse) {
+                final FullHttpResponse fullResponse = cache != null ? cache.afterResponse(request, receivedResponse) : receivedResponse;
+                if (coalescer != null) {
+                    coalescer.complete(request, fullResponse);
+                }
                 try {
 
                     HttpResponseStatus status = fullResponse.status();
@@ -2286,7 +2543,7 @@ public class DefaultHttpClient implements
                             }
                         }
                     }
-                    if (!HttpUtil.isKeepAlive(fullResponse)) {
+                    if (!HttpUtil.isKeepAlive(receivedResponse)) {
                         keepAlive = false;
                     }
                     pipeline.remove(this);
@@ -2318,7 +2575,8 @@ public class DefaultHttpClient implements
             public void handlerAdded(ChannelHandlerContext ctx) {
                 if (readTimeoutMillis != null) {
 
-                    if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0) {
+                    // stream channels of a multiplexed connection and HTTP/1.1 fallback connections have an HTTP codec
+                    if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0 && pipeline.context(ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION) != null) {
                         Http2SettingsHandler settingsHandler = (Http2SettingsHandler) ctx.pipeline().get(HANDLER_HTTP2_SETTINGS);
                         if (settingsHandler != null) {
                             addInstrumentedListener(settingsHandler.promise, future -> {
@@ -2338,7 +2596,8 @@ public class DefaultHttpClient implements
                                     new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)
                             );
                         }
-                    } else {
+                    } else if (pipeline.context(ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_CODEC) != null) {
+                        // responses served from the cache are handled without a codec
                         pipeline.addBefore(
                                 ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_CODEC,
                                 ChannelPipelineCustomizer.HANDLER_READ_TIMEOUT,
@@ -2628,11 +2887,11 @@ public class DefaultHttpClient implements
         };
     }
 
-    private AbstractChannelPoolHandler newPoolHandler(RequestKey key) {
+    private AbstractChannelPoolHandler newPoolHandler(RequestKey key, boolean multiplexed) {
         return new AbstractChannelPoolHandler() {
             @Override
             public void channelCreated(Channel ch) {
-                ch.pipeline().addLast(ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_INIT, new HttpClientInitializer(
+                HttpClientInitializer initializer = new HttpClientInitializer(
                         key.isSecure() ? sslContext : null,
                         key.getHost(),
                         key.getPort(),
@@ -2645,7 +2904,9 @@ public class DefaultHttpClient implements
                         // no-op, don't add the stream handler which is not supported
                         // in the connection pooled scenario
                     }
-                });
+                };
+                initializer.multiplexed = multiplexed;
+                ch.pipeline().addLast(ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_INIT, initializer);
 
                 if (connectionTimeAliveMillis != null) {
                     ch.pipeline()
@@ -2700,6 +2961,37 @@ public class DefaultHttpClient implements
         };
     }
 
+    /**
+     * Creates the handler that initializes the pipeline of the stream channels acquired from a {@link Http2ChannelPool},
+     * which converts the HTTP/2 frames of the stream to HTTP objects.
+     *
+     * @return The handler
+     */
+    private ChannelHandler newHttp2StreamInitializer() {
+        return new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) {
+                ChannelPipeline p = ch.pipeline();
+                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_CODEC, new Http2StreamFrameToHttpObjectCodec(false));
+                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_DECODER, new HttpContentDecompressor());
+                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, newHttpObjectAggregator());
+            }
+        };
+    }
+
+    private HttpObjectAggregator newHttpObjectAggregator() {
+        return new HttpObjectAggregator(configuration.getMaxContentLength()) {
+            @Override
+            protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
+                if (!HttpUtil.isContentLengthSet(aggregated)) {
+                    if (aggregated.content().readableBytes() > 0) {
+                        super.finishAggregation(aggregated);
+                    }
+                }
+            }
+        };
+    }
+
     @Override
     public boolean isClientChannel() {
         return true;
@@ -2710,6 +3002,45 @@ public class DefaultHttpClient implements
         this.pipelineListeners.add(Objects.requireNonNull(listener, "The listener cannot be null"));
     }
 
+    /**
+     * Adds a listener that is notified of the events of the connection pools of this client.
+     *
+     * @param listener The listener
+     * @since 3.0.2
+     */
+    public void addConnectionPoolListener(@NonNull ConnectionPoolListener listener) {
+        this.connectionPoolListeners.add(Objects.requireNonNull(listener, "The listener cannot be null"));
+    }
+
+    /**
+     * @return The statistics of the connection pool of each host this client connected to, empty if connection
+     * pooling is disabled
+     * @since 3.0.2
+     */
+    public @NonNull List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+        if (!(poolMap instanceof Iterable)) {
+            return Collections.emptyList();
+        }
+        List<ConnectionPoolStatistics> statistics = new ArrayList<>();
+        Iterable<Map.Entry<RequestKey, ChannelPool>> i = (Iterable) poolMap;
+        for (Map.Entry<RequestKey, ChannelPool> entry : i) {
+            if (entry.getValue() instanceof InstrumentedChannelPool) {
+                statistics.add(((InstrumentedChannelPool) entry.getValue()).getStatistics());
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Sets the id of the client reported with the connection pool statistics. Must be called before the first
+     * request.
+     *
+     * @param clientId The client id
+     */
+    void setClientId(@Nullable String clientId) {
+        this.clientId = clientId;
+    }
+
     @Override
     public Publisher<MutableHttpResponse<?>> proxy(io.micronaut.http.HttpRequest<?> request) {
         return Flux.from(resolveRequestURI(request))
@@ -2863,6 +3194,7 @@ public class DefaultHttpClient implements
         final boolean stream;
         final boolean acceptsEvents;
         Http2SettingsHandler settingsHandler;
+        boolean multiplexed;
         private final Consumer<ChannelHandlerContext> contextConsumer;
 
         /**
@@ -2900,7 +3232,9 @@ public class DefaultHttpClient implements
                 configureProxy(p, proxy);
             }
 
-            if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0) {
+            if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0 && multiplexed && sslContext != null) {
+                configureHttp2Multiplexed(this, ch, sslContext, host, port);
+            } else if (httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0) {
                 final Http2Connection connection = new DefaultHttp2Connection(false);
                 final HttpToHttp2ConnectionHandlerBuilder builder =
                         newHttp2ConnectionHandlerBuilder(connection, configuration, stream);
@@ -2978,19 +3312,8 @@ public class DefaultHttpClient implements
 
             p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_DECODER, new HttpContentDecompressor());
 
-            int maxContentLength = configuration.getMaxContentLength();
-
             if (!stream) {
-                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, new HttpObjectAggregator(maxContentLength) {
-                    @Override
-                    protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
-                        if (!HttpUtil.isContentLengthSet(aggregated)) {
-                            if (aggregated.content().readableBytes() > 0) {
-                                super.finishAggregation(aggregated);
-                            }
-                        }
-                    }
-                });
+                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, newHttpObjectAggregator());
             }
             addEventStreamHandlerIfNecessary(p);
             addFinalHandler(p);
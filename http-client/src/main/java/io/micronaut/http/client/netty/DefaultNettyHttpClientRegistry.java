@@ -49,6 +49,9 @@ import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientException;
 import io.micronaut.http.client.filter.ClientFilterResolutionContext;
 import io.micronaut.http.client.netty.ssl.NettyClientSslBuilder;
+import io.micronaut.http.client.pool.ConnectionPoolListener;
+import io.micronaut.http.client.pool.ConnectionPoolStatistics;
+import io.micronaut.http.client.pool.ConnectionPoolStatisticsProvider;
 import io.micronaut.http.client.sse.SseClient;
 import io.micronaut.http.client.sse.SseClientRegistry;
 import io.micronaut.http.codec.CodecConfiguration;
@@ -101,7 +104,8 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
         SseClientRegistry<SseClient>,
         StreamingHttpClientRegistry<StreamingHttpClient>,
         WebSocketClientRegistry<WebSocketClient>,
-        ProxyHttpClientRegistry<ProxyHttpClient> {
+        ProxyHttpClientRegistry<ProxyHttpClient>,
+        ConnectionPoolStatisticsProvider {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultNettyHttpClientRegistry.class);
     private final Map<ClientKey, DefaultHttpClient> clients = new ConcurrentHashMap<>(10);
     private final LoadBalancerResolver loadBalancerResolver;
@@ -213,6 +217,16 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
         clients.clear();
     }
 
+    @NonNull
+    @Override
+    public List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+        List<ConnectionPoolStatistics> statistics = new ArrayList<>();
+        for (DefaultHttpClient client : clients.values()) {
+            statistics.addAll(client.getConnectionPoolStatistics());
+        }
+        return statistics;
+    }
+
     @Override
     public void disposeClient(AnnotationMetadata annotationMetadata) {
         final ClientKey key = getClientKey(annotationMetadata);
@@ -415,7 +429,7 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
             AnnotationMetadata annotationMetadata) {
 
         EventLoopGroup eventLoopGroup = resolveEventLoopGroup(configuration, beanContext);
-        return new DefaultHttpClient(
+        DefaultHttpClient client = new DefaultHttpClient(
                 loadBalancer,
                 httpVersion,
                 configuration,
@@ -436,6 +450,15 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
                 resolveSocketChannelFactory(configuration, beanContext),
                 invocationInstrumenterFactories
         );
+        return instrument(client, clientIdentifiers != null && !clientIdentifiers.isEmpty() ? clientIdentifiers.get(0) : null, beanContext);
+    }
+
+    private DefaultHttpClient instrument(DefaultHttpClient client, @Nullable String clientId, BeanContext beanContext) {
+        client.setClientId(clientId);
+        for (ConnectionPoolListener listener : beanContext.getBeansOfType(ConnectionPoolListener.class)) {
+            client.addConnectionPoolListener(listener);
+        }
+        return client;
     }
 
     private EventLoopGroup resolveEventLoopGroup(HttpClientConfiguration configuration, BeanContext beanContext) {
@@ -463,7 +486,7 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
                 configuration = defaultHttpClientConfiguration;
             }
             EventLoopGroup eventLoopGroup = resolveEventLoopGroup(configuration, beanContext);
-            return new DefaultHttpClient(
+            return instrument(new DefaultHttpClient(
                     loadBalancer,
                     null,
                     configuration,
@@ -480,7 +503,7 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
                     eventLoopGroup,
                     resolveSocketChannelFactory(configuration, beanContext),
                     invocationInstrumenterFactories
-            );
+            ), null, beanContext);
         } else {
             return getClient(injectionPoint != null ? injectionPoint.getAnnotationMetadata() : AnnotationMetadata.EMPTY_METADATA);
         }
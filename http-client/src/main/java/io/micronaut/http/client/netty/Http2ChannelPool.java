@@ -0,0 +1,497 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
+import io.netty.handler.codec.http2.Http2GoAwayFrame;
+import io.netty.handler.codec.http2.Http2PingFrame;
+import io.netty.handler.codec.http2.Http2SettingsFrame;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>A {@link ChannelPool} for HTTP/2 that multiplexes requests over a small number of connections per host. Each
+ * acquired channel is a {@link Http2StreamChannel} of one of the connections, a connection is used until the number
+ * of open streams reaches the {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer and a new connection is only
+ * opened once all connections are at capacity. Released stream channels are closed, the connection stays open.</p>
+ *
+ * <p>Connections that receive a {@code GOAWAY} frame or reach their time-to-live are drained: they accept no new
+ * streams and are closed once their open streams complete. Idle connections are pinged periodically and closed if
+ * the previous ping was not acknowledged or if they have been idle longer than the idle timeout.</p>
+ *
+ * <p>If the peer negotiates HTTP/1.1 the connection is used for a single request at a time and the connection
+ * channel itself is acquired. All pool state is confined to a single event loop.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class Http2ChannelPool implements ChannelPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Http2ChannelPool.class);
+    private static final AttributeKey<Connection> CONNECTION = AttributeKey.valueOf("micronaut.http2.pool.connection");
+    private static final String HANDLER_CONNECTION_STATE = "http2-pool-connection-state";
+
+    private final Bootstrap bootstrap;
+    private final ChannelPoolHandler handler;
+    private final ChannelHandler streamHandler;
+    private final EventExecutor executor;
+    private final int maxConnections;
+    private final int maxPendingAcquires;
+    private final long acquireTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final List<Connection> connections = new ArrayList<>();
+    private final Deque<PendingAcquire> pendingAcquires = new ArrayDeque<>();
+    private final ScheduledFuture<?> healthCheck;
+    private int connecting;
+    private boolean closed;
+
+    /**
+     * @param bootstrap           The bootstrap for new connections
+     * @param handler             The handler notified when connections are created, and of acquire and release if
+     *                            a connection falls back to HTTP/1.1
+     * @param streamHandler       The handler that initializes the pipeline of each stream channel
+     * @param maxConnections      The maximum number of connections
+     * @param maxPendingAcquires  The maximum number of acquire operations waiting for a stream
+     * @param acquireTimeout      The time to wait for a stream or {@code null} to wait indefinitely
+     * @param idleTimeout         The time after which idle connections are closed or {@code null} to keep them open
+     * @param healthCheckInterval The interval in which idle connections are pinged
+     */
+    Http2ChannelPool(@NonNull Bootstrap bootstrap,
+                     @NonNull ChannelPoolHandler handler,
+                     @NonNull ChannelHandler streamHandler,
+                     int maxConnections,
+                     int maxPendingAcquires,
+                     @Nullable Duration acquireTimeout,
+                     @Nullable Duration idleTimeout,
+                     @NonNull Duration healthCheckInterval) {
+        this.handler = handler;
+        this.streamHandler = streamHandler;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.acquireTimeoutNanos = acquireTimeout == null || acquireTimeout.isNegative() ? -1 : acquireTimeout.toNanos();
+        this.idleTimeoutNanos = idleTimeout == null || idleTimeout.isNegative() ? -1 : idleTimeout.toNanos();
+        this.executor = bootstrap.config().group().next();
+        this.bootstrap = bootstrap.clone();
+        this.bootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+                ch.attr(CONNECTION).set(new Connection(ch));
+                handler.channelCreated(ch);
+            }
+        });
+        long interval = Math.max(1, healthCheckInterval.toNanos());
+        this.healthCheck = executor.scheduleAtFixedRate(this::checkHealth, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Notifies the pool of the application protocol negotiated for a connection channel created by a pool. If HTTP/2
+     * was negotiated the HTTP/2 frame codec and multiplex handler must already be in the pipeline, the connection
+     * becomes available once the first {@code SETTINGS} frame of the peer is received.
+     *
+     * @param channel     The connection channel
+     * @param multiplexed Whether HTTP/2 was negotiated
+     */
+    static void protocolNegotiated(@NonNull Channel channel, boolean multiplexed) {
+        Connection connection = channel.attr(CONNECTION).get();
+        if (connection != null) {
+            if (multiplexed) {
+                channel.pipeline().addLast(HANDLER_CONNECTION_STATE, connection.new StateHandler());
+            } else {
+                connection.pool().execute(() -> connection.pool().onReady(connection, false, 1));
+            }
+        }
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        return acquire(executor.newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(Promise<Channel> promise) {
+        PendingAcquire acquire = new PendingAcquire(promise);
+        execute(() -> doAcquire(acquire));
+        return promise;
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        return release(channel, executor.newPromise());
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+        execute(() -> doRelease(channel, promise));
+        return promise;
+    }
+
+    @Override
+    public void close() {
+        execute(() -> {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            healthCheck.cancel(false);
+            PendingAcquire acquire;
+            while ((acquire = pendingAcquires.poll()) != null) {
+                acquire.fail(new IllegalStateException("Connection pool closed"));
+            }
+            for (Connection connection : new ArrayList<>(connections)) {
+                connection.channel.close();
+            }
+            connections.clear();
+        });
+    }
+
+    private void execute(Runnable task) {
+        if (executor.inEventLoop()) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    private void doAcquire(PendingAcquire acquire) {
+        if (closed) {
+            acquire.fail(new IllegalStateException("Connection pool closed"));
+            return;
+        }
+        Connection connection = selectConnection();
+        if (connection != null) {
+            openStream(connection, acquire);
+            return;
+        }
+        if (pendingAcquires.size() >= maxPendingAcquires) {
+            acquire.fail(new IllegalStateException("Too many outstanding acquire operations"));
+            return;
+        }
+        pendingAcquires.add(acquire);
+        if (acquireTimeoutNanos > -1 && acquire.timeout == null) {
+            acquire.timeout = executor.schedule(() -> {
+                if (pendingAcquires.remove(acquire)) {
+                    acquire.fail(new TimeoutException("Acquire operation took longer then configured maximum time"));
+                }
+            }, acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        // streams of a connection that is still being established are not known yet, so wait for it
+        if (connecting == 0 && connections.size() < maxConnections) {
+            connect();
+        }
+    }
+
+    private void drainPendingAcquires() {
+        while (!pendingAcquires.isEmpty()) {
+            Connection connection = selectConnection();
+            if (connection == null) {
+                if (connecting == 0 && connections.size() < maxConnections && !closed) {
+                    connect();
+                }
+                return;
+            }
+            PendingAcquire acquire = pendingAcquires.poll();
+            acquire.cancelTimeout();
+            openStream(connection, acquire);
+        }
+    }
+
+    /**
+     * @return The usable connection with the fewest open streams or {@code null} if all are at capacity
+     */
+    @Nullable
+    private Connection selectConnection() {
+        Connection selected = null;
+        for (Connection connection : connections) {
+            if (connection.isExpired()) {
+                connection.draining = true;
+            }
+            if (!connection.draining &&
+                    connection.channel.isActive() &&
+                    connection.active < connection.maxStreams &&
+                    (selected == null || connection.active < selected.active)) {
+                selected = connection;
+            }
+        }
+        return selected;
+    }
+
+    private void openStream(Connection connection, PendingAcquire acquire) {
+        connection.active++;
+        connection.lastUsed = System.nanoTime();
+        if (!connection.multiplexed) {
+            try {
+                handler.channelAcquired(connection.channel);
+            } catch (Exception e) {
+                LOG.debug("Error notifying handler of acquired channel: {}", e.getMessage(), e);
+            }
+            if (!acquire.promise.trySuccess(connection.channel)) {
+                doRelease(connection.channel, executor.newPromise());
+            }
+            return;
+        }
+        new Http2StreamChannelBootstrap(connection.channel)
+                .handler(streamHandler)
+                .open()
+                .addListener(future -> {
+                    if (future.isSuccess()) {
+                        Channel stream = (Channel) future.getNow();
+                        stream.attr(CONNECTION).set(connection);
+                        if (!acquire.promise.trySuccess(stream)) {
+                            release(stream);
+                        }
+                    } else {
+                        execute(() -> {
+                            connection.active--;
+                            if (!connection.channel.isActive()) {
+                                connection.draining = true;
+                            }
+                            if (acquire.attempts++ == 0 && !closed) {
+                                // the connection may have received a GOAWAY in the meantime, try another one
+                                doAcquire(acquire);
+                            } else {
+                                acquire.fail(future.cause());
+                            }
+                        });
+                    }
+                });
+    }
+
+    private void doRelease(Channel channel, Promise<Void> promise) {
+        Connection connection = channel.attr(CONNECTION).get();
+        if (connection == null || connection.pool() != this) {
+            channel.close();
+            promise.tryFailure(new IllegalArgumentException("Channel " + channel + " was not acquired from this pool"));
+            return;
+        }
+        if (connection.multiplexed) {
+            // stream channels cannot be reused
+            channel.close();
+        } else {
+            try {
+                handler.channelReleased(channel);
+            } catch (Exception e) {
+                LOG.debug("Error notifying handler of released channel: {}", e.getMessage(), e);
+            }
+        }
+        connection.active = Math.max(0, connection.active - 1);
+        connection.lastUsed = System.nanoTime();
+        if ((connection.draining || connection.isExpired()) && connection.active == 0) {
+            connection.channel.close();
+        }
+        promise.trySuccess(null);
+        drainPendingAcquires();
+    }
+
+    private void connect() {
+        connecting++;
+        ChannelFuture connectFuture = bootstrap.connect();
+        Channel channel = connectFuture.channel();
+        AtomicBoolean settled = new AtomicBoolean();
+        connectFuture.addListener(future -> {
+            if (!future.isSuccess()) {
+                execute(() -> {
+                    if (settled.compareAndSet(false, true)) {
+                        onClosed(channel.attr(CONNECTION).get(), future.cause());
+                    }
+                });
+            }
+        });
+        channel.closeFuture().addListener(future -> execute(() -> {
+            if (settled.compareAndSet(false, true)) {
+                onClosed(channel.attr(CONNECTION).get(), null);
+            }
+        }));
+    }
+
+    private void onReady(Connection connection, boolean multiplexed, long maxStreams) {
+        if (connection.closed) {
+            return;
+        }
+        connection.multiplexed = multiplexed;
+        connection.maxStreams = (int) Math.min(Integer.MAX_VALUE, maxStreams);
+        if (!connection.ready) {
+            connection.ready = true;
+            connecting--;
+            if (closed) {
+                connection.channel.close();
+                return;
+            }
+            connections.add(connection);
+        }
+        drainPendingAcquires();
+    }
+
+    private void onClosed(@Nullable Connection connection, @Nullable Throwable cause) {
+        if (connection != null) {
+            connection.closed = true;
+            connection.draining = true;
+        }
+        if (connection != null && connection.ready) {
+            connections.remove(connection);
+        } else {
+            connecting--;
+        }
+        if (connections.isEmpty() && connecting == 0 && !pendingAcquires.isEmpty()) {
+            Throwable failure = cause != null ? cause : new HttpClientException("Connection closed before the HTTP/2 connection was established");
+            PendingAcquire acquire;
+            while ((acquire = pendingAcquires.poll()) != null) {
+                acquire.fail(failure);
+            }
+        } else {
+            drainPendingAcquires();
+        }
+    }
+
+    private void checkHealth() {
+        long now = System.nanoTime();
+        for (Connection connection : new ArrayList<>(connections)) {
+            if (connection.active > 0) {
+                continue;
+            }
+            if (connection.draining || connection.isExpired() ||
+                    (idleTimeoutNanos > -1 && now - connection.lastUsed >= idleTimeoutNanos)) {
+                connection.channel.close();
+            } else if (connection.multiplexed) {
+                if (connection.pingOutstanding) {
+                    LOG.debug("Closing HTTP/2 connection {} that did not acknowledge a ping", connection.channel);
+                    connection.draining = true;
+                    connection.channel.close();
+                } else {
+                    connection.pingOutstanding = true;
+                    connection.channel.writeAndFlush(new DefaultHttp2PingFrame(now));
+                }
+            }
+        }
+    }
+
+    /**
+     * A pooled connection. The state is only accessed from the executor of the pool.
+     */
+    private final class Connection {
+        final Channel channel;
+        boolean ready;
+        boolean multiplexed;
+        boolean draining;
+        boolean closed;
+        boolean pingOutstanding;
+        // HTTP/2 does not limit the concurrent streams until the peer sets a limit
+        int maxStreams = Integer.MAX_VALUE;
+        int active;
+        long lastUsed = System.nanoTime();
+
+        Connection(Channel channel) {
+            this.channel = channel;
+        }
+
+        Http2ChannelPool pool() {
+            return Http2ChannelPool.this;
+        }
+
+        /**
+         * @return Whether the connection reached its time-to-live, see {@link ConnectTTLHandler}
+         */
+        boolean isExpired() {
+            return Boolean.TRUE.equals(channel.attr(ConnectTTLHandler.RELEASE_CHANNEL).get());
+        }
+
+        /**
+         * Tracks the settings, {@code GOAWAY} and ping acknowledgements of the connection.
+         */
+        private final class StateHandler extends ChannelInboundHandlerAdapter {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                if (msg instanceof Http2SettingsFrame) {
+                    Long maxConcurrentStreams = ((Http2SettingsFrame) msg).settings().maxConcurrentStreams();
+                    execute(() -> {
+                        // a settings frame only carries the settings that changed
+                        if (maxConcurrentStreams != null) {
+                            maxStreams = (int) Math.min(Integer.MAX_VALUE, maxConcurrentStreams);
+                        }
+                        onReady(Connection.this, true, maxStreams);
+                    });
+                } else if (msg instanceof Http2GoAwayFrame) {
+                    ReferenceCountUtil.release(msg);
+                    execute(() -> {
+                        draining = true;
+                        if (active == 0) {
+                            channel.close();
+                        }
+                    });
+                } else if (msg instanceof Http2PingFrame && ((Http2PingFrame) msg).ack()) {
+                    execute(() -> pingOutstanding = false);
+                } else {
+                    ctx.fireChannelRead(msg);
+                }
+            }
+        }
+    }
+
+    /**
+     * An acquire operation.
+     */
+    private static final class PendingAcquire {
+        final Promise<Channel> promise;
+        ScheduledFuture<?> timeout;
+        int attempts;
+
+        PendingAcquire(Promise<Channel> promise) {
+            this.promise = promise;
+        }
+
+        void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel(false);
+                timeout = null;
+            }
+        }
+
+        void fail(Throwable cause) {
+            cancelTimeout();
+            promise.tryFailure(cause);
+        }
+    }
+}
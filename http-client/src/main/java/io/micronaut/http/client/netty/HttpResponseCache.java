@@ -0,0 +1,657 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.MutableHttpRequest;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * <p>An HTTP cache for the responses received by {@link DefaultHttpClient}, implementing the parts of
+ * <a href="https://www.rfc-editor.org/rfc/rfc9111">RFC 9111</a> that apply to a client side cache. A client is
+ * typically shared by every caller, for example when a server propagates the credentials of its users, so the cache
+ * follows the rules of a shared cache.</p>
+ *
+ * <p>Only the complete responses to {@code GET} requests are stored, keyed by the absolute request URI with the
+ * request headers nominated by {@code Vary} and the {@code Cookie} header as secondary key. A response is stored
+ * unless either message carries {@code no-store}, the response is {@code private}, it varies on {@code *} or it is
+ * larger than the maximum entry size. The response to a request with {@code Authorization} is only stored, and a
+ * stored response is only used for such a request, if the response is {@code public}, has {@code s-maxage} or
+ * {@code must-revalidate}. Fresh responses are served
+ * from the cache with an {@code Age} header, stale responses are revalidated with {@code If-None-Match} and
+ * {@code If-Modified-Since}, in which case a {@code 304} response is replaced by the updated stored response.
+ * Responses with {@code stale-while-revalidate} are served stale within that window while a single background
+ * request revalidates them. Successful responses to unsafe requests invalidate the stored responses of the
+ * request URI and of the {@code Location} and {@code Content-Location} headers.</p>
+ *
+ * <p>The cache is bounded by the total size of the stored bodies and evicts the least recently used URIs first.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class HttpResponseCache {
+
+    /**
+     * Request attribute that marks a background revalidation, which must reach the origin.
+     */
+    static final String REVALIDATION = "micronaut.http.client.cache.revalidation";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpResponseCache.class);
+    private static final String VALIDATED_ENTRY = "micronaut.http.client.cache.entry";
+    private static final String REQUEST_TIME = "micronaut.http.client.cache.request-time";
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String PRIVATE = "private";
+    private static final String PUBLIC = "public";
+    private static final String MAX_AGE = "max-age";
+    private static final String S_MAXAGE = "s-maxage";
+    private static final String MAX_STALE = "max-stale";
+    private static final String MIN_FRESH = "min-fresh";
+    private static final String MUST_REVALIDATE = "must-revalidate";
+    private static final String PROXY_REVALIDATE = "proxy-revalidate";
+    private static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    private static final String COOKIE = "cookie";
+    private static final int MAX_VARIANTS = 8;
+    // accounts for the headers and bookkeeping of an entry
+    private static final int ENTRY_OVERHEAD = 512;
+    private static final long SECOND = 1000L;
+    private static final String[] HOP_BY_HOP_HEADERS = {
+            "connection", "keep-alive", "proxy-connection", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade"
+    };
+
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final Function<MutableHttpRequest<?>, Publisher<?>> revalidator;
+    private final LinkedHashMap<String, List<Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * @param maxSize      The maximum total size of the stored responses in bytes
+     * @param maxEntrySize The maximum size of a single response body in bytes
+     * @param revalidator  Sends a revalidation request to the origin without applying the client filters again
+     */
+    HttpResponseCache(long maxSize, int maxEntrySize, @NonNull Function<MutableHttpRequest<?>, Publisher<?>> revalidator) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+        this.revalidator = revalidator;
+    }
+
+    /**
+     * Looks up the response for the given request before it is sent. If a stored response can be used it is returned,
+     * otherwise the request may be made conditional on the validators of a stale stored response.
+     *
+     * @param request The request, after the client filters have been applied
+     * @return The response to use instead of sending the request or {@code null} if the request must be sent
+     */
+    @Nullable
+    FullHttpResponse beforeRequest(@NonNull io.micronaut.http.HttpRequest<?> request) {
+        removeValidators(request);
+        if (request.getMethod() != HttpMethod.GET) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        request.setAttribute(REQUEST_TIME, now);
+        io.micronaut.http.HttpHeaders headers = request.getHeaders();
+        if (headers.contains(io.micronaut.http.HttpHeaders.RANGE) ||
+                headers.contains(io.micronaut.http.HttpHeaders.IF_NONE_MATCH) ||
+                headers.contains(io.micronaut.http.HttpHeaders.IF_MODIFIED_SINCE) ||
+                headers.contains(io.micronaut.http.HttpHeaders.IF_MATCH) ||
+                headers.contains(io.micronaut.http.HttpHeaders.IF_UNMODIFIED_SINCE)) {
+            // the caller handles partial and conditional requests itself
+            return null;
+        }
+        List<String> cacheControl = headers.getAll(io.micronaut.http.HttpHeaders.CACHE_CONTROL);
+        Map<String, String> directives = directives(cacheControl);
+        if (directives.containsKey(NO_STORE)) {
+            return null;
+        }
+        Entry entry = find(request);
+        if (entry == null) {
+            return null;
+        }
+        boolean revalidation = request.getAttribute(REVALIDATION).isPresent();
+        boolean noCache = entry.noCache ||
+                directives.containsKey(NO_CACHE) ||
+                (cacheControl.isEmpty() && headers.getAll(io.micronaut.http.HttpHeaders.PRAGMA).contains(NO_CACHE));
+        if (!revalidation && !noCache) {
+            long age = entry.currentAge(now);
+            long lifetime = entry.freshnessLifetime;
+            long maxAge = seconds(directives.get(MAX_AGE));
+            if (maxAge > -1) {
+                lifetime = Math.min(lifetime, maxAge);
+            }
+            long minFresh = Math.max(0, seconds(directives.get(MIN_FRESH)));
+            if (age + minFresh < lifetime) {
+                return entry.toResponse(age);
+            }
+            if (!entry.mustRevalidate) {
+                long staleness = age - lifetime;
+                String maxStale = directives.get(MAX_STALE);
+                if (maxStale != null && (maxStale.isEmpty() || staleness <= seconds(maxStale))) {
+                    return entry.toResponse(age);
+                }
+                // a client that limits the age of the response does not accept a stale one
+                if (maxAge < 0 && minFresh == 0 && staleness < entry.staleWhileRevalidate) {
+                    revalidate(request, entry);
+                    return entry.toResponse(age);
+                }
+            }
+        }
+        if (request instanceof MutableHttpRequest && (entry.etag != null || entry.lastModified != null)) {
+            MutableHttpRequest<?> mutableRequest = (MutableHttpRequest<?>) request;
+            if (entry.etag != null) {
+                mutableRequest.header(io.micronaut.http.HttpHeaders.IF_NONE_MATCH, entry.etag);
+            }
+            if (entry.lastModified != null) {
+                mutableRequest.header(io.micronaut.http.HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+            }
+            request.setAttribute(VALIDATED_ENTRY, entry);
+        }
+        return null;
+    }
+
+    /**
+     * Updates the cache with the response received for the given request. If the response is the {@code 304} reply
+     * to a conditional request made by {@link #beforeRequest(io.micronaut.http.HttpRequest)}, the received
+     * response is released and the updated stored response is returned instead.
+     *
+     * @param request  The request
+     * @param response The received response
+     * @return The response to process
+     */
+    @NonNull
+    FullHttpResponse afterResponse(@NonNull io.micronaut.http.HttpRequest<?> request, @NonNull FullHttpResponse response) {
+        Entry validated = removeValidators(request);
+        HttpMethod method = request.getMethod();
+        int status = response.status().code();
+        if (method != HttpMethod.GET) {
+            if (!isSafe(method) && status >= 200 && status < 400) {
+                invalidate(request.getUri(), response.headers());
+            }
+            return response;
+        }
+        long now = System.currentTimeMillis();
+        long requestTime = request.getAttribute(REQUEST_TIME, Long.class).orElse(now);
+        if (status == HttpResponseStatus.NOT_MODIFIED.code() && validated != null) {
+            Entry updated = validated.update(response.headers(), requestTime, now);
+            replace(validated, updated);
+            ReferenceCountUtil.release(response);
+            return updated.toResponse(updated.currentAge(now));
+        }
+        store(request, response, requestTime, now);
+        return response;
+    }
+
+    /**
+     * Removes all stored responses.
+     */
+    synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @return The total size of the stored responses
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    private void store(io.micronaut.http.HttpRequest<?> request, FullHttpResponse response, long requestTime, long responseTime) {
+        HttpHeaders headers = response.headers();
+        int length = response.content().readableBytes();
+        if (length > maxEntrySize ||
+                directives(headers.getAll(HttpHeaderNames.CACHE_CONTROL)).containsKey(NO_STORE) ||
+                directives(request.getHeaders().getAll(io.micronaut.http.HttpHeaders.CACHE_CONTROL)).containsKey(NO_STORE)) {
+            return;
+        }
+        Map<String, String> responseDirectives = directives(headers.getAll(HttpHeaderNames.CACHE_CONTROL));
+        if (responseDirectives.containsKey(PRIVATE) ||
+                (request.getHeaders().contains(io.micronaut.http.HttpHeaders.AUTHORIZATION) && !isAuthorizedUse(responseDirectives))) {
+            return;
+        }
+        Map<String, String> varyValues = new HashMap<>(4);
+        // the cookies identify the user as much as the credentials do
+        varyValues.put(COOKIE, headerValue(request, COOKIE));
+        for (String name : tokens(headers.getAll(HttpHeaderNames.VARY))) {
+            if ("*".equals(name)) {
+                return;
+            }
+            varyValues.put(name, headerValue(request, name));
+        }
+        Entry entry = new Entry(
+                request.getUri().toString(),
+                response.protocolVersion(),
+                response.status(),
+                copyHeaders(headers),
+                ByteBufUtil.getBytes(response.content()),
+                varyValues,
+                requestTime,
+                responseTime
+        );
+        if (entry.isStorable()) {
+            put(entry);
+        }
+    }
+
+    private synchronized Entry find(io.micronaut.http.HttpRequest<?> request) {
+        List<Entry> variants = entries.get(request.getUri().toString());
+        if (variants != null) {
+            for (Entry entry : variants) {
+                if (entry.matches(request)) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private synchronized void put(Entry entry) {
+        List<Entry> variants = entries.computeIfAbsent(entry.key, key -> new ArrayList<>(1));
+        Iterator<Entry> i = variants.iterator();
+        while (i.hasNext()) {
+            Entry existing = i.next();
+            if (existing.varyValues.equals(entry.varyValues)) {
+                i.remove();
+                size -= existing.weight;
+            }
+        }
+        if (variants.size() >= MAX_VARIANTS) {
+            size -= variants.remove(0).weight;
+        }
+        variants.add(entry);
+        size += entry.weight;
+        evict();
+    }
+
+    private synchronized void replace(Entry previous, Entry updated) {
+        List<Entry> variants = entries.get(previous.key);
+        if (variants != null) {
+            int index = variants.indexOf(previous);
+            if (index > -1) {
+                variants.set(index, updated);
+                size += updated.weight - previous.weight;
+                evict();
+            }
+        }
+    }
+
+    private synchronized void invalidate(URI uri, HttpHeaders headers) {
+        remove(uri.toString());
+        for (CharSequence name : new CharSequence[] {HttpHeaderNames.LOCATION, HttpHeaderNames.CONTENT_LOCATION}) {
+            String location = headers.get(name);
+            if (location != null) {
+                try {
+                    URI target = uri.resolve(location);
+                    if (Objects.equals(target.getHost(), uri.getHost())) {
+                        remove(target.toString());
+                    }
+                } catch (IllegalArgumentException e) {
+                    // ignore invalid locations
+                }
+            }
+        }
+    }
+
+    private void remove(String key) {
+        List<Entry> variants = entries.remove(key);
+        if (variants != null) {
+            for (Entry entry : variants) {
+                size -= entry.weight;
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<List<Entry>> i = entries.values().iterator();
+        while (size > maxSize && i.hasNext()) {
+            for (Entry entry : i.next()) {
+                size -= entry.weight;
+            }
+            i.remove();
+        }
+    }
+
+    /**
+     * Revalidates the given stale entry in the background, at most once at a time per entry.
+     *
+     * @param request The request that was served from the stale entry
+     * @param entry   The entry
+     */
+    private void revalidate(io.micronaut.http.HttpRequest<?> request, Entry entry) {
+        if (!entry.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        MutableHttpRequest<Object> revalidation = io.micronaut.http.HttpRequest.GET(request.getUri());
+        request.getHeaders().forEach((name, values) -> {
+            for (String value : values) {
+                revalidation.header(name, value);
+            }
+        });
+        revalidation.setAttribute(REVALIDATION, true);
+        Flux.from(revalidator.apply(revalidation))
+                .doFinally(signal -> entry.revalidating.set(false))
+                .subscribe(response -> { }, error -> {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Background revalidation of {} failed: {}", entry.key, error.getMessage(), error);
+                    }
+                });
+    }
+
+    /**
+     * Removes the conditional headers added by a previous call to {@link #beforeRequest(io.micronaut.http.HttpRequest)},
+     * for example when the request is retried.
+     *
+     * @param request The request
+     * @return The entry the request was made conditional on
+     */
+    @Nullable
+    private Entry removeValidators(io.micronaut.http.HttpRequest<?> request) {
+        Entry entry = request.removeAttribute(VALIDATED_ENTRY, Entry.class).orElse(null);
+        if (entry != null && request instanceof MutableHttpRequest) {
+            MutableHttpRequest<?> mutableRequest = (MutableHttpRequest<?>) request;
+            mutableRequest.getHeaders().remove(io.micronaut.http.HttpHeaders.IF_NONE_MATCH);
+            mutableRequest.getHeaders().remove(io.micronaut.http.HttpHeaders.IF_MODIFIED_SINCE);
+        }
+        return entry;
+    }
+
+    /**
+     * @param directives The {@code Cache-Control} directives of a response
+     * @return Whether the response to a request with {@code Authorization} may be stored and reused
+     */
+    private static boolean isAuthorizedUse(Map<String, String> directives) {
+        return directives.containsKey(PUBLIC) || directives.containsKey(S_MAXAGE) || directives.containsKey(MUST_REVALIDATE);
+    }
+
+    private static boolean isSafe(HttpMethod method) {
+        return method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE;
+    }
+
+    private static HttpHeaders copyHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new DefaultHttpHeaders(false).set(headers);
+        for (String name : HOP_BY_HOP_HEADERS) {
+            copy.remove(name);
+        }
+        return copy;
+    }
+
+    private static String headerValue(io.micronaut.http.HttpRequest<?> request, String name) {
+        List<String> values = request.getHeaders().getAll(name);
+        return values.isEmpty() ? "" : String.join(",", values).trim();
+    }
+
+    /**
+     * @param values The header values
+     * @return The lower case elements of a comma separated header
+     */
+    private static List<String> tokens(List<String> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>(4);
+        for (String value : values) {
+            for (String token : value.split(",")) {
+                token = token.trim();
+                if (!token.isEmpty()) {
+                    tokens.add(token.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @param values The {@code Cache-Control} header values
+     * @return The directives with their unquoted argument or an empty string if there is none
+     */
+    private static Map<String, String> directives(List<String> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> directives = new HashMap<>(8);
+        for (String directive : tokens(values)) {
+            int index = directive.indexOf('=');
+            if (index < 0) {
+                directives.putIfAbsent(directive, "");
+            } else {
+                String argument = directive.substring(index + 1).trim();
+                if (argument.length() > 1 && argument.charAt(0) == '"' && argument.charAt(argument.length() - 1) == '"') {
+                    argument = argument.substring(1, argument.length() - 1);
+                }
+                directives.putIfAbsent(directive.substring(0, index).trim(), argument);
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * @param value The delta seconds
+     * @return The value in milliseconds or -1 if it is absent or invalid
+     */
+    private static long seconds(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? -1 : Math.min(seconds, Integer.MAX_VALUE) * SECOND;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long date(@Nullable String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        Date date = DateFormatter.parseHttpDate(value);
+        return date == null ? defaultValue : date.getTime();
+    }
+
+    /**
+     * A stored response. Entries are immutable apart from the revalidation flag, a revalidated response replaces
+     * the entry.
+     */
+    private static final class Entry {
+        final String key;
+        final HttpVersion version;
+        final HttpResponseStatus status;
+        final HttpHeaders headers;
+        final byte[] content;
+        final Map<String, String> varyValues;
+        final long requestTime;
+        final long responseTime;
+        final long ageValue;
+        final long dateValue;
+        final long freshnessLifetime;
+        final long staleWhileRevalidate;
+        final boolean explicitFreshness;
+        final boolean noCache;
+        final boolean mustRevalidate;
+        final boolean authorizedUse;
+        final String etag;
+        final String lastModified;
+        final int weight;
+        final AtomicBoolean revalidating = new AtomicBoolean();
+
+        Entry(String key,
+              HttpVersion version,
+              HttpResponseStatus status,
+              HttpHeaders headers,
+              byte[] content,
+              Map<String, String> varyValues,
+              long requestTime,
+              long responseTime) {
+            this.key = key;
+            this.version = version;
+            this.status = status;
+            this.headers = headers;
+            this.content = content;
+            this.varyValues = varyValues;
+            this.requestTime = requestTime;
+            this.responseTime = responseTime;
+            Map<String, String> directives = directives(headers.getAll(HttpHeaderNames.CACHE_CONTROL));
+            this.ageValue = Math.max(0, seconds(headers.get(HttpHeaderNames.AGE)));
+            this.dateValue = date(headers.get(HttpHeaderNames.DATE), responseTime);
+            this.etag = headers.get(HttpHeaderNames.ETAG);
+            this.lastModified = headers.get(HttpHeaderNames.LAST_MODIFIED);
+            this.noCache = directives.containsKey(NO_CACHE) || headers.containsValue(HttpHeaderNames.PRAGMA, NO_CACHE, true);
+            this.mustRevalidate = directives.containsKey(MUST_REVALIDATE) || directives.containsKey(PROXY_REVALIDATE);
+            this.authorizedUse = isAuthorizedUse(directives);
+            this.staleWhileRevalidate = mustRevalidate ? 0 : Math.max(0, seconds(directives.get(STALE_WHILE_REVALIDATE)));
+            // the shared max age takes precedence in a shared cache
+            long maxAge = seconds(directives.get(S_MAXAGE));
+            if (maxAge < 0) {
+                maxAge = seconds(directives.get(MAX_AGE));
+            }
+            String expires = headers.get(HttpHeaderNames.EXPIRES);
+            if (maxAge > -1) {
+                explicitFreshness = true;
+                freshnessLifetime = maxAge;
+            } else if (expires != null) {
+                // an invalid Expires value means the response is already expired
+                explicitFreshness = true;
+                freshnessLifetime = Math.max(0, date(expires, dateValue) - dateValue);
+            } else {
+                explicitFreshness = directives.containsKey(PUBLIC);
+                long modified = date(lastModified, dateValue);
+                // heuristic freshness of 10% of the time since the last modification
+                freshnessLifetime = isHeuristicallyCacheable(status.code()) ? Math.max(0, dateValue - modified) / 10 : 0;
+            }
+            this.weight = content.length + ENTRY_OVERHEAD;
+        }
+
+        /**
+         * @return Whether the response may and is worth being stored
+         */
+        boolean isStorable() {
+            int code = status.code();
+            if (code < 200 || code == HttpResponseStatus.PARTIAL_CONTENT.code() || code == HttpResponseStatus.NOT_MODIFIED.code()) {
+                return false;
+            }
+            if (!explicitFreshness && !isHeuristicallyCacheable(code)) {
+                return false;
+            }
+            return freshnessLifetime > 0 || staleWhileRevalidate > 0 || etag != null || lastModified != null;
+        }
+
+        /**
+         * @param request The request
+         * @return Whether the stored response may be used for a request with the given credentials and the request
+         * headers nominated by {@code Vary} match those of the stored request
+         */
+        boolean matches(io.micronaut.http.HttpRequest<?> request) {
+            if (!authorizedUse && request.getHeaders().contains(io.micronaut.http.HttpHeaders.AUTHORIZATION)) {
+                return false;
+            }
+            for (Map.Entry<String, String> vary : varyValues.entrySet()) {
+                if (!vary.getValue().equals(headerValue(request, vary.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param now The current time
+         * @return The current age of the response in milliseconds
+         */
+        long currentAge(long now) {
+            long apparentAge = Math.max(0, responseTime - dateValue);
+            long correctedAgeValue = ageValue + (responseTime - requestTime);
+            return Math.max(apparentAge, correctedAgeValue) + (now - responseTime);
+        }
+
+        /**
+         * @param notModified  The headers of the {@code 304} response
+         * @param requestTime  The time the conditional request was sent
+         * @param responseTime The time the response was received
+         * @return The entry with the stored headers updated by the {@code 304} response
+         */
+        Entry update(HttpHeaders notModified, long requestTime, long responseTime) {
+            HttpHeaders updated = headers.copy();
+            for (String name : copyHeaders(notModified).names()) {
+                if (!HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name)) {
+                    updated.set(name, notModified.getAll(name));
+                }
+            }
+            return new Entry(key, version, status, updated, content, varyValues, requestTime, responseTime);
+        }
+
+        /**
+         * @param age The current age
+         * @return A response for the stored response, sharing the stored content
+         */
+        FullHttpResponse toResponse(long age) {
+            HttpHeaders responseHeaders = headers.copy().set(HttpHeaderNames.AGE, age / SECOND);
+            return new DefaultFullHttpResponse(version, status, Unpooled.wrappedBuffer(content), responseHeaders, EmptyHttpHeaders.INSTANCE);
+        }
+
+        private static boolean isHeuristicallyCacheable(int code) {
+            switch (code) {
+                case 200:
+                case 203:
+                case 204:
+                case 300:
+                case 301:
+                case 308:
+                case 404:
+                case 405:
+                case 410:
+                case 414:
+                case 501:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.client.pool.ConnectionCloseReason;
+import io.micronaut.http.client.pool.ConnectionPoolKey;
+import io.micronaut.http.client.pool.ConnectionPoolListener;
+import io.micronaut.http.client.pool.ConnectionPoolStatistics;
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link ChannelPool} that records the statistics of the pool it wraps and notifies the
+ * {@link ConnectionPoolListener} instances of a client.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class InstrumentedChannelPool implements ChannelPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstrumentedChannelPool.class);
+    private static final AttributeKey<AtomicInteger> LEASES = AttributeKey.valueOf("micronaut.http.client.pool.leases");
+
+    private final ConnectionPoolKey key;
+    private final Collection<ConnectionPoolListener> listeners;
+    private final ChannelPool pool;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger pendingAcquires = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireFailureCount = new LongAdder();
+    private final LongAdder totalAcquireTime = new LongAdder();
+    private final AtomicLong maxAcquireTime = new AtomicLong();
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder expiredConnections = new LongAdder();
+    private final LongAdder idleClosedConnections = new LongAdder();
+    private final LongAdder closedConnections = new LongAdder();
+
+    /**
+     * @param key         The pool key
+     * @param listeners   The listeners, may be modified concurrently
+     * @param handler     The handler of the pool
+     * @param poolFactory Creates the pool for the given instrumented handler
+     */
+    InstrumentedChannelPool(@NonNull ConnectionPoolKey key,
+                            @NonNull Collection<ConnectionPoolListener> listeners,
+                            @NonNull ChannelPoolHandler handler,
+                            @NonNull Function<ChannelPoolHandler, ChannelPool> poolFactory) {
+        this.key = key;
+        this.listeners = listeners;
+        this.pool = poolFactory.apply(new InstrumentedHandler(handler));
+    }
+
+    /**
+     * @return The instrumented pool
+     */
+    @NonNull
+    ChannelPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return A snapshot of the statistics of the pool
+     */
+    @NonNull
+    ConnectionPoolStatistics getStatistics() {
+        return new ConnectionPoolStatistics(
+                key,
+                openConnections.get(),
+                activeConnections.get(),
+                pendingAcquires.get(),
+                acquireCount.sum(),
+                acquireFailureCount.sum(),
+                totalAcquireTime.sum(),
+                maxAcquireTime.get(),
+                createdConnections.sum(),
+                expiredConnections.sum(),
+                idleClosedConnections.sum(),
+                closedConnections.sum()
+        );
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        long start = System.nanoTime();
+        pendingAcquires.incrementAndGet();
+        return instrument(pool.acquire(), start);
+    }
+
+    @Override
+    public Future<Channel> acquire(Promise<Channel> promise) {
+        long start = System.nanoTime();
+        pendingAcquires.incrementAndGet();
+        return instrument(pool.acquire(promise), start);
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        onRelease(channel);
+        return pool.release(channel);
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+        onRelease(channel);
+        return pool.release(channel, promise);
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private Future<Channel> instrument(Future<Channel> future, long start) {
+        return future.addListener(f -> {
+            pendingAcquires.decrementAndGet();
+            long time = System.nanoTime() - start;
+            if (f.isSuccess()) {
+                Channel channel = (Channel) f.getNow();
+                activeConnections.incrementAndGet();
+                leases(channel).incrementAndGet();
+                acquireCount.increment();
+                totalAcquireTime.add(time);
+                maxAcquireTime.accumulateAndGet(time, Math::max);
+                notifyListeners(listener -> listener.connectionAcquired(key, time));
+            } else {
+                acquireFailureCount.increment();
+                notifyListeners(listener -> listener.acquireFailed(key, time, f.cause()));
+            }
+        });
+    }
+
+    private void onRelease(Channel channel) {
+        AtomicInteger leases = leases(channel);
+        if (leases.get() > 0) {
+            leases.decrementAndGet();
+            activeConnections.decrementAndGet();
+            notifyListeners(listener -> listener.connectionReleased(key));
+        }
+    }
+
+    private void notifyListeners(Consumer<ConnectionPoolListener> event) {
+        for (ConnectionPoolListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                LOG.warn("Error notifying connection pool listener {}: {}", listener, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Leases are counted on the connection, which is the parent of an HTTP/2 stream channel.
+     *
+     * @param channel The acquired channel
+     * @return The number of leases of the connection
+     */
+    private static AtomicInteger leases(Channel channel) {
+        Channel connection = channel.parent() != null ? channel.parent() : channel;
+        AtomicInteger leases = connection.attr(LEASES).get();
+        if (leases == null) {
+            leases = new AtomicInteger();
+            AtomicInteger existing = connection.attr(LEASES).setIfAbsent(leases);
+            if (existing != null) {
+                leases = existing;
+            }
+        }
+        return leases;
+    }
+
+    /**
+     * Counts the connections created by the pool and the reason they are closed.
+     */
+    private final class InstrumentedHandler implements ChannelPoolHandler {
+
+        private final ChannelPoolHandler handler;
+
+        InstrumentedHandler(ChannelPoolHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void channelReleased(Channel ch) throws Exception {
+            handler.channelReleased(ch);
+        }
+
+        @Override
+        public void channelAcquired(Channel ch) throws Exception {
+            handler.channelAcquired(ch);
+        }
+
+        @Override
+        public void channelCreated(Channel ch) throws Exception {
+            createdConnections.increment();
+            openConnections.incrementAndGet();
+            notifyListeners(listener -> listener.connectionCreated(key));
+            ch.closeFuture().addListener(future -> {
+                ConnectionCloseReason reason;
+                if (Boolean.TRUE.equals(ch.attr(ConnectTTLHandler.RELEASE_CHANNEL).get())) {
+                    reason = ConnectionCloseReason.EXPIRED;
+                    expiredConnections.increment();
+                } else if (leases(ch).get() == 0) {
+                    reason = ConnectionCloseReason.IDLE;
+                    idleClosedConnections.increment();
+                } else {
+                    reason = ConnectionCloseReason.ACTIVE;
+                }
+                closedConnections.increment();
+                openConnections.decrementAndGet();
+                notifyListeners(listener -> listener.connectionClosed(key, reason));
+            });
+            handler.channelCreated(ch);
+        }
+    }
+}
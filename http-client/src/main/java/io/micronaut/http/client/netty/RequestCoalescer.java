@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Coalesces identical concurrent {@code GET} requests of {@link DefaultHttpClient} into a single request to the
+ * server. The first request for a key becomes the leader and is sent, requests for the same key that arrive while
+ * the leader is in flight become followers and are not sent. The key is made of the absolute URI and the values of
+ * the configured request headers.</p>
+ *
+ * <p>When the leader receives its response each follower is given a copy of the complete response, which it converts
+ * to its own body type. When the leader fails the followers fail with the same error, when it is cancelled the
+ * followers send their own requests.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class RequestCoalescer {
+
+    private static final String FLIGHT = "micronaut.http.client.coalescing.flight";
+    // requests that may be answered with a partial or 304 response only share identical conditions
+    private static final List<String> CONDITIONAL_HEADERS = Arrays.asList(
+            HttpHeaders.RANGE,
+            HttpHeaders.IF_RANGE,
+            HttpHeaders.IF_MATCH,
+            HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE,
+            HttpHeaders.IF_UNMODIFIED_SINCE
+    );
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final List<String> headers;
+
+    /**
+     * @param headers The request headers that are part of the key
+     */
+    RequestCoalescer(@NonNull List<String> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Joins the request in flight with the same key as the given request. If there is none the given request becomes
+     * the leader and must be sent, in which case its outcome must be reported with {@link #complete} or {@link #fail}.
+     *
+     * @param request  The request, after the client filters have been applied
+     * @param follower The follower to notify if the request joins another request
+     * @return True if the request joined a request in flight and must not be sent
+     */
+    boolean join(@NonNull io.micronaut.http.HttpRequest<?> request, @NonNull Follower follower) {
+        if (request.getMethod() != HttpMethod.GET || request.getBody().isPresent()) {
+            return false;
+        }
+        String key = key(request);
+        Flight flight = new Flight(key);
+        while (true) {
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                request.setAttribute(FLIGHT, flight);
+                return false;
+            }
+            if (existing.add(follower)) {
+                return true;
+            }
+            // the flight has just landed
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Hands a copy of the response received by a leader to its followers.
+     *
+     * @param request  The request
+     * @param response The complete response, which remains owned by the caller
+     */
+    void complete(@NonNull io.micronaut.http.HttpRequest<?> request, @NonNull FullHttpResponse response) {
+        List<Follower> followers = land(request);
+        if (followers.isEmpty()) {
+            return;
+        }
+        byte[] content = ByteBufUtil.getBytes(response.content());
+        for (Follower follower : followers) {
+            follower.onResponse(new DefaultFullHttpResponse(
+                    response.protocolVersion(),
+                    response.status(),
+                    Unpooled.wrappedBuffer(content),
+                    response.headers().copy(),
+                    response.trailingHeaders().copy()
+            ));
+        }
+    }
+
+    /**
+     * Notifies the followers of a leader that finished without a response. This is a no-op if the leader already
+     * completed.
+     *
+     * @param request The request
+     * @param error   The error of the leader or {@code null} if it was cancelled
+     */
+    void fail(@NonNull io.micronaut.http.HttpRequest<?> request, @Nullable Throwable error) {
+        for (Follower follower : land(request)) {
+            if (error != null) {
+                follower.onError(error);
+            } else {
+                follower.onAbandoned();
+            }
+        }
+    }
+
+    private List<Follower> land(io.micronaut.http.HttpRequest<?> request) {
+        Flight flight = request.removeAttribute(FLIGHT, Flight.class).orElse(null);
+        if (flight == null) {
+            return Collections.emptyList();
+        }
+        flights.remove(flight.key, flight);
+        return flight.land();
+    }
+
+    private String key(io.micronaut.http.HttpRequest<?> request) {
+        StringBuilder key = new StringBuilder(request.getUri().toString());
+        appendHeaders(key, request.getHeaders(), headers);
+        appendHeaders(key, request.getHeaders(), CONDITIONAL_HEADERS);
+        return key.toString();
+    }
+
+    private static void appendHeaders(StringBuilder key, HttpHeaders requestHeaders, List<String> names) {
+        for (String name : names) {
+            key.append('\n');
+            for (String value : requestHeaders.getAll(name)) {
+                key.append(value).append(',');
+            }
+        }
+    }
+
+    /**
+     * A request waiting for the response of a leader.
+     */
+    interface Follower {
+
+        /**
+         * @param response A copy of the response of the leader
+         */
+        void onResponse(@NonNull FullHttpResponse response);
+
+        /**
+         * @param error The error of the leader
+         */
+        void onError(@NonNull Throwable error);
+
+        /**
+         * Called when the leader was cancelled, the follower should send its own request.
+         */
+        void onAbandoned();
+    }
+
+    /**
+     * A leader request in flight and its followers.
+     */
+    private static final class Flight {
+        private final String key;
+        private List<Follower> followers = new ArrayList<>(4);
+
+        Flight(String key) {
+            this.key = key;
+        }
+
+        synchronized boolean add(Follower follower) {
+            if (followers == null) {
+                return false;
+            }
+            followers.add(follower);
+            return true;
+        }
+
+        synchronized List<Follower> land() {
+            List<Follower> landed = followers;
+            followers = null;
+            return landed == null ? Collections.emptyList() : landed;
+        }
+    }
+}
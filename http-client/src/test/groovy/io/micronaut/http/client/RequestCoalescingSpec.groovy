@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.PathVariable
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class RequestCoalescingSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+            'spec.name'                             : 'RequestCoalescingSpec',
+            'micronaut.http.client.coalesce-requests': true
+    ])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+
+    SlowController controller = embeddedServer.applicationContext.getBean(SlowController)
+
+    def setup() {
+        controller.calls.set(0)
+    }
+
+    void "test concurrent identical requests share a single request"() {
+        when:
+        List<String> bodies = Flux.merge((1..10).collect {
+            client.retrieve(HttpRequest.GET('/coalescing/slow/shared'), String)
+        }).collectList().block()
+
+        then:
+        bodies.size() == 10
+        bodies.every { it == 'shared' }
+        controller.calls.get() == 1
+    }
+
+    void "test requests with different credentials are not coalesced"() {
+        when:
+        List<String> bodies = Flux.merge([
+                client.retrieve(HttpRequest.GET('/coalescing/slow/auth').bearerAuth('one'), String),
+                client.retrieve(HttpRequest.GET('/coalescing/slow/auth').bearerAuth('two'), String),
+                client.retrieve(HttpRequest.GET('/coalescing/slow/auth').bearerAuth('two'), String)
+        ]).collectList().block()
+
+        then:
+        bodies.size() == 3
+        controller.calls.get() == 2
+    }
+
+    void "test each coalesced request receives the error status"() {
+        when:
+        Flux.merge((1..5).collect {
+            Flux.from(client.exchange(HttpRequest.GET('/coalescing/missing'), String))
+                    .onErrorResume(HttpClientResponseException) { e -> Mono.just(e.response) }
+        }).collectList().block().each {
+            assert it.status().code == 404
+        }
+
+        then:
+        controller.calls.get() == 1
+    }
+
+    void "test sequential requests are not coalesced"() {
+        when:
+        client.toBlocking().retrieve('/coalescing/slow/one')
+        client.toBlocking().retrieve('/coalescing/slow/one')
+
+        then:
+        controller.calls.get() == 2
+    }
+
+    @Requires(property = 'spec.name', value = 'RequestCoalescingSpec')
+    @Controller('/coalescing')
+    static class SlowController {
+        AtomicInteger calls = new AtomicInteger()
+
+        @Get(value = '/slow/{name}', produces = 'text/plain')
+        Mono<String> slow(@PathVariable String name) {
+            calls.incrementAndGet()
+            Mono.delay(Duration.ofMillis(500)).map { name }
+        }
+
+        @Get(value = '/missing', produces = 'text/plain')
+        Mono<String> missing() {
+            calls.incrementAndGet()
+            Mono.delay(Duration.ofMillis(500)).then(Mono.empty())
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.annotation.Post
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResponseCacheSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+            'spec.name'                          : 'ResponseCacheSpec',
+            'micronaut.http.client.cache.enabled': true
+    ])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+
+    CacheController controller = embeddedServer.applicationContext.getBean(CacheController)
+
+    def setup() {
+        controller.calls.set(0)
+        controller.notModified.set(0)
+        controller.version.set(1)
+    }
+
+    void "test a fresh response is served from the cache"() {
+        when:
+        String first = client.toBlocking().retrieve('/cache/fresh')
+        HttpResponse<String> second = client.toBlocking().exchange('/cache/fresh', String)
+
+        then:
+        first == 'fresh 1'
+        second.body() == 'fresh 1'
+        second.header(HttpHeaders.AGE) != null
+        controller.calls.get() == 1
+
+        when: 'the request asks for a response that is not older than zero seconds'
+        String third = client.toBlocking().retrieve(HttpRequest.GET('/cache/fresh').header(HttpHeaders.CACHE_CONTROL, 'max-age=0'))
+
+        then:
+        third == 'fresh 1'
+        controller.calls.get() == 2
+    }
+
+    void "test a stale response is revalidated with its entity tag"() {
+        when:
+        String first = client.toBlocking().retrieve('/cache/etag')
+        HttpResponse<String> second = client.toBlocking().exchange('/cache/etag', String)
+
+        then:
+        first == 'etag 1'
+        second.status() == HttpStatus.OK
+        second.body() == 'etag 1'
+        controller.calls.get() == 2
+        controller.notModified.get() >= 1
+
+        when: 'the resource changes'
+        controller.version.set(2)
+        String third = client.toBlocking().retrieve('/cache/etag')
+
+        then:
+        third == 'etag 2'
+    }
+
+    void "test responses are stored per value of the headers they vary on"() {
+        when:
+        String english = client.toBlocking().retrieve(HttpRequest.GET('/cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+        String german = client.toBlocking().retrieve(HttpRequest.GET('/cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'de'))
+        String englishAgain = client.toBlocking().retrieve(HttpRequest.GET('/cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+
+        then:
+        english == 'en'
+        german == 'de'
+        englishAgain == 'en'
+        controller.calls.get() == 2
+    }
+
+    void "test no-store responses are not cached"() {
+        when:
+        client.toBlocking().retrieve('/cache/no-store')
+        client.toBlocking().retrieve('/cache/no-store')
+
+        then:
+        controller.calls.get() == 2
+    }
+
+    void "test an unsafe request invalidates the stored response"() {
+        when:
+        client.toBlocking().retrieve('/cache/invalidate')
+        client.toBlocking().retrieve('/cache/invalidate')
+        client.toBlocking().exchange(HttpRequest.POST('/cache/invalidate', 'update'))
+        String body = client.toBlocking().retrieve('/cache/invalidate')
+
+        then:
+        body == 'invalidate 1'
+        controller.calls.get() == 2
+    }
+
+    void "test a stale response is served while it is revalidated in the background"() {
+        when:
+        client.toBlocking().retrieve('/cache/swr')
+        controller.version.set(2)
+        String stale = client.toBlocking().retrieve('/cache/swr')
+
+        then:
+        stale == 'swr 1'
+        new PollingConditions(timeout: 5).eventually {
+            assert controller.calls.get() == 2
+            assert client.toBlocking().retrieve('/cache/swr') == 'swr 2'
+        }
+    }
+
+    void "test responses to requests with credentials are not shared"() {
+        when:
+        String alice = client.toBlocking().retrieve(HttpRequest.GET('/cache/auth').basicAuth('alice', 'secret'))
+        String bob = client.toBlocking().retrieve(HttpRequest.GET('/cache/auth').basicAuth('bob', 'secret'))
+        String anonymous = client.toBlocking().retrieve('/cache/auth')
+
+        then:
+        alice.startsWith('Basic ')
+        bob != alice
+        anonymous == 'anonymous'
+        controller.calls.get() == 3
+
+        when: 'an authenticated request does not use a response stored for an anonymous one'
+        String aliceAgain = client.toBlocking().retrieve(HttpRequest.GET('/cache/auth').basicAuth('alice', 'secret'))
+
+        then:
+        aliceAgain == alice
+        controller.calls.get() == 4
+    }
+
+    void "test public responses to requests with credentials are stored"() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.GET('/cache/auth-public').basicAuth('alice', 'secret'))
+        client.toBlocking().retrieve(HttpRequest.GET('/cache/auth-public').basicAuth('bob', 'secret'))
+
+        then:
+        controller.calls.get() == 1
+    }
+
+    void "test private responses are not stored"() {
+        when:
+        client.toBlocking().retrieve('/cache/private')
+        client.toBlocking().retrieve('/cache/private')
+
+        then:
+        controller.calls.get() == 2
+    }
+
+    void "test responses are stored per cookie"() {
+        when:
+        String alice = client.toBlocking().retrieve(HttpRequest.GET('/cache/cookie').header(HttpHeaders.COOKIE, 'session=alice'))
+        String bob = client.toBlocking().retrieve(HttpRequest.GET('/cache/cookie').header(HttpHeaders.COOKIE, 'session=bob'))
+        String aliceAgain = client.toBlocking().retrieve(HttpRequest.GET('/cache/cookie').header(HttpHeaders.COOKIE, 'session=alice'))
+
+        then:
+        alice == 'session=alice'
+        bob == 'session=bob'
+        aliceAgain == 'session=alice'
+        controller.calls.get() == 2
+    }
+
+    @Requires(property = 'spec.name', value = 'ResponseCacheSpec')
+    @Controller('/cache')
+    static class CacheController {
+        AtomicInteger calls = new AtomicInteger()
+        AtomicInteger notModified = new AtomicInteger()
+        AtomicInteger version = new AtomicInteger(1)
+
+        @Get(value = '/fresh', produces = 'text/plain')
+        HttpResponse<String> fresh() {
+            calls.incrementAndGet()
+            HttpResponse.ok('fresh ' + version.get()).header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Get(value = '/invalidate', produces = 'text/plain')
+        HttpResponse<String> invalidate() {
+            calls.incrementAndGet()
+            HttpResponse.ok('invalidate ' + version.get()).header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Post('/invalidate')
+        HttpResponse<?> update() {
+            HttpResponse.noContent()
+        }
+
+        @Get(value = '/etag', produces = 'text/plain')
+        HttpResponse<String> etag(@Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+            calls.incrementAndGet()
+            String etag = '"v' + version.get() + '"'
+            if (etag == ifNoneMatch) {
+                notModified.incrementAndGet()
+                return HttpResponse.notModified()
+            }
+            HttpResponse.ok('etag ' + version.get()).header(HttpHeaders.CACHE_CONTROL, 'no-cache').header(HttpHeaders.ETAG, etag)
+        }
+
+        @Get(value = '/vary', produces = 'text/plain')
+        HttpResponse<String> vary(@Header(HttpHeaders.ACCEPT_LANGUAGE) String language) {
+            calls.incrementAndGet()
+            HttpResponse.ok(language).header(HttpHeaders.CACHE_CONTROL, 'max-age=60').header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+        }
+
+        @Get(value = '/no-store', produces = 'text/plain')
+        HttpResponse<String> noStore() {
+            calls.incrementAndGet()
+            HttpResponse.ok('no-store').header(HttpHeaders.CACHE_CONTROL, 'no-store, max-age=60')
+        }
+
+        @Get(value = '/auth', produces = 'text/plain')
+        HttpResponse<String> auth(@Nullable @Header(HttpHeaders.AUTHORIZATION) String authorization) {
+            calls.incrementAndGet()
+            HttpResponse.ok(authorization ?: 'anonymous').header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Get(value = '/auth-public', produces = 'text/plain')
+        HttpResponse<String> authPublic() {
+            calls.incrementAndGet()
+            HttpResponse.ok('public').header(HttpHeaders.CACHE_CONTROL, 'public, max-age=60')
+        }
+
+        @Get(value = '/private', produces = 'text/plain')
+        HttpResponse<String> privateResponse() {
+            calls.incrementAndGet()
+            HttpResponse.ok('private').header(HttpHeaders.CACHE_CONTROL, 'private, max-age=60')
+        }
+
+        @Get(value = '/cookie', produces = 'text/plain')
+        HttpResponse<String> cookie(@Header(HttpHeaders.COOKIE) String cookie) {
+            calls.incrementAndGet()
+            HttpResponse.ok(cookie).header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Get(value = '/swr', produces = 'text/plain')
+        HttpResponse<String> staleWhileRevalidate() {
+            calls.incrementAndGet()
+            HttpResponse.ok('swr ' + version.get()).header(HttpHeaders.CACHE_CONTROL, 'max-age=0, stale-while-revalidate=60')
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package io.micronaut.http.client.aop
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.async.annotation.SingleResult
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.annotation.Produces
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.annotation.Hedged
+import io.micronaut.runtime.server.EmbeddedServer
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+class HedgedSpec extends Specification {
+
+    @Shared @AutoCleanup EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, ['spec.name': 'HedgedSpec'])
+
+    void setup() {
+        embeddedServer.applicationContext.getBean(SlowController).requests.set(0)
+    }
+
+    void "test a slow idempotent request is hedged"() {
+        given:
+        HedgedClient client = embeddedServer.applicationContext.getBean(HedgedClient)
+        SlowController controller = embeddedServer.applicationContext.getBean(SlowController)
+
+        when:
+        long start = System.nanoTime()
+        String result = client.slow()
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start)
+
+        then:
+        result == 'fast'
+        elapsed < Duration.ofSeconds(1)
+        controller.requests.get() == 2
+    }
+
+    void "test a slow reactive request is hedged"() {
+        given:
+        HedgedClient client = embeddedServer.applicationContext.getBean(HedgedClient)
+
+        expect:
+        Mono.from(client.slowPublisher()).block(Duration.ofSeconds(1)) == 'fast'
+        client.slowFuture().get() == 'fast'
+    }
+
+    void "test a non idempotent request is only hedged if the method declares it"() {
+        given:
+        HedgedClient client = embeddedServer.applicationContext.getBean(HedgedClient)
+        SlowController controller = embeddedServer.applicationContext.getBean(SlowController)
+
+        when:
+        String result = client.post('body')
+
+        then:
+        result == 'slow'
+        controller.requests.get() == 1
+
+        when:
+        controller.requests.set(0)
+        result = client.hedgedPost('body')
+
+        then:
+        result == 'fast'
+        controller.requests.get() == 2
+    }
+
+    void "test requests are not hedged once the budget is exhausted"() {
+        given:
+        HedgedClient client = embeddedServer.applicationContext.getBean(HedgedClient)
+        SlowController controller = embeddedServer.applicationContext.getBean(SlowController)
+
+        when:"the first request is hedged with the initial token"
+        String result = client.slowWithoutBudget()
+
+        then:
+        result == 'fast'
+        controller.requests.get() == 2
+
+        when:"the budget allows no further hedged requests"
+        result = client.slowWithoutBudget()
+
+        then:
+        result == 'slow'
+        controller.requests.get() == 3
+    }
+
+    void "test a request with a streaming body is not hedged"() {
+        given:
+        HedgedClient client = embeddedServer.applicationContext.getBean(HedgedClient)
+        SlowController controller = embeddedServer.applicationContext.getBean(SlowController)
+
+        when:
+        String result = client.hedgedStreamingPost(Flux.just('bo', 'dy'))
+
+        then:
+        result == 'slow'
+        controller.requests.get() == 1
+    }
+
+    @Requires(property = 'spec.name', value = 'HedgedSpec')
+    @Client('/hedged')
+    @Hedged(delay = '100ms', budget = 100D)
+    static interface HedgedClient {
+
+        @Get(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        String slow()
+
+        @Get(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        @SingleResult
+        Publisher<String> slowPublisher()
+
+        @Get(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        CompletableFuture<String> slowFuture()
+
+        @Post(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        String post(@Body String body)
+
+        @Hedged(delay = '100ms', budget = 100D)
+        @Post(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        String hedgedPost(@Body String body)
+
+        @Hedged(delay = '100ms', budget = 100D)
+        @Post(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        String hedgedStreamingPost(@Body Publisher<String> body)
+
+        @Hedged(delay = '100ms', budget = 0D)
+        @Get(value = '/slow', produces = MediaType.TEXT_PLAIN)
+        String slowWithoutBudget()
+    }
+
+    @Requires(property = 'spec.name', value = 'HedgedSpec')
+    @Controller('/hedged')
+    @Produces(MediaType.TEXT_PLAIN)
+    static class SlowController {
+
+        final AtomicInteger requests = new AtomicInteger()
+
+        @Get('/slow')
+        @SingleResult
+        Publisher<String> slow() {
+            respond()
+        }
+
+        @Post(value = '/slow', consumes = MediaType.TEXT_PLAIN)
+        @SingleResult
+        Publisher<String> post(@Body String body) {
+            respond()
+        }
+
+        private Publisher<String> respond() {
+            // the first request stalls, any further request is answered immediately
+            if (requests.incrementAndGet() % 2 == 1) {
+                return Mono.just('slow').delayElement(Duration.ofMillis(1500))
+            }
+            return Mono.just('fast')
+        }
+    }
+}
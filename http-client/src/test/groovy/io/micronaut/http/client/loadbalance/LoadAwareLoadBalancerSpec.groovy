@@ -0,0 +1,107 @@
+package io.micronaut.http.client.loadbalance
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.discovery.ServiceInstance
+import io.micronaut.discovery.StaticServiceInstanceList
+import io.micronaut.http.client.DefaultLoadBalancerResolver
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class LoadAwareLoadBalancerSpec extends Specification {
+
+    StaticServiceInstanceList instanceList = new StaticServiceInstanceList("test", [
+            URI.create("http://one:8080"),
+            URI.create("http://two:8080")
+    ])
+
+    void "test the least outstanding load balancer avoids busy instances"() {
+        given:
+        LeastOutstandingLoadBalancer balancer = new LeastOutstandingLoadBalancer(instanceList)
+        ServiceInstance busy = instanceList.instances[0]
+        balancer.requestStarted(busy)
+
+        expect:
+        (1..20).every { Mono.from(balancer.select()).block().URI != busy.URI }
+
+        when:
+        balancer.requestCompleted(busy, TimeUnit.MILLISECONDS.toNanos(5), null)
+
+        then:
+        balancer.getStatistics(busy).outstandingRequests == 0
+        balancer.getStatistics(busy).latencyNanos > 0
+    }
+
+    void "test the power of two choices load balancer avoids slow instances"() {
+        given:
+        PowerOfTwoChoicesLoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer(instanceList, Duration.ofMinutes(1))
+        ServiceInstance slow = instanceList.instances[0]
+        ServiceInstance fast = instanceList.instances[1]
+        balancer.requestStarted(slow)
+        balancer.requestCompleted(slow, TimeUnit.SECONDS.toNanos(2), null)
+        balancer.requestStarted(fast)
+        balancer.requestCompleted(fast, TimeUnit.MILLISECONDS.toNanos(1), null)
+
+        expect:
+        (1..20).every { Mono.from(balancer.select()).block().URI == fast.URI }
+    }
+
+    void "test a failing instance loses traffic to its healthy peer"() {
+        given:
+        PowerOfTwoChoicesLoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer(instanceList, Duration.ofMinutes(1))
+        ServiceInstance failing = instanceList.instances[0]
+        ServiceInstance healthy = instanceList.instances[1]
+        balancer.requestStarted(healthy)
+        balancer.requestCompleted(healthy, TimeUnit.MILLISECONDS.toNanos(20), null)
+
+        expect:
+        (1..50).any { Mono.from(balancer.select()).block().URI == failing.URI }
+
+        when:
+        balancer.requestStarted(failing)
+        balancer.requestCompleted(failing, TimeUnit.MILLISECONDS.toNanos(1), new IOException("Connection refused"))
+
+        then:
+        balancer.getStatistics(failing).failures == 1
+        balancer.getStatistics(failing).outstandingRequests == 0
+        balancer.getStatistics(failing).latencyNanos > TimeUnit.MILLISECONDS.toNanos(900)
+        (1..20).every { Mono.from(balancer.select()).block().URI == healthy.URI }
+    }
+
+    void "test a latency spike replaces the average immediately"() {
+        given:
+        ServiceInstanceStatistics statistics = new ServiceInstanceStatistics(TimeUnit.MINUTES.toNanos(1))
+
+        when:
+        statistics.requestStarted()
+        statistics.requestCompleted(TimeUnit.MILLISECONDS.toNanos(1))
+        statistics.requestStarted()
+        statistics.requestCompleted(TimeUnit.SECONDS.toNanos(1))
+
+        then:
+        statistics.latencyNanos > TimeUnit.MILLISECONDS.toNanos(900)
+        statistics.outstandingRequests == 0
+    }
+
+    void "test the load balancing strategy is selectable per service"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run(
+                'micronaut.http.services.foo.urls': ['http://one:8080', 'http://two:8080'],
+                'micronaut.http.services.foo.load-balancer': 'power-of-two-choices',
+                'micronaut.http.services.bar.urls': ['http://one:8080', 'http://two:8080'],
+                'micronaut.http.services.bar.load-balancer': 'least-outstanding',
+                'micronaut.http.services.baz.urls': ['http://one:8080', 'http://two:8080']
+        )
+        DefaultLoadBalancerResolver resolver = ctx.getBean(DefaultLoadBalancerResolver)
+
+        expect:
+        resolver.resolve("foo").get() instanceof PowerOfTwoChoicesLoadBalancer
+        resolver.resolve("bar").get() instanceof LeastOutstandingLoadBalancer
+        resolver.resolve("baz").get() instanceof ServiceInstanceListRoundRobinLoadBalancer
+
+        cleanup:
+        ctx.close()
+    }
+}
@@ -0,0 +1,151 @@
+package io.micronaut.http.client.loadbalance
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.discovery.ServiceInstance
+import io.micronaut.discovery.StaticServiceInstanceList
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.client.DefaultLoadBalancerResolver
+import io.micronaut.http.client.ServiceHttpClientConfiguration.OutlierDetectionConfiguration
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.client.exceptions.ReadTimeoutException
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class OutlierDetectorSpec extends Specification {
+
+    StaticServiceInstanceList instanceList = new StaticServiceInstanceList("test", [
+            URI.create("http://one:8080"),
+            URI.create("http://two:8080"),
+            URI.create("http://three:8080"),
+            URI.create("http://four:8080")
+    ])
+
+    void "test an instance is ejected after consecutive failures"() {
+        given:
+        OutlierDetectionConfiguration configuration = new OutlierDetectionConfiguration(consecutiveFailures: 3)
+        OutlierDetector detector = new OutlierDetector("test", configuration)
+        List<ServiceInstance> instances = instanceList.instances
+        ServiceInstance bad = instances[0]
+        detector.filter(instances)
+
+        when:
+        2.times { detector.record(bad, ReadTimeoutException.TIMEOUT_EXCEPTION) }
+        detector.record(bad, null)
+        2.times { detector.record(bad, new HttpClientResponseException("error", HttpResponse.serverError())) }
+
+        then:"a success resets the consecutive failures"
+        !detector.isEjected(bad)
+
+        when:
+        detector.record(bad, new HttpClientResponseException("error", HttpResponse.serverError()))
+
+        then:
+        detector.isEjected(bad)
+        detector.filter(instances).size() == 3
+        !detector.filter(instances).any { it.URI == bad.URI }
+    }
+
+    void "test client errors are not failures"() {
+        given:
+        OutlierDetector detector = new OutlierDetector("test", new OutlierDetectionConfiguration(consecutiveFailures: 1))
+        ServiceInstance instance = instanceList.instances[0]
+
+        when:
+        detector.record(instance, new HttpClientResponseException("not found", HttpResponse.notFound()))
+
+        then:
+        !detector.isEjected(instance)
+    }
+
+    void "test an instance is ejected when the failure ratio is exceeded"() {
+        given:
+        OutlierDetectionConfiguration configuration = new OutlierDetectionConfiguration(
+                consecutiveFailures: 100, minimumRequests: 4, failureRatio: 0.5)
+        OutlierDetector detector = new OutlierDetector("test", configuration)
+        ServiceInstance instance = instanceList.instances[0]
+
+        when:
+        detector.record(instance, null)
+        detector.record(instance, ReadTimeoutException.TIMEOUT_EXCEPTION)
+        detector.record(instance, null)
+
+        then:
+        !detector.isEjected(instance)
+
+        when:
+        detector.record(instance, ReadTimeoutException.TIMEOUT_EXCEPTION)
+
+        then:
+        detector.isEjected(instance)
+    }
+
+    void "test the ejected instances are capped"() {
+        given:
+        OutlierDetectionConfiguration configuration = new OutlierDetectionConfiguration(consecutiveFailures: 1, maxEjectionPercent: 50)
+        OutlierDetector detector = new OutlierDetector("test", configuration)
+        List<ServiceInstance> instances = instanceList.instances
+        detector.filter(instances)
+
+        when:
+        instances.each { detector.record(it, ReadTimeoutException.TIMEOUT_EXCEPTION) }
+
+        then:
+        instances.count { detector.isEjected(it) } == 2
+        detector.filter(instances).size() == 2
+    }
+
+    void "test the ejection time backs off exponentially"() {
+        given:
+        OutlierDetectionConfiguration configuration = new OutlierDetectionConfiguration(
+                consecutiveFailures: 1, baseEjectionTime: Duration.ofMillis(50), maxEjectionTime: Duration.ofSeconds(10))
+        AtomicLong ticker = new AtomicLong()
+        OutlierDetector detector = new OutlierDetector("test", configuration, { ticker.get() })
+        ServiceInstance instance = instanceList.instances[0]
+        detector.filter(instanceList.instances)
+
+        when:
+        detector.record(instance, ReadTimeoutException.TIMEOUT_EXCEPTION)
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(80))
+
+        then:
+        !detector.isEjected(instance)
+
+        when:"the instance is ejected again"
+        detector.record(instance, ReadTimeoutException.TIMEOUT_EXCEPTION)
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(80))
+
+        then:"the ejection time has doubled"
+        detector.isEjected(instance)
+    }
+
+    void "test outlier detection is enabled per service"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run(
+                'micronaut.http.services.foo.urls': ['http://one:8080', 'http://two:8080'],
+                'micronaut.http.services.foo.outlier-detection.enabled': true,
+                'micronaut.http.services.foo.outlier-detection.consecutive-failures': 2,
+                'micronaut.http.services.foo.load-balancer': 'least-outstanding',
+        )
+        DefaultLoadBalancerResolver resolver = ctx.getBean(DefaultLoadBalancerResolver)
+
+        when:
+        OutlierDetectingLoadBalancer balancer = resolver.resolve("foo").get()
+        ServiceInstance bad = Mono.from(balancer.select()).block()
+        2.times {
+            balancer.requestStarted(bad)
+            balancer.requestCompleted(bad, 1000, ReadTimeoutException.TIMEOUT_EXCEPTION)
+        }
+
+        then:
+        balancer.loadBalancer instanceof LeastOutstandingLoadBalancer
+        balancer.outlierDetector.isEjected(bad)
+        (1..10).every { Mono.from(balancer.select()).block().URI != bad.URI }
+
+        cleanup:
+        ctx.close()
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Negotiates content codings with the {@code Accept-Encoding} header.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class AcceptEncodings {
+
+    private static final String WILDCARD = "*";
+    private static final String QUALITY = "q=";
+
+    private AcceptEncodings() {
+    }
+
+    /**
+     * Selects the supported codings that are acceptable for the given header. Codings with a higher quality value come
+     * first, the order of the supported codings breaks ties.
+     *
+     * @param acceptEncoding The value of the {@code Accept-Encoding} header
+     * @param supported      The supported codings in order of preference
+     * @return The acceptable codings, best first
+     */
+    @NonNull
+    static List<String> negotiate(@Nullable String acceptEncoding, @NonNull Collection<String> supported) {
+        if (acceptEncoding == null || supported.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double wildcard = 0;
+        Map<String, Double> qualities = new HashMap<>(supported.size() * 2);
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith(QUALITY)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(QUALITY.length()));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(WILDCARD)) {
+                wildcard = quality;
+            } else if (supported.contains(coding)) {
+                qualities.put(coding, quality);
+            }
+        }
+        List<String> codings = new ArrayList<>(supported.size());
+        for (String coding : supported) {
+            double quality = qualities.getOrDefault(coding, wildcard);
+            if (quality > 0) {
+                qualities.put(coding, quality);
+                codings.add(coding);
+            }
+        }
+        // the sort is stable so the order of the supported codings breaks ties
+        codings.sort((c1, c2) -> Double.compare(qualities.get(c2), qualities.get(c1)));
+        return codings;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.reflect.ClassUtils;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Creates the encoders for the content codings supported by {@link SmartHttpContentCompressor}. The Brotli and
+ * Zstandard encoders are only available if the Netty codecs and their native libraries
+ * ({@code com.aayushatharva.brotli4j:brotli4j} and {@code com.github.luben:zstd-jni}) are on the classpath, they
+ * are therefore created reflectively.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class ContentEncoders {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final String BROTLI = "br";
+    static final String ZSTD = "zstd";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContentEncoders.class);
+    private static final String COMPRESSION_PACKAGE = "io.netty.handler.codec.compression.";
+    private static final int WINDOW_BITS = 15;
+    private static final int MEM_LEVEL = 8;
+    private static final int MAX_ZLIB_LEVEL = 9;
+    private static final int MAX_BROTLI_QUALITY = 11;
+    private static final int MAX_ZSTD_LEVEL = 22;
+
+    private static final Constructor<?> BROTLI_ENCODER;
+    private static final Constructor<?> BROTLI_PARAMETERS;
+    private static final Method BROTLI_QUALITY;
+    private static final Constructor<?> ZSTD_ENCODER;
+
+    static {
+        Constructor<?> brotliEncoder = null;
+        Constructor<?> brotliParameters = null;
+        Method brotliQuality = null;
+        if (isAvailable("Brotli")) {
+            try {
+                Class<?> parametersType = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder$Parameters", true, ContentEncoders.class.getClassLoader());
+                brotliParameters = parametersType.getConstructor();
+                brotliQuality = parametersType.getMethod("setQuality", int.class);
+                brotliEncoder = Class.forName(COMPRESSION_PACKAGE + "BrotliEncoder", true, ContentEncoders.class.getClassLoader())
+                        .getConstructor(parametersType);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOG.debug("Brotli compression is not available: {}", e.getMessage());
+                brotliEncoder = null;
+            }
+        }
+        Constructor<?> zstdEncoder = null;
+        if (isAvailable("Zstd")) {
+            try {
+                zstdEncoder = Class.forName(COMPRESSION_PACKAGE + "ZstdEncoder", true, ContentEncoders.class.getClassLoader())
+                        .getConstructor(int.class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOG.debug("Zstandard compression is not available: {}", e.getMessage());
+            }
+        }
+        BROTLI_ENCODER = brotliEncoder;
+        BROTLI_PARAMETERS = brotliParameters;
+        BROTLI_QUALITY = brotliQuality;
+        ZSTD_ENCODER = zstdEncoder;
+    }
+
+    private ContentEncoders() {
+    }
+
+    /**
+     * @param encoding The content coding
+     * @return Whether an encoder for the coding can be created
+     */
+    static boolean isSupported(String encoding) {
+        switch (encoding) {
+            case GZIP:
+            case DEFLATE:
+                return true;
+            case BROTLI:
+                return BROTLI_ENCODER != null;
+            case ZSTD:
+                return ZSTD_ENCODER != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Creates an encoder. The level is clamped to the range of the coding: 0-9 for gzip and deflate, 0-11 for
+     * Brotli and 1-22 for Zstandard.
+     *
+     * @param encoding The content coding
+     * @param level    The compression level
+     * @return The encoder or {@code null} if the coding is not supported
+     */
+    @Nullable
+    static ChannelHandler newEncoder(String encoding, int level) {
+        try {
+            switch (encoding) {
+                case GZIP:
+                    return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, clamp(level, 0, MAX_ZLIB_LEVEL), WINDOW_BITS, MEM_LEVEL);
+                case DEFLATE:
+                    return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.ZLIB, clamp(level, 0, MAX_ZLIB_LEVEL), WINDOW_BITS, MEM_LEVEL);
+                case BROTLI:
+                    if (BROTLI_ENCODER == null) {
+                        return null;
+                    }
+                    Object parameters = BROTLI_PARAMETERS.newInstance();
+                    BROTLI_QUALITY.invoke(parameters, clamp(level, 0, MAX_BROTLI_QUALITY));
+                    return (ChannelHandler) BROTLI_ENCODER.newInstance(parameters);
+                case ZSTD:
+                    return ZSTD_ENCODER == null ? null : (ChannelHandler) ZSTD_ENCODER.newInstance(clamp(level, 1, MAX_ZSTD_LEVEL));
+                default:
+                    return null;
+            }
+        } catch (ReflectiveOperationException e) {
+            LOG.debug("Could not create the encoder for {}: {}", encoding, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int clamp(int level, int min, int max) {
+        return Math.max(min, Math.min(max, level));
+    }
+
+    /**
+     * Calls the {@code isAvailable} method of the given Netty codec class, which checks the native library.
+     */
+    private static boolean isAvailable(String codec) {
+        return ClassUtils.forName(COMPRESSION_PACKAGE + codec, ContentEncoders.class.getClassLoader())
+                .map(type -> {
+                    try {
+                        return (Boolean) type.getMethod("isAvailable").invoke(null);
+                    } catch (ReflectiveOperationException | LinkageError e) {
+                        return false;
+                    }
+                })
+                .orElse(false);
+    }
+}
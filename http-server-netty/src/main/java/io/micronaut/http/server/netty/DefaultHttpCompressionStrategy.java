@@ -16,6 +16,7 @@
 package io.micronaut.http.server.netty;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -24,6 +25,15 @@ import io.netty.handler.codec.http.HttpResponse;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Default implementation of {@link HttpCompressionStrategy}.
  *
@@ -34,16 +44,28 @@ import jakarta.inject.Singleton;
 @Singleton
 class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
 
+    private static final int DEFAULT_BROTLI_LEVEL = 4;
+    private static final int DEFAULT_ZSTD_LEVEL = 3;
+    private static final long BUDGET_WINDOW = TimeUnit.SECONDS.toNanos(1);
+
     private final int compressionThreshold;
     private final int compressionLevel;
+    private final List<String> encodings;
+    private final Map<String, Integer> compressionLevels;
+    private final long compressionBudget;
+    private final AtomicLong budgetWindowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong budgetUsed = new AtomicLong();
 
     /**
      * @param serverConfiguration The netty server configuration
      */
     @Inject
     DefaultHttpCompressionStrategy(NettyHttpServerConfiguration serverConfiguration) {
-        this.compressionThreshold = serverConfiguration.getCompressionThreshold();
-        this.compressionLevel = serverConfiguration.getCompressionLevel();
+        this(serverConfiguration.getCompressionThreshold(),
+                serverConfiguration.getCompressionLevel(),
+                serverConfiguration.getCompressionEncodings(),
+                serverConfiguration.getCompressionLevels(),
+                serverConfiguration.getCompressionBudget());
     }
 
     /**
@@ -51,8 +73,27 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
      * @param compressionLevel The compression level (0-9)
      */
     DefaultHttpCompressionStrategy(int compressionThreshold, int compressionLevel) {
+        this(compressionThreshold, compressionLevel, Arrays.asList(ContentEncoders.GZIP, ContentEncoders.DEFLATE), Collections.emptyMap(), -1);
+    }
+
+    /**
+     * @param compressionThreshold The compression threshold
+     * @param compressionLevel The compression level (0-9) of gzip and deflate
+     * @param encodings The content codings in order of preference
+     * @param compressionLevels The compression levels by media type
+     * @param compressionBudget The number of bytes that may be compressed per second or -1 for no budget
+     */
+    DefaultHttpCompressionStrategy(int compressionThreshold,
+                                   int compressionLevel,
+                                   List<String> encodings,
+                                   Map<String, Integer> compressionLevels,
+                                   long compressionBudget) {
         this.compressionThreshold = compressionThreshold;
         this.compressionLevel = compressionLevel;
+        this.encodings = encodings;
+        this.compressionLevels = new HashMap<>(compressionLevels.size());
+        compressionLevels.forEach((mediaType, level) -> this.compressionLevels.put(mediaType.toLowerCase(Locale.ENGLISH), level));
+        this.compressionBudget = compressionBudget;
     }
 
     @Override
@@ -70,4 +111,61 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
     public int getCompressionLevel() {
         return compressionLevel;
     }
+
+    @Override
+    public List<String> getEncodings() {
+        return encodings;
+    }
+
+    @Nullable
+    @Override
+    public String selectEncoding(HttpResponse response, List<String> candidates) {
+        if (compressionBudget > -1) {
+            Integer contentLength = response.headers().getInt(HttpHeaderNames.CONTENT_LENGTH);
+            if (!consumeBudget(contentLength == null ? compressionThreshold : contentLength)) {
+                return null;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    @Override
+    public int getCompressionLevel(HttpResponse response, String encoding) {
+        String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType != null && !compressionLevels.isEmpty()) {
+            int parameters = contentType.indexOf(';');
+            String mediaType = (parameters > -1 ? contentType.substring(0, parameters) : contentType).trim().toLowerCase(Locale.ENGLISH);
+            Integer level = compressionLevels.get(mediaType);
+            if (level != null) {
+                return level;
+            }
+        }
+        switch (encoding) {
+            case ContentEncoders.BROTLI:
+                return DEFAULT_BROTLI_LEVEL;
+            case ContentEncoders.ZSTD:
+                return DEFAULT_ZSTD_LEVEL;
+            default:
+                return compressionLevel;
+        }
+    }
+
+    /**
+     * Charges the given number of bytes to the budget of the current one second window.
+     *
+     * @param bytes The number of bytes
+     * @return True if the bytes fit into the budget
+     */
+    private boolean consumeBudget(long bytes) {
+        long now = System.nanoTime();
+        long windowStart = budgetWindowStart.get();
+        if (now - windowStart >= BUDGET_WINDOW && budgetWindowStart.compareAndSet(windowStart, now)) {
+            budgetUsed.set(0);
+        }
+        if (budgetUsed.addAndGet(bytes) > compressionBudget) {
+            budgetUsed.addAndGet(-bytes);
+            return false;
+        }
+        return true;
+    }
 }
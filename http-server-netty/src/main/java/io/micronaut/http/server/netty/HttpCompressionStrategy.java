@@ -15,8 +15,13 @@
  */
 package io.micronaut.http.server.netty;
 
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.netty.handler.codec.http.HttpResponse;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Determines if a given http message should be compressed. It should
  * be assumed the client allows for compressed responses.
@@ -38,4 +43,39 @@ public interface HttpCompressionStrategy {
     default int getCompressionLevel() {
         return 6;
     }
+
+    /**
+     * The content codings the server may use, in order of preference. Codings whose encoder is not available on
+     * the classpath, such as {@code br} and {@code zstd} without their native libraries, are ignored.
+     *
+     * @return The content codings
+     * @since 3.0.2
+     */
+    @NonNull
+    default List<String> getEncodings() {
+        return Arrays.asList("gzip", "deflate");
+    }
+
+    /**
+     * Selects the content coding for a response that should be compressed. This method is called once per response.
+     *
+     * @param response   The HTTP response
+     * @param candidates The available codings acceptable to the client, best first. Never empty.
+     * @return The coding or {@code null} if the response should be sent uncompressed
+     * @since 3.0.2
+     */
+    @Nullable
+    default String selectEncoding(@NonNull HttpResponse response, @NonNull List<String> candidates) {
+        return candidates.get(0);
+    }
+
+    /**
+     * @param response The HTTP response
+     * @param encoding The selected content coding
+     * @return The compression level for the response and coding
+     * @since 3.0.2
+     */
+    default int getCompressionLevel(@NonNull HttpResponse response, @NonNull String encoding) {
+        return getCompressionLevel();
+    }
 }
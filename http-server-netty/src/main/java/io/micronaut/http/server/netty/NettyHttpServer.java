@@ -54,6 +54,8 @@ import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
 import io.micronaut.http.server.HttpServerConfiguration;
 import io.micronaut.http.server.RouteExecutor;
 import io.micronaut.http.server.binding.RequestArgumentSatisfier;
+import io.micronaut.http.server.etag.DefaultEntityTagGenerator;
+import io.micronaut.http.server.etag.EntityTagGenerator;
 import io.micronaut.http.server.exceptions.ServerStartupException;
 import io.micronaut.http.server.exceptions.response.ErrorResponseProcessor;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
@@ -292,7 +294,8 @@ public class NettyHttpServer implements EmbeddedServer, WebSocketSessionReposito
                 httpContentProcessorResolver,
                 errorResponseProcessor,
                 this.terminateEventPublisher,
-                this.routeExecutor);
+                this.routeExecutor,
+                applicationContext.findBean(EntityTagGenerator.class).orElseGet(DefaultEntityTagGenerator::new));
         this.channelOptionFactory = channelOptionFactory;
         this.hostResolver = hostResolver;
     }
@@ -19,6 +19,7 @@ import io.micronaut.buffer.netty.NettyByteBufferFactory;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.async.subscriber.CompletionAwareSubscriber;
 import io.micronaut.core.convert.ConversionService;
@@ -37,6 +38,7 @@ import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpHeaders;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.ETag;
 import io.micronaut.http.codec.MediaTypeCodec;
 import io.micronaut.http.codec.MediaTypeCodecRegistry;
 import io.micronaut.http.context.ServerRequestContext;
@@ -50,6 +52,8 @@ import io.micronaut.http.netty.stream.JsonSubscriber;
 import io.micronaut.http.netty.stream.StreamedHttpRequest;
 import io.micronaut.http.server.RouteExecutor;
 import io.micronaut.http.server.binding.RequestArgumentSatisfier;
+import io.micronaut.http.server.etag.EntityTagGenerator;
+import io.micronaut.http.server.etag.EntityTags;
 import io.micronaut.http.server.exceptions.InternalServerException;
 import io.micronaut.http.server.exceptions.response.ErrorContext;
 import io.micronaut.http.server.exceptions.response.ErrorResponseProcessor;
@@ -60,7 +64,10 @@ import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandler
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandlerRegistry;
 import io.micronaut.http.server.netty.types.files.NettyStreamedFileCustomizableResponseType;
 import io.micronaut.http.server.netty.types.files.NettySystemFileCustomizableResponseType;
+import io.micronaut.http.server.types.CustomizableResponseTypeException;
 import io.micronaut.http.server.types.files.FileCustomizableResponseType;
+import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.http.server.types.files.SystemFile;
 import io.micronaut.runtime.http.codec.TextPlainCodec;
 import io.micronaut.web.router.MethodBasedRouteMatch;
 import io.micronaut.web.router.RouteInfo;
@@ -94,6 +101,7 @@ import io.netty.handler.codec.http2.Http2Error;
 import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCounted;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import org.reactivestreams.Publisher;
@@ -111,12 +119,15 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -145,6 +156,18 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
     private static final Pattern IGNORABLE_ERROR_MESSAGE = Pattern.compile(
             "^.*(?:connection.*(?:reset|closed|abort|broken)|broken.*pipe).*$", Pattern.CASE_INSENSITIVE);
     private static final Argument ARGUMENT_PART_DATA = Argument.of(PartData.class);
+    /**
+     * The content codings of precompressed static resources mapped to their file extension, in order of preference.
+     */
+    private static final Map<String, String> PRECOMPRESSED_EXTENSIONS;
+
+    static {
+        Map<String, String> extensions = new LinkedHashMap<>(2);
+        extensions.put("br", ".br");
+        extensions.put(HttpHeaderValues.GZIP.toString(), ".gz");
+        PRECOMPRESSED_EXTENSIONS = Collections.unmodifiableMap(extensions);
+    }
+
     private final Router router;
     private final StaticResourceResolver staticResourceResolver;
     private final NettyHttpServerConfiguration serverConfiguration;
@@ -158,6 +181,7 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
     private ExecutorService ioExecutor;
     private final ApplicationEventPublisher<HttpRequestTerminatedEvent> terminateEventPublisher;
     private final RouteExecutor routeExecutor;
+    private final EntityTagGenerator entityTagGenerator;
 
     /**
      * @param router                                  The router
@@ -171,6 +195,7 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
      * @param errorResponseProcessor                  The factory to create error responses
      * @param terminateEventPublisher                 The terminate event publisher
      * @param routeExecutor                           The route executor
+     * @param entityTagGenerator                      The entity tag generator
      */
     RoutingInBoundHandler(
             Router router,
@@ -183,7 +208,8 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
             HttpContentProcessorResolver httpContentProcessorResolver,
             ErrorResponseProcessor<?> errorResponseProcessor,
             ApplicationEventPublisher<HttpRequestTerminatedEvent> terminateEventPublisher,
-            RouteExecutor routeExecutor) {
+            RouteExecutor routeExecutor,
+            EntityTagGenerator entityTagGenerator) {
         this.mediaTypeCodecRegistry = mediaTypeCodecRegistry;
         this.customizableResponseTypeHandlerRegistry = customizableResponseTypeHandlerRegistry;
         this.staticResourceResolver = staticResourceResolver;
@@ -197,6 +223,7 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         Optional<Boolean> multipartEnabled = serverConfiguration.getMultipart().getEnabled();
         this.multipartEnabled = !multipartEnabled.isPresent() || multipartEnabled.get();
         this.routeExecutor = routeExecutor;
+        this.entityTagGenerator = entityTagGenerator;
     }
 
     @Override
@@ -408,10 +435,10 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                 return;
             }
 
-            Optional<? extends FileCustomizableResponseType> optionalFile = matchFile(requestPath);
+            Optional<MutableHttpResponse<?>> optionalFile = matchFile(requestPath, nettyHttpRequest);
 
             if (optionalFile.isPresent()) {
-                filterAndEncodeResponse(ctx, nettyHttpRequest, Flux.just(HttpResponse.ok(optionalFile.get())));
+                filterAndEncodeResponse(ctx, nettyHttpRequest, Flux.just(optionalFile.get()));
             } else {
                 handleStatusError(ctx, nettyHttpRequest, HttpResponse.status(HttpStatus.NOT_FOUND), "Page Not Found");
             }
@@ -516,20 +543,31 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                 });
     }
 
-    private Optional<? extends FileCustomizableResponseType> matchFile(String path) {
+    private Optional<MutableHttpResponse<?>> matchFile(String path, HttpRequest<?> request) {
         Optional<URL> optionalUrl = staticResourceResolver.resolve(path);
 
         if (optionalUrl.isPresent()) {
             try {
                 URL url = optionalUrl.get();
-                if (url.getProtocol().equals("file")) {
-                    File file = Paths.get(url.toURI()).toFile();
-                    if (file.exists() && !file.isDirectory() && file.canRead()) {
-                        return Optional.of(new NettySystemFileCustomizableResponseType(file));
+                String acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+                List<String> encodings = AcceptEncodings.negotiate(acceptEncoding, PRECOMPRESSED_EXTENSIONS.keySet());
+                for (String encoding : encodings) {
+                    Optional<URL> precompressed = staticResourceResolver.resolvePrecompressed(url, PRECOMPRESSED_EXTENSIONS.get(encoding));
+                    if (precompressed.isPresent()) {
+                        // the variant is served with the media type of the original resource
+                        MediaType mediaType = MediaType.forFilename(url.getPath());
+                        MutableHttpResponse<?> response = HttpResponse.ok(toFile(precompressed.get(), mediaType));
+                        response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+                        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                        return Optional.of(response);
                     }
                 }
-
-                return Optional.of(new NettyStreamedFileCustomizableResponseType(url));
+                MutableHttpResponse<?> response = HttpResponse.ok(toFile(url, null));
+                if (!encodings.isEmpty() || hasPrecompressedVariant(url)) {
+                    // caches must not serve the identity response to clients that accept a precompressed variant
+                    response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                return Optional.of(response);
             } catch (URISyntaxException e) {
                 //no-op
             }
@@ -538,6 +576,40 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         return Optional.empty();
     }
 
+    private boolean hasPrecompressedVariant(URL url) {
+        for (String extension : PRECOMPRESSED_EXTENSIONS.values()) {
+            if (staticResourceResolver.resolvePrecompressed(url, extension).isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FileCustomizableResponseType toFile(URL url, @Nullable MediaType mediaType) throws URISyntaxException {
+        if (url.getProtocol().equals("file")) {
+            File file = Paths.get(url.toURI()).toFile();
+            if (file.exists() && !file.isDirectory() && file.canRead()) {
+                return mediaType == null ? new NettySystemFileCustomizableResponseType(file) :
+                        new NettySystemFileCustomizableResponseType(new SystemFile(file, mediaType));
+            }
+        }
+
+        if (mediaType == null) {
+            return new NettyStreamedFileCustomizableResponseType(url);
+        }
+        try {
+            URLConnection connection = url.openConnection();
+            return new NettyStreamedFileCustomizableResponseType(new StreamedFile(
+                    connection.getInputStream(),
+                    mediaType,
+                    connection.getLastModified(),
+                    connection.getContentLengthLong()
+            ));
+        } catch (IOException e) {
+            throw new CustomizableResponseTypeException("Could not open a connection to the URL: " + url.getPath(), e);
+        }
+    }
+
     private void handleRouteMatch(
             RouteMatch<?> originalRoute,
             NettyHttpRequest<?> request,
@@ -946,6 +1018,13 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                 context.writeAndFlush(streamedResponse);
                 context.read();
             } else {
+                RouteInfo<?> entityTaggedRoute = body != null ? findEntityTaggedRoute(nettyRequest, response) : null;
+                if (entityTaggedRoute != null && isNotModified(nettyRequest, response)) {
+                    // the route supplied the tag, no need to encode the body
+                    writeNotModified(context, nettyRequest, response);
+                    return;
+                }
+
                 encodeResponseBody(
                         context,
                         nettyRequest,
@@ -953,6 +1032,11 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                         body
                 );
 
+                if (entityTaggedRoute != null && applyContentEntityTag(response, entityTaggedRoute) && isNotModified(nettyRequest, response)) {
+                    writeNotModified(context, nettyRequest, response);
+                    return;
+                }
+
                 writeFinalNettyResponse(
                         response,
                         nettyRequest,
@@ -970,6 +1054,54 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         }
     }
 
+    @Nullable
+    private RouteInfo<?> findEntityTaggedRoute(NettyHttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (request.getMethod() != HttpMethod.GET || response.status() != HttpStatus.OK) {
+            return null;
+        }
+        RouteInfo<?> routeInfo = response.getAttribute(HttpAttributes.ROUTE_INFO, RouteInfo.class).orElse(null);
+        return routeInfo != null && routeInfo.hasAnnotation(ETag.class) ? routeInfo : null;
+    }
+
+    private boolean isNotModified(NettyHttpRequest<?> request, MutableHttpResponse<?> response) {
+        String entityTag = response.getHeaders().get(HttpHeaders.ETAG);
+        return entityTag != null && EntityTags.matchesAny(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), entityTag);
+    }
+
+    /**
+     * Computes the entity tag from the encoded body unless the route already set one.
+     *
+     * @param response  The response
+     * @param routeInfo The route annotated with {@link ETag}
+     * @return True if the response has an entity tag
+     */
+    private boolean applyContentEntityTag(MutableHttpResponse<?> response, RouteInfo<?> routeInfo) {
+        if (response.getHeaders().contains(HttpHeaders.ETAG)) {
+            return true;
+        }
+        Object encoded = response.body();
+        if (encoded instanceof ByteBuf) {
+            ByteBuf byteBuf = (ByteBuf) encoded;
+            boolean weak = routeInfo.booleanValue(ETag.class, "weak").orElse(true);
+            String entityTag = entityTagGenerator.generate(byteBuf.nioBuffer(), weak);
+            response.getHeaders().set(HttpHeaders.ETAG, entityTag);
+            return true;
+        }
+        return false;
+    }
+
+    private void writeNotModified(ChannelHandlerContext context, NettyHttpRequest<?> request, MutableHttpResponse<?> response) {
+        Object encoded = response.body();
+        if (encoded instanceof ReferenceCounted) {
+            ((ReferenceCounted) encoded).release();
+        }
+        response.body(null);
+        response.status(HttpStatus.NOT_MODIFIED);
+        // the content length is kept since it describes the representation that would have been sent
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        writeFinalNettyResponse(response, request, context);
+    }
+
     private Flux<HttpContent> mapToHttpContent(NettyHttpRequest<?> request,
                                                MutableHttpResponse<?> response,
                                                Object body,
@@ -1132,7 +1264,7 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
             }
 
             // default to Transfer-Encoding: chunked if Content-Length not set or not already set
-            if (!nettyHeaders.contains(HttpHeaderNames.CONTENT_LENGTH) && !nettyHeaders.contains(HttpHeaderNames.TRANSFER_ENCODING)) {
+            if (httpStatus != HttpStatus.NOT_MODIFIED && !nettyHeaders.contains(HttpHeaderNames.CONTENT_LENGTH) && !nettyHeaders.contains(HttpHeaderNames.TRANSFER_ENCODING)) {
                 nettyHeaders.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
             }
             // close handled by HttpServerKeepAliveHandler
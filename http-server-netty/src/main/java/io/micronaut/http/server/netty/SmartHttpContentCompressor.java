@@ -16,16 +16,23 @@
 package io.micronaut.http.server.netty;
 
 import io.micronaut.core.annotation.Internal;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * An extension of {@link HttpContentCompressor} that skips encoding if the content type is not compressible or if
- * the content is too small.
+ * the content is too small. The content coding is negotiated from the codings of the {@link HttpCompressionStrategy}
+ * that are available, which may include {@code br} and {@code zstd}, and the strategy selects the compression
+ * level per response.
  *
  * @author James Kleeh
  * @since 1.0
@@ -34,6 +41,8 @@ import java.util.List;
 public class SmartHttpContentCompressor extends HttpContentCompressor {
 
     private final HttpCompressionStrategy httpCompressionStrategy;
+    private final List<String> encodings;
+    private ChannelHandlerContext ctx;
     private boolean skipEncoding = false;
 
     /**
@@ -44,15 +53,33 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
     SmartHttpContentCompressor(HttpCompressionStrategy httpCompressionStrategy) {
         super(httpCompressionStrategy.getCompressionLevel());
         this.httpCompressionStrategy = httpCompressionStrategy;
+        this.encodings = new ArrayList<>(httpCompressionStrategy.getEncodings().size());
+        for (String encoding : httpCompressionStrategy.getEncodings()) {
+            if (ContentEncoders.isSupported(encoding)) {
+                encodings.add(encoding);
+            }
+        }
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+        super.handlerAdded(ctx);
     }
 
     /**
-     * Determines if encoding should occur based on the response.
+     * Determines if encoding should occur based on the response. Partial content is never compressed since the
+     * content range refers to the bytes of the unencoded representation, neither is content that already has a
+     * content encoding, such as precompressed static resources.
      *
      * @param response The response
      * @return True if the content should not be compressed
      */
     public boolean shouldSkip(HttpResponse response) {
+        if (response.status().code() == HttpResponseStatus.PARTIAL_CONTENT.code() ||
+                response.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return true;
+        }
         return !httpCompressionStrategy.shouldCompress(response);
     }
 
@@ -70,6 +97,19 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
         if (skipEncoding) {
             return null;
         }
-        return super.beginEncode(headers, acceptEncoding);
+        List<String> candidates = AcceptEncodings.negotiate(acceptEncoding, encodings);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        String encoding = httpCompressionStrategy.selectEncoding(headers, candidates);
+        if (encoding == null) {
+            return null;
+        }
+        ChannelHandler encoder = ContentEncoders.newEncoder(encoding, httpCompressionStrategy.getCompressionLevel(headers, encoding));
+        if (encoder == null) {
+            return null;
+        }
+        return new Result(encoding, new EmbeddedChannel(
+                ctx.channel().id(), ctx.channel().metadata().hasDisconnect(), ctx.channel().config(), encoder));
     }
 }
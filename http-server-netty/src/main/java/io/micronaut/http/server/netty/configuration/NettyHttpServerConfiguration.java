@@ -31,6 +31,7 @@ import io.netty.handler.ssl.ApplicationProtocolNames;
 import jakarta.inject.Inject;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -100,6 +101,12 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
     @SuppressWarnings("WeakerAccess")
     public static final int DEFAULT_COMPRESSIONLEVEL = 6;
 
+    /**
+     * The default compression budget, which is disabled.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_COMPRESSIONBUDGET = -1;
+
     /**
      * The default configuration for boolean flag indicating whether to add connection header `keep-alive` to responses with HttpStatus > 499.
      */
@@ -121,6 +128,9 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
     private LogLevel logLevel;
     private int compressionThreshold = DEFAULT_COMPRESSIONTHRESHOLD;
     private int compressionLevel = DEFAULT_COMPRESSIONLEVEL;
+    private List<String> compressionEncodings = Arrays.asList("zstd", "br", "gzip", "deflate");
+    private Map<String, Integer> compressionLevels = Collections.emptyMap();
+    private long compressionBudget = DEFAULT_COMPRESSIONBUDGET;
     private boolean useNativeTransport = DEFAULT_USE_NATIVE_TRANSPORT;
     private String fallbackProtocol = ApplicationProtocolNames.HTTP_1_1;
     private AccessLogger accessLogger;
@@ -304,6 +314,37 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         return compressionLevel;
     }
 
+    /**
+     * The content codings used to compress responses, in order of preference. Defaults to zstd, br, gzip and deflate.
+     * The zstd and br codings are only used if their native libraries are available.
+     *
+     * @return The compression encodings.
+     */
+    public List<String> getCompressionEncodings() {
+        return compressionEncodings;
+    }
+
+    /**
+     * The compression levels by media type, for example {@code application/json: 4}. Media types that are not
+     * configured use the {@link #getCompressionLevel() compression level} for gzip and deflate and the default
+     * level of the coding otherwise.
+     *
+     * @return The compression levels by media type.
+     */
+    public Map<String, Integer> getCompressionLevels() {
+        return compressionLevels;
+    }
+
+    /**
+     * The maximum number of response bytes compressed per second. Responses over the budget are sent uncompressed.
+     * Default value ({@value #DEFAULT_COMPRESSIONBUDGET}) means there is no budget.
+     *
+     * @return The compression budget.
+     */
+    public long getCompressionBudget() {
+        return compressionBudget;
+    }
+
     /**
      * @return The Netty child channel options.
      * @see io.netty.bootstrap.ServerBootstrap#childOptions()
@@ -455,6 +496,37 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         this.compressionLevel = compressionLevel;
     }
 
+    /**
+     * Sets the content codings used to compress responses, in order of preference. Default value (zstd, br, gzip, deflate).
+     *
+     * @param compressionEncodings The compression encodings.
+     */
+    public void setCompressionEncodings(List<String> compressionEncodings) {
+        if (compressionEncodings != null) {
+            this.compressionEncodings = compressionEncodings;
+        }
+    }
+
+    /**
+     * Sets the compression levels by media type.
+     *
+     * @param compressionLevels The compression levels by media type.
+     */
+    public void setCompressionLevels(Map<String, Integer> compressionLevels) {
+        if (compressionLevels != null) {
+            this.compressionLevels = compressionLevels;
+        }
+    }
+
+    /**
+     * Sets the maximum number of response bytes compressed per second. Default value ({@value #DEFAULT_COMPRESSIONBUDGET}).
+     *
+     * @param compressionBudget The compression budget.
+     */
+    public void setCompressionBudget(@ReadableBytes long compressionBudget) {
+        this.compressionBudget = compressionBudget;
+    }
+
     /**
      * Whether to send connection keep alive on internal server errors. Default value ({@value DEFAULT_KEEP_ALIVE_ON_SERVER_ERROR}).
      * @param keepAliveOnServerError The keep alive on server error flag
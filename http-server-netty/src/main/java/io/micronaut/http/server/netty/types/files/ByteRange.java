@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A satisfiable byte range of a file as requested with the {@code Range} header.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ * @see <a href="https://tools.ietf.org/html/rfc7233">RFC 7233</a>
+ */
+@Internal
+public final class ByteRange {
+
+    /**
+     * The only range unit supported.
+     */
+    public static final String BYTES = "bytes";
+
+    /**
+     * The maximum number of ranges accepted in a single request, larger range sets are ignored.
+     */
+    static final int MAX_RANGES = 16;
+
+    private static final String BYTES_PREFIX = BYTES + "=";
+    private static final String CRLF = "\r\n";
+
+    private final long start;
+    private final long end;
+
+    /**
+     * @param start The first byte position
+     * @param end   The last byte position, inclusive
+     */
+    ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The first byte position
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return The last byte position, inclusive
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return The number of bytes in the range
+     */
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @param length The complete length of the file
+     * @return The value of the {@code Content-Range} header for this range
+     */
+    @NonNull
+    public String toContentRange(long length) {
+        return BYTES + " " + start + "-" + end + "/" + length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ByteRange byteRange = (ByteRange) o;
+        return start == byteRange.start && end == byteRange.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(start) * 31 + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+
+    /**
+     * Parses the value of a {@code Range} header. A header that cannot be parsed, uses another unit, contains
+     * more than {@link #MAX_RANGES} ranges or ranges that are not in ascending order is ignored as permitted by the
+     * specification, in which case the complete file should be sent. Overlapping or adjacent ranges are coalesced.
+     *
+     * @param header The header value
+     * @param length The complete length of the file
+     * @return The satisfiable ranges, an empty list if none of the ranges can be satisfied or {@code null} if
+     * the header should be ignored
+     */
+    @Nullable
+    public static List<ByteRange> parse(@Nullable String header, long length) {
+        if (header == null || length < 0) {
+            return null;
+        }
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, BYTES_PREFIX, 0, BYTES_PREFIX.length())) {
+            return null;
+        }
+        String[] specs = value.substring(BYTES_PREFIX.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        boolean empty = true;
+        for (String spec : specs) {
+            spec = spec.trim();
+            if (spec.isEmpty()) {
+                continue;
+            }
+            empty = false;
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first = parsePosition(spec, 0, dash);
+            long last = parsePosition(spec, dash + 1, spec.length());
+            ByteRange range;
+            if (first == -1) {
+                // suffix range, the last N bytes
+                if (last < 0) {
+                    return null;
+                }
+                if (last == 0 || length == 0) {
+                    continue;
+                }
+                range = new ByteRange(Math.max(0, length - last), length - 1);
+            } else if (first < -1 || last < -1 || (last > -1 && last < first)) {
+                return null;
+            } else if (first >= length) {
+                continue;
+            } else {
+                range = new ByteRange(first, last == -1 ? length - 1 : Math.min(last, length - 1));
+            }
+            if (!ranges.isEmpty()) {
+                ByteRange previous = ranges.get(ranges.size() - 1);
+                if (range.start < previous.start) {
+                    return null;
+                }
+                if (range.start <= previous.end + 1) {
+                    ranges.set(ranges.size() - 1, new ByteRange(previous.start, Math.max(previous.end, range.end)));
+                    continue;
+                }
+            }
+            ranges.add(range);
+        }
+        if (empty) {
+            return null;
+        }
+        return ranges.isEmpty() ? Collections.emptyList() : ranges;
+    }
+
+    /**
+     * @param boundary    The multipart boundary
+     * @param contentType The content type of the file
+     * @param range       The range
+     * @param length      The complete length of the file
+     * @param first       Whether this is the first part
+     * @return The delimiter and headers written before the given part of a {@code multipart/byteranges} body
+     */
+    static byte[] partHeader(String boundary, String contentType, ByteRange range, long length, boolean first) {
+        StringBuilder builder = new StringBuilder(boundary.length() + contentType.length() + 64);
+        if (!first) {
+            builder.append(CRLF);
+        }
+        builder.append("--").append(boundary).append(CRLF)
+                .append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType).append(CRLF)
+                .append(HttpHeaders.CONTENT_RANGE).append(": ").append(range.toContentRange(length)).append(CRLF)
+                .append(CRLF);
+        return builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param boundary The multipart boundary
+     * @return The delimiter that closes a {@code multipart/byteranges} body
+     */
+    static byte[] closeDelimiter(String boundary) {
+        return (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param ranges      The ranges
+     * @param boundary    The multipart boundary
+     * @param contentType The content type of the file
+     * @param length      The complete length of the file
+     * @return The length of the {@code multipart/byteranges} body for the given ranges
+     */
+    static long multipartLength(List<ByteRange> ranges, String boundary, String contentType, long length) {
+        long total = closeDelimiter(boundary).length;
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            total += partHeader(boundary, contentType, range, length, i == 0).length + range.getLength();
+        }
+        return total;
+    }
+
+    /**
+     * @return The position or -1 if empty, -2 if it is not a valid position
+     */
+    private static long parsePosition(String spec, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        for (int i = start; i < end; i++) {
+            char c = spec.charAt(i);
+            if (c < '0' || c > '9') {
+                return -2;
+            }
+        }
+        try {
+            return Long.parseLong(spec.substring(start, end));
+        } catch (NumberFormatException e) {
+            return -2;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * An {@link InputStream} that reads the given ascending ranges from a source stream by skipping the bytes in between,
+ * so the source is only read once. If a boundary is given the ranges are framed as a {@code multipart/byteranges}
+ * body, otherwise the stream produces the bytes of a single range.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class ByteRangeInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream source;
+    private final List<ByteRange> ranges;
+    private final byte[][] delimiters;
+    private int step;
+    private long offset;
+    private long position;
+
+    /**
+     * @param source      The source stream, positioned at the start of the file
+     * @param ranges      The ranges in ascending order
+     * @param boundary    The multipart boundary or {@code null} for a single range
+     * @param contentType The content type of the file
+     * @param length      The complete length of the file
+     */
+    ByteRangeInputStream(@NonNull InputStream source,
+                         @NonNull List<ByteRange> ranges,
+                         @Nullable String boundary,
+                         @NonNull String contentType,
+                         long length) {
+        this.source = source;
+        this.ranges = ranges;
+        this.delimiters = new byte[ranges.size() + 1][];
+        for (int i = 0; i < ranges.size(); i++) {
+            delimiters[i] = boundary == null ? EMPTY : ByteRange.partHeader(boundary, contentType, ranges.get(i), length, i == 0);
+        }
+        delimiters[ranges.size()] = boundary == null ? EMPTY : ByteRange.closeDelimiter(boundary);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int read = read(b, 0, 1);
+        return read < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        // even steps are delimiters, odd steps the ranges in between
+        while (step <= ranges.size() * 2) {
+            if ((step & 1) == 0) {
+                byte[] delimiter = delimiters[step >> 1];
+                if (offset < delimiter.length) {
+                    int count = (int) Math.min(len, delimiter.length - offset);
+                    System.arraycopy(delimiter, (int) offset, b, off, count);
+                    offset += count;
+                    return count;
+                }
+            } else {
+                ByteRange range = ranges.get(step >> 1);
+                if (offset == 0) {
+                    skipTo(range.getStart());
+                }
+                long remaining = range.getLength() - offset;
+                if (remaining > 0) {
+                    int count = source.read(b, off, (int) Math.min(len, remaining));
+                    if (count < 0) {
+                        throw new EOFException("Source ended before the end of range: " + range);
+                    }
+                    offset += count;
+                    position += count;
+                    return count;
+                }
+            }
+            step++;
+            offset = 0;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private void skipTo(long target) throws IOException {
+        while (position < target) {
+            long skipped = source.skip(target - position);
+            if (skipped <= 0) {
+                if (source.read() < 0) {
+                    throw new EOFException("Source ended before position: " + target);
+                }
+                skipped = 1;
+            }
+            position += skipped;
+        }
+    }
+}
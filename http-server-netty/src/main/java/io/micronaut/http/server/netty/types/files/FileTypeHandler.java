@@ -16,12 +16,19 @@
 package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpHeaders;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.netty.NettyMutableHttpResponse;
+import io.micronaut.http.server.etag.DefaultEntityTagGenerator;
+import io.micronaut.http.server.etag.EntityTagGenerator;
+import io.micronaut.http.server.etag.EntityTags;
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandler;
 import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
 import io.micronaut.http.server.types.CustomizableResponseTypeException;
@@ -29,13 +36,18 @@ import io.micronaut.http.server.types.files.StreamedFile;
 import io.micronaut.http.server.types.files.SystemFile;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpResponse;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Responsible for writing files out to the response in Netty.
@@ -50,14 +62,27 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
     // sorted array of entity headers
     // https://tools.ietf.org/html/rfc2616#section-7.1
     private static final String[] ENTITY_HEADERS = new String[] {HttpHeaders.ALLOW, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_LOCATION, HttpHeaders.CONTENT_MD5, HttpHeaders.CONTENT_RANGE, HttpHeaders.CONTENT_TYPE, HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED};
+    private static final String MULTIPART_BYTERANGES = "multipart/byteranges";
     private static final Class<?>[] SUPPORTED_TYPES = new Class[]{File.class, StreamedFile.class, NettyFileCustomizableResponseType.class, SystemFile.class};
     private final FileTypeHandlerConfiguration configuration;
+    private final EntityTagGenerator entityTagGenerator;
 
     /**
      * @param configuration The file type handler configuration
      */
     public FileTypeHandler(FileTypeHandlerConfiguration configuration) {
+        this(configuration, new DefaultEntityTagGenerator());
+    }
+
+    /**
+     * @param configuration      The file type handler configuration
+     * @param entityTagGenerator The entity tag generator
+     * @since 3.0.2
+     */
+    @Inject
+    public FileTypeHandler(FileTypeHandlerConfiguration configuration, EntityTagGenerator entityTagGenerator) {
         this.configuration = configuration;
+        this.entityTagGenerator = entityTagGenerator;
     }
 
     @SuppressWarnings("MagicNumber")
@@ -77,10 +102,25 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         }
 
         long lastModified = type.getLastModified();
+        String entityTag = response.getHeaders().get(HttpHeaders.ETAG);
+        if (entityTag == null) {
+            entityTag = entityTagGenerator.generate(type.getLength(), lastModified);
+            if (entityTag != null) {
+                response.header(HttpHeaders.ETAG, entityTag);
+            }
+        }
 
         // Cache Validation
+        String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
         ZonedDateTime ifModifiedSince = request.getHeaders().getDate(HttpHeaders.IF_MODIFIED_SINCE);
-        if (ifModifiedSince != null) {
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since
+            if (entityTag != null && EntityTags.matchesAny(ifNoneMatch, entityTag)) {
+                closeQuietly(type);
+                context.writeAndFlush(notModified(response));
+                return;
+            }
+        } else if (ifModifiedSince != null) {
 
             // Only compare up to the second because the datetime format we send to the client
             // does not have milliseconds
@@ -88,6 +128,7 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
             long fileLastModifiedSeconds = lastModified / 1000;
             if (ifModifiedSinceDateSeconds == fileLastModifiedSeconds) {
                 FullHttpResponse nettyResponse = notModified(response);
+                closeQuietly(type);
                 context.writeAndFlush(nettyResponse);
                 return;
             }
@@ -99,6 +140,21 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         setDateAndCacheHeaders(response, lastModified);
 
         type.process(response);
+        if (supportsRanges(type)) {
+            long length = type.getLength();
+            response.header(HttpHeaders.ACCEPT_RANGES, ByteRange.BYTES);
+            List<ByteRange> ranges = resolveRanges(request, lastModified, entityTag, length);
+            if (ranges != null) {
+                if (ranges.isEmpty()) {
+                    closeQuietly(type);
+                    context.writeAndFlush(rangeNotSatisfiable(response, length));
+                } else {
+                    writeRanges(type, ranges, request, response, context);
+                }
+                context.read();
+                return;
+            }
+        }
         type.write(request, response, context);
         context.read();
     }
@@ -155,6 +211,96 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         });
     }
 
+    private static boolean supportsRanges(NettyFileCustomizableResponseType type) {
+        return type.getLength() > -1 &&
+                (type instanceof NettySystemFileCustomizableResponseType || type instanceof NettyStreamedFileCustomizableResponseType);
+    }
+
+    /**
+     * @return The ranges to send, an empty list if the ranges cannot be satisfied or {@code null} to send the
+     * complete file
+     */
+    @Nullable
+    private static List<ByteRange> resolveRanges(HttpRequest<?> request, long lastModified, @Nullable String entityTag, long length) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return null;
+        }
+        HttpHeaders headers = request.getHeaders();
+        String range = headers.get(HttpHeaders.RANGE);
+        if (range == null) {
+            return null;
+        }
+        String ifRange = headers.get(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            String value = ifRange.trim();
+            if (value.startsWith("\"") || EntityTags.isWeak(value)) {
+                // If-Range requires the strong comparison, so weak tags never match and the complete file is sent
+                if (!EntityTags.strongMatches(value, entityTag)) {
+                    return null;
+                }
+            } else {
+                ZonedDateTime ifRangeDate = headers.getDate(HttpHeaders.IF_RANGE);
+                if (ifRangeDate == null || ifRangeDate.toEpochSecond() != lastModified / 1000) {
+                    return null;
+                }
+            }
+        }
+        return ByteRange.parse(range, length);
+    }
+
+    private static void writeRanges(NettyFileCustomizableResponseType type,
+                                    List<ByteRange> ranges,
+                                    HttpRequest<?> request,
+                                    MutableHttpResponse<?> response,
+                                    ChannelHandlerContext context) {
+        long length = type.getLength();
+        String contentType = response.getHeaders().get(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        String boundary = null;
+        response.status(HttpStatus.PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.header(HttpHeaders.CONTENT_RANGE, range.toContentRange(length));
+            response.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(range.getLength()));
+        } else {
+            boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(System.nanoTime());
+            response.header(HttpHeaders.CONTENT_TYPE, MULTIPART_BYTERANGES + "; boundary=" + boundary);
+            response.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(ByteRange.multipartLength(ranges, boundary, contentType, length)));
+        }
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        if (type instanceof NettySystemFileCustomizableResponseType) {
+            ((NettySystemFileCustomizableResponseType) type).writeRanges(request, response, context, ranges, boundary, contentType);
+        } else {
+            ((NettyStreamedFileCustomizableResponseType) type).writeRanges(request, response, context, ranges, boundary, contentType);
+        }
+    }
+
+    private static void closeQuietly(NettyFileCustomizableResponseType type) {
+        try {
+            if (type instanceof NettySystemFileCustomizableResponseType) {
+                ((NettySystemFileCustomizableResponseType) type).raf.close();
+            } else if (type instanceof NettyStreamedFileCustomizableResponseType) {
+                InputStream inputStream = ((NettyStreamedFileCustomizableResponseType) type).getInputStream();
+                if (inputStream != null) {
+                    inputStream.close();
+                }
+            }
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private FullHttpResponse rangeNotSatisfiable(MutableHttpResponse<?> originalResponse, long length) {
+        MutableHttpResponse response = HttpResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        copyNonEntityHeaders(originalResponse, response);
+        response.header(HttpHeaders.CONTENT_RANGE, ByteRange.BYTES + " */" + length);
+        response.header(HttpHeaders.CONTENT_LENGTH, "0");
+        setDateHeader(response);
+        return ((NettyMutableHttpResponse) response).toFullHttpResponse();
+    }
+
     private FullHttpResponse notModified(MutableHttpResponse<?> originalResponse) {
         MutableHttpResponse response = HttpResponse.notModified();
         copyNonEntityHeaders(originalResponse, response);
@@ -16,16 +16,20 @@
 package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
 import io.micronaut.http.server.netty.types.stream.NettyStreamedCustomizableResponseType;
 import io.micronaut.http.server.types.files.StreamedFile;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -83,4 +87,30 @@ public class NettyStreamedFileCustomizableResponseType extends StreamedFile impl
         }
         delegate.ifPresent(type -> type.process(response));
     }
+
+    /**
+     * Writes the given ranges of the stream by skipping the bytes before each range and limiting the bytes read
+     * to the length of the range. A single range is written as is, multiple ranges are written as a
+     * {@code multipart/byteranges} body using the given boundary. The status and headers of the response must already
+     * describe the partial content.
+     *
+     * @param request     The request
+     * @param response    The response
+     * @param context     The channel context
+     * @param ranges      The satisfiable ranges in ascending order
+     * @param boundary    The multipart boundary or {@code null} for a single range
+     * @param contentType The content type of the file
+     * @since 3.0.2
+     */
+    public void writeRanges(HttpRequest<?> request,
+                            MutableHttpResponse<?> response,
+                            ChannelHandlerContext context,
+                            List<ByteRange> ranges,
+                            @Nullable String boundary,
+                            String contentType) {
+        InputStream inputStream = getInputStream();
+        InputStream rangeStream = inputStream == null ? null : new ByteRangeInputStream(inputStream, ranges, boundary, contentType, getLength());
+        NettyStreamedCustomizableResponseType rangeType = () -> rangeStream;
+        rangeType.write(request, response, context);
+    }
 }
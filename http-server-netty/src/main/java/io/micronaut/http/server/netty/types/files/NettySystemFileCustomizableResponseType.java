@@ -16,6 +16,7 @@
 package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
@@ -27,21 +28,28 @@ import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
 import io.micronaut.http.server.types.CustomizableResponseTypeException;
 import io.micronaut.http.server.types.files.FileCustomizableResponseType;
 import io.micronaut.http.server.types.files.SystemFile;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.stream.ChunkedStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -115,31 +123,14 @@ public class NettySystemFileCustomizableResponseType extends SystemFile implemen
 
         if (response instanceof NettyMutableHttpResponse) {
 
-            NettyMutableHttpResponse nettyResponse = ((NettyMutableHttpResponse) response);
-
             // Write the request data
-            final DefaultHttpResponse finalResponse = new DefaultHttpResponse(nettyResponse.getNettyHttpVersion(), nettyResponse.getNettyHttpStatus(), nettyResponse.getNettyHeaders());
-            final io.micronaut.http.HttpVersion httpVersion = request.getHttpVersion();
-            final boolean isHttp2 = httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0;
-            if (isHttp2 && request instanceof NettyHttpRequest) {
-                final io.netty.handler.codec.http.HttpHeaders nativeHeaders = ((NettyHttpRequest<?>) request).getNativeRequest().headers();
-                final String streamId = nativeHeaders.get(AbstractNettyHttpRequest.STREAM_ID);
-                if (streamId != null) {
-                    finalResponse.headers().set(AbstractNettyHttpRequest.STREAM_ID, streamId);
-                }
-            }
+            final DefaultHttpResponse finalResponse = toFinalResponse(request, (NettyMutableHttpResponse) response);
             context.write(finalResponse, context.voidPromise());
 
-            ChannelFutureListener closeListener = (future) -> {
-                try {
-                    raf.close();
-                } catch (IOException e) {
-                    LOG.warn("An error occurred closing the file reference: " + getFile().getAbsolutePath(), e);
-                }
-            };
+            ChannelFutureListener closeListener = newCloseListener();
 
             // Write the content.
-            if (context.pipeline().get(SslHandler.class) == null && context.pipeline().get(SmartHttpContentCompressor.class).shouldSkip(finalResponse)) {
+            if (isZeroCopy(context, finalResponse)) {
                 // SSL not enabled - can use zero-copy file transfer.
                 context.write(new DefaultFileRegion(raf.getChannel(), 0, getLength()), context.newProgressivePromise())
                         .addListener(closeListener);
@@ -159,4 +150,98 @@ public class NettySystemFileCustomizableResponseType extends SystemFile implemen
             throw new IllegalArgumentException("Unsupported response type. Not a Netty response: " + response);
         }
     }
+
+    /**
+     * Writes the given ranges of the file. A single range is written as is, multiple ranges are written as a
+     * {@code multipart/byteranges} body using the given boundary. The status and headers of the response must already
+     * describe the partial content.
+     *
+     * @param request     The request
+     * @param response    The response
+     * @param context     The channel context
+     * @param ranges      The satisfiable ranges in ascending order
+     * @param boundary    The multipart boundary or {@code null} for a single range
+     * @param contentType The content type of the file
+     * @since 3.0.2
+     */
+    public void writeRanges(HttpRequest<?> request,
+                            MutableHttpResponse<?> response,
+                            ChannelHandlerContext context,
+                            List<ByteRange> ranges,
+                            @Nullable String boundary,
+                            String contentType) {
+        if (!(response instanceof NettyMutableHttpResponse)) {
+            throw new IllegalArgumentException("Unsupported response type. Not a Netty response: " + response);
+        }
+        final DefaultHttpResponse finalResponse = toFinalResponse(request, (NettyMutableHttpResponse) response);
+        context.write(finalResponse, context.voidPromise());
+
+        ChannelFutureListener closeListener = newCloseListener();
+        long length = getLength();
+
+        if (isZeroCopy(context, finalResponse)) {
+            if (boundary == null) {
+                ByteRange range = ranges.get(0);
+                context.write(new DefaultFileRegion(raf.getChannel(), range.getStart(), range.getLength()), context.newProgressivePromise())
+                        .addListener(closeListener);
+                context.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            } else {
+                for (int i = 0; i < ranges.size(); i++) {
+                    ByteRange range = ranges.get(i);
+                    byte[] partHeader = ByteRange.partHeader(boundary, contentType, range, length, i == 0);
+                    context.write(new DefaultHttpContent(Unpooled.wrappedBuffer(partHeader)), context.voidPromise());
+                    // each region opens its own channel since a region closes its channel once released
+                    context.write(new DefaultFileRegion(getFile(), range.getStart(), range.getLength()), context.voidPromise());
+                }
+                context.writeAndFlush(new DefaultLastHttpContent(Unpooled.wrappedBuffer(ByteRange.closeDelimiter(boundary))))
+                        .addListener(closeListener);
+            }
+        } else {
+            // the ranges are ascending so the file can be read once, seeking to the start of each range
+            final InputStream rangeStream;
+            try {
+                rangeStream = new ByteRangeInputStream(new FileInputStream(getFile()), ranges, boundary, contentType, length);
+            } catch (FileNotFoundException e) {
+                throw new CustomizableResponseTypeException("Could not find file", e);
+            }
+            // HttpChunkedInput will write the end marker (LastHttpContent) for us.
+            context.writeAndFlush(new HttpChunkedInput(new ChunkedStream(rangeStream, LENGTH_8K)), context.newProgressivePromise())
+                    .addListener(closeListener)
+                    .addListener(future -> {
+                        try {
+                            rangeStream.close();
+                        } catch (IOException e) {
+                            LOG.warn("An error occurred closing the file reference: " + getFile().getAbsolutePath(), e);
+                        }
+                    });
+        }
+    }
+
+    private DefaultHttpResponse toFinalResponse(HttpRequest<?> request, NettyMutableHttpResponse<?> nettyResponse) {
+        final DefaultHttpResponse finalResponse = new DefaultHttpResponse(nettyResponse.getNettyHttpVersion(), nettyResponse.getNettyHttpStatus(), nettyResponse.getNettyHeaders());
+        final io.micronaut.http.HttpVersion httpVersion = request.getHttpVersion();
+        final boolean isHttp2 = httpVersion == io.micronaut.http.HttpVersion.HTTP_2_0;
+        if (isHttp2 && request instanceof NettyHttpRequest) {
+            final io.netty.handler.codec.http.HttpHeaders nativeHeaders = ((NettyHttpRequest<?>) request).getNativeRequest().headers();
+            final String streamId = nativeHeaders.get(AbstractNettyHttpRequest.STREAM_ID);
+            if (streamId != null) {
+                finalResponse.headers().set(AbstractNettyHttpRequest.STREAM_ID, streamId);
+            }
+        }
+        return finalResponse;
+    }
+
+    private boolean isZeroCopy(ChannelHandlerContext context, DefaultHttpResponse finalResponse) {
+        return context.pipeline().get(SslHandler.class) == null && context.pipeline().get(SmartHttpContentCompressor.class).shouldSkip(finalResponse);
+    }
+
+    private ChannelFutureListener newCloseListener() {
+        return (future) -> {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                LOG.warn("An error occurred closing the file reference: " + getFile().getAbsolutePath(), e);
+            }
+        };
+    }
 }
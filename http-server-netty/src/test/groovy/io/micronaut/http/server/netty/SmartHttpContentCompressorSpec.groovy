@@ -1,5 +1,6 @@
 package io.micronaut.http.server.netty
 
+import io.netty.channel.embedded.EmbeddedChannel
 import io.netty.handler.codec.http.*
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -34,4 +35,67 @@ class SmartHttpContentCompressorSpec extends Specification {
         inCompressible | 0      | true      // incompressible, always skip
         null           | null   | true      // if the content type is unknown, skip
     }
+
+    @Unroll
+    void "test negotiating #acceptEncoding"() {
+        expect:
+        AcceptEncodings.negotiate(acceptEncoding, ["zstd", "br", "gzip", "deflate"]) == expected
+
+        where:
+        acceptEncoding              | expected
+        null                        | []
+        "gzip, deflate"             | ["gzip", "deflate"]
+        "gzip, deflate, br"         | ["br", "gzip", "deflate"]
+        "gzip;q=1.0, br;q=0.5"      | ["gzip", "br"]
+        "br;q=0, *"                 | ["zstd", "gzip", "deflate"]
+        "identity"                  | []
+        "GZIP"                      | ["gzip"]
+    }
+
+    void "test the compression level is selected by media type"() {
+        given:
+        def strategy = new DefaultHttpCompressionStrategy(1024, 6, ["br", "gzip"], ["application/json": 1], -1)
+
+        expect:
+        strategy.getCompressionLevel(response("application/json; charset=utf-8", null), "gzip") == 1
+        strategy.getCompressionLevel(response("text/html", null), "gzip") == 6
+        strategy.getCompressionLevel(response("text/html", null), "br") == 4
+    }
+
+    void "test responses over the compression budget are not compressed"() {
+        given:
+        def strategy = new DefaultHttpCompressionStrategy(1024, 6, ["gzip"], [:], 3000)
+
+        expect:
+        strategy.selectEncoding(response(compressible, 2000), ["gzip"]) == "gzip"
+        strategy.selectEncoding(response(compressible, 2000), ["gzip"]) == null
+        strategy.selectEncoding(response(compressible, 1000), ["gzip"]) == "gzip"
+    }
+
+    void "test the negotiated encoding is applied"() {
+        given:
+        def channel = new EmbeddedChannel(new SmartHttpContentCompressor(new DefaultHttpCompressionStrategy(1024, 6, ["br", "deflate", "gzip"], [:], -1)))
+        def request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/")
+        request.headers().add(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate;q=0.5")
+        channel.writeInbound(request)
+
+        when:
+        channel.writeOutbound(response(compressible, null))
+        HttpResponse response = channel.readOutbound()
+
+        then:
+        response.headers().get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    private static HttpResponse response(String type, Integer length) {
+        HttpHeaders headers = new DefaultHttpHeaders()
+        headers.add(HttpHeaderNames.CONTENT_TYPE, type)
+        if (length != null) {
+            headers.add(HttpHeaderNames.CONTENT_LENGTH, length)
+        }
+        return new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, headers)
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.etag
+
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.ETag
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.server.netty.AbstractMicronautSpec
+
+import static io.micronaut.http.HttpHeaders.ETAG
+import static io.micronaut.http.HttpHeaders.IF_NONE_MATCH
+
+class ETagSpec extends AbstractMicronautSpec {
+
+    void "test an entity tag is computed from the body of #uri"() {
+        when:
+        def response = rxClient.toBlocking().exchange(uri, String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.header(ETAG) ==~ expected
+        response.body() == '{"name":"The Stand"}'
+
+        when:
+        def notModified = rxClient.toBlocking().exchange(HttpRequest.GET(uri).header(IF_NONE_MATCH, response.header(ETAG)), String)
+
+        then:
+        notModified.code() == HttpStatus.NOT_MODIFIED.code
+        notModified.header(ETAG) == response.header(ETAG)
+        !notModified.body()
+
+        where:
+        uri            | expected
+        '/etag/book'   | /W\/"[0-9a-f]{32}"/
+        '/etag/strong' | /"[0-9a-f]{32}"/
+    }
+
+    void "test a tag set by the route is compared without encoding the body"() {
+        when:
+        def response = rxClient.toBlocking().exchange(HttpRequest.GET('/etag/explicit').header(IF_NONE_MATCH, 'W/"other", "v1"'), String)
+
+        then:
+        response.code() == HttpStatus.NOT_MODIFIED.code
+        response.header(ETAG) == '"v1"'
+
+        when:
+        response = rxClient.toBlocking().exchange(HttpRequest.GET('/etag/explicit').header(IF_NONE_MATCH, '"v0"'), String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.body() == '{"name":"The Stand"}'
+    }
+
+    void "test routes without the annotation are not tagged"() {
+        when:
+        def response = rxClient.toBlocking().exchange('/etag/plain', String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.header(ETAG) == null
+    }
+
+    @Controller('/etag')
+    @Requires(property = 'spec.name', value = 'ETagSpec')
+    static class ETagController {
+
+        @Get('/book')
+        @ETag
+        Map<String, String> book() {
+            [name: 'The Stand']
+        }
+
+        @Get('/strong')
+        @ETag(weak = false)
+        Map<String, String> strong() {
+            [name: 'The Stand']
+        }
+
+        @Get('/explicit')
+        @ETag
+        HttpResponse<Map<String, String>> explicit() {
+            HttpResponse.ok([name: 'The Stand']).header(ETAG, '"v1"')
+        }
+
+        @Get('/plain')
+        Map<String, String> plain() {
+            [name: 'The Stand']
+        }
+    }
+}
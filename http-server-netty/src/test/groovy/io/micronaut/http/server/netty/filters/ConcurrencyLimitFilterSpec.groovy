@@ -0,0 +1,63 @@
+package io.micronaut.http.server.netty.filters
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ConcurrencyLimitFilterSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+            'spec.name'                                       : ConcurrencyLimitFilterSpec.simpleName,
+            'micronaut.server.concurrency-limit.enabled'      : true,
+            'micronaut.server.concurrency-limit.initial-limit': 1,
+            'micronaut.server.concurrency-limit.max-limit'   : 1
+    ])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = server.applicationContext.createBean(HttpClient, server.getURL())
+
+    void "test requests over the concurrency limit are rejected"() {
+        when:
+        List<HttpStatus> statuses = Flux.merge((1..3).collect {
+            Flux.from(client.exchange('/concurrency-limit/slow', String))
+                    .map { HttpResponse<String> response -> response.status() }
+                    .onErrorResume(HttpClientResponseException) { e -> Mono.just(e.status) }
+        }).collectList().block()
+
+        then:
+        statuses.count { it == HttpStatus.OK } == 1
+        statuses.count { it == HttpStatus.SERVICE_UNAVAILABLE } == 2
+
+        when: 'the request in flight has completed'
+        HttpResponse<String> response = client.toBlocking().exchange('/concurrency-limit/slow', String)
+
+        then:
+        response.status() == HttpStatus.OK
+    }
+
+    @Requires(property = 'spec.name', value = 'ConcurrencyLimitFilterSpec')
+    @Controller('/concurrency-limit')
+    static class SlowController {
+
+        @Get(value = '/slow', produces = 'text/plain')
+        Mono<String> slow() {
+            Mono.delay(Duration.ofMillis(500)).map { 'done' }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.time.Instant
 import java.time.ZoneId
 import java.time.ZonedDateTime
 import java.time.temporal.ChronoUnit
+import java.util.zip.GZIPOutputStream
 
 import static io.micronaut.http.HttpHeaders.*
 
@@ -131,6 +132,60 @@ class StaticResourceResolutionSpec extends AbstractMicronautSpec {
         response.body() == "<html><head></head><body>HTML Page created after start</body></html>"
     }
 
+    void "test precompressed variants are served when the encoding is accepted"() {
+        given:
+        File file = new File(tempSubDir, "precompressed.js")
+        tempSubDir.mkdirs()
+        file.write("var original = true;")
+        new File(tempSubDir, "precompressed.js.br").write("fake brotli content")
+        new File(tempSubDir, "precompressed.js.gz").withOutputStream { out ->
+            new GZIPOutputStream(out).withStream { it.write("var fromGzip = true;".bytes) }
+        }
+
+        when:
+        def response = rxClient.toBlocking().exchange(
+                HttpRequest.GET('/precompressed.js').header(ACCEPT_ENCODING, "br"), String)
+
+        then:
+        response.status == HttpStatus.OK
+        response.header(CONTENT_TYPE) == "application/javascript"
+        response.header(CONTENT_ENCODING) == "br"
+        response.header(VARY) == ACCEPT_ENCODING
+        response.body() == "fake brotli content"
+
+        when:
+        response = rxClient.toBlocking().exchange(
+                HttpRequest.GET('/precompressed.js').header(ACCEPT_ENCODING, "br;q=0.5, gzip"), String)
+
+        then: "the gzip variant is preferred and decoded by the client"
+        response.status == HttpStatus.OK
+        response.header(VARY) == ACCEPT_ENCODING
+        response.body() == "var fromGzip = true;"
+
+        when:
+        response = rxClient.toBlocking().exchange(
+                HttpRequest.GET('/precompressed.js').header(ACCEPT_ENCODING, "identity"), String)
+
+        then: "the identity response varies as well since a variant exists"
+        response.status == HttpStatus.OK
+        response.header(CONTENT_ENCODING) == null
+        response.header(VARY) == ACCEPT_ENCODING
+        response.body() == "var original = true;"
+
+        when:
+        new File(tempSubDir, "plain.js").write("var plain = true;")
+        response = rxClient.toBlocking().exchange(
+                HttpRequest.GET('/plain.js').header(ACCEPT_ENCODING, "identity"), String)
+
+        then: "a resource without variants does not vary"
+        response.status == HttpStatus.OK
+        response.header(VARY) == null
+        response.body() == "var plain = true;"
+
+        cleanup:
+        tempSubDir.listFiles().each { it.delete() }
+    }
+
     void "test resources with configured mapping"() {
         given:
         EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
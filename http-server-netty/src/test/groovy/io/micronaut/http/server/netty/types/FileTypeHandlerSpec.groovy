@@ -47,13 +47,19 @@ import java.time.ZonedDateTime
 import java.time.temporal.ChronoUnit
 import java.util.concurrent.ExecutorService
 
+import static io.micronaut.http.HttpHeaders.ACCEPT_RANGES
 import static io.micronaut.http.HttpHeaders.CACHE_CONTROL
 import static io.micronaut.http.HttpHeaders.CONTENT_DISPOSITION
 import static io.micronaut.http.HttpHeaders.CONTENT_LENGTH
+import static io.micronaut.http.HttpHeaders.CONTENT_RANGE
 import static io.micronaut.http.HttpHeaders.CONTENT_TYPE
 import static io.micronaut.http.HttpHeaders.DATE
+import static io.micronaut.http.HttpHeaders.ETAG
 import static io.micronaut.http.HttpHeaders.EXPIRES
+import static io.micronaut.http.HttpHeaders.IF_NONE_MATCH
+import static io.micronaut.http.HttpHeaders.IF_RANGE
 import static io.micronaut.http.HttpHeaders.LAST_MODIFIED
+import static io.micronaut.http.HttpHeaders.RANGE
 
 class FileTypeHandlerSpec extends AbstractMicronautSpec {
 
@@ -91,6 +97,36 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
         response.header(DATE)
     }
 
+    void "test 304 is returned if the entity tag matches"() {
+        when:
+        def response = rxClient.toBlocking().exchange('/test/html', String)
+        String etag = response.header(ETAG)
+
+        then:
+        etag == "W/\"${Long.toHexString(tempFile.length())}-${Long.toHexString(tempFile.lastModified())}\""
+
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET('/test/html')
+        request.header(IF_NONE_MATCH, etag)
+        // If-None-Match takes precedence
+        request.headers.ifModifiedSince(tempFile.lastModified() - 10000)
+        response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.NOT_MODIFIED.code
+        response.header(ETAG) == etag
+
+        when:
+        request = HttpRequest.GET('/test/html')
+        request.header(IF_NONE_MATCH, '"other"')
+        request.headers.ifModifiedSince(tempFile.lastModified())
+        response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.body() == tempFileContents
+    }
+
     void "test cache control can be overridden"() {
         when:
         MutableHttpRequest<?> request = HttpRequest.GET('/test/custom-cache-control')
@@ -276,6 +312,106 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
         response.body() == ("a".."z").join('')
     }
 
+    void "test a single range is returned as partial content for #uri"() {
+        when:
+        def response = rxClient.toBlocking().exchange(HttpRequest.GET(uri).header(RANGE, "bytes=6-11"), String)
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        response.header(ACCEPT_RANGES) == "bytes"
+        response.header(CONTENT_RANGE) == "bytes 6-11/${tempFileContents.length()}"
+        response.header(CONTENT_LENGTH) == "6"
+        response.body() == "<head>"
+
+        where:
+        uri << ['/test/html', '/test-system/download', '/test-stream/sized']
+    }
+
+    void "test a suffix range returns the end of the file"() {
+        when:
+        def response = rxClient.toBlocking().exchange(HttpRequest.GET('/test/html').header(RANGE, "bytes=-7"), String)
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        response.header(CONTENT_RANGE) == "bytes ${tempFileContents.length() - 7}-${tempFileContents.length() - 1}/${tempFileContents.length()}"
+        response.body() == "</html>"
+    }
+
+    void "test multiple ranges are returned as multipart/byteranges for #uri"() {
+        when:
+        def response = rxClient.toBlocking().exchange(HttpRequest.GET(uri).header(RANGE, "bytes=0-5, 12-17"), String)
+        String contentType = response.header(CONTENT_TYPE)
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + 9)
+        String length = tempFileContents.length()
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        contentType.startsWith("multipart/byteranges; boundary=")
+        Integer.parseInt(response.header(CONTENT_LENGTH)) == response.body().length()
+        response.body() == "--${boundary}\r\nContent-Type: text/html\r\nContent-Range: bytes 0-5/${length}\r\n\r\n<html>" +
+                "\r\n--${boundary}\r\nContent-Type: text/html\r\nContent-Range: bytes 12-17/${length}\r\n\r\n</head" +
+                "\r\n--${boundary}--\r\n"
+
+        where:
+        uri << ['/test/html', '/test-system/download', '/test-stream/sized']
+    }
+
+    void "test every part of a multipart/byteranges system file response is written from the file"() {
+        when:
+        def response = rxClient.toBlocking().exchange(HttpRequest.GET('/test-system/download').header(RANGE, "bytes=0-5, 12-17, -7"), String)
+        String contentType = response.header(CONTENT_TYPE)
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + 9)
+        int length = tempFileContents.length()
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        contentType.startsWith("multipart/byteranges; boundary=")
+        Integer.parseInt(response.header(CONTENT_LENGTH)) == response.body().length()
+        response.body() == "--${boundary}\r\nContent-Type: text/html\r\nContent-Range: bytes 0-5/${length}\r\n\r\n<html>" +
+                "\r\n--${boundary}\r\nContent-Type: text/html\r\nContent-Range: bytes 12-17/${length}\r\n\r\n</head" +
+                "\r\n--${boundary}\r\nContent-Type: text/html\r\nContent-Range: bytes ${length - 7}-${length - 1}/${length}\r\n\r\n</html>" +
+                "\r\n--${boundary}--\r\n"
+
+        when:"the same file is requested again after the regions of the previous response were released"
+        response = rxClient.toBlocking().exchange(HttpRequest.GET('/test-system/download').header(RANGE, "bytes=6-11, 19-24"), String)
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        response.body().contains("\r\n\r\n<head>\r\n")
+        response.body().contains("\r\n\r\n<body>\r\n")
+    }
+
+    void "test 416 is returned if no range can be satisfied"() {
+        when:
+        rxClient.toBlocking().exchange(HttpRequest.GET('/test/html').header(RANGE, "bytes=1000-"), String)
+
+        then:
+        def e = thrown(HttpClientResponseException)
+        e.response.code() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code
+        e.response.header(CONTENT_RANGE) == "bytes */${tempFileContents.length()}"
+    }
+
+    void "test the complete file is returned if the range is invalid or if-range does not match"() {
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET('/test/html').header(RANGE, rangeHeader)
+        if (ifRange) {
+            request.header(IF_RANGE, ifRange)
+        }
+        def response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.body() == tempFileContents
+
+        where:
+        rangeHeader     | ifRange
+        "bytes=5-2"     | null
+        "items=0-5"     | null
+        "bytes=10-,0-2" | null
+        "bytes=0-5"     | "Wed, 21 Oct 2015 07:28:00 GMT"
+        "bytes=0-5"     | '"an-etag"'
+    }
+
     void "test supports"() {
         when:
         FileTypeHandler fileTypeHandler = new FileTypeHandler(new FileTypeHandlerConfiguration())
@@ -381,6 +517,11 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
             return new StreamedFile(input, MediaType.TEXT_PLAIN_TYPE)
         }
 
+        @Get('/sized')
+        StreamedFile sized() {
+            new StreamedFile(Files.newInputStream(tempFile.toPath()), MediaType.TEXT_HTML_TYPE, tempFile.lastModified(), tempFile.length())
+        }
+
     }
 
     @CompileStatic
@@ -53,7 +53,6 @@ import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -313,11 +312,11 @@ public final class RouteExecutor {
     public Publisher<MutableHttpResponse<?>> filterPublisher(
             AtomicReference<HttpRequest<?>> requestReference,
             Publisher<MutableHttpResponse<?>> upstreamResponsePublisher) {
-        List<HttpFilter> httpFilters = router.findFilters(requestReference.get());
-        if (httpFilters.isEmpty()) {
+        // the resolved filters are read only, so they can be used without a defensive copy
+        List<HttpFilter> filters = router.findFilters(requestReference.get());
+        if (filters.isEmpty()) {
             return upstreamResponsePublisher;
         }
-        List<HttpFilter> filters = new ArrayList<>(httpFilters);
         AtomicInteger integer = new AtomicInteger();
         int len = filters.size();
         final Function<MutableHttpResponse<?>, Publisher<MutableHttpResponse<?>>> handleStatusException = (response) ->
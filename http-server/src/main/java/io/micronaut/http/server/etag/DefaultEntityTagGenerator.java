@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.etag;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Default implementation of {@link EntityTagGenerator}. File tags are weak tags made of the length and
+ * last modified time of the file, as any further precision would require reading it. Content tags are made of the
+ * first 128 bits of the SHA-256 digest of the content.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Singleton
+public class DefaultEntityTagGenerator implements EntityTagGenerator {
+
+    private static final int DIGEST_LENGTH = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Nullable
+    @Override
+    public String generate(long length, long lastModified) {
+        if (length < 0 || lastModified <= 0) {
+            return null;
+        }
+        return EntityTags.WEAK_PREFIX + '"' + Long.toHexString(length) + '-' + Long.toHexString(lastModified) + '"';
+    }
+
+    @NonNull
+    @Override
+    public String generate(@NonNull ByteBuffer content, boolean weak) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(content.duplicate());
+        byte[] hash = digest.digest();
+        StringBuilder tag = new StringBuilder(DIGEST_LENGTH * 2 + 4);
+        if (weak) {
+            tag.append(EntityTags.WEAK_PREFIX);
+        }
+        tag.append('"');
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            tag.append(HEX[(hash[i] >> 4) & 0xF]).append(HEX[hash[i] & 0xF]);
+        }
+        return tag.append('"').toString();
+    }
+}
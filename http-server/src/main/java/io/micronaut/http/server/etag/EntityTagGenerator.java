@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.etag;
+
+import io.micronaut.context.annotation.DefaultImplementation;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Generates the entity tags sent with the {@code ETag} header.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 Section 2.3</a>
+ */
+@DefaultImplementation(DefaultEntityTagGenerator.class)
+public interface EntityTagGenerator {
+
+    /**
+     * Generates a tag for a file from its metadata, without reading its content.
+     *
+     * @param length       The length of the file or -1 if unknown
+     * @param lastModified The last modified time of the file in milliseconds
+     * @return The quoted entity tag, including the weak indicator if the tag is weak, or {@code null} if no tag
+     * should be sent
+     */
+    @Nullable
+    String generate(long length, long lastModified);
+
+    /**
+     * Generates a tag from the content of a response.
+     *
+     * @param content The content. Implementations should not modify the position of the buffer
+     * @param weak    Whether a weak tag should be generated
+     * @return The quoted entity tag, including the weak indicator if the tag is weak
+     */
+    @NonNull
+    String generate(@NonNull ByteBuffer content, boolean weak);
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.etag;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Utility methods to compare entity tags.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3.2">RFC 7232 Section 2.3.2</a>
+ */
+@Internal
+public final class EntityTags {
+
+    /**
+     * The prefix of weak entity tags.
+     */
+    public static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param tag The entity tag
+     * @return Whether the tag is weak
+     */
+    public static boolean isWeak(@NonNull String tag) {
+        return tag.startsWith(WEAK_PREFIX);
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header, which uses the weak comparison.
+     *
+     * @param ifNoneMatch The header value
+     * @param tag         The current entity tag
+     * @return True if the header matches the tag, in which case a {@code 304} response should be sent for
+     * {@code GET} and {@code HEAD} requests
+     */
+    public static boolean matchesAny(@Nullable String ifNoneMatch, @NonNull String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String value = ifNoneMatch.trim();
+        if (value.equals("*")) {
+            return true;
+        }
+        String opaqueTag = opaqueTag(tag);
+        int start = 0;
+        int length = value.length();
+        while (start < length) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            String candidate = value.substring(start, end).trim();
+            if (!candidate.isEmpty() && opaqueTag.equals(opaqueTag(candidate))) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Compares two tags with the strong comparison, as required by {@code If-Range} and {@code If-Match}.
+     *
+     * @param first  The first tag
+     * @param second The second tag
+     * @return True if both tags are strong and equal
+     */
+    public static boolean strongMatches(@Nullable String first, @Nullable String second) {
+        return first != null && second != null && !isWeak(first) && !isWeak(second) && first.trim().equals(second.trim());
+    }
+
+    private static String opaqueTag(String tag) {
+        return isWeak(tag) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.limit;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.util.Toggleable;
+import io.micronaut.http.server.HttpServerConfiguration;
+
+/**
+ * Configuration for the adaptive concurrency limit of the server, see {@link ConcurrencyLimiter}.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@ConfigurationProperties(ConcurrencyLimitConfiguration.PREFIX)
+public class ConcurrencyLimitConfiguration implements Toggleable {
+
+    /**
+     * The prefix to use for configuration.
+     */
+    public static final String PREFIX = HttpServerConfiguration.PREFIX + ".concurrency-limit";
+
+    /**
+     * The default enable value.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_ENABLED = false;
+
+    /**
+     * The default initial limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * The default minimum limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * The default maximum limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    /**
+     * The default latency tolerance.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final double DEFAULT_TOLERANCE = 1.5;
+
+    /**
+     * The default smoothing factor.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final double DEFAULT_SMOOTHING = 0.2;
+
+    /**
+     * The default number of samples of the long term latency average.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_LONG_WINDOW = 600;
+
+    /**
+     * The default value for limiting each route separately.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_PARTITION_BY_ROUTE = false;
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private double smoothing = DEFAULT_SMOOTHING;
+    private int longWindow = DEFAULT_LONG_WINDOW;
+    private boolean partitionByRoute = DEFAULT_PARTITION_BY_ROUTE;
+
+    /**
+     * @return Whether the concurrency limit is enabled
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the concurrency limit is enabled. Default value ({@value #DEFAULT_ENABLED}).
+     *
+     * @param enabled True if it is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The limit before any latency has been observed
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the limit before any latency has been observed. Default value ({@value #DEFAULT_INITIAL_LIMIT}).
+     *
+     * @param initialLimit The initial limit
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * @return The lowest limit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Sets the lowest limit. Default value ({@value #DEFAULT_MIN_LIMIT}).
+     *
+     * @param minLimit The minimum limit
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * @return The highest limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the highest limit. Default value ({@value #DEFAULT_MAX_LIMIT}).
+     *
+     * @param maxLimit The maximum limit
+     */
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return The ratio by which the latency may exceed the long term average before the limit is reduced
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets the ratio by which the latency may exceed the long term average before the limit is reduced.
+     * Default value ({@value #DEFAULT_TOLERANCE}).
+     *
+     * @param tolerance The tolerance, at least 1
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return The weight of a new limit compared to the current limit
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * Sets the weight of a new limit compared to the current limit, between 0 exclusive and 1 inclusive.
+     * Default value ({@value #DEFAULT_SMOOTHING}).
+     *
+     * @param smoothing The smoothing factor
+     */
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * @return The number of samples of the long term latency average
+     */
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    /**
+     * Sets the number of samples of the long term latency average. Default value ({@value #DEFAULT_LONG_WINDOW}).
+     *
+     * @param longWindow The window
+     */
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * @return Whether each route has its own limit
+     */
+    public boolean isPartitionByRoute() {
+        return partitionByRoute;
+    }
+
+    /**
+     * Sets whether each route has its own limit, so that a slow route cannot exhaust the limit of the other
+     * routes. Default value ({@value #DEFAULT_PARTITION_BY_ROUTE}).
+     *
+     * @param partitionByRoute True if each route has its own limit
+     */
+    public void setPartitionByRoute(boolean partitionByRoute) {
+        this.partitionByRoute = partitionByRoute;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A filter that rejects requests with {@link HttpStatus#SERVICE_UNAVAILABLE} once the number of requests in flight
+ * reaches the adaptive limit of a {@link ConcurrencyLimiter}. The latency of a request is measured from the filter to
+ * the emission of the response, so it includes the time spent waiting for the executor of the route.
+ *
+ * <p>The filter runs right after the metrics filters, so rejected requests are still recorded but do not reach
+ * any other filter. If {@link ConcurrencyLimitConfiguration#isPartitionByRoute()} is enabled each route, identified
+ * by its method and URI template, has its own limiter.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+@Requires(property = ConcurrencyLimitConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class ConcurrencyLimitFilter implements HttpServerFilter {
+
+    private static final String UNMATCHED = "";
+
+    private final ConcurrencyLimitConfiguration configuration;
+    private final ConcurrencyLimiter limiter;
+    private final Map<String, ConcurrencyLimiter> routeLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The configuration
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitConfiguration configuration) {
+        this.configuration = configuration;
+        this.limiter = new ConcurrencyLimiter(configuration);
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        ConcurrencyLimiter requestLimiter = findLimiter(request);
+        int inFlight = requestLimiter.tryAcquire();
+        if (inFlight < 0) {
+            return Publishers.just(HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE, "Concurrency limit exceeded"));
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return Flux.from(chain.proceed(request))
+                .doOnNext(response -> {
+                    if (released.compareAndSet(false, true)) {
+                        requestLimiter.release(inFlight, System.nanoTime() - start);
+                    }
+                })
+                .doFinally(signal -> {
+                    if (released.compareAndSet(false, true)) {
+                        requestLimiter.release(inFlight, -1);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.METRICS.after();
+    }
+
+    /**
+     * Resolves the limiter for the given request.
+     *
+     * @param request The request
+     * @return The limiter
+     */
+    protected ConcurrencyLimiter findLimiter(HttpRequest<?> request) {
+        if (!configuration.isPartitionByRoute()) {
+            return limiter;
+        }
+        String route = request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class)
+                .map(template -> request.getMethodName() + ' ' + template)
+                .orElse(UNMATCHED);
+        return routeLimiters.computeIfAbsent(route, key -> new ConcurrencyLimiter(configuration));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.limit;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>An adaptive concurrency limit based on the gradient between the long term average latency and the latency of
+ * the most recent request, in the spirit of TCP Vegas. As long as latencies stay within the tolerance of the long
+ * term average the limit grows by the square root of the limit, which is the number of requests allowed to queue.
+ * When latencies rise because requests queue up, the gradient drops below 1 and the limit shrinks proportionally,
+ * down to half of the limit per sample.</p>
+ *
+ * <p>The limit is not increased while fewer than half of the permitted requests are in flight, since the latencies
+ * then say nothing about a higher limit. When the long term average is more than twice the recent latency, for
+ * example after an overload, it decays faster so that the limit can recover.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class ConcurrencyLimiter {
+
+    private static final int WARMUP_SAMPLES = 10;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double RECOVERY_RATIO = 2.0;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longFactor;
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longLatency;
+    private int samples;
+
+    /**
+     * @param configuration The configuration
+     */
+    public ConcurrencyLimiter(@NonNull ConcurrencyLimitConfiguration configuration) {
+        this.minLimit = Math.max(1, configuration.getMinLimit());
+        this.maxLimit = Math.max(minLimit, configuration.getMaxLimit());
+        this.tolerance = Math.max(1.0, configuration.getTolerance());
+        this.smoothing = Math.min(1.0, Math.max(Double.MIN_VALUE, configuration.getSmoothing()));
+        this.longFactor = 2.0 / (Math.max(1, configuration.getLongWindow()) + 1);
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, configuration.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Tries to start a request.
+     *
+     * @return The number of requests in flight including the started request or -1 if the limit has been reached,
+     * in which case the request must be rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Completes a request started with {@link #tryAcquire()}.
+     *
+     * @param inFlightAtStart The value returned by {@link #tryAcquire()}
+     * @param latencyNanos    The latency of the request or a negative value if the request did not complete normally
+     */
+    public void release(int inFlightAtStart, long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            onSample(inFlightAtStart, Math.max(1, latencyNanos));
+        }
+    }
+
+    /**
+     * @return The current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(int inFlightAtStart, long latency) {
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longLatency += (latency - longLatency) / samples;
+        } else {
+            longLatency += (latency - longLatency) * longFactor;
+        }
+        if (longLatency / latency > RECOVERY_RATIO) {
+            longLatency *= RECOVERY_DECAY;
+        }
+        if (inFlightAtStart < estimatedLimit / 2) {
+            // not enough load to learn anything about a higher limit
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longLatency / latency));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
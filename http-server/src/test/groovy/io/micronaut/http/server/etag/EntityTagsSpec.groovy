@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.etag
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class EntityTagsSpec extends Specification {
+
+    @Unroll
+    void "test If-None-Match #ifNoneMatch against #tag is #expected"() {
+        expect:
+        EntityTags.matchesAny(ifNoneMatch, tag) == expected
+
+        where:
+        ifNoneMatch           | tag       | expected
+        null                  | '"a"'     | false
+        '*'                   | '"a"'     | true
+        '"a"'                 | '"a"'     | true
+        'W/"a"'               | '"a"'     | true
+        '"a"'                 | 'W/"a"'   | true
+        '"b", W/"a"'          | '"a"'     | true
+        '"b" , "c"'           | '"a"'     | false
+        '"ab"'                | '"a"'     | false
+    }
+
+    @Unroll
+    void "test strong comparison of #first and #second is #expected"() {
+        expect:
+        EntityTags.strongMatches(first, second) == expected
+
+        where:
+        first     | second    | expected
+        '"a"'     | '"a"'     | true
+        'W/"a"'   | '"a"'     | false
+        'W/"a"'   | 'W/"a"'   | false
+        '"a"'     | null      | false
+    }
+
+    void "test default entity tags"() {
+        given:
+        def generator = new DefaultEntityTagGenerator()
+        def content = ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8))
+
+        expect:
+        generator.generate(26, 255) == 'W/"1a-ff"'
+        generator.generate(-1, 255) == null
+        generator.generate(content, false) == '"2cf24dba5fb0a30e26e83b2ac5b9e29e"'
+        generator.generate(content, true) == 'W/"2cf24dba5fb0a30e26e83b2ac5b9e29e"'
+        content.position() == 0
+    }
+}
@@ -0,0 +1,90 @@
+package io.micronaut.http.server.limit
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ConcurrencyLimiterSpec extends Specification {
+
+    void "test requests over the limit are rejected"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitConfiguration(initialLimit: 2))
+
+        expect:
+        limiter.tryAcquire() == 1
+        limiter.tryAcquire() == 2
+        limiter.tryAcquire() == -1
+        limiter.getInFlight() == 2
+
+        when:
+        limiter.release(2, -1)
+
+        then:
+        limiter.getInFlight() == 1
+        limiter.tryAcquire() == 2
+    }
+
+    void "test the limit grows while the latency is stable"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitConfiguration(initialLimit: 10))
+
+        when:
+        100.times {
+            limiter.release(limiter.getLimit(), TimeUnit.MILLISECONDS.toNanos(10))
+        }
+
+        then:
+        limiter.getLimit() > 10
+    }
+
+    void "test the limit shrinks when the latency rises"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitConfiguration(initialLimit: 100))
+        50.times {
+            limiter.release(limiter.getLimit(), TimeUnit.MILLISECONDS.toNanos(10))
+        }
+        int limit = limiter.getLimit()
+
+        when:
+        20.times {
+            limiter.release(limiter.getLimit(), TimeUnit.MILLISECONDS.toNanos(100))
+        }
+
+        then:
+        limiter.getLimit() < limit / 2
+    }
+
+    void "test the limit does not grow without load"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitConfiguration(initialLimit: 10))
+
+        when:
+        100.times {
+            limiter.release(1, TimeUnit.MILLISECONDS.toNanos(10))
+        }
+
+        then:
+        limiter.getLimit() == 10
+    }
+
+    void "test the limit stays within bounds"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitConfiguration(initialLimit: 10, minLimit: 5, maxLimit: 12))
+
+        when:
+        200.times {
+            limiter.release(limiter.getLimit(), TimeUnit.MILLISECONDS.toNanos(10))
+        }
+
+        then:
+        limiter.getLimit() == 12
+
+        when:
+        200.times {
+            limiter.release(limiter.getLimit(), TimeUnit.MILLISECONDS.toNanos(10 * (it + 2)))
+        }
+
+        then:
+        limiter.getLimit() == 5
+    }
+}
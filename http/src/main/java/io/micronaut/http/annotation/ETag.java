@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>Marks a route whose responses should carry an {@code ETag} header computed from a hash of the encoded
+ * response body. If the request contains a matching {@code If-None-Match} header, a {@code 304 Not Modified}
+ * response is sent without a body. If the method sets the {@code ETag} header of the response itself,
+ * that tag is compared instead and the body is not encoded at all.</p>
+ *
+ * <p>The tag only applies to successful {@code GET} responses whose body is encoded in full. Streamed bodies,
+ * such as publishers, are sent unchanged.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Inherited
+public @interface ETag {
+
+    /**
+     * Whether a weak tag should be generated. Weak tags only indicate that the responses are semantically
+     * equivalent. The tag is computed before the response may be compressed by the server, so a strong tag would
+     * be shared by different byte sequences. Only disable this if the responses of the route are never compressed.
+     *
+     * @return True if the tag is weak
+     */
+    boolean weak() default true;
+}
@@ -39,8 +39,10 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
     protected StringBuilder pattern;
     protected List<UriMatchVariable> variables;
     private final Pattern matchPattern;
+    private final UriSegmentMatcher segmentMatcher;
     private final boolean isRoot;
     private final boolean exactMatch;
+    private Map<String, UriMatchVariable> variableMap;
 
     // Matches cache
     private Optional<UriMatchInfo> rootMatchInfo;
@@ -66,9 +68,11 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
         if (variables.isEmpty() && Pattern.quote(templateString.toString()).equals(pattern.toString())) {
             // if there are no variables and a match pattern matches template we can assume it matches exactly
             this.matchPattern = null;
+            this.segmentMatcher = null;
             this.exactMatch = true;
         } else {
             this.matchPattern = Pattern.compile(pattern.toString());
+            this.segmentMatcher = UriSegmentMatcher.compile(matchPattern.pattern());
             this.exactMatch = false;
         }
         this.isRoot = isRoot();
@@ -89,9 +93,11 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
         if (variables.isEmpty() && matchPattern.matcher(templateString).matches()) {
             // if there are no variables and match pattern matches template we can assume it matches exactly
             this.matchPattern = null;
+            this.segmentMatcher = null;
             this.exactMatch = true;
         } else {
             this.matchPattern = matchPattern;
+            this.segmentMatcher = UriSegmentMatcher.compile(matchPattern.pattern());
             this.exactMatch = false;
         }
     }
@@ -144,7 +150,8 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
     }
 
     /**
-     * Match the given URI string.
+     * Match the given URI string. Templates made up of literal text and whole-segment variables are matched
+     * by comparing characters directly, other templates are matched with a regular expression.
      *
      * @param uri The uRI
      * @return True if it matches
@@ -154,38 +161,49 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
         if (uri == null) {
             throw new IllegalArgumentException("Argument 'uri' cannot be null");
         }
-        int length = uri.length();
+        final int originalLength = uri.length();
+        int length = originalLength;
         if (length > 1 && uri.charAt(length - 1) == '/') {
-            uri = uri.substring(0, length - 1);
+            length--;
         }
 
-        if (isRoot && (length == 0 || (length == 1 && uri.charAt(0) == '/'))) {
+        if (isRoot && (originalLength == 0 || (originalLength == 1 && uri.charAt(0) == '/'))) {
             if (rootMatchInfo == null) {
-                rootMatchInfo = Optional.of(new DefaultUriMatchInfo(uri, Collections.emptyMap(), variables));
+                rootMatchInfo = Optional.of(new DefaultUriMatchInfo(uri, Collections.emptyMap(), variables, getVariableMap()));
             }
             return rootMatchInfo;
         }
         //Remove any url parameters before matching
         int parameterIndex = uri.indexOf('?');
-        if (parameterIndex > -1) {
-            uri = uri.substring(0, parameterIndex);
+        if (parameterIndex > -1 && parameterIndex < length) {
+            length = parameterIndex;
         }
-        if (uri.endsWith("/")) {
-            uri = uri.substring(0, uri.length() - 1);
+        if (length > 0 && uri.charAt(length - 1) == '/') {
+            length--;
         }
         if (exactMatch) {
-            if (uri.equals(templateString)) {
+            if (length == templateString.length() && uri.startsWith(templateString)) {
                 if (exactMatchInfo == null) {
-                    exactMatchInfo = Optional.of(new DefaultUriMatchInfo(uri, Collections.emptyMap(), variables));
+                    exactMatchInfo = Optional.of(new DefaultUriMatchInfo(templateString, Collections.emptyMap(), variables, getVariableMap()));
                 }
                 return exactMatchInfo;
             }
             return Optional.empty();
         }
+        if (segmentMatcher != null) {
+            int[] offsets = segmentMatcher.match(uri, length);
+            if (offsets == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new DefaultUriMatchInfo(uri, length, offsets, variables, getVariableMap()));
+        }
+        if (length != originalLength) {
+            uri = uri.substring(0, length);
+        }
         Matcher matcher = matchPattern.matcher(uri);
         if (matcher.matches()) {
             if (variables.isEmpty()) {
-                return Optional.of(new DefaultUriMatchInfo(uri, Collections.emptyMap(), variables));
+                return Optional.of(new DefaultUriMatchInfo(uri, Collections.emptyMap(), variables, getVariableMap()));
             } else {
                 int count = matcher.groupCount();
                 Map<String, Object> variableMap = new LinkedHashMap<>(count);
@@ -198,7 +216,7 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
                     String value = matcher.group(index);
                     variableMap.put(variable.getName(), value);
                 }
-                return Optional.of(new DefaultUriMatchInfo(uri, variableMap, variables));
+                return Optional.of(new DefaultUriMatchInfo(uri, variableMap, variables, getVariableMap()));
             }
         }
         return Optional.empty();
@@ -239,6 +257,15 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
         return new UriMatchTemplateParser(templateString, this);
     }
 
+    private Map<String, UriMatchVariable> getVariableMap() {
+        Map<String, UriMatchVariable> variableMap = this.variableMap;
+        if (variableMap == null) {
+            variableMap = DefaultUriMatchInfo.toVariableMap(variables);
+            this.variableMap = variableMap;
+        }
+        return variableMap;
+    }
+
     private boolean isRoot() {
         CharSequence rawSegment = null;
         for (PathSegment segment : segments) {
@@ -267,10 +294,15 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
      */
     protected static class DefaultUriMatchInfo implements UriMatchInfo {
 
-        private final String uri;
-        private final Map<String, Object> variableValues;
+        private static final int[] NO_OFFSETS = new int[0];
+
+        private final String source;
+        private final int length;
+        private final int[] offsets;
         private final List<UriMatchVariable> variables;
         private final Map<String, UriMatchVariable> variableMap;
+        private String uri;
+        private Map<String, Object> variableValues;
 
         /**
          * @param uri            The URI
@@ -278,23 +310,67 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
          * @param variables      The variables
          */
         protected DefaultUriMatchInfo(String uri, Map<String, Object> variableValues, List<UriMatchVariable> variables) {
+            this(uri, variableValues, variables, toVariableMap(variables));
+        }
+
+        /**
+         * @param uri            The URI
+         * @param variableValues The map of variable names with values
+         * @param variables      The variables
+         * @param variableMap    The variables by name
+         */
+        DefaultUriMatchInfo(String uri, Map<String, Object> variableValues, List<UriMatchVariable> variables, Map<String, UriMatchVariable> variableMap) {
+            this.source = uri;
+            this.length = uri.length();
+            this.offsets = NO_OFFSETS;
             this.uri = uri;
             this.variableValues = variableValues;
             this.variables = variables;
-            LinkedHashMap<String, UriMatchVariable> vm = new LinkedHashMap<>(variables.size());
-            for (UriMatchVariable variable : variables) {
-                vm.put(variable.getName(), variable);
-            }
-            this.variableMap = Collections.unmodifiableMap(vm);
+            this.variableMap = variableMap;
+        }
+
+        /**
+         * Creates a match info whose URI and variable values are resolved lazily from the source string.
+         *
+         * @param source      The source string, the URI is the first {@code length} characters
+         * @param length      The length of the URI within the source
+         * @param offsets     The start and end offsets of the variable values within the source
+         * @param variables   The variables
+         * @param variableMap The variables by name
+         */
+        DefaultUriMatchInfo(String source, int length, int[] offsets, List<UriMatchVariable> variables, Map<String, UriMatchVariable> variableMap) {
+            this.source = source;
+            this.length = length;
+            this.offsets = offsets;
+            this.variables = variables;
+            this.variableMap = variableMap;
         }
 
         @Override
         public String getUri() {
+            String uri = this.uri;
+            if (uri == null) {
+                uri = length == source.length() ? source : source.substring(0, length);
+                this.uri = uri;
+            }
             return uri;
         }
 
         @Override
         public Map<String, Object> getVariableValues() {
+            Map<String, Object> variableValues = this.variableValues;
+            if (variableValues == null) {
+                int count = Math.min(variables.size(), offsets.length / 2);
+                if (count == 0) {
+                    variableValues = Collections.emptyMap();
+                } else {
+                    variableValues = new LinkedHashMap<>(count);
+                    for (int j = 0; j < count; j++) {
+                        variableValues.put(variables.get(j).getName(), source.substring(offsets[j * 2], offsets[j * 2 + 1]));
+                    }
+                }
+                this.variableValues = variableValues;
+            }
             return variableValues;
         }
 
@@ -318,7 +394,7 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
             }
 
             DefaultUriMatchInfo that = (DefaultUriMatchInfo) o;
-            return uri.equals(that.uri) && variables.equals(that.variables);
+            return getUri().equals(that.getUri()) && variables.equals(that.variables);
         }
 
         @Override
@@ -328,10 +404,18 @@ public class UriMatchTemplate extends UriTemplate implements UriMatcher {
 
         @Override
         public int hashCode() {
-            int result = uri.hashCode();
+            int result = getUri().hashCode();
             result = 31 * result + variables.hashCode();
             return result;
         }
+
+        private static Map<String, UriMatchVariable> toVariableMap(List<UriMatchVariable> variables) {
+            LinkedHashMap<String, UriMatchVariable> vm = new LinkedHashMap<>(variables.size());
+            for (UriMatchVariable variable : variables) {
+                vm.put(variable.getName(), variable);
+            }
+            return Collections.unmodifiableMap(vm);
+        }
     }
 
     /**
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.uri;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Matches a URI against a template that consists only of literal text and variables that span a whole
+ * path segment (for example {@code /books/{id}/authors}) by comparing characters directly, without running
+ * a regular expression.</p>
+ *
+ * <p>The matcher is compiled from the regular expression generated by {@link UriMatchTemplate}, so it is only
+ * created for patterns that it can evaluate with exactly the same result. Variable values are returned as
+ * start and end offsets into the matched URI.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class UriSegmentMatcher {
+
+    private static final int[] NO_OFFSETS = new int[0];
+    private static final String LITERAL_START = "\\Q";
+    private static final String LITERAL_END = "\\E";
+    private static final String LAZY_QUANTIFIER = "+?))";
+    private static final String BOUNDED_QUANTIFIER = "{1,";
+    private static final String BOUNDED_QUANTIFIER_END = "}))";
+    private static final String DIGITS_PATTERN = "([\\d+]";
+    private static final String DECIMAL_PATTERN = "([\\d\\.+]";
+
+    private static final byte TYPE_DEFAULT = 0;
+    private static final byte TYPE_DIGITS = 1;
+    private static final byte TYPE_DECIMAL = 2;
+
+    private final String[] literals;
+    private final byte[] types;
+    private final int[] maxLengths;
+
+    private UriSegmentMatcher(String[] literals, byte[] types, int[] maxLengths) {
+        this.literals = literals;
+        this.types = types;
+        this.maxLengths = maxLengths;
+    }
+
+    /**
+     * Compiles a matcher for the given regular expression.
+     *
+     * @param pattern The pattern produced by {@link UriMatchTemplate}
+     * @return The matcher or {@code null} if the pattern cannot be matched without a regular expression
+     */
+    @Nullable
+    static UriSegmentMatcher compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Byte> types = new ArrayList<>();
+        List<Integer> maxLengths = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        int length = pattern.length();
+        while (i < length) {
+            if (pattern.startsWith(LITERAL_START, i)) {
+                int end = pattern.indexOf(LITERAL_END, i + 2);
+                if (end < 0) {
+                    return null;
+                }
+                literal.append(pattern, i + 2, end);
+                i = end + 2;
+                continue;
+            }
+            byte type;
+            String variablePattern;
+            if (pattern.startsWith("(" + UriMatchTemplate.VARIABLE_MATCH_PATTERN, i)) {
+                type = TYPE_DEFAULT;
+                variablePattern = UriMatchTemplate.VARIABLE_MATCH_PATTERN;
+            } else if (pattern.startsWith("(" + DIGITS_PATTERN, i)) {
+                type = TYPE_DIGITS;
+                variablePattern = DIGITS_PATTERN;
+            } else if (pattern.startsWith("(" + DECIMAL_PATTERN, i)) {
+                type = TYPE_DECIMAL;
+                variablePattern = DECIMAL_PATTERN;
+            } else {
+                return null;
+            }
+            i += variablePattern.length() + 1;
+            int maxLength;
+            if (pattern.startsWith(LAZY_QUANTIFIER, i)) {
+                maxLength = Integer.MAX_VALUE;
+                i += LAZY_QUANTIFIER.length();
+            } else if (pattern.startsWith(BOUNDED_QUANTIFIER, i)) {
+                int end = pattern.indexOf(BOUNDED_QUANTIFIER_END, i);
+                if (end < 0) {
+                    return null;
+                }
+                try {
+                    maxLength = Integer.parseInt(pattern.substring(i + BOUNDED_QUANTIFIER.length(), end));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                i = end + BOUNDED_QUANTIFIER_END.length();
+            } else {
+                return null;
+            }
+            if (!literals.isEmpty() && literal.length() == 0) {
+                // two adjacent variables
+                return null;
+            }
+            if (!literals.isEmpty() && literal.charAt(0) != '/') {
+                // the previous variable is not followed by a segment boundary
+                return null;
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            types.add(type);
+            maxLengths.add(maxLength);
+        }
+        if (!literals.isEmpty() && literal.length() > 0 && literal.charAt(0) != '/') {
+            return null;
+        }
+        literals.add(literal.toString());
+        byte[] typeArray = new byte[types.size()];
+        int[] maxLengthArray = new int[maxLengths.size()];
+        for (int j = 0; j < typeArray.length; j++) {
+            typeArray[j] = types.get(j);
+            maxLengthArray[j] = maxLengths.get(j);
+        }
+        return new UriSegmentMatcher(literals.toArray(new String[0]), typeArray, maxLengthArray);
+    }
+
+    /**
+     * Matches the first {@code length} characters of the given URI.
+     *
+     * @param uri    The URI
+     * @param length The length of the URI to match
+     * @return The start and end offsets of each variable or {@code null} if the URI does not match
+     */
+    @Nullable
+    int[] match(String uri, int length) {
+        int variableCount = types.length;
+        int[] offsets = variableCount == 0 ? NO_OFFSETS : new int[variableCount * 2];
+        int position = 0;
+        for (int i = 0; i < variableCount; i++) {
+            String literal = literals[i];
+            int literalLength = literal.length();
+            if (position + literalLength > length || !uri.regionMatches(position, literal, 0, literalLength)) {
+                return null;
+            }
+            position += literalLength;
+            int end = position;
+            byte type = types[i];
+            while (end < length) {
+                char c = uri.charAt(end);
+                if (c == '/') {
+                    break;
+                }
+                if (!accepts(type, c)) {
+                    return null;
+                }
+                end++;
+            }
+            int variableLength = end - position;
+            if (variableLength == 0 || variableLength > maxLengths[i]) {
+                return null;
+            }
+            offsets[i * 2] = position;
+            offsets[i * 2 + 1] = end;
+            position = end;
+        }
+        String literal = literals[variableCount];
+        int literalLength = literal.length();
+        if (position + literalLength != length || !uri.regionMatches(position, literal, 0, literalLength)) {
+            return null;
+        }
+        return offsets;
+    }
+
+    private static boolean accepts(byte type, char c) {
+        switch (type) {
+            case TYPE_DIGITS:
+                return (c >= '0' && c <= '9') || c == '+';
+            case TYPE_DECIMAL:
+                return (c >= '0' && c <= '9') || c == '+' || c == '.';
+            default:
+                return c != '?' && c != '#' && c != '&' && c != ';' && c != '+';
+        }
+    }
+}
@@ -183,6 +183,40 @@ class UriMatchTemplateSpec extends Specification {
         "/books{#hashtag}"               | "/books/"             | true    | [:]
     }
 
+    @Unroll
+    void "Test segment URI template #template matches #uri"() {
+        given:
+        UriMatchTemplate matchTemplate = new UriMatchTemplate(template)
+        Optional<UriMatchInfo> info = matchTemplate.match(uri)
+
+        expect:
+        info.isPresent() == matches
+        info.orElse(null)?.uri == matchedUri
+        info.orElse(null)?.variableValues == variables
+
+        where:
+        template                  | uri                         | matches | matchedUri          | variables
+        "/books/{id}/authors"     | "/books/1/authors"          | true    | "/books/1/authors"  | [id: '1']
+        "/books/{id}/authors"     | "/books/1/authors/"         | true    | "/books/1/authors"  | [id: '1']
+        "/books/{id}/authors"     | "/books/1/authors?max=1"    | true    | "/books/1/authors"  | [id: '1']
+        "/books/{id}/authors"     | "/books//authors"           | false   | null                | null
+        "/books/{id}/authors"     | "/books/1/2/authors"        | false   | null                | null
+        "/books/{id}/{name}"      | "/books/1/foo"              | true    | "/books/1/foo"      | [id: '1', name: 'foo']
+        "/books/{id}/{name}"      | "/books/1/foo+bar"          | false   | null                | null
+        "/books/{id:2}/{name}"    | "/books/100/foo"            | false   | null                | null
+        "/books/{id}{?max}"       | "/books/1?max=10"           | true    | "/books/1"          | [id: '1']
+    }
+
+    void "Test segment URI template matches typed variables"() {
+        given:
+        UriMatchTemplate matchTemplate = new UriTypeMatchTemplate("/books/{id}/{price}", Integer, Double)
+
+        expect:
+        matchTemplate.match("/books/1/10.5").get().variableValues == [id: '1', price: '10.5']
+        !matchTemplate.match("/books/a/10.5").isPresent()
+        !matchTemplate.match("/books/1/abc").isPresent()
+    }
+
     @Issue("https://github.com/micronaut-projects/micronaut-aws/issues/110")
     @Unroll
     void "Test URI template #template matches uri with encoded characters: #uri"() {
@@ -0,0 +1,49 @@
+package io.micronaut.inject.configproperties
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.ConfigurationProperties
+import io.micronaut.context.annotation.Value
+import io.micronaut.context.env.MappedPropertySource
+import io.micronaut.context.env.MappedPropertySourceWriter
+import io.micronaut.context.env.PropertySource
+import jakarta.inject.Singleton
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+class MappedPropertySourceBindingSpec extends Specification {
+
+    void "test bind the values of a mapped property source to maps"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        MappedPropertySourceWriter.write([feature: [flags: [alpha: true, beta: false], owner: 'mapped']], output)
+        MappedPropertySource source = MappedPropertySource.of('flags', 100, ByteBuffer.wrap(output.toByteArray()))
+        ApplicationContext context = ApplicationContext.builder()
+                .propertySources(source, PropertySource.of('defaults', ['feature.owner': 'defaults'], 50))
+                .start()
+
+        when:
+        FeatureConfig config = context.getBean(FeatureConfig)
+        FeatureBean bean = context.getBean(FeatureBean)
+
+        then:
+        config.flags == [alpha: true, beta: false]
+        config.owner == 'mapped'
+        bean.flags == [alpha: true, beta: false]
+
+        cleanup:
+        context.close()
+    }
+
+    @ConfigurationProperties("feature")
+    static class FeatureConfig {
+        Map<String, Boolean> flags
+        String owner
+    }
+
+    @Singleton
+    static class FeatureBean {
+        @Value('${feature.flags}')
+        Map<String, Boolean> flags
+    }
+}
@@ -0,0 +1,56 @@
+package io.micronaut.inject.context
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.DefaultBeanContext
+import spock.lang.Specification
+
+class BeanCandidateCacheSpec extends Specification {
+
+    void "test the candidate caches are sized from the bean definitions"() {
+        given:
+        DefaultBeanContext context = (DefaultBeanContext) ApplicationContext.run()
+        def definitionCount = context.getAllBeanDefinitions().size()
+
+        expect:
+        context.beanCandidateCache.adaptive
+        context.beanCandidateCache.capacity >= definitionCount
+        context.concreteBeanCandidateCache.capacity >= definitionCount
+
+        cleanup:
+        context.close()
+    }
+
+    void "test the candidate cache size can be configured"() {
+        given:
+        DefaultBeanContext context = (DefaultBeanContext) ApplicationContext.builder()
+                .beanCandidateCacheSize(5)
+                .start()
+
+        expect:
+        !context.beanCandidateCache.adaptive
+        context.beanCandidateCache.capacity == 5
+        context.concreteBeanCandidateCache.capacity == 5
+
+        cleanup:
+        context.close()
+    }
+
+    void "test the candidate caches record hits and misses"() {
+        given:
+        DefaultBeanContext context = (DefaultBeanContext) ApplicationContext.run()
+        def cache = context.beanCandidateCache
+        context.getBeanDefinitions(A)
+        def hits = cache.hitCount
+        def misses = cache.missCount
+
+        when:
+        context.getBeanDefinitions(A)
+
+        then:
+        cache.hitCount == hits + 1
+        cache.missCount == misses
+
+        cleanup:
+        context.close()
+    }
+}
@@ -0,0 +1,88 @@
+package io.micronaut.inject.context
+
+import io.micronaut.annotation.processing.test.AbstractTypeElementSpec
+import io.micronaut.context.AbstractInitializableBeanDefinitionReference
+
+class BeanDefinitionTypeIndexSpec extends AbstractTypeElementSpec {
+
+    void "test the type hierarchy is written to the bean definition reference"() {
+        when:
+        def reference = (AbstractInitializableBeanDefinitionReference) buildBeanDefinitionReference('test.Impl', '''
+package test;
+
+interface Base {}
+interface Service extends Base {}
+abstract class AbstractService implements Service, java.io.Serializable {}
+
+@jakarta.inject.Singleton
+class Impl extends AbstractService implements Runnable {
+    public void run() {}
+}
+''')
+
+        then:
+        reference.indexedTypeNames as Set == [
+                'test.Impl',
+                'test.AbstractService',
+                'test.Service',
+                'test.Base',
+                'java.io.Serializable',
+                'java.lang.Runnable'
+        ] as Set
+    }
+
+    void "test only the exposed types are written for typed beans"() {
+        when:
+        def reference = (AbstractInitializableBeanDefinitionReference) buildBeanDefinitionReference('test.Impl', '''
+package test;
+
+interface Service {}
+
+@jakarta.inject.Singleton
+@io.micronaut.context.annotation.Bean(typed = Service.class)
+class Impl implements Service, Runnable {
+    public void run() {}
+}
+''')
+
+        then:
+        reference.indexedTypeNames as List == ['test.Service']
+    }
+
+    void "test beans are resolved through the type index"() {
+        given:
+        def context = buildContext('''
+package test;
+
+interface Service {}
+abstract class AbstractService implements Service {}
+
+@jakarta.inject.Singleton
+class One extends AbstractService {}
+
+@jakarta.inject.Singleton
+class Two implements Service {}
+
+@jakarta.inject.Singleton
+class Other {}
+''')
+        def serviceType = context.classLoader.loadClass('test.Service')
+        def abstractType = context.classLoader.loadClass('test.AbstractService')
+
+        expect:
+        context.getBeansOfType(serviceType)*.class*.simpleName as Set == ['One', 'Two'] as Set
+        context.getBeansOfType(abstractType)*.class*.simpleName == ['One']
+
+        when:"a singleton is registered at runtime"
+        def registered = new StringBuilder("registered")
+        context.registerSingleton(registered)
+
+        then:
+        context.getBean(CharSequence).is(registered)
+        context.getBean(Appendable).is(registered)
+        context.getBeansOfType(serviceType).size() == 2
+
+        cleanup:
+        context.close()
+    }
+}
@@ -0,0 +1,118 @@
+package io.micronaut.inject.context
+
+import io.micronaut.annotation.processing.test.AbstractTypeElementSpec
+import io.micronaut.context.ApplicationContextBuilder
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+import spock.util.environment.RestoreSystemProperties
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ConditionSnapshotSpec extends AbstractTypeElementSpec {
+
+    @TempDir
+    Path tempDir
+
+    Map<String, Object> properties = [:]
+
+    @Override
+    protected void configureContext(ApplicationContextBuilder contextBuilder) {
+        contextBuilder.conditionSnapshot(tempDir.resolve('conditions.snapshot'))
+                .properties(properties)
+    }
+
+    void "test condition results are recorded and replayed for the same fingerprint"() {
+        given:
+        def source = '''
+package test;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+@Singleton
+@Requires(property = "foo.enabled", value = "true")
+class Foo {
+}
+
+@Singleton
+@Requires(resources = "classpath:missing.txt")
+class Bar {
+}
+'''
+        Path file = tempDir.resolve('conditions.snapshot')
+        properties['foo.enabled'] = 'false'
+        def context = buildContext('test.Foo', source)
+
+        expect:"the results are recorded"
+        !context.containsBean(context.classLoader.loadClass('test.Foo'))
+        new PollingConditions(timeout: 5).eventually {
+            assert Files.exists(file)
+        }
+        Files.readAllLines(file).contains('test.$Foo$Definition=false')
+        !Files.readAllLines(file).any { it.startsWith('test.$Bar$Definition') }
+
+        when:"the snapshot is changed without changing the fingerprint"
+        context.close()
+        Files.write(file, Files.readAllLines(file).collect { it.replace('test.$Foo$Definition=false', 'test.$Foo$Definition=true') })
+        context = buildContext('test.Foo', source)
+
+        then:"the conditions are not evaluated"
+        context.containsBean(context.classLoader.loadClass('test.Foo'))
+
+        when:"a property referenced by a condition changes"
+        context.close()
+        def fingerprint = Files.readAllLines(file)[1]
+        properties['foo.enabled'] = 'true'
+        context = buildContext('test.Foo', source)
+
+        then:"the conditions are evaluated and recorded again"
+        context.containsBean(context.classLoader.loadClass('test.Foo'))
+        new PollingConditions(timeout: 5).eventually {
+            assert Files.readAllLines(file)[1] != fingerprint
+        }
+        Files.readAllLines(file).contains('test.$Foo$Definition=true')
+
+        cleanup:
+        context.close()
+    }
+
+    @RestoreSystemProperties
+    void "test the conditions are recorded again when a class path entry changes"() {
+        given:
+        def source = '''
+package test;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+@Singleton
+@Requires(property = "foo.enabled", value = "true")
+class Foo {
+}
+'''
+        Path file = tempDir.resolve('conditions.snapshot')
+        Path jar = Files.write(tempDir.resolve('library.jar'), [1, 2, 3] as byte[])
+        System.setProperty('java.class.path', jar.toString())
+        def context = buildContext('test.Foo', source)
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            assert Files.exists(file)
+        }
+
+        when:"the JAR on the class path is replaced with the same path"
+        context.close()
+        def fingerprint = Files.readAllLines(file)[1]
+        Files.write(jar, [1, 2, 3, 4] as byte[])
+        context = buildContext('test.Foo', source)
+
+        then:"the snapshot no longer matches"
+        new PollingConditions(timeout: 5).eventually {
+            assert Files.readAllLines(file)[1] != fingerprint
+        }
+
+        cleanup:
+        context.close()
+    }
+}
@@ -0,0 +1,158 @@
+package io.micronaut.inject.context
+
+import io.micronaut.annotation.processing.test.AbstractTypeElementSpec
+import io.micronaut.context.ApplicationContextBuilder
+
+class ParallelEagerInitSpec extends AbstractTypeElementSpec {
+
+    @Override
+    protected void configureContext(ApplicationContextBuilder contextBuilder) {
+        contextBuilder.eagerInitParallelism(4)
+    }
+
+    void "test eager beans are initialized concurrently in dependency order"() {
+        given:
+        def context = buildContext('''
+package test;
+
+import io.micronaut.context.annotation.Context;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import java.util.*;
+
+@Singleton
+class Recorder {
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    final Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+
+    void record(String event) {
+        threads.add(Thread.currentThread().getName());
+        events.add(event);
+    }
+
+    void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
+
+@Context
+class First {
+    final Recorder recorder;
+    First(Recorder recorder) { this.recorder = recorder; }
+    @PostConstruct void init() { recorder.sleep(); recorder.record("First"); }
+}
+
+@Context
+class Second {
+    final Recorder recorder;
+    Second(Recorder recorder) { this.recorder = recorder; }
+    @PostConstruct void init() { recorder.sleep(); recorder.record("Second"); }
+}
+
+@Context
+class Third {
+    final Recorder recorder;
+    Third(Recorder recorder) { this.recorder = recorder; }
+    @PostConstruct void init() { recorder.sleep(); recorder.record("Third"); }
+}
+
+@Context
+class Dependent {
+    Dependent(Recorder recorder, First first, Second second) {
+        recorder.record("Dependent");
+    }
+}
+''')
+        def recorder = context.getBean(context.classLoader.loadClass('test.Recorder'))
+
+        expect:
+        recorder.events.size() == 4
+        recorder.events.indexOf('Dependent') > recorder.events.indexOf('First')
+        recorder.events.indexOf('Dependent') > recorder.events.indexOf('Second')
+        recorder.threads.size() > 1
+        recorder.threads.every { it.startsWith('eager-init-') }
+        context.getBeansOfType(context.classLoader.loadClass('test.Recorder')).size() == 1
+
+        cleanup:
+        context.close()
+    }
+
+    void "test eager beans do not see a singleton before its initialized listeners complete"() {
+        given:
+        def context = buildContext('''
+package test;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.event.BeanInitializedEventListener;
+import io.micronaut.context.event.BeanInitializingEvent;
+import jakarta.inject.Singleton;
+
+@Singleton
+class Shared {
+    volatile boolean initialized;
+}
+
+@Singleton
+class SharedInitializer implements BeanInitializedEventListener<Shared> {
+    @Override
+    public Shared onInitialized(BeanInitializingEvent<Shared> event) {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        Shared shared = event.getBean();
+        shared.initialized = true;
+        return shared;
+    }
+}
+
+@Context
+class FirstUser {
+    final boolean initialized;
+    FirstUser(Shared shared) { initialized = shared.initialized; }
+}
+
+@Context
+class SecondUser {
+    final boolean initialized;
+    SecondUser(Shared shared) { initialized = shared.initialized; }
+}
+''')
+
+        expect:
+        context.getBean(context.classLoader.loadClass('test.FirstUser')).initialized
+        context.getBean(context.classLoader.loadClass('test.SecondUser')).initialized
+        context.getBeansOfType(context.classLoader.loadClass('test.Shared')).size() == 1
+
+        cleanup:
+        context.close()
+    }
+
+    void "test a failing eager bean fails the startup"() {
+        when:
+        buildContext('''
+package test;
+
+import io.micronaut.context.annotation.Context;
+import jakarta.annotation.PostConstruct;
+
+@Context
+class Good {
+}
+
+@Context
+class Bad {
+    @PostConstruct void init() { throw new IllegalStateException("bad bean"); }
+}
+''')
+
+        then:
+        def e = thrown(RuntimeException)
+        e.message.contains("bad bean")
+    }
+}
@@ -19,6 +19,7 @@ import io.micronaut.context.exceptions.BeanContextException;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.BeanDefinitionReference;
 import org.slf4j.Logger;
@@ -140,6 +141,18 @@ public abstract class AbstractInitializableBeanDefinitionReference<T> extends Ab
         return this.exposedTypes;
     }
 
+    /**
+     * The names of the types the bean can be looked up by, computed at compilation time. These are the bean type with
+     * its super classes and interfaces or the exposed types if the bean declares them.
+     *
+     * @return The type names or {@code null} if the reference was compiled without a type index
+     * @since 3.0.2
+     */
+    @Nullable
+    public String[] getIndexedTypeNames() {
+        return null;
+    }
+
     @Override
     public BeanDefinition load(BeanContext context) {
         BeanDefinition definition = load();
@@ -172,12 +185,25 @@ public abstract class AbstractInitializableBeanDefinitionReference<T> extends Ab
 
     @Override
     public boolean isEnabled(BeanContext context) {
-        return isPresent() && (!isConditional || super.isEnabled(context, null));
+        return isEnabled(context, null);
     }
 
     @Override
     public boolean isEnabled(BeanContext context, BeanResolutionContext resolutionContext) {
-        return isPresent() && (!isConditional || super.isEnabled(context, resolutionContext));
+        if (!isConditional) {
+            return isPresent();
+        }
+        ConditionSnapshot snapshot = context instanceof DefaultBeanContext ? ((DefaultBeanContext) context).getConditionSnapshot() : null;
+        if (snapshot == null) {
+            return isPresent() && super.isEnabled(context, resolutionContext);
+        }
+        Boolean recorded = snapshot.get(this);
+        if (recorded != null) {
+            return recorded;
+        }
+        boolean enabled = isPresent() && super.isEnabled(context, resolutionContext);
+        snapshot.record(this, enabled);
+        return enabled;
     }
 
     @Override
@@ -24,6 +24,7 @@ import io.micronaut.core.annotation.Nullable;
 import jakarta.inject.Singleton;
 
 import java.lang.annotation.Annotation;
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -214,6 +215,38 @@ public interface ApplicationContextBuilder {
      */
     @NonNull ApplicationContextBuilder allowEmptyProviders(boolean shouldAllow);
 
+    /**
+     * The number of threads used to initialize eager singletons and {@link io.micronaut.context.annotation.Context}
+     * scoped beans. Defaults to {@code 1}. With a greater value independent beans are initialized concurrently, while
+     * beans are only initialized after the beans they require.
+     *
+     * @param parallelism The parallelism of the eager initialization
+     * @return This application
+     * @since 3.0.2
+     */
+    @NonNull ApplicationContextBuilder eagerInitParallelism(int parallelism);
+
+    /**
+     * The maximum number of entries of the bean candidate caches. Defaults to {@code 0}, which sizes the caches from
+     * the number of loaded bean definitions.
+     *
+     * @param size The cache size or a value less than {@code 1} for adaptive caches
+     * @return This application
+     * @since 3.0.2
+     */
+    @NonNull ApplicationContextBuilder beanCandidateCacheSize(int size);
+
+    /**
+     * The file that stores a snapshot of the results of the bean definition conditions. The first startup records
+     * the results, subsequent startups with the same class path, environments and configuration skip the evaluation
+     * of the conditions.
+     *
+     * @param file The snapshot file or {@code null} to always evaluate the conditions
+     * @return This application
+     * @since 3.0.2
+     */
+    @NonNull ApplicationContextBuilder conditionSnapshot(@Nullable Path file);
+
     /**
      * Set the command line arguments.
      *
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU cache for the results of bean candidate lookups that records hit and miss statistics.
+ *
+ * <p>If no fixed size is configured with {@link BeanContextConfiguration#getBeanCandidateCacheSize()} the cache is
+ * adaptive and grows with the number of bean definitions loaded by the context, so that applications with many beans
+ * do not evict candidates that require a full lookup to be computed again.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+public final class BeanCandidateCache<K, V> {
+
+    /**
+     * The minimum size of an adaptive cache.
+     */
+    static final int MIN_ADAPTIVE_SIZE = 30;
+
+    private final String name;
+    private final boolean adaptive;
+    private final ConcurrentLinkedHashMap<K, V> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name The name of the cache
+     * @param size The fixed size or a value less than 1 for an adaptive cache
+     */
+    BeanCandidateCache(@NonNull String name, int size) {
+        this.name = name;
+        this.adaptive = size < 1;
+        this.cache = new ConcurrentLinkedHashMap.Builder<K, V>()
+                .maximumWeightedCapacity(adaptive ? MIN_ADAPTIVE_SIZE : size)
+                .build();
+    }
+
+    /**
+     * @return The name of the cache
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Whether the size of the cache adapts to the number of bean definitions
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return The maximum number of entries
+     */
+    public long getCapacity() {
+        return cache.capacity();
+    }
+
+    /**
+     * @return The current number of entries
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return The number of lookups that were answered from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that were not present in the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The ratio of hits to all lookups or {@code 1} if there have been no lookups
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{size=" + size() + ", capacity=" + getCapacity() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + '}';
+    }
+
+    /**
+     * @param key The key
+     * @return The cached value or {@code null}
+     */
+    @Nullable
+    V get(@NonNull K key) {
+        V value = cache.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @param key   The key
+     * @param value The value
+     */
+    void put(@NonNull K key, @NonNull V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * @param key The key
+     */
+    void remove(@NonNull K key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Removes all entries, the statistics are retained.
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Grows an adaptive cache so that it can hold an entry for each of the given number of bean definitions.
+     *
+     * @param definitionCount The number of bean definitions
+     */
+    void adapt(int definitionCount) {
+        if (adaptive && definitionCount > cache.capacity()) {
+            cache.setCapacity(definitionCount);
+        }
+    }
+}
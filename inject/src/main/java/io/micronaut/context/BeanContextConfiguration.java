@@ -17,10 +17,12 @@ package io.micronaut.context;
 
 import io.micronaut.core.annotation.AnnotationUtil;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.context.annotation.ConfigurationReader;
 import jakarta.inject.Singleton;
 
 import java.lang.annotation.Annotation;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Set;
 
@@ -40,6 +42,29 @@ public interface BeanContextConfiguration {
         return false;
     }
 
+    /**
+     * The maximum number of entries of the caches that hold the results of bean candidate lookups. A value less than
+     * {@code 1} makes the caches adaptive, in which case they are sized from the number of loaded bean definitions.
+     *
+     * @return The cache size
+     * @since 3.0.2
+     */
+    default int getBeanCandidateCacheSize() {
+        return 0;
+    }
+
+    /**
+     * The file that stores a snapshot of the results of the bean definition conditions. If the file exists and was
+     * recorded for the same class path, environments and configuration the conditions are not evaluated, otherwise
+     * the results are recorded to the file.
+     *
+     * @return The snapshot file or {@code null} if conditions are always evaluated
+     * @since 3.0.2
+     */
+    default @Nullable Path getConditionSnapshotFile() {
+        return null;
+    }
+
     /**
      * The class loader to use.
      * @return The class loader.
@@ -71,6 +96,18 @@ public interface BeanContextConfiguration {
         return getEagerInitAnnotated().contains(ConfigurationReader.class);
     }
 
+    /**
+     * The number of threads used to initialize eager singletons and {@link io.micronaut.context.annotation.Context}
+     * scoped beans on startup. With a value greater than {@code 1} the beans are initialized concurrently in the
+     * order of their dependencies, otherwise they are initialized one after another.
+     *
+     * @return The parallelism of the eager initialization
+     * @since 3.0.2
+     */
+    default int getEagerInitParallelism() {
+        return 1;
+    }
+
     /**
      * @return A set of annotated classes that should be eagerly initialized
      */
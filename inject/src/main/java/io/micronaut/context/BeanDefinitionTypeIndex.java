@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.reflect.ClassUtils;
+import io.micronaut.inject.BeanDefinitionReference;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>An index of {@link BeanDefinitionReference} instances by the names of the types they can be looked up by. The
+ * type names of compiled beans are computed at compilation time (see
+ * {@link AbstractInitializableBeanDefinitionReference#getIndexedTypeNames()}) so building the index does not load
+ * any bean classes.</p>
+ *
+ * <p>References without type names, for example references compiled with an earlier version, AOP proxies and
+ * container types, are kept in a separate list that is always part of the candidates, so the index only narrows
+ * down the references that need to be checked with {@link BeanDefinitionReference#isCandidateBean(io.micronaut.core.type.Argument)}.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class BeanDefinitionTypeIndex {
+
+    private final Map<String, Queue<BeanDefinitionReference>> references = new ConcurrentHashMap<>(200);
+    private final Queue<BeanDefinitionReference> unindexed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Adds a reference using the type names computed at compilation time.
+     *
+     * @param reference The reference
+     */
+    void add(@NonNull BeanDefinitionReference<?> reference) {
+        String[] typeNames = null;
+        if (reference instanceof AbstractInitializableBeanDefinitionReference && !reference.isContainerType()) {
+            typeNames = ((AbstractInitializableBeanDefinitionReference<?>) reference).getIndexedTypeNames();
+        }
+        if (typeNames == null) {
+            unindexed.add(reference);
+        } else {
+            for (String typeName : typeNames) {
+                index(typeName, reference);
+            }
+        }
+    }
+
+    /**
+     * Adds a reference for a bean type that is already loaded, such as a registered singleton.
+     *
+     * @param reference The reference
+     * @param beanType  The bean type
+     */
+    void add(@NonNull BeanDefinitionReference<?> reference, @NonNull Class<?> beanType) {
+        if (!reference.getExposedTypes().isEmpty() || reference.isContainerType() || beanType.isArray() || beanType.isPrimitive()) {
+            unindexed.add(reference);
+        } else {
+            for (Class<?> type : ClassUtils.resolveHierarchy(beanType)) {
+                index(type.getName(), reference);
+            }
+        }
+    }
+
+    /**
+     * Finds the references that may be candidates for the given type.
+     *
+     * @param type The type
+     * @return The references or {@code null} if the type cannot be looked up in the index and all references have
+     * to be considered
+     */
+    @Nullable
+    Collection<BeanDefinitionReference> candidates(@NonNull Class<?> type) {
+        if (type == Object.class || type.isArray() || type.isPrimitive()) {
+            return null;
+        }
+        Queue<BeanDefinitionReference> indexed = references.get(type.getName());
+        if (indexed == null) {
+            return unindexed;
+        }
+        if (unindexed.isEmpty()) {
+            return indexed;
+        }
+        List<BeanDefinitionReference> candidates = new ArrayList<>(indexed);
+        candidates.addAll(unindexed);
+        return candidates;
+    }
+
+    /**
+     * Removes the given references, for example because they are disabled.
+     *
+     * @param removed The references to remove
+     */
+    void removeAll(@NonNull Collection<BeanDefinitionReference> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        Set<BeanDefinitionReference> set = new HashSet<>(removed);
+        unindexed.removeAll(set);
+        for (Queue<BeanDefinitionReference> queue : references.values()) {
+            queue.removeAll(set);
+        }
+    }
+
+    private void index(String typeName, BeanDefinitionReference<?> reference) {
+        references.computeIfAbsent(typeName, name -> new ConcurrentLinkedQueue<>()).add(reference);
+    }
+}
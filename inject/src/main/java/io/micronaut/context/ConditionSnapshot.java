@@ -0,0 +1,320 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.env.Environment;
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.inject.BeanDefinitionReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A snapshot of the results of the {@link Requires} conditions of the bean definition references, stored in a
+ * file so that subsequent startups can skip the evaluation of the conditions.</p>
+ *
+ * <p>The snapshot is only valid for the fingerprint it was recorded with. The fingerprint covers the JVM version, the
+ * operating system, the class path including the size and modification time of its entries, the active environments,
+ * the names of the bean definition references and the values of the properties that the conditions refer to. If the fingerprint of the file does not match, the conditions
+ * are evaluated as usual and the results are recorded and written to the file once all references have been
+ * evaluated. References that require resources, entities or configurations are always evaluated.</p>
+ *
+ * <p>The results of a snapshot are kept for the lifetime of the context, therefore changes to the environment by a
+ * refresh do not enable or disable references.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class ConditionSnapshot {
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConditionSnapshot.class);
+    private static final String VERSION_KEY = "version";
+    private static final String FINGERPRINT_KEY = "fingerprint";
+    private static final char SEPARATOR = '=';
+    private static final String SERVICES_DIRECTORY = "META-INF/services";
+
+    private final Path file;
+    private final String fingerprint;
+    private final boolean recording;
+    private final Map<String, Boolean> results;
+
+    /**
+     * @param file        The file
+     * @param fingerprint The fingerprint
+     * @param recorded    The recorded results or {@code null} if the results should be recorded
+     */
+    private ConditionSnapshot(Path file, String fingerprint, @Nullable Map<String, Boolean> recorded) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.recording = recorded == null;
+        this.results = recorded == null ? new ConcurrentHashMap<>() : recorded;
+    }
+
+    /**
+     * @return Whether the results are recorded because the file was missing or did not match the fingerprint
+     */
+    boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return The fingerprint
+     */
+    @NonNull
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param reference The reference
+     * @return The recorded result or {@code null} if the conditions of the reference must be evaluated
+     */
+    @Nullable
+    Boolean get(@NonNull BeanDefinitionReference<?> reference) {
+        return results.get(reference.getBeanDefinitionName());
+    }
+
+    /**
+     * Records the result of the evaluation of the conditions of a reference.
+     *
+     * @param reference The reference
+     * @param enabled   Whether the reference is enabled
+     */
+    void record(@NonNull BeanDefinitionReference<?> reference, boolean enabled) {
+        if (recording && isSupported(reference.getAnnotationMetadata())) {
+            results.put(reference.getBeanDefinitionName(), enabled);
+        }
+    }
+
+    /**
+     * Writes the recorded results to the file. Failures are logged since the snapshot is only an optimization.
+     */
+    void write() {
+        if (!recording) {
+            return;
+        }
+        List<String> names = new ArrayList<>(results.keySet());
+        Collections.sort(names);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(VERSION_KEY + SEPARATOR + VERSION);
+                writer.newLine();
+                writer.write(FINGERPRINT_KEY + SEPARATOR + fingerprint);
+                writer.newLine();
+                for (String name : names) {
+                    writer.write(name + SEPARATOR + results.get(name));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Wrote condition snapshot with {} results to: {}", names.size(), file);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("Unable to write condition snapshot to [{}]: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the snapshot from the given file. If the file does not exist, cannot be read or was recorded for another
+     * fingerprint a snapshot that records the results is returned.
+     *
+     * @param file       The file
+     * @param context    The context
+     * @param references The bean definition references of the context
+     * @return The snapshot
+     */
+    @NonNull
+    static ConditionSnapshot load(@NonNull Path file,
+                                  @NonNull BeanContext context,
+                                  @NonNull Collection<BeanDefinitionReference> references) {
+        String fingerprint = fingerprint(context, references);
+        if (Files.isReadable(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String version = reader.readLine();
+                String recordedFingerprint = reader.readLine();
+                if ((VERSION_KEY + SEPARATOR + VERSION).equals(version) &&
+                        (FINGERPRINT_KEY + SEPARATOR + fingerprint).equals(recordedFingerprint)) {
+                    Map<String, Boolean> recorded = new ConcurrentHashMap<>(references.size());
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int i = line.lastIndexOf(SEPARATOR);
+                        if (i > 0) {
+                            recorded.put(line.substring(0, i), Boolean.valueOf(line.substring(i + 1)));
+                        }
+                    }
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Using condition snapshot with {} results from: {}", recorded.size(), file);
+                    }
+                    return new ConditionSnapshot(file, fingerprint, recorded);
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug("Condition snapshot [{}] does not match the current fingerprint and will be recorded again", file);
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable to read condition snapshot from [{}]: {}", file, e.getMessage());
+            }
+        }
+        return new ConditionSnapshot(file, fingerprint, null);
+    }
+
+    /**
+     * Computes the fingerprint of everything the pre-start conditions of the given references depend on.
+     *
+     * @param context    The context
+     * @param references The references
+     * @return The fingerprint
+     */
+    @NonNull
+    static String fingerprint(@NonNull BeanContext context, @NonNull Collection<BeanDefinitionReference> references) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+        update(digest, String.valueOf(VERSION));
+        update(digest, System.getProperty("java.version"));
+        update(digest, System.getProperty("java.vendor"));
+        update(digest, System.getProperty("os.name"));
+        update(digest, System.getProperty("os.arch"));
+        updateClassPath(digest, System.getProperty("java.class.path"));
+
+        Set<String> properties = new TreeSet<>();
+        for (BeanDefinitionReference<?> reference : references) {
+            update(digest, reference.getBeanDefinitionName());
+            AnnotationMetadata annotationMetadata = reference.getAnnotationMetadata();
+            if (annotationMetadata.hasStereotype(Requires.class)) {
+                for (AnnotationValue<Requires> requirement : annotationMetadata.getAnnotationValuesByType(Requires.class)) {
+                    requirement.stringValue(RequiresCondition.MEMBER_PROPERTY).ifPresent(properties::add);
+                    requirement.stringValue(RequiresCondition.MEMBER_MISSING_PROPERTY).ifPresent(properties::add);
+                }
+            }
+        }
+        if (context instanceof ApplicationContext) {
+            Environment environment = ((ApplicationContext) context).getEnvironment();
+            update(digest, String.join(",", new TreeSet<>(environment.getActiveNames())));
+            for (String property : properties) {
+                if (StringUtils.isNotEmpty(property)) {
+                    update(digest, property);
+                    update(digest, String.valueOf(environment.containsProperties(property)));
+                    update(digest, environment.getProperty(property, String.class).orElse(null));
+                }
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Whether the result of the conditions of the given metadata can be recorded. Conditions that depend on resources,
+     * entities or configurations are not covered by the fingerprint.
+     *
+     * @param annotationMetadata The metadata
+     * @return True if the result can be recorded
+     */
+    static boolean isSupported(@NonNull AnnotationMetadata annotationMetadata) {
+        if (!annotationMetadata.hasStereotype(Requires.class)) {
+            return true;
+        }
+        for (AnnotationValue<Requires> requirement : annotationMetadata.getAnnotationValuesByType(Requires.class)) {
+            if (requirement.contains(RequiresCondition.MEMBER_RESOURCES) ||
+                    requirement.contains(RequiresCondition.MEMBER_ENTITIES) ||
+                    requirement.contains(RequiresCondition.MEMBER_CONFIGURATION)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the entries of the class path to the digest. The size and the modification time of a JAR identify its
+     * contents, for a directory the modification times of the directory and its service files are used since
+     * rewriting a class does not touch the directory itself.
+     *
+     * @param digest    The digest
+     * @param classPath The class path
+     */
+    private static void updateClassPath(MessageDigest digest, @Nullable String classPath) {
+        if (StringUtils.isEmpty(classPath)) {
+            return;
+        }
+        for (String entry : classPath.split(File.pathSeparator)) {
+            update(digest, entry);
+            File file = new File(entry);
+            if (file.isFile()) {
+                update(digest, String.valueOf(file.length()));
+                update(digest, String.valueOf(file.lastModified()));
+            } else if (file.isDirectory()) {
+                update(digest, String.valueOf(file.lastModified()));
+                File[] services = new File(file, SERVICES_DIRECTORY).listFiles();
+                if (services != null) {
+                    Arrays.sort(services);
+                    for (File service : services) {
+                        update(digest, service.getName());
+                        update(digest, String.valueOf(service.length()));
+                        update(digest, String.valueOf(service.lastModified()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, @Nullable String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
@@ -26,6 +26,7 @@ import io.micronaut.core.io.scan.ClassPathResourceLoader;
 import io.micronaut.core.util.StringUtils;
 
 import java.lang.annotation.Annotation;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -54,6 +55,9 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
     private boolean banner = true;
     private ClassPathResourceLoader classPathResourceLoader;
     private boolean allowEmptyProviders = false;
+    private int beanCandidateCacheSize = 0;
+    private int eagerInitParallelism = 1;
+    private Path conditionSnapshotFile;
 
     /**
      * Default constructor.
@@ -66,6 +70,21 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
         return allowEmptyProviders;
     }
 
+    @Override
+    public int getBeanCandidateCacheSize() {
+        return beanCandidateCacheSize;
+    }
+
+    @Override
+    public int getEagerInitParallelism() {
+        return eagerInitParallelism;
+    }
+
+    @Override
+    public @Nullable Path getConditionSnapshotFile() {
+        return conditionSnapshotFile;
+    }
+
     @NonNull
     @Override
     public ApplicationContextBuilder eagerInitAnnotated(Class<? extends Annotation>... annotations) {
@@ -341,4 +360,22 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
         this.allowEmptyProviders = shouldAllow;
         return this;
     }
+
+    @Override
+    public @NonNull ApplicationContextBuilder eagerInitParallelism(int parallelism) {
+        this.eagerInitParallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    public @NonNull ApplicationContextBuilder beanCandidateCacheSize(int size) {
+        this.beanCandidateCacheSize = size;
+        return this;
+    }
+
+    @Override
+    public @NonNull ApplicationContextBuilder conditionSnapshot(@Nullable Path file) {
+        this.conditionSnapshotFile = file;
+        return this;
+    }
 }
@@ -41,7 +41,6 @@ import io.micronaut.core.reflect.GenericTypeUtils;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.type.ReturnType;
 import io.micronaut.core.util.*;
-import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
 import io.micronaut.core.value.PropertyResolver;
 import io.micronaut.core.value.ValueResolver;
 import io.micronaut.inject.*;
@@ -56,9 +55,12 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -95,6 +97,7 @@ public class DefaultBeanContext implements BeanContext {
     private static final String ADAPTER_TYPE = "io.micronaut.aop.Adapter";
     private static final String NAMED_MEMBER = "named";
     private static final String PARALLEL_TYPE = Parallel.class.getName();
+    private static final long EAGER_INIT_TERMINATION_TIMEOUT_SECONDS = 10;
     private static final String INDEXES_TYPE = Indexes.class.getName();
     private static final String REPLACES_ANN = Replaces.class.getName();
     private static final Comparator<BeanRegistration<?>> BEAN_REGISTRATION_COMPARATOR = (o1, o2) -> {
@@ -108,21 +111,26 @@ public class DefaultBeanContext implements BeanContext {
     protected final AtomicBoolean terminating = new AtomicBoolean(false);
 
     final Map<BeanKey, BeanRegistration> singletonObjects = new ConcurrentHashMap<>(100);
-    final Map<BeanIdentifier, Object> singlesInCreation = new ConcurrentHashMap<>(5);
+    // a bean in creation is only visible to the thread creating it, other threads wait until the bean is initialized
+    final ThreadLocal<Map<BeanIdentifier, Object>> singlesInCreation = new ThreadLocal<>();
     final Map<BeanKey, Provider<Object>> scopedProxies = new ConcurrentHashMap<>(20);
     Set<Map.Entry<Class, List<BeanInitializedEventListener>>> beanInitializedEventListeners;
     
     private final BeanContextConfiguration beanContextConfiguration;
     private final Collection<BeanDefinitionReference> beanDefinitionsClasses = new ConcurrentLinkedQueue<>();
+    // the size of the queue is computed by traversing it, so the count is tracked separately
+    private final AtomicInteger beanDefinitionCount = new AtomicInteger();
     private final Map<String, BeanConfiguration> beanConfigurations = new HashMap<>(10);
     private final Map<BeanKey, Boolean> containsBeanCache = new ConcurrentHashMap<>(30);
     private final Map<CharSequence, Object> attributes = Collections.synchronizedMap(new HashMap<>(5));
 
     private final Map<BeanKey, Collection> initializedObjectsByType = new ConcurrentHashMap<>(50);
-    private final Map<BeanKey, Optional<BeanDefinition>> beanConcreteCandidateCache =
-            new ConcurrentLinkedHashMap.Builder<BeanKey, Optional<BeanDefinition>>().maximumWeightedCapacity(30).build();
-    private final Map<Argument, Collection<BeanDefinition>> beanCandidateCache = new ConcurrentLinkedHashMap.Builder<Argument, Collection<BeanDefinition>>().maximumWeightedCapacity(30).build();
+    private final BeanCandidateCache<BeanKey, Optional<BeanDefinition>> beanConcreteCandidateCache;
+    private final BeanCandidateCache<Argument, Collection<BeanDefinition>> beanCandidateCache;
     private final Map<Class, Collection<BeanDefinitionReference>> beanIndex = new ConcurrentHashMap<>(12);
+    private final BeanDefinitionTypeIndex beanTypeIndex = new BeanDefinitionTypeIndex();
+    private final Map<BeanDefinition<?>, Thread> singletonCreators = new ConcurrentHashMap<>(20);
+    private final Map<Thread, BeanDefinition<?>> singletonWaiters = new ConcurrentHashMap<>(5);
 
     private final ClassLoader classLoader;
     private final Set<Class> thisInterfaces = CollectionUtils.setOf(
@@ -150,6 +158,7 @@ public class DefaultBeanContext implements BeanContext {
     private final boolean eagerInitSingletons;
     private Set<Map.Entry<Class, List<BeanCreatedEventListener>>> beanCreationEventListeners;
     private BeanDefinitionValidator beanValidator;
+    private ConditionSnapshot conditionSnapshot;
 
     /**
      * Construct a new bean context using the same classloader that loaded this DefaultBeanContext class.
@@ -210,6 +219,9 @@ public class DefaultBeanContext implements BeanContext {
         this.eagerInitStereotypesPresent = !eagerInitStereotypes.isEmpty();
         this.eagerInitSingletons = eagerInitStereotypesPresent && (eagerInitStereotypes.contains(AnnotationUtil.SINGLETON) || eagerInitStereotypes.contains(Singleton.class.getName()));
         this.beanContextConfiguration = contextConfiguration;
+        int candidateCacheSize = contextConfiguration.getBeanCandidateCacheSize();
+        this.beanConcreteCandidateCache = new BeanCandidateCache<>("concrete-candidates", candidateCacheSize);
+        this.beanCandidateCache = new BeanCandidateCache<>("candidates", candidateCacheSize);
     }
 
     /**
@@ -303,6 +315,10 @@ public class DefaultBeanContext implements BeanContext {
                 }
             }
 
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Bean candidate cache statistics: {}, {}", beanCandidateCache, beanConcreteCandidateCache);
+            }
+
             terminating.set(false);
             running.set(false);
         }
@@ -619,6 +635,9 @@ public class DefaultBeanContext implements BeanContext {
                     beanDefinition = dynamicRegistration;
                 }
                 beanDefinitionsClasses.add(dynamicRegistration);
+                beanDefinitionCount.incrementAndGet();
+                beanTypeIndex.add(dynamicRegistration, singleton.getClass());
+                adaptCandidateCaches();
                 singletonObjects.put(beanKey, new BeanRegistration<>(beanKey, dynamicRegistration, singleton));
                 BeanKey concreteKey = new BeanKey(singleton.getClass(), qualifier);
                 singletonObjects.put(concreteKey, new BeanRegistration<>(concreteKey, dynamicRegistration, singleton));
@@ -658,18 +677,30 @@ public class DefaultBeanContext implements BeanContext {
             return new AbstractBeanResolutionContext(this, beanDefinition) {
                 @Override
                 public <T> void addInFlightBean(BeanIdentifier beanIdentifier, T instance) {
-                    singlesInCreation.put(beanIdentifier, instance);
+                    Map<BeanIdentifier, Object> inCreation = singlesInCreation.get();
+                    if (inCreation == null) {
+                        inCreation = new HashMap<>(5);
+                        singlesInCreation.set(inCreation);
+                    }
+                    inCreation.put(beanIdentifier, instance);
                 }
 
                 @Override
                 public void removeInFlightBean(BeanIdentifier beanIdentifier) {
-                    singlesInCreation.remove(beanIdentifier);
+                    Map<BeanIdentifier, Object> inCreation = singlesInCreation.get();
+                    if (inCreation != null) {
+                        inCreation.remove(beanIdentifier);
+                        if (inCreation.isEmpty()) {
+                            singlesInCreation.remove();
+                        }
+                    }
                 }
 
                 @Nullable
                 @Override
                 public <T> T getInFlightBean(BeanIdentifier beanIdentifier) {
-                    return (T) singlesInCreation.get(beanIdentifier);
+                    Map<BeanIdentifier, Object> inCreation = singlesInCreation.get();
+                    return inCreation != null ? (T) inCreation.get(beanIdentifier) : null;
                 }
             };
         } else {
@@ -1678,6 +1709,32 @@ public class DefaultBeanContext implements BeanContext {
                 .findFirst();
     }
 
+    /**
+     * @return The cache of the bean candidates resolved for a type
+     * @since 3.0.2
+     */
+    @Internal
+    public @NonNull BeanCandidateCache<?, ?> getBeanCandidateCache() {
+        return beanCandidateCache;
+    }
+
+    /**
+     * @return The cache of the concrete bean candidate resolved for a type and qualifier
+     * @since 3.0.2
+     */
+    @Internal
+    public @NonNull BeanCandidateCache<?, ?> getConcreteBeanCandidateCache() {
+        return beanConcreteCandidateCache;
+    }
+
+    /**
+     * @return The snapshot of the condition results or {@code null} if no snapshot is configured
+     */
+    @Nullable
+    ConditionSnapshot getConditionSnapshot() {
+        return conditionSnapshot;
+    }
+
     /**
      * Invalidates the bean caches.
      */
@@ -1829,15 +1886,12 @@ public class DefaultBeanContext implements BeanContext {
             filterProxiedTypes((Collection) contextBeans, true, false, null);
             filterReplacedBeans(null, (Collection) contextBeans);
 
-            for (BeanDefinition contextScopeDefinition : contextBeans) {
-                try {
-                    loadContextScopeBean(contextScopeDefinition);
-                } catch (DisabledBeanException e) {
-                    if (AbstractBeanContextConditional.LOG.isDebugEnabled()) {
-                        AbstractBeanContextConditional.LOG.debug("Bean of type [{}] disabled for reason: {}", contextScopeDefinition.getBeanType().getSimpleName(), e.getMessage());
-                    }
-                } catch (Throwable e) {
-                    throw new BeanInstantiationException("Bean definition [" + contextScopeDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
+            int parallelism = beanContextConfiguration.getEagerInitParallelism();
+            if (parallelism > 1 && contextBeans.size() > 1) {
+                initializeContextScopeBeans(new ArrayList<>(contextBeans), parallelism);
+            } else {
+                for (BeanDefinition contextScopeDefinition : contextBeans) {
+                    initializeContextScopeBean(contextScopeDefinition);
                 }
             }
         }
@@ -1927,9 +1981,21 @@ public class DefaultBeanContext implements BeanContext {
         if (CollectionUtils.isNotEmpty(parallelBeans)) {
             processParallelBeans(parallelBeans);
         }
-        final Runnable runnable = () ->
-                beanDefinitionsClasses.removeIf((BeanDefinitionReference beanDefinitionReference) ->
-                        !beanDefinitionReference.isEnabled(this));
+        final Runnable runnable = () -> {
+            List<BeanDefinitionReference> disabled = new ArrayList<>();
+            beanDefinitionsClasses.removeIf((BeanDefinitionReference beanDefinitionReference) -> {
+                if (!beanDefinitionReference.isEnabled(this)) {
+                    disabled.add(beanDefinitionReference);
+                    return true;
+                }
+                return false;
+            });
+            beanDefinitionCount.addAndGet(-disabled.size());
+            beanTypeIndex.removeAll(disabled);
+            if (conditionSnapshot != null) {
+                conditionSnapshot.write();
+            }
+        };
         ForkJoinPool.commonPool().execute(runnable);
 
     }
@@ -2000,7 +2066,10 @@ public class DefaultBeanContext implements BeanContext {
                 beanDefinitionsClasses = Collections.emptyList();
             }
         } else {
-            beanDefinitionsClasses = this.beanDefinitionsClasses;
+            beanDefinitionsClasses = beanTypeIndex.candidates(beanClass);
+            if (beanDefinitionsClasses == null) {
+                beanDefinitionsClasses = this.beanDefinitionsClasses;
+            }
         }
 
         if (!beanDefinitionsClasses.isEmpty()) {
@@ -2536,6 +2605,147 @@ public class DefaultBeanContext implements BeanContext {
         }
     }
 
+    private void initializeContextScopeBean(BeanDefinition contextScopeDefinition) {
+        try {
+            loadContextScopeBean(contextScopeDefinition);
+        } catch (DisabledBeanException e) {
+            if (AbstractBeanContextConditional.LOG.isDebugEnabled()) {
+                AbstractBeanContextConditional.LOG.debug("Bean of type [{}] disabled for reason: {}", contextScopeDefinition.getBeanType().getSimpleName(), e.getMessage());
+            }
+        } catch (Throwable e) {
+            throw new BeanInstantiationException("Bean definition [" + contextScopeDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Initializes the given beans concurrently on a bounded pool. A bean is only submitted once the beans it requires,
+     * as far as they are part of the given beans, are initialized. Beans that form a cycle, which may be reported
+     * because qualifiers are not taken into account, are submitted one at a time once nothing else can run. Only the
+     * eager beans themselves are created outside of the monitor of the singletons, the dependencies they create
+     * are still created one at a time.
+     *
+     * @param definitions The definitions of the beans to initialize
+     * @param parallelism The maximum number of threads
+     */
+    private void initializeContextScopeBeans(List<BeanDefinition> definitions, int parallelism) {
+        final int size = definitions.size();
+        final List<List<Integer>> dependents = new ArrayList<>(size);
+        final int[] remaining = new int[size];
+        final List<Collection<Class<?>>> requiredTypes = new ArrayList<>(size);
+        for (BeanDefinition<?> definition : definitions) {
+            dependents.add(new ArrayList<>(2));
+            requiredTypes.add(resolveRequiredTypes(definition));
+        }
+        for (int i = 0; i < size; i++) {
+            for (Class<?> requiredType : requiredTypes.get(i)) {
+                for (int j = 0; j < size; j++) {
+                    if (i != j && requiredType.isAssignableFrom(definitions.get(j).getBeanType()) && !dependents.get(j).contains(i)) {
+                        dependents.get(j).add(i);
+                        remaining[i]++;
+                    }
+                }
+            }
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, size), runnable -> {
+            Thread thread = new Thread(runnable, "eager-init-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final boolean[] submitted = new boolean[size];
+        int running = 0;
+        try {
+            for (int i = 0; i < size; i++) {
+                if (remaining[i] == 0) {
+                    submitContextScopeBean(executor, definitions, i, completed, failure);
+                    submitted[i] = true;
+                    running++;
+                }
+            }
+            int done = 0;
+            while (done < size) {
+                if (running == 0) {
+                    // only cycles are left
+                    for (int i = 0; i < size; i++) {
+                        if (!submitted[i]) {
+                            submitContextScopeBean(executor, definitions, i, completed, failure);
+                            submitted[i] = true;
+                            running++;
+                            break;
+                        }
+                    }
+                }
+                int index = completed.take();
+                running--;
+                done++;
+                Throwable error = failure.get();
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                } else if (error != null) {
+                    throw new BeanInstantiationException(error.getMessage(), error);
+                }
+                for (int dependent : dependents.get(index)) {
+                    if (--remaining[dependent] == 0 && !submitted[dependent]) {
+                        submitContextScopeBean(executor, definitions, dependent, completed, failure);
+                        submitted[dependent] = true;
+                        running++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanContextException("Interrupted while initializing eager beans", e);
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    /**
+     * Waits a bounded time for the threads of the pool to terminate, so that beans that are still being initialized
+     * after a failure do not keep running against a context that is being shut down.
+     *
+     * @param executor The executor
+     */
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(EAGER_INIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS) && LOG.isWarnEnabled()) {
+                LOG.warn("Eager beans still initializing {} seconds after the initialization was aborted", EAGER_INIT_TERMINATION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submitContextScopeBean(ExecutorService executor,
+                                        List<BeanDefinition> definitions,
+                                        int index,
+                                        BlockingQueue<Integer> completed,
+                                        AtomicReference<Throwable> failure) {
+        executor.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    initializeContextScopeBean(definitions.get(index));
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                completed.add(index);
+            }
+        });
+    }
+
+    private Collection<Class<?>> resolveRequiredTypes(BeanDefinition<?> definition) {
+        final Collection<Class<?>> requiredTypes = new ArrayList<>(definition.getRequiredComponents());
+        for (AnnotationValue<Requires> requires : definition.getAnnotationMetadata().getAnnotationValuesByType(Requires.class)) {
+            requiredTypes.addAll(Arrays.asList(requires.classValues("beans")));
+        }
+        return requiredTypes;
+    }
+
     private void loadContextScopeBean(BeanDefinitionReference contextScopeBean, Consumer<BeanDefinition> beanDefinitionConsumer) {
         if (contextScopeBean.isEnabled(this)) {
             BeanDefinition beanDefinition = contextScopeBean.load(this);
@@ -2812,7 +3022,7 @@ public class DefaultBeanContext implements BeanContext {
                             @NonNull
                             @Override
                             public CreatedBean<T> create() throws BeanCreationException {
-                                try (BeanResolutionContext newResolutionContext = new DefaultBeanResolutionContext(DefaultBeanContext.this, finalDefinition, singlesInCreation)) {
+                                try (BeanResolutionContext newResolutionContext = new DefaultBeanResolutionContext(DefaultBeanContext.this, finalDefinition, singlesInCreation.get())) {
                                     final T bean = doCreateBean(newResolutionContext, finalDefinition, beanType, qualifier);
                                     final List<BeanRegistration<?>> dependentBeans = newResolutionContext.getAndResetDependentBeans();
                                     if (dependentBeans.isEmpty()) {
@@ -3190,16 +3400,107 @@ public class DefaultBeanContext implements BeanContext {
             registerSingletonBean(definition, beanType, reg.bean, qualifier, true, Collections.emptyList());
             return reg.bean;
         } else {
-            T createdBean = doCreateBean(resolutionContext, definition, qualifier, beanType, true, null);
-            registerSingletonBean(
-                    definition,
-                    beanType,
-                    createdBean,
-                    qualifier,
-                    true,
-                    resolutionContext.getAndResetDependentBeans()
-            );
-            return createdBean;
+            Thread creator = singletonCreators.putIfAbsent(definition, Thread.currentThread());
+            if (creator != null && creator != Thread.currentThread()) {
+                BeanRegistration<T> created = awaitSingletonCreation(definition, beanType, qualifier);
+                if (created != null) {
+                    return created.bean;
+                }
+                creator = null;
+            }
+            try {
+                T createdBean = doCreateBean(resolutionContext, definition, qualifier, beanType, true, null);
+                registerSingletonBean(
+                        definition,
+                        beanType,
+                        createdBean,
+                        qualifier,
+                        true,
+                        resolutionContext.getAndResetDependentBeans()
+                );
+                return createdBean;
+            } finally {
+                if (creator == null) {
+                    endSingletonCreation(definition);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for another thread to finish the creation of the singleton for the given definition. The bean context
+     * monitor is released while waiting so the other thread can resolve the dependencies of the singleton.
+     *
+     * @param definition The definition
+     * @param beanType   The bean type
+     * @param qualifier  The qualifier
+     * @param <T>        The bean type
+     * @return The registration of the created singleton or {@code null} if the singleton was not registered by the
+     * other thread, in which case the current thread has taken over the creation and has to call
+     * {@link #endSingletonCreation(BeanDefinition)}
+     */
+    @Nullable
+    private <T> BeanRegistration<T> awaitSingletonCreation(BeanDefinition<T> definition, Argument<T> beanType, Qualifier<T> qualifier) {
+        final Thread current = Thread.currentThread();
+        synchronized (singletonObjects) {
+            while (true) {
+                // register as waiter before checking the creator, see endSingletonCreation
+                singletonWaiters.put(current, definition);
+                try {
+                    Thread creator = singletonCreators.get(definition);
+                    if (creator == null) {
+                        BeanRegistration<T> registration = findExistingCompatibleSingleton(definition.asArgument(), beanType, qualifier, definition);
+                        if (registration != null) {
+                            return registration;
+                        }
+                        if (singletonCreators.putIfAbsent(definition, current) == null) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    if (isWaitingFor(creator, current)) {
+                        throw new BeanInstantiationException("Circular dependency detected while creating singleton [" + definition.getBeanType().getName() + "] concurrently with thread: " + creator.getName());
+                    }
+                    singletonObjects.wait();
+                } catch (InterruptedException e) {
+                    current.interrupt();
+                    throw new BeanInstantiationException("Interrupted while waiting for the creation of singleton: " + definition.getBeanType().getName(), e);
+                } finally {
+                    singletonWaiters.remove(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param thread The thread
+     * @param target The target thread
+     * @return Whether the given thread directly or indirectly waits for a singleton created by the target thread
+     */
+    private boolean isWaitingFor(Thread thread, Thread target) {
+        Thread next = thread;
+        for (int i = 0; i <= singletonWaiters.size(); i++) {
+            BeanDefinition<?> awaited = singletonWaiters.get(next);
+            if (awaited == null) {
+                return false;
+            }
+            next = singletonCreators.get(awaited);
+            if (next == null) {
+                return false;
+            }
+            if (next == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void endSingletonCreation(BeanDefinition<?> definition) {
+        singletonCreators.remove(definition);
+        if (!singletonWaiters.isEmpty()) {
+            synchronized (singletonObjects) {
+                singletonObjects.notifyAll();
+            }
         }
     }
 
@@ -3314,6 +3615,12 @@ public class DefaultBeanContext implements BeanContext {
 
         List<BeanDefinitionReference> beanDefinitionReferences = resolveBeanDefinitionReferences(null);
         beanDefinitionsClasses.addAll(beanDefinitionReferences);
+        beanDefinitionCount.addAndGet(beanDefinitionReferences.size());
+
+        Path conditionSnapshotFile = beanContextConfiguration.getConditionSnapshotFile();
+        if (conditionSnapshotFile != null) {
+            conditionSnapshot = ConditionSnapshot.load(conditionSnapshotFile, this, beanDefinitionReferences);
+        }
 
         Set<BeanConfiguration> configurationsDisabled = new HashSet<>();
         for (BeanConfiguration bc : beanConfigurations.values()) {
@@ -3326,10 +3633,13 @@ public class DefaultBeanContext implements BeanContext {
         for (BeanDefinitionReference beanDefinitionReference : beanDefinitionReferences) {
             for (BeanConfiguration disableConfiguration : configurationsDisabled) {
                 if (disableConfiguration.isWithin(beanDefinitionReference)) {
-                    beanDefinitionsClasses.remove(beanDefinitionReference);
+                    if (beanDefinitionsClasses.remove(beanDefinitionReference)) {
+                        beanDefinitionCount.decrementAndGet();
+                    }
                     continue reference;
                 }
             }
+            beanTypeIndex.add(beanDefinitionReference);
             final AnnotationMetadata annotationMetadata = beanDefinitionReference.getAnnotationMetadata();
             Class[] indexes = annotationMetadata.classValues(INDEXES_TYPE);
             if (indexes.length > 0) {
@@ -3358,10 +3668,17 @@ public class DefaultBeanContext implements BeanContext {
 
         }
 
+        adaptCandidateCaches();
         initializeEventListeners();
         initializeContext(contextScopeBeans, processedBeans, parallelBeans);
     }
 
+    private void adaptCandidateCaches() {
+        int definitionCount = beanDefinitionCount.get();
+        beanCandidateCache.adapt(definitionCount);
+        beanConcreteCandidateCache.adapt(definitionCount);
+    }
+
     private boolean isEagerInit(BeanDefinitionReference beanDefinitionReference) {
         return beanDefinitionReference.isContextScope() ||
                 (eagerInitSingletons && beanDefinitionReference.isSingleton()) ||
@@ -3598,33 +3915,49 @@ public class DefaultBeanContext implements BeanContext {
                                 throw new IllegalStateException("Singleton not present for key: " + key);
                             }
                         } else {
-                            bean = doCreateBean(
-                                    context,
-                                    candidate,
-                                    qualifier,
-                                    beanType,
-                                    true,
-                                    null
-                            );
-
-                            if (candidate.getBeanType() != beanType.getType() && isContainerType) {
-                                registerSingletonBean(
-                                        candidate,
-                                        candidate.asArgument(),
-                                        bean,
-                                        qualifier,
-                                        singleCandidate,
-                                        context.getAndResetDependentBeans()
-                                );
+                            Thread creator = singletonCreators.putIfAbsent(candidate, Thread.currentThread());
+                            BeanRegistration<T> created = null;
+                            if (creator != null && creator != Thread.currentThread()) {
+                                created = awaitSingletonCreation(candidate, beanType, qualifier);
+                                creator = null;
+                            }
+                            if (created != null) {
+                                bean = created.bean;
                             } else {
-                                registerSingletonBean(
-                                        candidate,
-                                        beanType,
-                                        bean,
-                                        qualifier,
-                                        singleCandidate,
-                                        context.getAndResetDependentBeans()
-                                );
+                                try {
+                                    bean = doCreateBean(
+                                            context,
+                                            candidate,
+                                            qualifier,
+                                            beanType,
+                                            true,
+                                            null
+                                    );
+
+                                    if (candidate.getBeanType() != beanType.getType() && isContainerType) {
+                                        registerSingletonBean(
+                                                candidate,
+                                                candidate.asArgument(),
+                                                bean,
+                                                qualifier,
+                                                singleCandidate,
+                                                context.getAndResetDependentBeans()
+                                        );
+                                    } else {
+                                        registerSingletonBean(
+                                                candidate,
+                                                beanType,
+                                                bean,
+                                                qualifier,
+                                                singleCandidate,
+                                                context.getAndResetDependentBeans()
+                                        );
+                                    }
+                                } finally {
+                                    if (creator == null) {
+                                        endSingletonCreation(candidate);
+                                    }
+                                }
                             }
                         }
                     }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>Detects the {@link ComputePlatform} by running the probes of the platforms in parallel. The first probe that
+ * answers positively determines the platform, if none does within the timeout the platform is
+ * {@link ComputePlatform#BARE_METAL}.</p>
+ *
+ * <p>A detected cloud platform is cached in a file together with the boot ID of the host, so that processes started
+ * again on the same host, such as restarted containers, do not run the probes. {@link ComputePlatform#BARE_METAL} is
+ * not cached, since the probes cannot tell a negative answer from a metadata service that was not reachable yet. The
+ * cache file is only read if it is owned by the current user.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class ComputePlatformDetector {
+
+    /**
+     * The default timeout for the detection in milliseconds.
+     */
+    static final long DEFAULT_TIMEOUT = 1000;
+
+    /**
+     * The file that contains the boot ID on Linux.
+     */
+    static final String BOOT_ID_FILE = "/proc/sys/kernel/random/boot_id";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ComputePlatformDetector.class);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final Map<ComputePlatform, BooleanSupplier> probes;
+    private final long timeout;
+    private final Path cacheFile;
+    private final String bootId;
+
+    /**
+     * @param probes    The probes by platform
+     * @param timeout   The timeout for all probes in milliseconds
+     * @param cacheFile The cache file or {@code null} if results should not be cached
+     * @param bootId    The boot ID of the host or {@code null} if it is not known
+     */
+    ComputePlatformDetector(@NonNull Map<ComputePlatform, BooleanSupplier> probes,
+                            long timeout,
+                            @Nullable Path cacheFile,
+                            @Nullable String bootId) {
+        this.probes = probes;
+        this.timeout = timeout;
+        this.cacheFile = bootId != null ? cacheFile : null;
+        this.bootId = bootId;
+    }
+
+    /**
+     * @return The detected platform
+     */
+    @NonNull
+    ComputePlatform detect() {
+        ComputePlatform cached = readCache();
+        if (cached != null) {
+            return cached;
+        }
+        ComputePlatform platform = probe();
+        if (platform == null || platform == ComputePlatform.BARE_METAL) {
+            return ComputePlatform.BARE_METAL;
+        }
+        writeCache(platform);
+        return platform;
+    }
+
+    /**
+     * @return The platform, {@link ComputePlatform#BARE_METAL} if all probes answered negatively or {@code null} if
+     * the detection timed out
+     */
+    @Nullable
+    private ComputePlatform probe() {
+        if (probes.isEmpty()) {
+            return ComputePlatform.BARE_METAL;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(probes.size(), runnable -> {
+            Thread thread = new Thread(runnable, "compute-platform-detection-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<ComputePlatform> completionService = new ExecutorCompletionService<>(executor);
+            for (Map.Entry<ComputePlatform, BooleanSupplier> entry : probes.entrySet()) {
+                ComputePlatform platform = entry.getKey();
+                BooleanSupplier probe = entry.getValue();
+                completionService.submit(() -> probe.getAsBoolean() ? platform : null);
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            for (int i = 0; i < probes.size(); i++) {
+                Future<ComputePlatform> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Compute platform detection timed out after {}ms", timeout);
+                    }
+                    return null;
+                }
+                ComputePlatform platform = resolve(future);
+                if (platform != null) {
+                    return platform;
+                }
+            }
+            return ComputePlatform.BARE_METAL;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Nullable
+    private ComputePlatform resolve(Future<ComputePlatform> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Compute platform probe failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            return null;
+        }
+    }
+
+    @Nullable
+    private ComputePlatform readCache() {
+        if (cacheFile == null || !Files.isReadable(cacheFile)) {
+            return null;
+        }
+        try {
+            if (!isOwnedByCurrentUser(cacheFile)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Ignoring compute platform cache [{}] that is not owned by the current user", cacheFile);
+                }
+                return null;
+            }
+            List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+            if (lines.size() == 2 && bootId.equals(lines.get(0))) {
+                return ComputePlatform.valueOf(lines.get(1));
+            }
+        } catch (IOException | IllegalArgumentException | UnsupportedOperationException | SecurityException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Ignoring unreadable compute platform cache [" + cacheFile + "]: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void writeCache(ComputePlatform platform) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+            Files.write(tmp, Arrays.asList(bootId, platform.name()), StandardCharsets.UTF_8);
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Unable to write compute platform cache [" + cacheFile + "]: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isOwnedByCurrentUser(Path file) throws IOException {
+        String user = System.getProperty("user.name");
+        if (user == null) {
+            return false;
+        }
+        // Windows qualifies the owner with the domain
+        String owner = Files.getOwner(file).getName();
+        return owner.equals(user) || owner.endsWith("\\" + user);
+    }
+
+    /**
+     * @return The boot ID of the host or {@code null} if it cannot be read
+     */
+    @Nullable
+    static String readBootId() {
+        try {
+            Path path = Paths.get(BOOT_ID_FILE);
+            if (Files.isReadable(path)) {
+                String bootId = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim();
+                return bootId.isEmpty() ? null : bootId;
+            }
+        } catch (IOException | SecurityException e) {
+            // no boot ID
+        }
+        return null;
+    }
+}
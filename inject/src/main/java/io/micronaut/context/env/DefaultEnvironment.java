@@ -48,6 +48,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -282,6 +283,28 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
         return diffCatalog(copiedCatalog, catalog);
     }
 
+    @Override
+    public Map<String, Object> refreshAndDiff(@NonNull PropertySourceChanges changes) {
+        PropertySource propertySource = changes.getPropertySource();
+        if (isRunning() && !reading.get()) {
+            Map<String, Object> diff = new LinkedHashMap<>();
+            if (applyPropertySourceChanges(changes, diff)) {
+                refreshablePropertySources.replaceAll(existing ->
+                        existing.getName().equals(propertySource.getName()) ? propertySource : existing
+                );
+                return diff;
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Changes to property source [{}] cannot be applied incrementally, refreshing all property sources", propertySource.getName());
+        }
+        // property sources read from files are read again by the refresh
+        if (refreshablePropertySources.stream().noneMatch(existing -> existing.getName().equals(propertySource.getName()))) {
+            propertySources.put(propertySource.getName(), propertySource);
+        }
+        return refreshAndDiff();
+    }
+
     @Override
     public <T> Optional<T> convert(Object object, Class<T> targetType, ConversionContext context) {
         return conversionService.convert(object, targetType, context);
@@ -760,6 +783,7 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
                 }
             }
         }
+        changes.replaceAll((key, value) -> unwrap(value));
         return changes;
     }
 
@@ -809,27 +833,49 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
         boolean isWindows = System.getProperty("os.name")
             .toLowerCase().startsWith("windows");
 
-        if (isWindows ? isEC2Windows() : isEC2Linux()) {
-            return ComputePlatform.AMAZON_EC2;
-        }
-
-        if (isGoogleCompute()) {
-            return ComputePlatform.GOOGLE_COMPUTE;
-        }
-
-        if (isWindows ? isOracleCloudWindows() : isOracleCloudLinux()) {
-            return ComputePlatform.ORACLE_CLOUD;
-        }
-
-        if (isDigitalOcean()) {
-            return ComputePlatform.DIGITAL_OCEAN;
-        }
+        Map<ComputePlatform, BooleanSupplier> probes = new LinkedHashMap<>(4);
+        probes.put(ComputePlatform.AMAZON_EC2, isWindows ? DefaultEnvironment::isEC2Windows : DefaultEnvironment::isEC2Linux);
+        probes.put(ComputePlatform.GOOGLE_COMPUTE, DefaultEnvironment::isGoogleCompute);
+        probes.put(ComputePlatform.ORACLE_CLOUD, isWindows ? DefaultEnvironment::isOracleCloudWindows : DefaultEnvironment::isOracleCloudLinux);
+        probes.put(ComputePlatform.DIGITAL_OCEAN, DefaultEnvironment::isDigitalOcean);
 
         //TODO check for azure and IBM
         //Azure - see https://blog.mszcool.com/index.php/2015/04/detecting-if-a-virtual-machine-runs-in-microsoft-azure-linux-windows-to-protect-your-software-when-distributed-via-the-azure-marketplace/
         //IBM - uses cloudfoundry, will have to use that to probe
         // if all else fails not a cloud server that we can tell
-        return ComputePlatform.BARE_METAL;
+        return new ComputePlatformDetector(
+                probes,
+                resolveDetectionTimeout(),
+                resolveComputePlatformCacheFile(),
+                ComputePlatformDetector.readBootId()
+        ).detect();
+    }
+
+    private static long resolveDetectionTimeout() {
+        String timeout = System.getProperty(CLOUD_PLATFORM_DETECTION_TIMEOUT_PROPERTY);
+        if (StringUtils.isEmpty(timeout)) {
+            return ComputePlatformDetector.DEFAULT_TIMEOUT;
+        }
+        try {
+            return Long.parseLong(timeout);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Illegal value specified for [" + CLOUD_PLATFORM_DETECTION_TIMEOUT_PROPERTY + "]: " + timeout);
+        }
+    }
+
+    @Nullable
+    private static Path resolveComputePlatformCacheFile() {
+        String cacheFile = System.getProperty(CLOUD_PLATFORM_CACHE_PROPERTY);
+        if (StringUtils.FALSE.equalsIgnoreCase(cacheFile)) {
+            return null;
+        }
+        if (StringUtils.isNotEmpty(cacheFile)) {
+            return Paths.get(cacheFile);
+        }
+        // the temporary directory is shared by the users of the host
+        String tmpDir = System.getProperty("java.io.tmpdir");
+        String user = System.getProperty("user.name");
+        return StringUtils.isNotEmpty(tmpDir) && StringUtils.isNotEmpty(user) ? Paths.get(tmpDir, "micronaut-compute-platform-" + user) : null;
     }
 
     @SuppressWarnings("MagicNumber")
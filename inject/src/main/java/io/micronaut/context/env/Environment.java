@@ -25,6 +25,7 @@ import io.micronaut.core.util.StringUtils;
 import io.micronaut.core.value.PropertyResolver;
 import io.micronaut.inject.BeanConfiguration;
 
+import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
@@ -103,6 +104,19 @@ public interface Environment extends PropertyResolver, LifeCycle<Environment>, C
      */
     String CLOUD_PLATFORM_PROPERTY = "micronaut.cloud.platform";
 
+    /**
+     * The system property for the time in milliseconds to wait for the detection of the cloud platform.
+     * @since 3.0.2
+     */
+    String CLOUD_PLATFORM_DETECTION_TIMEOUT_PROPERTY = "micronaut.cloud.platform.detection-timeout";
+
+    /**
+     * The system property for the file that caches the detected cloud platform for the boot of the host. Set to
+     * {@code false} to disable the cache. Defaults to a file per user in the temporary directory.
+     * @since 3.0.2
+     */
+    String CLOUD_PLATFORM_CACHE_PROPERTY = "micronaut.cloud.platform.cache";
+
     /**
      * The property that stores additional environments.
      */
@@ -267,6 +281,20 @@ public interface Environment extends PropertyResolver, LifeCycle<Environment>, C
      */
     Map<String, Object> refreshAndDiff();
 
+    /**
+     * Applies the changes of a single {@link PropertySource} and return a diff of the changes. Implementations
+     * can apply the changed keys without re-reading the other property sources, the default implementation
+     * replaces the property source and performs a full {@link #refreshAndDiff()}.
+     *
+     * @param changes The changes of the property source
+     * @return The values that changed
+     * @since 3.0.2
+     */
+    default Map<String, Object> refreshAndDiff(@NonNull PropertySourceChanges changes) {
+        addPropertySource(changes.getPropertySource());
+        return refreshAndDiff();
+    }
+
     /**
      * Add a property source for the given map.
      *
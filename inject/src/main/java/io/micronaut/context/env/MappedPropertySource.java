@@ -0,0 +1,316 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A {@link PropertySource} backed by an indexed binary file, usually memory mapped, that is written by
+ * {@link MappedPropertySourceWriter}. Unlike other property sources only the keys are read when the source is
+ * loaded, a value is decoded when it is first accessed. The time and heap used by the values are therefore
+ * proportional to the keys that are actually used, which makes the format suitable for large generated
+ * configuration.</p>
+ *
+ * <p>The file starts with a header of the {@link #MAGIC} number and the number of keys, followed by an index with the
+ * offsets of the key and value of each entry in ascending order of the UTF-8 bytes of the key, followed by the keys
+ * and values. A key is stored as its length followed by its UTF-8 bytes. A value is stored as a type byte followed by
+ * the length and UTF-8 bytes of a string, or the number of elements and the elements of a list of strings.</p>
+ *
+ * <p>The keys are added to the catalog of the environment like the keys of any other property source, so a mapped
+ * property source takes precedence over the property sources with a lower order.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public final class MappedPropertySource implements PropertySource {
+
+    /**
+     * The file extension of the format.
+     */
+    public static final String EXTENSION = "bprops";
+
+    /**
+     * The magic number that starts the file.
+     */
+    static final int MAGIC = 0x4D505331;
+    static final int HEADER_SIZE = 8;
+    static final int INDEX_ENTRY_SIZE = 8;
+    static final byte TYPE_STRING = 0;
+    static final byte TYPE_LIST = 1;
+
+    private static final Object NO_VALUE = new Object();
+
+    private final String name;
+    private final int order;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final Map<String, Object> values = new ConcurrentHashMap<>(16);
+
+    /**
+     * @param name   The name of the property source
+     * @param order  The order of the property source
+     * @param buffer The contents of the file
+     */
+    private MappedPropertySource(String name, int order, ByteBuffer buffer) {
+        this.name = name;
+        this.order = order;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new ConfigurationException("Property source [" + name + "] is not a valid ." + EXTENSION + " file");
+        }
+        this.count = buffer.getInt(4);
+        if (count < 0 || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > buffer.capacity()) {
+            throw new ConfigurationException("Property source [" + name + "] has a corrupt index");
+        }
+    }
+
+    /**
+     * Creates a property source for the contents of a file written by {@link MappedPropertySourceWriter}.
+     *
+     * @param name   The name of the property source
+     * @param order  The order of the property source
+     * @param buffer The contents of the file, the position and limit of the buffer are ignored
+     * @return The property source
+     */
+    @NonNull
+    public static MappedPropertySource of(@NonNull String name, int order, @NonNull ByteBuffer buffer) {
+        return new MappedPropertySource(name, order, buffer);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The number of keys
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return The number of values that have been decoded
+     */
+    public int getMaterializedCount() {
+        return values.size();
+    }
+
+    @Override
+    @Nullable
+    public Object get(String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            int index = indexOf(key);
+            value = index < 0 ? NO_VALUE : readValue(buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE + 4));
+            values.put(key, value);
+        }
+        return value == NO_VALUE ? null : value;
+    }
+
+    /**
+     * @param key The key
+     * @return Whether the key is present
+     */
+    public boolean containsKey(@NonNull String key) {
+        Object value = values.get(key);
+        if (value != null) {
+            return value != NO_VALUE;
+        }
+        return indexOf(key) > -1;
+    }
+
+    /**
+     * Whether the value of the given key is a list. Only the type of the value is read, the value is not decoded.
+     *
+     * @param key The key
+     * @return True if the key is present and its value is a list
+     */
+    public boolean isList(@NonNull String key) {
+        Object value = values.get(key);
+        if (value != null) {
+            return value instanceof List;
+        }
+        int index = indexOf(key);
+        return index > -1 && buffer.get(buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE + 4)) == TYPE_LIST;
+    }
+
+    /**
+     * @param key The key
+     * @return Whether the key or any key nested below it is present
+     */
+    public boolean containsKeys(@NonNull String key) {
+        if (containsKey(key)) {
+            return true;
+        }
+        byte[] prefix = (key + '.').getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(prefix);
+        return index < count && startsWith(index, prefix);
+    }
+
+    /**
+     * @param key The key
+     * @return The names of the entries directly nested below the key
+     */
+    @NonNull
+    public Set<String> getEntries(@NonNull String key) {
+        byte[] prefix = (key + '.').getBytes(StandardCharsets.UTF_8);
+        Set<String> entries = new LinkedHashSet<>();
+        for (int i = lowerBound(prefix); i < count && startsWith(i, prefix); i++) {
+            String entry = readKey(i).substring(prefix.length);
+            int end = indexOfSeparator(entry);
+            entries.add(end > -1 ? entry.substring(0, end) : entry);
+        }
+        return entries;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readKey(index++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int indexOfSeparator(String entry) {
+        for (int i = 0; i < entry.length(); i++) {
+            char c = entry.charAt(i);
+            if (c == '.' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(bytes);
+        return index < count && compare(index, bytes) == 0 ? index : -1;
+    }
+
+    /**
+     * @param bytes The key bytes
+     * @return The index of the first key that is not less than the given key
+     */
+    private int lowerBound(byte[] bytes) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, bytes) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int index, byte[] bytes) {
+        int offset = buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE);
+        int length = buffer.getInt(offset);
+        int start = offset + 4;
+        int n = Math.min(length, bytes.length);
+        for (int i = 0; i < n; i++) {
+            int result = Integer.compare(buffer.get(start + i) & 0xFF, bytes[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(length, bytes.length);
+    }
+
+    private boolean startsWith(int index, byte[] prefix) {
+        int offset = buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE);
+        int length = buffer.getInt(offset);
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + 4 + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readKey(int index) {
+        return readString(buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE));
+    }
+
+    private Object readValue(int offset) {
+        byte type = buffer.get(offset);
+        switch (type) {
+            case TYPE_STRING:
+                return readString(offset + 1);
+            case TYPE_LIST:
+                int size = buffer.getInt(offset + 1);
+                List<String> list = new ArrayList<>(size);
+                int position = offset + 5;
+                for (int i = 0; i < size; i++) {
+                    list.add(readString(position));
+                    position += 4 + buffer.getInt(position);
+                }
+                return list;
+            default:
+                throw new ConfigurationException("Property source [" + name + "] contains a value of unknown type: " + type);
+        }
+    }
+
+    private String readString(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.io.ResourceLoader;
+import io.micronaut.core.order.Ordered;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads {@link MappedPropertySource} instances from files with the {@link MappedPropertySource#EXTENSION} extension.
+ * Files on the file system are memory mapped, other resources such as entries of JAR files are read into memory.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public class MappedPropertySourceLoader implements PropertySourceLoader, Ordered {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedPropertySourceLoader.class);
+
+    @Override
+    public int getOrder() {
+        return AbstractPropertySourceLoader.DEFAULT_POSITION;
+    }
+
+    @Override
+    public Set<String> getExtensions() {
+        return Collections.singleton(MappedPropertySource.EXTENSION);
+    }
+
+    @Override
+    public Optional<PropertySource> load(String resourceName, ResourceLoader resourceLoader) {
+        return load(resourceLoader, resourceName, getOrder());
+    }
+
+    @Override
+    public Optional<PropertySource> loadEnv(String resourceName, ResourceLoader resourceLoader, ActiveEnvironment activeEnvironment) {
+        return load(resourceLoader, resourceName + "-" + activeEnvironment.getName(), getOrder() + 1 + activeEnvironment.getPriority());
+    }
+
+    @Override
+    public Map<String, Object> read(String name, InputStream input) throws IOException {
+        MappedPropertySource propertySource = MappedPropertySource.of(name, getOrder(), ByteBuffer.wrap(readBytes(input)));
+        Map<String, Object> map = new LinkedHashMap<>(propertySource.size());
+        for (String key : propertySource) {
+            map.put(key, propertySource.get(key));
+        }
+        return map;
+    }
+
+    private Optional<PropertySource> load(ResourceLoader resourceLoader, String resourceName, int order) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        String fileName = resourceName + "." + MappedPropertySource.EXTENSION;
+        Optional<URL> resource = resourceLoader.getResource(fileName);
+        if (!resource.isPresent()) {
+            return Optional.empty();
+        }
+        URL url = resource.get();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found PropertySource for file name: " + fileName);
+        }
+        try {
+            return Optional.of(MappedPropertySource.of(fileName, order, readBuffer(url)));
+        } catch (IOException e) {
+            throw new ConfigurationException("I/O exception occurred reading [" + fileName + "]: " + e.getMessage(), e);
+        }
+    }
+
+    private ByteBuffer readBuffer(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                Path path = Paths.get(url.toURI());
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // fall back to reading the stream
+            }
+        }
+        try (InputStream input = url.openStream()) {
+            return ByteBuffer.wrap(readBytes(input));
+        }
+    }
+
+    private static byte[] readBytes(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
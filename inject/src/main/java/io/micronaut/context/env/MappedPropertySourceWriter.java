@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.context.env.yaml.YamlPropertySourceLoader;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.naming.NameUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>Writes configuration in the indexed binary format read by {@link MappedPropertySource}. Nested maps are
+ * flattened into dot separated keys, lists of simple values are stored as lists and lists that contain maps are
+ * flattened into indexed keys such as {@code foo[0].bar}. Keys are stored in the kebab case form of the keys of the
+ * catalog.</p>
+ *
+ * <p>The {@link #main(String...)} method converts a YAML or properties file and is intended to be invoked by the
+ * build, for example from a Gradle {@code JavaExec} task.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+public final class MappedPropertySourceWriter {
+
+    private static final Comparator<byte[]> UNSIGNED_ORDER = (a, b) -> {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int result = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    };
+
+    private MappedPropertySourceWriter() {
+    }
+
+    /**
+     * Converts the given YAML or properties file into the binary format.
+     *
+     * @param args The source file and the target file
+     * @throws IOException If the files cannot be read or written
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MappedPropertySourceWriter <source .yml or .properties file> <target ." + MappedPropertySource.EXTENSION + " file>");
+            System.exit(1);
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        String fileName = source.getFileName().toString();
+        PropertySourceReader reader = fileName.endsWith(".properties") ? new PropertiesPropertySourceLoader() : new YamlPropertySourceLoader();
+        Map<String, Object> properties;
+        try (InputStream input = Files.newInputStream(source)) {
+            properties = reader.read(fileName, input);
+        }
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream output = Files.newOutputStream(target)) {
+            write(properties, output);
+        }
+    }
+
+    /**
+     * Writes the given properties in the binary format.
+     *
+     * @param properties The properties, possibly nested
+     * @param output     The output stream
+     * @throws IOException If the output cannot be written
+     */
+    public static void write(@NonNull Map<String, Object> properties, @NonNull OutputStream output) throws IOException {
+        Map<byte[], Object> entries = new TreeMap<>(UNSIGNED_ORDER);
+        flatten("", properties, entries);
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream dataOutput = new DataOutputStream(data);
+        int dataStart = MappedPropertySource.HEADER_SIZE + entries.size() * MappedPropertySource.INDEX_ENTRY_SIZE;
+        int[] offsets = new int[entries.size() * 2];
+        int i = 0;
+        for (Map.Entry<byte[], Object> entry : entries.entrySet()) {
+            offsets[i++] = dataStart + dataOutput.size();
+            writeBytes(dataOutput, entry.getKey());
+            offsets[i++] = dataStart + dataOutput.size();
+            Object value = entry.getValue();
+            if (value instanceof Collection) {
+                Collection<?> list = (Collection<?>) value;
+                dataOutput.writeByte(MappedPropertySource.TYPE_LIST);
+                dataOutput.writeInt(list.size());
+                for (Object element : list) {
+                    writeBytes(dataOutput, String.valueOf(element).getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                dataOutput.writeByte(MappedPropertySource.TYPE_STRING);
+                writeBytes(dataOutput, value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        dataOutput.flush();
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MappedPropertySource.MAGIC);
+        out.writeInt(entries.size());
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        data.writeTo(out);
+        out.flush();
+    }
+
+    private static void flatten(String prefix, Map<?, ?> map, Map<byte[], Object> entries) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = NameUtils.hyphenate(entry.getKey().toString(), true);
+            flattenValue(prefix.isEmpty() ? key : prefix + '.' + key, entry.getValue(), entries);
+        }
+    }
+
+    private static void flattenValue(String key, Object value, Map<byte[], Object> entries) {
+        if (value instanceof Map) {
+            flatten(key, (Map<?, ?>) value, entries);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            boolean simple = collection.stream().noneMatch(element -> element instanceof Map || element instanceof Collection);
+            if (simple) {
+                List<Object> list = new ArrayList<>(collection);
+                list.removeIf(element -> element == null);
+                entries.put(key.getBytes(StandardCharsets.UTF_8), list);
+            } else {
+                int index = 0;
+                for (Object element : collection) {
+                    flattenValue(key + '[' + index++ + ']', element, entries);
+                }
+            }
+        } else if (value != null) {
+            entries.put(key.getBytes(StandardCharsets.UTF_8), value);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
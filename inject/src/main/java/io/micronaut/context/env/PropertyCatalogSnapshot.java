@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Memoizes the results of property lookups of a {@link PropertySourcePropertyResolver} for one generation of its
+ * catalog. Converted values are kept per property name and required type, so that repeated reads of the same property,
+ * such as those of {@link io.micronaut.context.annotation.Value} injection points of request scoped or refreshable
+ * beans, neither take a lock nor allocate.</p>
+ *
+ * <p>A snapshot is never cleared. When the catalog changes the resolver replaces it with a new instance, so that
+ * concurrent lookups that started against the previous catalog cannot populate the new snapshot with stale values.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class PropertyCatalogSnapshot {
+
+    private final Map<String, Boolean> containsCache = new ConcurrentHashMap<>(20);
+    private final Map<String, TypedValues> resolvedValueCache = new ConcurrentHashMap<>(20);
+
+    /**
+     * @param name The property name
+     * @return Whether the property is contained or {@code null} if the lookup was not memoized
+     */
+    @Nullable
+    Boolean containsProperty(@NonNull String name) {
+        return containsCache.get(name);
+    }
+
+    /**
+     * @param name   The property name
+     * @param result Whether the property is contained
+     */
+    void containsProperty(@NonNull String name, boolean result) {
+        containsCache.put(name, result);
+    }
+
+    /**
+     * @param name         The property name
+     * @param requiredType The required type
+     * @param <T>          The required type
+     * @return The converted value or {@code null} if the lookup was not memoized
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    <T> Optional<T> get(@NonNull String name, @NonNull Class<T> requiredType) {
+        TypedValues typedValues = resolvedValueCache.get(name);
+        return typedValues != null ? (Optional<T>) typedValues.get(requiredType) : null;
+    }
+
+    /**
+     * @param name         The property name
+     * @param requiredType The required type
+     * @param value        The converted value
+     * @param <T>          The required type
+     */
+    <T> void put(@NonNull String name, @NonNull Class<T> requiredType, @NonNull Optional<T> value) {
+        resolvedValueCache.computeIfAbsent(name, n -> new TypedValues()).put(requiredType, value);
+    }
+
+    /**
+     * The converted values of a property, stored as pairs of type and value in an array that is copied on write.
+     * Properties are usually only read as one or two types so a linear scan is faster than a map.
+     */
+    private static final class TypedValues {
+        private static final Object[] EMPTY = new Object[0];
+
+        private volatile Object[] entries = EMPTY;
+
+        @Nullable
+        Optional<?> get(Class<?> type) {
+            Object[] entries = this.entries;
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i] == type) {
+                    return (Optional<?>) entries[i + 1];
+                }
+            }
+            return null;
+        }
+
+        synchronized void put(Class<?> type, Optional<?> value) {
+            if (get(type) != null) {
+                return;
+            }
+            Object[] entries = this.entries;
+            Object[] newEntries = new Object[entries.length + 2];
+            System.arraycopy(entries, 0, newEntries, 0, entries.length);
+            newEntries[entries.length] = type;
+            newEntries[entries.length + 1] = value;
+            this.entries = newEntries;
+        }
+    }
+}
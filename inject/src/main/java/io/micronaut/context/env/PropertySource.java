@@ -54,6 +54,19 @@ public interface PropertySource extends Iterable<String>, Ordered {
         return PropertyConvention.JAVA_PROPERTIES;
     }
 
+    /**
+     * Reports the keys that changed since the given previous version of this property source. The default
+     * implementation compares every value, property sources that already know the changed keys (for example those
+     * updated from a configuration server) can override this method to report them directly.
+     *
+     * @param previous The previous version of the property source
+     * @return The changes
+     * @since 3.0.2
+     */
+    default PropertySourceChanges changesSince(PropertySource previous) {
+        return PropertySourceChanges.diff(previous, this);
+    }
+
     /**
      * Create a {@link PropertySource} from the given map.
      *
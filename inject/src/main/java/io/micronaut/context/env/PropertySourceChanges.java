@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The keys of a {@link PropertySource} that changed, together with the new version of the property source. A key
+ * that is no longer present in the new version represents a removal. Changes can be applied to a running environment
+ * with {@link Environment#refreshAndDiff(PropertySourceChanges)} without re-reading every property source.
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ * @see PropertySource#changesSince(PropertySource)
+ */
+public final class PropertySourceChanges {
+
+    private final PropertySource propertySource;
+    private final Set<String> keys;
+
+    private PropertySourceChanges(PropertySource propertySource, Set<String> keys) {
+        this.propertySource = propertySource;
+        this.keys = keys;
+    }
+
+    /**
+     * @return The new version of the property source
+     */
+    @NonNull
+    public PropertySource getPropertySource() {
+        return propertySource;
+    }
+
+    /**
+     * @return The keys that were added, modified or removed
+     */
+    @NonNull
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return Whether there are no changes
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Creates the changes for the given keys.
+     *
+     * @param propertySource The new version of the property source
+     * @param keys           The keys that were added, modified or removed
+     * @return The changes
+     */
+    @NonNull
+    public static PropertySourceChanges of(@NonNull PropertySource propertySource, @NonNull Collection<String> keys) {
+        Objects.requireNonNull(propertySource, "Property source cannot be null");
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        return new PropertySourceChanges(propertySource, Collections.unmodifiableSet(new LinkedHashSet<>(keys)));
+    }
+
+    /**
+     * Computes the changes between two versions of a property source by comparing their values.
+     *
+     * @param previous The previous version
+     * @param next     The new version
+     * @return The changes
+     */
+    @NonNull
+    public static PropertySourceChanges diff(@NonNull PropertySource previous, @NonNull PropertySource next) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String key : next) {
+            if (!Objects.equals(previous.get(key), next.get(key))) {
+                keys.add(key);
+            }
+        }
+        for (String key : previous) {
+            if (next.get(key) == null) {
+                keys.add(key);
+            }
+        }
+        return new PropertySourceChanges(next, Collections.unmodifiableSet(keys));
+    }
+}
@@ -58,7 +58,6 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
     private static final String RANDOM_RANGE = "(\\[-?\\d+(\\.\\d+)?,\\s?-?\\d+(\\.\\d+)?])";
     private static final Pattern RANDOM_PATTERN = Pattern.compile("\\$\\{" + RANDOM_PREFIX + "(" + RANDOM_UPPER_LIMIT + "|" + RANDOM_RANGE + ")?\\}");
     private static final char[] DOT_DASH = new char[] {'.', '-'};
-    private static final Object NO_VALUE = new Object();
     private static final PropertyCatalog[] CONVENTIONS = {PropertyCatalog.GENERATED, PropertyCatalog.RAW};
     protected final ConversionService<?> conversionService;
     protected final PropertyPlaceholderResolver propertyPlaceholderResolver;
@@ -70,8 +69,7 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
     protected final Map<String, Object>[] rawCatalog = new Map[58];
     protected final Map<String, Object>[] nonGenerated = new Map[58];
     private final Random random = new Random();
-    private final Map<String, Boolean> containsCache = new ConcurrentHashMap<>(20);
-    private final Map<String, Object> resolvedValueCache = new ConcurrentHashMap<>(20);
+    private volatile PropertyCatalogSnapshot snapshot = new PropertyCatalogSnapshot();
 
     /**
      * Creates a new, initially empty, {@link PropertySourcePropertyResolver} for the given {@link ConversionService}.
@@ -136,7 +134,8 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
         if (StringUtils.isEmpty(name)) {
             return false;
         } else {
-            Boolean result = containsCache.get(name);
+            PropertyCatalogSnapshot snapshot = this.snapshot;
+            Boolean result = snapshot.containsProperty(name);
             if (result == null) {
 
                 for (PropertyCatalog convention : CONVENTIONS) {
@@ -151,7 +150,7 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                 if (result == null) {
                     result = false;
                 }
-                containsCache.put(name, result);
+                snapshot.containsProperty(name, result);
             }
             return result;
         }
@@ -245,9 +244,10 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
             Objects.requireNonNull(conversionContext, "Conversion context should not be null");
             Class<T> requiredType = conversionContext.getArgument().getType();
             boolean cacheableType = ClassUtils.isJavaLangType(requiredType);
-            Object cached = cacheableType ? resolvedValueCache.get(cacheKey(name, requiredType)) : null;
+            PropertyCatalogSnapshot snapshot = this.snapshot;
+            Optional<T> cached = cacheableType ? snapshot.get(name, requiredType) : null;
             if (cached != null) {
-                return cached == NO_VALUE ? Optional.empty() : Optional.of((T) cached);
+                return cached;
             } else {
                 Map<String, Object> entries = resolveEntriesForKey(name, false, PropertyCatalog.GENERATED);
                 if (entries == null) {
@@ -270,7 +270,7 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                         int i = name.indexOf('[');
                         if (i > -1 && name.endsWith("]")) {
                             String newKey = name.substring(0, i);
-                            value = entries.get(newKey);
+                            value = unwrap(entries.get(newKey));
                             String index = name.substring(i + 1, name.length() - 1);
                             if (value != null) {
                                 if (StringUtils.isNotEmpty(index)) {
@@ -315,11 +315,11 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                         }
 
                         if (cacheableType) {
-                            resolvedValueCache.put(cacheKey(name, requiredType), converted.orElse((T) NO_VALUE));
+                            snapshot.put(name, requiredType, converted);
                         }
                         return converted;
                     } else if (cacheableType) {
-                        resolvedValueCache.put(cacheKey(name, requiredType), NO_VALUE);
+                        snapshot.put(name, requiredType, Optional.empty());
                         return Optional.empty();
                     } else if (Properties.class.isAssignableFrom(requiredType)) {
                         Properties properties = resolveSubProperties(name, entries, conversionContext);
@@ -352,11 +352,6 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
         return Optional.empty();
     }
 
-    @NonNull
-    private <T> String cacheKey(@NonNull String name, Class<T> requiredType) {
-        return name + '|' + requiredType.getSimpleName();
-    }
-
     /**
      * Returns a combined Map of all properties in the catalog.
      *
@@ -417,7 +412,7 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
         entries.entrySet().stream()
             .filter(map -> map.getKey().startsWith(prefix))
             .forEach(entry -> {
-                Object value = entry.getValue();
+                Object value = unwrap(entry.getValue());
                 if (value != null) {
                     String key = entry.getKey().substring(prefix.length());
                     key = keyConvention != null ? keyConvention.format(key) : key;
@@ -507,6 +502,7 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
     @SuppressWarnings("MagicNumber")
     protected void processPropertySource(PropertySource properties, PropertySource.PropertyConvention convention) {
         this.propertySources.put(properties.getName(), properties);
+        boolean mapped = properties instanceof MappedPropertySource;
         synchronized (catalog) {
             for (String property : properties) {
 
@@ -514,7 +510,13 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                     LOG.trace("Processing property key {}", property);
                 }
 
-                Object value = properties.get(property);
+                Object value;
+                if (mapped && property.indexOf('[') == -1 && !((MappedPropertySource) properties).isList(property)) {
+                    // the value is decoded when it is first read, lists are decoded now to add their indexed entries
+                    value = new MappedValue((MappedPropertySource) properties, property, convention);
+                } else {
+                    value = properties.get(property);
+                }
 
                 if (value instanceof CharSequence) {
                     value = processRandomExpressions(convention, property, (CharSequence) value);
@@ -539,6 +541,10 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                         String propertyName = resolvedProperty.substring(0, i);
                         Map<String, Object> entries = resolveEntriesForKey(propertyName, true, PropertyCatalog.GENERATED);
                         if (entries != null) {
+                            if (mapped && value instanceof List) {
+                                // a mapped source stores a list nested in a list of maps under its indexed key
+                                collapseProperty(resolvedProperty, entries, value);
+                            }
                             entries.put(resolvedProperty, value);
                             expandProperty(resolvedProperty.substring(i), val -> entries.put(propertyName, val), () -> entries.get(propertyName), value);
                         }
@@ -572,7 +578,93 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
                     rawEntries.put(property, value);
                 }
             }
+            resetCaches();
+        }
+    }
+
+    /**
+     * Applies the changed keys of a property source to the catalog without processing the other property sources
+     * again. The changes are only applied when none of the changed keys are defined by another property source and
+     * all of the old and new values are simple values, otherwise the catalog is left untouched.
+     *
+     * @param changes The changes
+     * @param diff    The map to populate with the previous values of the changed properties, {@code null} for new properties
+     * @return Whether the changes were applied
+     */
+    protected boolean applyPropertySourceChanges(@NonNull PropertySourceChanges changes, @NonNull Map<String, Object> diff) {
+        PropertySource propertySource = changes.getPropertySource();
+        PropertySource previous = propertySources.get(propertySource.getName());
+        if (previous == null || previous instanceof MappedPropertySource || propertySource instanceof MappedPropertySource ||
+                previous.getConvention() != propertySource.getConvention()) {
+            return false;
+        }
+        PropertySource.PropertyConvention convention = propertySource.getConvention();
+        synchronized (catalog) {
+            for (String key : changes.getKeys()) {
+                if (!isIncrementalChange(propertySource, key)) {
+                    return false;
+                }
+            }
+            for (String key : changes.getKeys()) {
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Applying change to property key {}", key);
+                }
+                Object value = propertySource.get(key);
+                if (value instanceof CharSequence) {
+                    value = processRandomExpressions(convention, key, (CharSequence) value);
+                }
+                boolean first = true;
+                for (String resolvedProperty : resolvePropertiesForConvention(key, convention)) {
+                    Object oldValue = applyValue(resolvedProperty, value, PropertyCatalog.GENERATED);
+                    if (!Objects.equals(oldValue, value)) {
+                        diff.put(resolvedProperty, oldValue);
+                    }
+                    if (first) {
+                        applyValue(resolvedProperty, value, PropertyCatalog.NORMALIZED);
+                        first = false;
+                    }
+                }
+                applyValue(key, value, PropertyCatalog.RAW);
+            }
+            propertySources.put(propertySource.getName(), propertySource);
+            resetCaches();
         }
+        return true;
+    }
+
+    private boolean isIncrementalChange(PropertySource propertySource, String key) {
+        Object value = propertySource.get(key);
+        if (key.isEmpty() || key.indexOf('[') > -1 || value instanceof List || value instanceof Map) {
+            return false;
+        }
+        Map<String, Object> rawEntries = resolveEntriesForKey(key, false, PropertyCatalog.RAW);
+        Object oldValue = rawEntries != null ? rawEntries.get(key) : null;
+        if (oldValue instanceof List || oldValue instanceof Map) {
+            return false;
+        }
+        String environmentName = StringUtils.convertDotToUnderscore(key.replace('-', '_'));
+        for (PropertySource other : propertySources.values()) {
+            if (!other.getName().equals(propertySource.getName()) && (other.get(key) != null || other.get(environmentName) != null)) {
+                return false;
+            }
+        }
+        // a catalog value that differs from the raw value was contributed by another property source under another key format
+        for (String resolvedProperty : resolvePropertiesForConvention(key, propertySource.getConvention())) {
+            Map<String, Object> entries = resolveEntriesForKey(resolvedProperty, false, PropertyCatalog.GENERATED);
+            if (!Objects.equals(oldValue, entries != null ? entries.get(resolvedProperty) : null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private Object applyValue(String property, @Nullable Object value, PropertyCatalog propertyCatalog) {
+        Map<String, Object> entries = resolveEntriesForKey(property, value != null, propertyCatalog);
+        if (entries == null) {
+            return null;
+        }
+        return value != null ? entries.put(property, value) : entries.remove(property);
     }
 
     private void expandProperty(String property, Consumer<Object> containerSet, Supplier<Object> containerGet, Object actualValue) {
@@ -758,11 +850,11 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
     }
 
     /**
-     * Subclasses can override to reset caches.
+     * Subclasses can override to reset caches. The memoized lookups are replaced rather than cleared so that
+     * concurrent lookups against the previous catalog do not populate the new one.
      */
     protected void resetCaches() {
-        containsCache.clear();
-        resolvedValueCache.clear();
+        snapshot = new PropertyCatalogSnapshot();
     }
 
     private void processSubmapKey(Map<String, Object> map, String key, Object value, @Nullable StringConvention keyConvention) {
@@ -789,11 +881,21 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
         }
     }
 
+    /**
+     * @param value A value of the catalog
+     * @return The value, with the values of mapped property sources decoded
+     */
+    @Nullable
+    static Object unwrap(@Nullable Object value) {
+        return value instanceof MappedValue ? ((MappedValue) value).get() : value;
+    }
+
     private String normalizeName(String name) {
         return name.replace('-', '.');
     }
 
     private Object resolvePlaceHoldersIfNecessary(Object value) {
+        value = unwrap(value);
         if (value instanceof CharSequence) {
             return propertyPlaceholderResolver.resolveRequiredPlaceholders(value.toString());
         } else if (value instanceof List) {
@@ -933,6 +1035,57 @@ public class PropertySourcePropertyResolver implements PropertyResolver {
         }
     }
 
+    /**
+     * The catalog value of a key of a {@link MappedPropertySource}, which decodes the value when it is first read.
+     * Adding the keys to the catalog gives a mapped property source the same precedence as any other property source.
+     */
+    private final class MappedValue {
+        private final MappedPropertySource propertySource;
+        private final String key;
+        private final PropertySource.PropertyConvention convention;
+        private volatile Object value;
+
+        MappedValue(MappedPropertySource propertySource, String key, PropertySource.PropertyConvention convention) {
+            this.propertySource = propertySource;
+            this.key = key;
+            this.convention = convention;
+        }
+
+        Object get() {
+            Object value = this.value;
+            if (value == null) {
+                value = propertySource.get(key);
+                if (value instanceof CharSequence) {
+                    value = processRandomExpressions(convention, key, (CharSequence) value);
+                }
+                this.value = value;
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MappedValue)) {
+                return false;
+            }
+            MappedValue other = (MappedValue) o;
+            return key.equals(other.key) && (propertySource == other.propertySource || Objects.equals(get(), other.get()));
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(get());
+        }
+    }
+
     /**
      * The property catalog to use.
      */
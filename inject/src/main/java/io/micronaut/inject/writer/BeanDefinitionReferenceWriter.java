@@ -26,6 +26,8 @@ import io.micronaut.inject.AdvisedBeanType;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.BeanDefinitionReference;
 import io.micronaut.inject.annotation.AnnotationMetadataReference;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.beans.BeanElement;
 import jakarta.inject.Singleton;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Type;
@@ -33,6 +35,7 @@ import org.objectweb.asm.commons.GeneratorAdapter;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Set;
 
 /**
  * Writes the bean definition class file to disk.
@@ -69,6 +72,7 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
     private final String beanDefinitionClassInternalName;
     private final String beanDefinitionReferenceClassName;
     private final Type interceptedType;
+    private final String[] indexedTypeNames;
     private boolean contextScope = false;
     private boolean requiresMethodProcessing;
 
@@ -90,6 +94,7 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         this.beanDefinitionReferenceClassName = beanDefinitionName + REF_SUFFIX;
         this.beanDefinitionClassInternalName = getInternalName(beanDefinitionName) + REF_SUFFIX;
         this.interceptedType = null;
+        this.indexedTypeNames = null;
     }
 
     /**
@@ -109,6 +114,7 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         this.beanDefinitionReferenceClassName = beanDefinitionName + REF_SUFFIX;
         this.beanDefinitionClassInternalName = getInternalName(beanDefinitionName) + REF_SUFFIX;
         this.interceptedType = visitor.getInterceptedType().orElse(null);
+        this.indexedTypeNames = resolveIndexedTypeNames(beanTypeName, visitor);
     }
 
     /**
@@ -161,6 +167,34 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         return newClassName + REF_SUFFIX;
     }
 
+    /**
+     * Resolves the names of the types the bean can be looked up by, which are written to the reference so that the
+     * context can index references by type without loading the bean classes. Proxies and bean types whose runtime
+     * hierarchy cannot be derived from the element are not indexed.
+     *
+     * @param beanTypeName The bean type name
+     * @param visitor      The visitor
+     * @return The type names or {@code null} if the bean should not be indexed
+     */
+    private static String[] resolveIndexedTypeNames(String beanTypeName, BeanDefinitionVisitor visitor) {
+        if (!(visitor instanceof BeanElement) || beanTypeName.indexOf('.') < 0 || beanTypeName.endsWith("[]")) {
+            return null;
+        }
+        final boolean typed = visitor.getAnnotationMetadata().stringValues(Bean.class, "typed").length > 0;
+        final Set<ClassElement> beanTypes = ((BeanElement) visitor).getBeanTypes();
+        final String[] names = new String[beanTypes.size()];
+        boolean containsBeanType = false;
+        int i = 0;
+        for (ClassElement beanType : beanTypes) {
+            if (beanType.isProxy()) {
+                return null;
+            }
+            names[i++] = beanType.getName();
+            containsBeanType |= beanTypeName.equals(beanType.getName());
+        }
+        return typed || containsBeanType ? names : null;
+    }
+
     private ClassWriter generateClassBytes() {
         ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
 
@@ -255,6 +289,17 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         getBeanType.returnValue();
         getBeanType.visitMaxs(2, 1);
 
+        if (indexedTypeNames != null) {
+            // start method: String[] getIndexedTypeNames()
+            GeneratorAdapter getIndexedTypeNames = startPublicMethodZeroArgs(classWriter, String[].class, "getIndexedTypeNames");
+            pushNewArray(getIndexedTypeNames, String.class, indexedTypeNames.length);
+            for (int i = 0; i < indexedTypeNames.length; i++) {
+                pushStoreStringInArray(getIndexedTypeNames, i, indexedTypeNames.length, indexedTypeNames[i]);
+            }
+            getIndexedTypeNames.returnValue();
+            getIndexedTypeNames.visitMaxs(4, 1);
+        }
+
         if (interceptedType != null) {
             super.implementInterceptedTypeMethod(interceptedType, classWriter);
         }
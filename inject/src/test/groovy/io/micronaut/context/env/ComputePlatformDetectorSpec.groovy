@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.env
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.function.BooleanSupplier
+
+class ComputePlatformDetectorSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    void "test the first positive probe short circuits slower probes"() {
+        given:
+        Map<ComputePlatform, BooleanSupplier> probes = new LinkedHashMap<>()
+        probes.put(ComputePlatform.AMAZON_EC2, sleeping(5000, true))
+        probes.put(ComputePlatform.GOOGLE_COMPUTE, sleeping(50, true))
+        probes.put(ComputePlatform.ORACLE_CLOUD, sleeping(0, false))
+        def detector = new ComputePlatformDetector(probes, 10000, null, null)
+
+        when:
+        long start = System.currentTimeMillis()
+        def platform = detector.detect()
+
+        then:
+        platform == ComputePlatform.GOOGLE_COMPUTE
+        System.currentTimeMillis() - start < 2000
+    }
+
+    void "test probes that do not answer within the timeout result in bare metal"() {
+        given:
+        Path cache = tempDir.resolve('platform')
+        Map<ComputePlatform, BooleanSupplier> probes = new LinkedHashMap<>()
+        probes.put(ComputePlatform.AMAZON_EC2, sleeping(5000, true))
+        probes.put(ComputePlatform.DIGITAL_OCEAN, sleeping(0, false))
+        def detector = new ComputePlatformDetector(probes, 100, cache, 'boot-1')
+
+        when:
+        long start = System.currentTimeMillis()
+        def platform = detector.detect()
+
+        then:"the result is not cached since it is not definite"
+        platform == ComputePlatform.BARE_METAL
+        System.currentTimeMillis() - start < 2000
+        !Files.exists(cache)
+    }
+
+    void "test failing probes are treated as negative answers that are not cached"() {
+        given:
+        Path cache = tempDir.resolve('platform')
+        Map<ComputePlatform, BooleanSupplier> probes = new LinkedHashMap<>()
+        probes.put(ComputePlatform.AMAZON_EC2, { throw new IllegalStateException("bad probe") } as BooleanSupplier)
+        probes.put(ComputePlatform.DIGITAL_OCEAN, sleeping(0, false))
+        def detector = new ComputePlatformDetector(probes, 1000, cache, 'boot-1')
+
+        expect:
+        detector.detect() == ComputePlatform.BARE_METAL
+        !Files.exists(cache)
+    }
+
+    void "test the detected platform is cached for the boot ID"() {
+        given:
+        Path cache = tempDir.resolve('platform')
+        int calls = 0
+        Map<ComputePlatform, BooleanSupplier> probes = new LinkedHashMap<>()
+        probes.put(ComputePlatform.ORACLE_CLOUD, { calls++; true } as BooleanSupplier)
+
+        when:
+        def first = new ComputePlatformDetector(probes, 1000, cache, 'boot-1').detect()
+        def second = new ComputePlatformDetector(probes, 1000, cache, 'boot-1').detect()
+
+        then:
+        first == ComputePlatform.ORACLE_CLOUD
+        second == ComputePlatform.ORACLE_CLOUD
+        calls == 1
+        Files.readAllLines(cache) == ['boot-1', 'ORACLE_CLOUD']
+
+        when:"the host was rebooted"
+        probes.put(ComputePlatform.ORACLE_CLOUD, { calls++; false } as BooleanSupplier)
+        def third = new ComputePlatformDetector(probes, 1000, cache, 'boot-2').detect()
+
+        then:
+        third == ComputePlatform.BARE_METAL
+        calls == 2
+
+        when:"bare metal is not cached"
+        def fourth = new ComputePlatformDetector(probes, 1000, cache, 'boot-2').detect()
+
+        then:
+        fourth == ComputePlatform.BARE_METAL
+        calls == 3
+        Files.readAllLines(cache) == ['boot-1', 'ORACLE_CLOUD']
+    }
+
+    private static BooleanSupplier sleeping(long millis, boolean result) {
+        return {
+            Thread.sleep(millis)
+            result
+        } as BooleanSupplier
+    }
+}
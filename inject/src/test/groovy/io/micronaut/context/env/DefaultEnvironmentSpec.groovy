@@ -733,6 +733,59 @@ class DefaultEnvironmentSpec extends Specification {
         env.getProperty("micronaut.server.port", Integer).get() == 8081
     }
 
+    void "test property source changes are applied incrementally"() {
+        given:
+        PropertySource original = PropertySource.of("config-server", ['foo.bar': 'one', 'foo.baz': 'two', 'foo.same': 'same'])
+        Environment env = new DefaultEnvironment({ ["test"] })
+        env.addPropertySource(original)
+        env.start()
+
+        when:
+        PropertySource updated = PropertySource.of("config-server", ['foo.bar': 'changed', 'foo.same': 'same', 'foo.new-value': 'new'])
+        PropertySourceChanges changes = updated.changesSince(original)
+        Map<String, Object> diff = env.refreshAndDiff(changes)
+
+        then:
+        changes.keys == ['foo.bar', 'foo.new-value', 'foo.baz'] as Set
+        diff == ['foo.bar': 'one', 'foo.new-value': null, 'foo.baz': 'two']
+        env.getProperty('foo.bar', String).get() == 'changed'
+        env.getProperty('foo.newValue', String).get() == 'new'
+        !env.containsProperty('foo.baz')
+        env.getProperty('foo.same', String).get() == 'same'
+        env.propertySources.find { it.name == 'config-server' }.is(updated)
+
+        cleanup:
+        env.stop()
+    }
+
+    void "test property source changes fall back to a full refresh when the key is defined by another source"() {
+        given:
+        PropertySource original = PropertySource.of("config-server", ['foo.bar': 'one'], 1)
+        Environment env = new DefaultEnvironment({ ["test"] })
+        env.addPropertySource(original)
+        env.addPropertySource(PropertySource.of("override", ['foo.bar': 'override'], 2))
+        env.start()
+
+        when:
+        PropertySource updated = PropertySource.of("config-server", ['foo.bar': 'changed'], 1)
+        Map<String, Object> diff = env.refreshAndDiff(updated.changesSince(original))
+
+        then:
+        diff.isEmpty()
+        env.getProperty('foo.bar', String).get() == 'override'
+
+        when:
+        env.removePropertySource(env.propertySources.find { it.name == 'override' })
+        diff = env.refreshAndDiff(PropertySourceChanges.of(updated, ['foo.bar']))
+
+        then:
+        diff == ['foo.bar': 'override']
+        env.getProperty('foo.bar', String).get() == 'changed'
+
+        cleanup:
+        env.stop()
+    }
+
     private static Environment startEnv(String files) {
         new DefaultEnvironment({["test"]}) {
             @Override
@@ -0,0 +1,170 @@
+package io.micronaut.context.env
+
+import io.micronaut.core.io.file.DefaultFileSystemResourceLoader
+import io.micronaut.core.type.Argument
+import io.micronaut.core.value.PropertyResolver
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+
+class MappedPropertySourceSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    void "test values are decoded only when accessed"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        MappedPropertySourceWriter.write([
+                app: [
+                        name: 'test',
+                        featureFlags: [alpha: true, beta: false],
+                        hosts: ['a', 'b'],
+                        servers: [[host: 'x', port: 1], [host: 'y', port: 2]]
+                ]
+        ], output)
+        def source = MappedPropertySource.of('test', 0, ByteBuffer.wrap(output.toByteArray()))
+
+        expect:
+        source.size() == 8
+        source.getMaterializedCount() == 0
+        source.get('app.name') == 'test'
+        source.getMaterializedCount() == 1
+        source.get('app.feature-flags.alpha') == 'true'
+        source.get('app.hosts') == ['a', 'b']
+        source.get('app.servers[1].port') == '2'
+        source.get('app.missing') == null
+        source.containsKey('app.name')
+        !source.containsKey('app')
+        source.containsKeys('app.feature-flags')
+        !source.containsKeys('app.feature')
+        source.getEntries('app') == ['feature-flags', 'hosts', 'name', 'servers'] as Set
+        source.getEntries('app.feature-flags') == ['alpha', 'beta'] as Set
+        source.iterator().toList() == source.iterator().toList().sort(false)
+    }
+
+    void "test mapped property sources are resolved by the resolver"() {
+        given:
+        Files.newOutputStream(tempDir.resolve('application.bprops')).withCloseable {
+            MappedPropertySourceWriter.write([
+                    app: [name: 'mapped', size: 10, hosts: ['a', 'b'], flags: [one: true, two: false]]
+            ], it)
+        }
+        def loader = new MappedPropertySourceLoader()
+        MappedPropertySource source = loader.load('application', new DefaultFileSystemResourceLoader(tempDir)).get()
+        def resolver = new PropertySourcePropertyResolver(
+                source,
+                PropertySource.of('other', ['app.name': 'other'])
+        )
+
+        expect:"other property sources take precedence"
+        resolver.getProperty('app.name', String).get() == 'other'
+        resolver.getProperty('app.size', Integer).get() == 10
+        resolver.getProperty('app.hosts', List).get() == ['a', 'b']
+        resolver.getProperty('app.hosts[1]', String).get() == 'b'
+        resolver.containsProperty('app.size')
+        resolver.containsProperties('app.flags')
+        resolver.getPropertyEntries('app.flags') == ['one', 'two'] as Set
+        !resolver.getProperty('app.missing', String).isPresent()
+
+        and:"only the values that were read have been decoded"
+        source.getMaterializedCount() < source.size()
+    }
+
+    void "test mapped lists have the indexed entries of other property sources"() {
+        given:
+        Files.newOutputStream(tempDir.resolve('application.bprops')).withCloseable {
+            MappedPropertySourceWriter.write([app: [hosts: ['a', 'b'], servers: [[tags: ['x', 'y']]]]], it)
+        }
+        MappedPropertySource source = new MappedPropertySourceLoader().load('application', new DefaultFileSystemResourceLoader(tempDir)).get()
+        def mapped = new PropertySourcePropertyResolver(source)
+        def yaml = new PropertySourcePropertyResolver(PropertySource.of('yaml', [
+                app: [hosts: ['a', 'b'], servers: [[tags: ['x', 'y']]]]
+        ]))
+
+        expect:
+        ['app.hosts', 'app.hosts[0]', 'app.hosts[1]', 'app.hosts[2]', 'app.servers[0].tags', 'app.servers[0].tags[0]', 'app.servers[0].tags[1]'].every {
+            mapped.containsProperty(it) == yaml.containsProperty(it)
+        }
+        mapped.containsProperty('app.hosts[1]')
+        mapped.getProperty('app.hosts[1]', String).get() == 'b'
+        mapped.getProperty('app.servers[0].tags[1]', String).get() == 'y'
+    }
+
+    void "test random expressions are resolved in mapped lists"() {
+        given:
+        Files.newOutputStream(tempDir.resolve('application.bprops')).withCloseable {
+            MappedPropertySourceWriter.write([app: [
+                    hosts: ['a', '${random.shortuuid}'],
+                    servers: [[tags: ['x', '${random.shortuuid}']]]
+            ]], it)
+        }
+        MappedPropertySource source = new MappedPropertySourceLoader().load('application', new DefaultFileSystemResourceLoader(tempDir)).get()
+
+        when:
+        def resolver = new PropertySourcePropertyResolver(source)
+        String host = resolver.getProperty('app.hosts[1]', String).get()
+        String tag = resolver.getProperty('app.servers[0].tags[1]', String).get()
+
+        then:
+        !host.contains('random')
+        resolver.getProperty('app.hosts', List).get() == ['a', host]
+        !tag.contains('random')
+        resolver.getProperty('app.servers[0].tags', List).get() == ['x', tag]
+    }
+
+    void "test mapped property sources take precedence over the property sources processed before them"() {
+        given:
+        Files.newOutputStream(tempDir.resolve('application.bprops')).withCloseable {
+            MappedPropertySourceWriter.write([app: [name: 'mapped']], it)
+        }
+        MappedPropertySource source = new MappedPropertySourceLoader().load('application', new DefaultFileSystemResourceLoader(tempDir)).get()
+        def resolver = new PropertySourcePropertyResolver(
+                PropertySource.of('other', ['app.name': 'other', 'app.size': 5]),
+                source
+        )
+
+        expect:
+        resolver.getProperty('app.name', String).get() == 'mapped'
+        resolver.getProperty('app.size', Integer).get() == 5
+    }
+
+    void "test mapped values are bound to maps"() {
+        given:
+        Files.newOutputStream(tempDir.resolve('application.bprops')).withCloseable {
+            MappedPropertySourceWriter.write([app: [flags: [one: true, two: false], name: 'mapped']], it)
+        }
+        MappedPropertySource source = new MappedPropertySourceLoader().load('application', new DefaultFileSystemResourceLoader(tempDir)).get()
+        def resolver = new PropertySourcePropertyResolver(source)
+
+        expect:
+        resolver.getProperty('app.flags', Argument.mapOf(String, Boolean)).get() == [one: true, two: false]
+        resolver.getProperty('app.flags', Properties).get() == [one: 'true', two: 'false']
+        resolver.getProperties('app') == ['flags.one': 'true', 'flags.two': 'false', name: 'mapped']
+        resolver.getProperty('app', PropertyResolver).get().getProperty('name', String).get() == 'mapped'
+    }
+
+    void "test converting a YAML file"() {
+        given:
+        Path yaml = tempDir.resolve('config.yml')
+        Path target = tempDir.resolve('config.bprops')
+        yaml.text = '''
+app:
+  name: converted
+  items:
+    - one
+    - two
+'''
+
+        when:
+        MappedPropertySourceWriter.main(yaml.toString(), target.toString())
+        def source = MappedPropertySource.of('config', 0, ByteBuffer.wrap(Files.readAllBytes(target)))
+
+        then:
+        source.get('app.name') == 'converted'
+        source.get('app.items') == ['one', 'two']
+    }
+}
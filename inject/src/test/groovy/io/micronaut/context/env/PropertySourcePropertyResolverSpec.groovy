@@ -641,4 +641,27 @@ class PropertySourcePropertyResolverSpec extends Specification {
         then:
         resolver.containsProperty("extra.listval")
     }
+
+    void "test lookups are memoized per type until the catalog changes"() {
+        given:
+        PropertySourcePropertyResolver resolver = new PropertySourcePropertyResolver(
+                PropertySource.of("test", ['foo.bar': '10'])
+        )
+
+        expect:"repeated lookups return the memoized value"
+        resolver.getProperty('foo.bar', Integer).is(resolver.getProperty('foo.bar', Integer))
+        resolver.getProperty('foo.bar', Integer).get() == 10
+        resolver.getProperty('foo.bar', String).get() == '10'
+        !resolver.getProperty('foo.baz', Integer).isPresent()
+        !resolver.containsProperty('foo.baz')
+
+        when:"a property source is added"
+        resolver.addPropertySource(PropertySource.of("other", ['foo.bar': '20', 'foo.baz': '30']))
+
+        then:"the lookups reflect the new catalog"
+        resolver.getProperty('foo.bar', Integer).get() == 20
+        resolver.getProperty('foo.bar', String).get() == '20'
+        resolver.getProperty('foo.baz', Integer).get() == 30
+        resolver.containsProperty('foo.baz')
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.management.endpoint.httpclient;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.annotation.SingleResult;
+import io.micronaut.http.client.pool.ConnectionPoolStatistics;
+import io.micronaut.http.client.pool.ConnectionPoolStatisticsProvider;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * <p>Exposes an {@link Endpoint} to display the connection pool statistics of the HTTP clients, such as the active
+ * and idle connections, pending acquires and acquire latency per client and host.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Endpoint("httpclients")
+@Requires(classes = ConnectionPoolStatisticsProvider.class)
+@Requires(beans = ConnectionPoolStatisticsProvider.class)
+public class HttpClientsEndpoint {
+
+    private final ConnectionPoolStatisticsProvider statisticsProvider;
+
+    /**
+     * @param statisticsProvider The {@link ConnectionPoolStatisticsProvider}
+     */
+    public HttpClientsEndpoint(ConnectionPoolStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    /**
+     * @return The connection pool statistics as a {@link Mono}
+     */
+    @Read
+    @SingleResult
+    public Publisher<List<ConnectionPoolStatistics>> getConnectionPools() {
+        return Mono.fromCallable(statisticsProvider::getConnectionPoolStatistics);
+    }
+}
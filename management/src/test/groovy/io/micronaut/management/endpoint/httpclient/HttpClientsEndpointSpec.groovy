@@ -0,0 +1,61 @@
+package io.micronaut.management.endpoint.httpclient
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.core.type.Argument
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.pool.ConnectionPoolKey
+import io.micronaut.http.client.pool.ConnectionPoolListener
+import io.micronaut.runtime.server.EmbeddedServer
+import jakarta.inject.Singleton
+import io.micronaut.context.annotation.Requires
+import spock.lang.Specification
+
+class HttpClientsEndpointSpec extends Specification {
+
+    void "test the connection pools of the HTTP clients are exposed"() {
+        given:
+        EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+                'spec.name': getClass().simpleName,
+                'endpoints.httpclients.sensitive': false,
+                'micronaut.http.client.pool.enabled': true
+        ], "test")
+        HttpClient client = embeddedServer.applicationContext.getBean(HttpClient)
+        CountingListener listener = embeddedServer.applicationContext.getBean(CountingListener)
+
+        when:
+        def response = client.toBlocking().exchange(HttpRequest.GET(embeddedServer.getURL().toString() + "/httpclients"), Argument.listOf(Map))
+        def result = response.body()
+
+        then:
+        response.code() == HttpStatus.OK.code
+        result.size() == 1
+        result[0].key.host == 'localhost'
+        result[0].key.port == embeddedServer.port
+        result[0].createdConnections == 1
+        result[0].pendingAcquires == 0
+        listener.created == 1
+        listener.acquired == 1
+
+        cleanup:
+        embeddedServer?.close()
+    }
+
+    @Singleton
+    @Requires(property = 'spec.name', value = 'HttpClientsEndpointSpec')
+    static class CountingListener implements ConnectionPoolListener {
+        int created
+        int acquired
+
+        @Override
+        void connectionCreated(ConnectionPoolKey pool) {
+            created++
+        }
+
+        @Override
+        void connectionAcquired(ConnectionPoolKey pool, long acquireTimeNanos) {
+            acquired++
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.micronaut.core.reflect.ClassUtils;
 import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.PathMatcher;
 import io.micronaut.core.util.SupplierUtil;
+import io.micronaut.core.util.Toggleable;
 import io.micronaut.http.*;
 import io.micronaut.http.annotation.Filter;
 import io.micronaut.http.annotation.FilterMatcher;
@@ -41,7 +42,8 @@ import java.util.stream.Stream;
 
 /**
  * <p>The default {@link Router} implementation. This implementation does not perform any additional caching of
- * route discovery.</p>
+ * route discovery. Routes are indexed per HTTP method by a segment trie so that only routes whose template could
+ * match the URI are evaluated.</p>
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -49,12 +51,19 @@ import java.util.stream.Stream;
 @Singleton
 public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatch<?>> {
 
+    private static final String ANY_PATH_SUFFIX = "/**";
+    private static final Comparator<FilterRoute> FILTER_ROUTE_COMPARATOR = (o1, o2) -> OrderUtil.COMPARATOR.compare(o1.getFilter(), o2.getFilter());
+
     private final Map<String, List<UriRoute>> routesByMethod = new HashMap<>();
+    private final Map<String, UriRouteIndex> routeIndexByMethod = new HashMap<>();
     private final List<StatusRoute> statusRoutes = new ArrayList<>();
     private final List<ErrorRoute> errorRoutes = new ArrayList<>();
     private final Set<Integer> exposedPorts;
     private final List<FilterRoute> alwaysMatchesFilterRoutes = new ArrayList<>();
     private final List<FilterRoute> preconditionFilterRoutes = new ArrayList<>();
+    // routes are compared by identity, their equals only compares the media types. Copy on write as the routes are
+    // known after the first requests and reads must not lock
+    private volatile Map<UriRoute, RouteFilterChain> routeFilterChains = Collections.emptyMap();
     private final Supplier<List<HttpFilter>> alwaysMatchesHttpFilters = SupplierUtil.memoized(() -> {
         if (alwaysMatchesFilterRoutes.isEmpty()) {
             return Collections.emptyList();
@@ -64,7 +73,7 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
             httpFilters.add(filterRoute.getFilter());
         }
         httpFilters.sort(OrderUtil.COMPARATOR);
-        return httpFilters;
+        return Collections.unmodifiableList(httpFilters);
     });
     
     /**
@@ -116,7 +125,11 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
             this.exposedPorts = Collections.emptySet();
         }
 
-        routesByMethod.values().forEach(this::finalizeRoutes);
+        for (Map.Entry<String, List<UriRoute>> entry : routesByMethod.entrySet()) {
+            List<UriRoute> routes = entry.getValue();
+            finalizeRoutes(routes);
+            routeIndexByMethod.put(entry.getKey(), new UriRouteIndex(routes));
+        }
         for (FilterRoute filterRoute : filterRoutes) {
             if (isMatchesAll(filterRoute)) {
                 alwaysMatchesFilterRoutes.add(filterRoute);
@@ -268,9 +281,15 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     @NonNull
     @Override
     public <T, R> Optional<UriRouteMatch<T, R>> route(@NonNull HttpMethod httpMethod, @NonNull CharSequence uri) {
-        List<UriRoute> routes = routesByMethod.getOrDefault(httpMethod.name(), Collections.emptyList());
-        for (UriRoute uriRoute : routes) {
-            Optional<UriRouteMatch> match = uriRoute.match(uri.toString());
+        UriRouteIndex index = routeIndexByMethod.get(httpMethod.name());
+        if (index == null) {
+            return Optional.empty();
+        }
+        final String uriStr = uri.toString();
+        List<UriRoute> routes = index.getRoutes();
+        BitSet candidates = index.candidates(uriStr);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Optional<UriRouteMatch> match = routes.get(i).match(uriStr);
             if (match.isPresent()) {
                 return (Optional) match;
             }
@@ -434,9 +453,17 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         if (preconditionFilterRoutes.isEmpty()) {
             return alwaysMatchesHttpFilters.get();
         }
+        RouteMatch routeMatch = (RouteMatch) request.getAttribute(HttpAttributes.ROUTE_MATCH).filter(o -> o instanceof RouteMatch).orElse(null);
+        if (routeMatch instanceof UriRouteMatch) {
+            UriRoute route = ((UriRouteMatch<?, ?>) routeMatch).getRoute();
+            RouteFilterChain filterChain = routeFilterChains.get(route);
+            if (filterChain == null) {
+                filterChain = cacheRouteFilterChain(route, resolveRouteFilterChain(routeMatch));
+            }
+            return filterChain.resolve(request);
+        }
         List<HttpFilter> httpFilters = new ArrayList<>(alwaysMatchesFilterRoutes.size() + preconditionFilterRoutes.size());
         httpFilters.addAll(alwaysMatchesHttpFilters.get());
-        RouteMatch routeMatch = (RouteMatch) request.getAttribute(HttpAttributes.ROUTE_MATCH).filter(o -> o instanceof RouteMatch).orElse(null);
         HttpMethod method = request.getMethod();
         URI uri = request.getUri();
         for (FilterRoute filterRoute : preconditionFilterRoutes) {
@@ -451,15 +478,115 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         return Collections.unmodifiableList(httpFilters);
     }
 
+    /**
+     * Caches the filter chain of the given route unless another thread cached one first.
+     *
+     * @param route       The route
+     * @param filterChain The resolved filter chain
+     * @return The cached filter chain
+     */
+    private synchronized RouteFilterChain cacheRouteFilterChain(UriRoute route, RouteFilterChain filterChain) {
+        RouteFilterChain existing = routeFilterChains.get(route);
+        if (existing != null) {
+            return existing;
+        }
+        Map<UriRoute, RouteFilterChain> filterChains = new IdentityHashMap<>(routeFilterChains);
+        filterChains.put(route, filterChain);
+        routeFilterChains = filterChains;
+        return filterChain;
+    }
+
+    /**
+     * Resolves the filters that may apply to the route of the given match. Filter matchers only depend on the
+     * route, so they are evaluated once. The result is sorted so that only the URI and method of the filters
+     * have to be checked per request.
+     *
+     * @param routeMatch The route match
+     * @return The filter chain for the route
+     */
+    private RouteFilterChain resolveRouteFilterChain(RouteMatch<?> routeMatch) {
+        List<FilterRoute> filterRoutes = new ArrayList<>(alwaysMatchesFilterRoutes.size() + preconditionFilterRoutes.size());
+        filterRoutes.addAll(alwaysMatchesFilterRoutes);
+        filterRoutes.sort(FILTER_ROUTE_COMPARATOR);
+        int alwaysMatchesCount = filterRoutes.size();
+        for (FilterRoute filterRoute : preconditionFilterRoutes) {
+            if (matchesFilterMatcher(filterRoute, routeMatch)) {
+                filterRoutes.add(filterRoute);
+            }
+        }
+        if (filterRoutes.size() == alwaysMatchesCount) {
+            return new RouteFilterChain(alwaysMatchesHttpFilters.get());
+        }
+        String routePrefix = routeMatch instanceof UriRouteMatch ? literalPrefix(((UriRouteMatch<?, ?>) routeMatch).getRoute()) : null;
+        Set<FilterRoute> preconditions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FilterRoute filterRoute : filterRoutes.subList(alwaysMatchesCount, filterRoutes.size())) {
+            if (routePrefix == null || !matchesEveryUri(filterRoute, routePrefix)) {
+                preconditions.add(filterRoute);
+            }
+        }
+        // stable sort, keeps the order of filters with the same precedence
+        filterRoutes.sort(FILTER_ROUTE_COMPARATOR);
+        if (preconditions.isEmpty()) {
+            List<HttpFilter> httpFilters = new ArrayList<>(filterRoutes.size());
+            for (FilterRoute filterRoute : filterRoutes) {
+                httpFilters.add(filterRoute.getFilter());
+            }
+            return new RouteFilterChain(Collections.unmodifiableList(httpFilters));
+        }
+        FilterRoute[] routes = filterRoutes.toArray(new FilterRoute[0]);
+        boolean[] conditional = new boolean[routes.length];
+        for (int i = 0; i < routes.length; i++) {
+            conditional[i] = preconditions.contains(routes[i]);
+        }
+        return new RouteFilterChain(routes, conditional);
+    }
+
+    /**
+     * @param route The route
+     * @return The part of the URI template of the route before the first variable
+     */
+    private static String literalPrefix(UriRoute route) {
+        String template = route.getUriMatchTemplate().toString();
+        int i = template.indexOf('{');
+        return i > -1 ? template.substring(0, i) : template;
+    }
+
+    /**
+     * Whether the given filter route matches every URI of a route, so that it does not have to be matched per
+     * request. This is the case for a filter that is not restricted to methods, cannot be toggled and has a
+     * {@code /prefix/**} pattern whose prefix is a parent of the literal prefix of the route.
+     *
+     * @param filterRoute The filter route
+     * @param routePrefix The literal prefix of the URI template of the route
+     * @return True if the filter matches every URI of the route
+     */
+    private static boolean matchesEveryUri(FilterRoute filterRoute, String routePrefix) {
+        if (filterRoute.hasMethods() || !filterRoute.hasPatterns() || filterRoute.getFilter() instanceof Toggleable) {
+            return false;
+        }
+        for (String pattern : filterRoute.getPatterns()) {
+            if (pattern.endsWith(ANY_PATH_SUFFIX)) {
+                String prefix = pattern.substring(0, pattern.length() - ANY_PATH_SUFFIX.length() + 1);
+                if (prefix.indexOf('*') == -1 && prefix.indexOf('?') == -1 && prefix.indexOf('{') == -1 &&
+                        routePrefix.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     @NonNull
     @Override
     public <T, R> Stream<UriRouteMatch<T, R>> findAny(@NonNull CharSequence uri, @Nullable HttpRequest<?> context) {
         List matchedRoutes = new ArrayList<>(5);
         final String uriStr = uri.toString();
-        for (List<UriRoute> routes : routesByMethod.values()) {
-            for (UriRoute route : routes) {
-                final UriRouteMatch match = route.match(uriStr).orElse(null);
+        for (UriRouteIndex index : routeIndexByMethod.values()) {
+            List<UriRoute> routes = index.getRoutes();
+            BitSet candidates = index.candidates(uriStr);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                final UriRouteMatch match = routes.get(i).match(uriStr).orElse(null);
                 if (match != null && match.test(context)) {
                     matchedRoutes.add(match);
                 }
@@ -469,12 +596,14 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     }
 
     private <T, R> List<UriRouteMatch<T, R>> find(String httpMethodName, CharSequence uri, @Nullable Predicate<UriRouteMatch> predicate) {
-        List<UriRoute> routes = routesByMethod.getOrDefault(httpMethodName, Collections.emptyList());
-        if (CollectionUtils.isNotEmpty(routes)) {
+        UriRouteIndex index = routeIndexByMethod.get(httpMethodName);
+        if (index != null) {
             final String uriStr = uri.toString();
+            List<UriRoute> routes = index.getRoutes();
+            BitSet candidates = index.candidates(uriStr);
             List<UriRouteMatch<T, R>> routeMatches = new LinkedList<>();
-            for (UriRoute route : routes) {
-                Optional<UriRouteMatch> match = route.match(uriStr);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Optional<UriRouteMatch> match = routes.get(i).match(uriStr);
                 if (predicate != null) {
                     match = match.filter(predicate);
                 }
@@ -487,9 +616,8 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         }
     }
 
-    private UriRoute[] finalizeRoutes(List<UriRoute> routes) {
+    private void finalizeRoutes(List<UriRoute> routes) {
         Collections.sort(routes);
-        return routes.toArray(new UriRoute[0]);
     }
 
     private <T> Optional<RouteMatch<T>> findRouteMatch(Map<ErrorRoute, RouteMatch<T>> matchedRoutes, Throwable error) {
@@ -578,4 +706,55 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         }
         return matches;
     }
+
+    /**
+     * The pre-sorted filters of a route. Filters with a precondition that cannot be decided for the whole route are
+     * only added if they match the request, if there are none the filters are resolved once.
+     */
+    private static final class RouteFilterChain {
+        private final FilterRoute[] filterRoutes;
+        private final boolean[] conditional;
+        private final List<HttpFilter> filters;
+
+        /**
+         * @param filters The filters that apply to every request of the route
+         */
+        RouteFilterChain(List<HttpFilter> filters) {
+            this.filterRoutes = null;
+            this.conditional = null;
+            this.filters = filters;
+        }
+
+        /**
+         * @param filterRoutes The sorted filter routes
+         * @param conditional  Whether the filter route at the same index has to be matched against the request
+         */
+        RouteFilterChain(FilterRoute[] filterRoutes, boolean[] conditional) {
+            this.filterRoutes = filterRoutes;
+            this.conditional = conditional;
+            this.filters = null;
+        }
+
+        /**
+         * @param request The request
+         * @return The filters for the request
+         */
+        List<HttpFilter> resolve(HttpRequest<?> request) {
+            if (filters != null) {
+                return filters;
+            }
+            HttpMethod method = request.getMethod();
+            URI uri = request.getUri();
+            List<HttpFilter> httpFilters = new ArrayList<>(filterRoutes.length);
+            for (int i = 0; i < filterRoutes.length; i++) {
+                FilterRoute filterRoute = filterRoutes[i];
+                if (conditional[i]) {
+                    filterRoute.match(method, uri).ifPresent(httpFilters::add);
+                } else {
+                    httpFilters.add(filterRoute.getFilter());
+                }
+            }
+            return Collections.unmodifiableList(httpFilters);
+        }
+    }
 }
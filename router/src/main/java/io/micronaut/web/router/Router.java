@@ -234,7 +234,8 @@ public interface Router {
             HttpRequest<?> request);
 
     /**
-     * Build a filtered {@link org.reactivestreams.Publisher} for an action.
+     * Build a filtered {@link org.reactivestreams.Publisher} for an action. The returned list may be shared between
+     * requests and cannot be modified.
      *
      * @param request The request
      * @return A new filtered publisher
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <p>A segment trie over a list of {@link UriRoute} instances that narrows down the routes that could match a
+ * given URI without running the regular expression of every route.</p>
+ *
+ * <p>Each template is split into path segments which are indexed as literal, variable ({@code {var}}), regex
+ * constrained variable ({@code {var:regex}}) or tail nodes. A tail node is used for templates that consume the
+ * remainder of the path (for example {@code {/path:.*}} or {@code {+path}}) and for any segment the index cannot
+ * reason about, in which case all further matching is left to the route itself. Templates that cannot be indexed
+ * at all are always returned as candidates.</p>
+ *
+ * <p>The index only produces candidates, the returned routes still have to be matched with
+ * {@link UriRoute#match(String)}. Candidates are returned in the order of the list the index was built from,
+ * so the route precedence is unchanged.</p>
+ *
+ * @author graemerocher
+ * @since 3.0.2
+ */
+@Internal
+final class UriRouteIndex {
+
+    private static final char SLASH = '/';
+    private static final char VAR_START = '{';
+    private static final char VAR_END = '}';
+
+    private final List<UriRoute> routes;
+    private final Node root = new Node();
+    private final BitSet fallback = new BitSet();
+
+    /**
+     * Builds the index for the given routes. The index refers to routes by their position so that routes replaced
+     * in place (see {@link DefaultRouter#applyDefaultPorts(List)}) remain valid.
+     *
+     * @param routes The sorted routes
+     */
+    UriRouteIndex(@NonNull List<UriRoute> routes) {
+        this.routes = routes;
+        for (int i = 0; i < routes.size(); i++) {
+            if (!index(routes.get(i).getUriMatchTemplate().toString(), i)) {
+                fallback.set(i);
+            }
+        }
+        root.freeze();
+    }
+
+    /**
+     * @return The indexed routes
+     */
+    @NonNull
+    List<UriRoute> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Finds the positions of the routes that could match the given URI.
+     *
+     * @param uri The URI
+     * @return The positions of the candidate routes, in route precedence order
+     */
+    @NonNull
+    BitSet candidates(@NonNull String uri) {
+        int length = uri.length();
+        // mirror the normalization of UriMatchTemplate#match
+        if (length > 1 && uri.charAt(length - 1) == SLASH) {
+            length--;
+        }
+        int parameterIndex = uri.indexOf('?');
+        if (parameterIndex > -1 && parameterIndex < length) {
+            length = parameterIndex;
+        }
+        if (length > 1 && uri.charAt(length - 1) == SLASH) {
+            length--;
+        }
+        BitSet candidates = new BitSet(routes.size());
+        if (length == 0 || uri.charAt(0) != SLASH) {
+            candidates.set(0, routes.size());
+            return candidates;
+        }
+        candidates.or(fallback);
+        root.collect(uri, 1, length, candidates);
+        return candidates;
+    }
+
+    private boolean index(String template, int position) {
+        String path = stripQueryExpressions(template);
+        if (path == null || path.isEmpty() || path.charAt(0) != SLASH) {
+            return false;
+        }
+        Node node = root;
+        int length = path.length();
+        if (length == 1) {
+            node.terminal.add(position);
+            return true;
+        }
+        int start = 1;
+        while (start <= length) {
+            int end = segmentEnd(path, start);
+            if (end < 0) {
+                return false;
+            }
+            String segment = path.substring(start, end);
+            Node child = node.child(segment);
+            if (child == null) {
+                node.tails.add(position);
+                return true;
+            }
+            node = child;
+            start = end + 1;
+        }
+        node.terminal.add(position);
+        return true;
+    }
+
+    /**
+     * Query, fragment and path-style parameter expressions do not take part in matching, see
+     * {@link io.micronaut.http.uri.UriMatchTemplate}, so they are removed before indexing.
+     *
+     * @param template The template
+     * @return The template without query expressions or {@code null} if the template is malformed
+     */
+    @Nullable
+    private static String stripQueryExpressions(String template) {
+        if (template.indexOf(VAR_START) < 0) {
+            return template;
+        }
+        StringBuilder builder = new StringBuilder(template.length());
+        int i = 0;
+        int length = template.length();
+        while (i < length) {
+            char c = template.charAt(i);
+            if (c == VAR_START) {
+                int end = template.indexOf(VAR_END, i);
+                if (end < 0) {
+                    return null;
+                }
+                char operator = end > i + 1 ? template.charAt(i + 1) : VAR_END;
+                if (operator != '?' && operator != '&' && operator != '#' && operator != ';') {
+                    builder.append(template, i, end + 1);
+                }
+                i = end + 1;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int i = start;
+        int length = path.length();
+        while (i < length) {
+            char c = path.charAt(i);
+            if (c == SLASH) {
+                return i;
+            } else if (c == VAR_START) {
+                int end = path.indexOf(VAR_END, i);
+                if (end < 0) {
+                    return -1;
+                }
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Whether the given regular expression can only ever match within a single path segment. This is a conservative
+     * check, expressions that may match a forward slash are indexed as tails.
+     *
+     * @param regex The regex
+     * @return True if the regex cannot match a slash
+     */
+    private static boolean isSegmentRegex(String regex) {
+        String stripped = regex.replace("\\d", "").replace("\\w", "");
+        return stripped.indexOf('.') < 0 &&
+                stripped.indexOf('\\') < 0 &&
+                stripped.indexOf('/') < 0 &&
+                !stripped.contains("[^");
+    }
+
+    /**
+     * A node in the segment trie.
+     */
+    private static final class Node {
+        private Map<String, Node> literals = new HashMap<>(4);
+        private Node variable;
+        private Map<String, Node> regexes = new LinkedHashMap<>(2);
+        private Pattern pattern;
+        private List<Integer> terminal = new ArrayList<>(1);
+        private List<Integer> tails = new ArrayList<>(1);
+        private int[] terminalPositions;
+        private int[] tailPositions;
+        private Node[] regexNodes;
+
+        /**
+         * Resolves the child node for the given template segment.
+         *
+         * @param segment The template segment
+         * @return The node or {@code null} if the segment cannot be indexed
+         */
+        @Nullable
+        Node child(String segment) {
+            int varStart = segment.indexOf(VAR_START);
+            if (varStart < 0) {
+                return literals.computeIfAbsent(segment, s -> new Node());
+            }
+            int varEnd = segment.indexOf(VAR_END);
+            if (varStart != 0 || varEnd != segment.length() - 1 || segment.length() < 3) {
+                // mixed literal and variable content
+                return null;
+            }
+            String expression = segment.substring(1, varEnd);
+            char operator = expression.charAt(0);
+            if (operator == '+' || operator == '.' || operator == SLASH || expression.indexOf(',') > -1) {
+                return null;
+            }
+            int modifierIndex = expression.indexOf(':');
+            if (modifierIndex < 0) {
+                if (variable == null) {
+                    variable = new Node();
+                }
+                return variable;
+            }
+            String modifier = expression.substring(modifierIndex + 1).trim();
+            if (modifier.isEmpty() || modifier.chars().allMatch(Character::isDigit)) {
+                if (variable == null) {
+                    variable = new Node();
+                }
+                return variable;
+            }
+            if (modifier.charAt(0) == '^') {
+                modifier = modifier.substring(1);
+            }
+            if (modifier.charAt(0) == '?' || !isSegmentRegex(modifier)) {
+                return null;
+            }
+            final String regex = modifier;
+            return regexes.computeIfAbsent(regex, r -> {
+                Node node = new Node();
+                node.pattern = Pattern.compile(r);
+                return node;
+            });
+        }
+
+        /**
+         * Converts the mutable build state into arrays.
+         */
+        void freeze() {
+            terminalPositions = terminal.stream().mapToInt(Integer::intValue).toArray();
+            tailPositions = tails.stream().mapToInt(Integer::intValue).toArray();
+            regexNodes = regexes.values().toArray(new Node[0]);
+            terminal = null;
+            tails = null;
+            regexes = null;
+            for (Node node : literals.values()) {
+                node.freeze();
+            }
+            if (variable != null) {
+                variable.freeze();
+            }
+            for (Node node : regexNodes) {
+                node.freeze();
+            }
+        }
+
+        /**
+         * Collects the candidates for the path starting at the given index.
+         *
+         * @param uri        The URI
+         * @param start      The start of the next segment
+         * @param length     The length of the normalized URI
+         * @param candidates The candidates
+         */
+        void collect(String uri, int start, int length, BitSet candidates) {
+            for (int position : tailPositions) {
+                candidates.set(position);
+            }
+            if (start > length) {
+                for (int position : terminalPositions) {
+                    candidates.set(position);
+                }
+                return;
+            }
+            int end = uri.indexOf(SLASH, start);
+            if (end < 0 || end > length) {
+                end = length;
+            }
+            if (start == length && start == 1) {
+                // the root URI has no segments
+                for (int position : terminalPositions) {
+                    candidates.set(position);
+                }
+                return;
+            }
+            String segment = uri.substring(start, end);
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                literal.collect(uri, end + 1, length, candidates);
+            }
+            if (variable != null && !segment.isEmpty()) {
+                variable.collect(uri, end + 1, length, candidates);
+            }
+            for (Node node : regexNodes) {
+                if (node.pattern.matcher(segment).matches()) {
+                    node.collect(uri, end + 1, length, candidates);
+                }
+            }
+        }
+    }
+}
@@ -22,11 +22,18 @@ import io.micronaut.core.util.PathMatcher;
 import io.micronaut.core.util.StringUtils;
 import jakarta.inject.Singleton;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Resolves resources from a set of resource loaders.
@@ -38,8 +45,10 @@ import java.util.Optional;
 public class StaticResourceResolver {
 
     private static final String INDEX_PAGE = "index.html";
+    private static final String FILE_PROTOCOL = "file";
     private final AntPathMatcher pathMatcher;
     private final Map<String, List<ResourceLoader>> resourceMappings = new LinkedHashMap<>();
+    private final Map<String, Boolean> precompressedResources = new ConcurrentHashMap<>();
 
     /**
      * Default constructor.
@@ -98,4 +107,38 @@ public class StaticResourceResolver {
 
         return Optional.empty();
     }
+
+    /**
+     * Resolves a precompressed variant of a resource, which is a sibling of the resource with the same name
+     * followed by the extension of the encoding. For example {@code app.js.br} for {@code app.js}. Variants found on
+     * the file system are looked up on every call, the presence of other variants, such as classpath resources,
+     * is cached as they cannot change.
+     *
+     * @param resource  A resource returned by {@link #resolve(String)}
+     * @param extension The extension of the encoding including the dot, for example {@code .br} or {@code .gz}
+     * @return The optional URL of the precompressed variant
+     * @since 3.0.2
+     */
+    public Optional<URL> resolvePrecompressed(URL resource, String extension) {
+        String location = resource.toExternalForm() + extension;
+        try {
+            URL variant = new URL(location);
+            if (FILE_PROTOCOL.equals(variant.getProtocol())) {
+                File file = Paths.get(variant.toURI()).toFile();
+                return file.isFile() && file.canRead() ? Optional.of(variant) : Optional.empty();
+            }
+            Boolean present = precompressedResources.computeIfAbsent(location, l -> exists(variant));
+            return present ? Optional.of(variant) : Optional.empty();
+        } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean exists(URL url) {
+        try (InputStream ignored = url.openStream()) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
 }
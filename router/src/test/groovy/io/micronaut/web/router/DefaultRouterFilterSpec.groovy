@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.ExecutionHandleLocator
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.AnnotationMetadata
+import io.micronaut.core.order.Ordered
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.filter.FilterChain
+import io.micronaut.http.filter.HttpFilter
+import io.micronaut.http.uri.UriMatchTemplate
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+class DefaultRouterFilterSpec extends Specification {
+
+    void "test filters are resolved per route and matched against the request path"() {
+        given:
+        HttpFilter all = new OrderedFilter(10)
+        HttpFilter books = new OrderedFilter(5)
+        HttpFilter authors = new OrderedFilter(1)
+        DefaultRouteBuilder builder = new DefaultRouteBuilder(ExecutionHandleLocator.EMPTY) {}
+        builder.addFilter("/**", { all })
+        builder.addFilter("/books/**", { books })
+        builder.addFilter("/authors/**", { authors })
+        DefaultRouter router = new DefaultRouter(builder)
+        UriRouteMatch routeMatch = routeMatch("/{+path}")
+
+        expect:
+        router.findFilters(request("/books/1", routeMatch)) == [books, all]
+        router.findFilters(request("/authors/1", routeMatch)) == [authors, all]
+        router.findFilters(request("/other", routeMatch)) == [all]
+        router.findFilters(HttpRequest.GET("/books/1")) == [books, all]
+    }
+
+    void "test the filters of a route are resolved once if the patterns match the whole route"() {
+        given:
+        HttpFilter all = new OrderedFilter(10)
+        HttpFilter books = new OrderedFilter(5)
+        HttpFilter authors = new OrderedFilter(1)
+        DefaultRouteBuilder builder = new DefaultRouteBuilder(ExecutionHandleLocator.EMPTY) {}
+        builder.addFilter("/**", { all })
+        builder.addFilter("/books/**", { books })
+        builder.addFilter("/authors/**", { authors })
+        DefaultRouter router = new DefaultRouter(builder)
+        UriRouteMatch routeMatch = routeMatch("/books/{id}")
+        List<HttpFilter> filters = router.findFilters(request("/books/1", routeMatch))
+
+        expect:
+        filters == [books, all]
+        router.findFilters(request("/books/2", routeMatch)).is(filters)
+
+        when:
+        filters.add(authors)
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    void "test the filters that match every request cannot be modified"() {
+        given:
+        DefaultRouteBuilder builder = new DefaultRouteBuilder(ExecutionHandleLocator.EMPTY) {}
+        builder.addFilter("/**", { new OrderedFilter(10) })
+        DefaultRouter router = new DefaultRouter(builder)
+
+        when:
+        router.findFilters(HttpRequest.GET("/books/1")).clear()
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    void "test routes that are equal by their media types keep their own filters"() {
+        given:
+        ApplicationContext context = ApplicationContext.run('spec.name': 'DefaultRouterFilterSpec')
+        Router router = context.getBean(Router)
+        UriRouteMatch books = router.GET('/filtered/books/1').get()
+        UriRouteMatch authors = router.GET('/filtered/authors/1').get()
+        HttpFilter booksFilter = context.getBean(BooksFilter)
+        HttpFilter authorsFilter = context.getBean(AuthorsFilter)
+
+        expect:"the routes are equal, so the filter chains must not be cached by equality"
+        books.route == authors.route
+        router.findFilters(request('/filtered/books/1', books)) == [booksFilter]
+        router.findFilters(request('/filtered/authors/1', authors)) == [authorsFilter]
+        router.findFilters(request('/filtered/books/2', books)) == [booksFilter]
+
+        cleanup:
+        context.close()
+    }
+
+    private UriRouteMatch routeMatch(String template) {
+        UriRoute route = Stub(UriRoute) {
+            getUriMatchTemplate() >> UriMatchTemplate.of(template)
+        }
+        return Stub(UriRouteMatch) {
+            getRoute() >> route
+            getAnnotationMetadata() >> AnnotationMetadata.EMPTY_METADATA
+        }
+    }
+
+    private static HttpRequest<?> request(String uri, RouteMatch<?> routeMatch) {
+        HttpRequest.GET(uri).setAttribute(HttpAttributes.ROUTE_MATCH, routeMatch)
+    }
+
+    static class OrderedFilter implements HttpFilter, Ordered {
+        final int order
+
+        OrderedFilter(int order) {
+            this.order = order
+        }
+
+        @Override
+        Publisher<? extends HttpResponse<?>> doFilter(HttpRequest<?> request, FilterChain chain) {
+            return null
+        }
+    }
+
+    @Controller('/filtered')
+    @Requires(property = 'spec.name', value = 'DefaultRouterFilterSpec')
+    static class FilteredController {
+
+        @Get('/books/{id}')
+        String book(String id) {
+            id
+        }
+
+        @Get('/authors/{id}')
+        String author(String id) {
+            id
+        }
+    }
+
+    @Filter('/filtered/books/**')
+    @Requires(property = 'spec.name', value = 'DefaultRouterFilterSpec')
+    static class BooksFilter extends OrderedFilter {
+        BooksFilter() {
+            super(1)
+        }
+    }
+
+    @Filter('/filtered/authors/**')
+    @Requires(property = 'spec.name', value = 'DefaultRouterFilterSpec')
+    static class AuthorsFilter extends OrderedFilter {
+        AuthorsFilter() {
+            super(1)
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router
+
+import io.micronaut.http.uri.UriMatchTemplate
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UriRouteIndexSpec extends Specification {
+
+    static final List<String> TEMPLATES = [
+            "/",
+            "/books",
+            "/books/{id}",
+            "/books/{id:[0-9]+}",
+            "/books/{id}/authors",
+            "/books/list{?max,offset}",
+            "/books/{id}{.ext}",
+            "/static{/path:.*}",
+            "/x/{a}-{b}",
+            "/x/{id:\\d+}/y",
+            "/files/{+path}",
+            "/{name}"
+    ]
+
+    @Unroll
+    void "test the index returns every route matching #uri"() {
+        given:
+        List<UriMatchTemplate> templates = TEMPLATES.collect { UriMatchTemplate.of(it) }
+        List<UriRoute> routes = templates.collect { template ->
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> template
+            }
+        }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        when:
+        BitSet candidates = index.candidates(uri)
+        List<String> matching = TEMPLATES.findAll { UriMatchTemplate.of(it).match(uri).isPresent() }
+        List<String> found = TEMPLATES.findAll { candidates.get(TEMPLATES.indexOf(it)) }
+
+        then:
+        found.containsAll(matching)
+        !found.containsAll(TEMPLATES)
+
+        where:
+        uri << ["/", "/books", "/books/", "/books/1", "/books/abc/authors", "/books/list?max=10",
+                "/books/1.json", "/static/js/app.js", "/x/1-2", "/x/12/y", "/files/a/b/c", "/other"]
+    }
+
+    void "test literal and variable segments narrow down candidates"() {
+        given:
+        List<UriRoute> routes = ["/books", "/books/{id}", "/authors/{id}", "/authors/{id:[0-9]+}/books"].collect { t ->
+            UriMatchTemplate template = UriMatchTemplate.of(t)
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> template
+            }
+        }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        expect:
+        index.candidates("/books") == bits(0)
+        index.candidates("/books/1") == bits(1)
+        index.candidates("/authors/1") == bits(2)
+        index.candidates("/authors/1/books") == bits(3)
+        index.candidates("/authors/abc/books").isEmpty()
+        index.candidates("/unknown").isEmpty()
+    }
+
+    void "test templates that cannot be indexed are always candidates"() {
+        given:
+        UriMatchTemplate template = UriMatchTemplate.of("http://localhost/books")
+        UriRouteIndex index = new UriRouteIndex([Stub(UriRoute) { getUriMatchTemplate() >> template }])
+
+        expect:
+        index.candidates("/anything") == bits(0)
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bitSet = new BitSet()
+        positions.each { bitSet.set(it) }
+        return bitSet
+    }
+}
@@ -15,19 +15,28 @@
  */
 package io.micronaut.runtime.context.scope
 
+import io.micronaut.aop.InterceptedProxy
+import io.micronaut.aop.Interceptor
+import io.micronaut.aop.chain.MethodInterceptorChain
 import io.micronaut.context.ApplicationContext
 import io.micronaut.context.annotation.ConfigurationProperties
 import io.micronaut.context.annotation.Value
 import io.micronaut.context.env.Environment
+import io.micronaut.context.env.PropertySource
 import io.micronaut.core.util.StringUtils
+import io.micronaut.inject.ExecutableMethod
 import io.micronaut.inject.qualifiers.Qualifiers
 import io.micronaut.runtime.context.scope.refresh.RefreshEvent
+import io.micronaut.runtime.context.scope.refresh.RefreshInterceptor
 import io.micronaut.runtime.context.scope.refresh.RefreshScope
 import io.micronaut.scheduling.TaskExecutors
+import jakarta.annotation.PreDestroy
 import spock.lang.Specification
 import spock.util.environment.RestoreSystemProperties
 
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * @author Graeme Rocher
@@ -90,7 +99,7 @@ class RefreshScopeSpec extends Specification {
         bean.testValue() == 'test'
         bean.testConfigProps() == 'test'
         refreshScope.refreshableBeans.size() == 1
-        refreshScope.locks.size() == 1
+        refreshScope.instances.size() == 1
 
         when:
         System.setProperty("foo.bar", "bar")
@@ -98,11 +107,11 @@ class RefreshScopeSpec extends Specification {
         environment.refresh()
         beanContext.publishEvent(new RefreshEvent())
 
-        then:
+        then:"the destroyed bean is kept until the next refresh"
         bean.testValue() == 'bar'
         bean.testConfigProps() == 'bar'
         refreshScope.refreshableBeans.size() == 1
-        refreshScope.locks.size() == 1
+        refreshScope.instances.size() == 2
 
         cleanup:
         beanContext?.stop()
@@ -143,6 +152,176 @@ class RefreshScopeSpec extends Specification {
         beanContext?.stop()
     }
 
+    void "test incremental changes only refresh beans with an intersecting prefix"() {
+        given:
+        PropertySource original = PropertySource.of("config-server", ['foo.bar': 'test', 'foobar.baz': 'one'])
+        ApplicationContext beanContext = ApplicationContext.builder()
+                .propertySources(original)
+                .start()
+
+        // override IO executor with synchronous impl
+        beanContext.registerSingleton(Executor.class, new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }, Qualifiers.byName(TaskExecutors.IO))
+        Environment environment = beanContext.getEnvironment()
+
+        when:
+        RefreshBean2 bean = beanContext.getBean(RefreshBean2)
+        int hashCode = bean.hashCode()
+        PropertySource unrelated = PropertySource.of("config-server", ['foo.bar': 'test', 'foobar.baz': 'two'])
+        Map<String, Object> diff = environment.refreshAndDiff(unrelated.changesSince(original))
+        beanContext.publishEvent(new RefreshEvent(diff))
+
+        then:
+        diff == ['foobar.baz': 'one']
+        bean.hashCode() == hashCode
+        bean.testValue() == 'test'
+
+        when:
+        PropertySource related = PropertySource.of("config-server", ['foo.bar': 'changed', 'foobar.baz': 'two'])
+        diff = environment.refreshAndDiff(related.changesSince(unrelated))
+        beanContext.publishEvent(new RefreshEvent(diff))
+
+        then:
+        diff == ['foo.bar': 'test']
+        bean.hashCode() != hashCode
+        bean.testValue() == 'changed'
+        bean.testConfigProps() == 'changed'
+
+        cleanup:
+        beanContext?.stop()
+    }
+
+    void "test a refresh destroys a bean once the calls in flight complete"() {
+        given:
+        ApplicationContext beanContext = ApplicationContext.builder().start()
+
+        // override IO executor with synchronous impl
+        beanContext.registerSingleton(Executor.class, new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }, Qualifiers.byName(TaskExecutors.IO))
+        RefreshScope refreshScope = beanContext.getBean(RefreshScope.class)
+        SlowBean bean = beanContext.getBean(SlowBean)
+        CountDownLatch entered = new CountDownLatch(1)
+        CountDownLatch release = new CountDownLatch(1)
+        SlowBean.DESTROYED.set(0)
+
+        when:
+        Thread thread = Thread.start { bean.await(entered, release) }
+        entered.await()
+        beanContext.publishEvent(new RefreshEvent())
+
+        then:
+        SlowBean.DESTROYED.get() == 0
+        refreshScope.refreshableBeans.isEmpty()
+        refreshScope.instances.size() == 1
+
+        when:
+        release.countDown()
+        thread.join()
+
+        then:"the destroyed bean is kept until the next refresh"
+        SlowBean.DESTROYED.get() == 1
+        refreshScope.instances.size() == 1
+        refreshScope.instances.values().first().isDestroyed()
+
+        when:
+        bean.await(new CountDownLatch(1), new CountDownLatch(0))
+
+        then:
+        refreshScope.refreshableBeans.size() == 1
+        refreshScope.instances.size() == 2
+        SlowBean.DESTROYED.get() == 1
+
+        when:
+        beanContext.publishEvent(new RefreshEvent())
+
+        then:
+        SlowBean.DESTROYED.get() == 2
+        refreshScope.instances.size() == 1
+
+        cleanup:
+        beanContext?.stop()
+    }
+
+    void "test a call to a bean that a refresh destroyed after the call resolved it is invoked on the new bean"() {
+        given:
+        ApplicationContext beanContext = ApplicationContext.builder().start()
+
+        // override IO executor with synchronous impl
+        beanContext.registerSingleton(Executor.class, new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }, Qualifiers.byName(TaskExecutors.IO))
+        RefreshInterceptor refreshInterceptor = beanContext.getBean(RefreshInterceptor)
+        SlowBean bean = beanContext.getBean(SlowBean)
+        ExecutableMethod<SlowBean, SlowBean> self = beanContext.getProxyTargetBeanDefinition(SlowBean, null)
+                .getRequiredMethod("self")
+        SlowBean target = ((InterceptedProxy<SlowBean>) bean).interceptedTarget()
+        SlowBean.DESTROYED.set(0)
+
+        when:"a refresh destroys the bean after the proxy resolved it"
+        beanContext.publishEvent(new RefreshEvent())
+        SlowBean invoked = new MethodInterceptorChain<SlowBean, SlowBean>([refreshInterceptor] as Interceptor[], target, self).proceed()
+
+        then:"the call is invoked on the new bean"
+        SlowBean.DESTROYED.get() == 1
+        !invoked.is(target)
+        invoked.is(((InterceptedProxy<SlowBean>) bean).interceptedTarget())
+        bean.self().is(invoked)
+
+        cleanup:
+        beanContext?.stop()
+    }
+
+    void "test a refresh keeps a retired bean apart from an equal new bean"() {
+        given:
+        ApplicationContext beanContext = ApplicationContext.builder().start()
+
+        // override IO executor with synchronous impl
+        beanContext.registerSingleton(Executor.class, new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }, Qualifiers.byName(TaskExecutors.IO))
+        RefreshScope refreshScope = beanContext.getBean(RefreshScope.class)
+        EqualBean bean = beanContext.getBean(EqualBean)
+        EqualBean.DESTROYED.set(0)
+        EqualBean retired = ((InterceptedProxy<EqualBean>) bean).interceptedTarget()
+
+        when:"a call is in flight on the bean when it is refreshed"
+        def retiredBean = refreshScope.enter(retired)
+        beanContext.publishEvent(new RefreshEvent())
+        EqualBean created = ((InterceptedProxy<EqualBean>) bean).interceptedTarget()
+        def createdBean = refreshScope.enter(created)
+
+        then:
+        created == retired
+        !created.is(retired)
+        createdBean.bean.is(created)
+        EqualBean.DESTROYED.get() == 0
+
+        when:
+        createdBean.exit()
+        retiredBean.exit()
+
+        then:"only the retired bean is destroyed"
+        EqualBean.DESTROYED.get() == 1
+        refreshScope.enter(created).bean.is(created)
+
+        cleanup:
+        beanContext?.stop()
+    }
+
     void "test refresh event includes external files"() {
         File file = File.createTempFile("temp-config", ".yml")
         file.write("foo.bar: test")
@@ -270,6 +449,47 @@ class RefreshScopeSpec extends Specification {
         }
     }
 
+    @Refreshable
+    static class SlowBean {
+
+        static final AtomicInteger DESTROYED = new AtomicInteger()
+
+        void await(CountDownLatch entered, CountDownLatch release) {
+            entered.countDown()
+            release.await()
+        }
+
+        SlowBean self() {
+            return this
+        }
+
+        @PreDestroy
+        void close() {
+            DESTROYED.incrementAndGet()
+        }
+    }
+
+    @Refreshable
+    static class EqualBean {
+
+        static final AtomicInteger DESTROYED = new AtomicInteger()
+
+        @Override
+        boolean equals(Object o) {
+            return o instanceof EqualBean
+        }
+
+        @Override
+        int hashCode() {
+            return 1
+        }
+
+        @PreDestroy
+        void close() {
+            DESTROYED.incrementAndGet()
+        }
+    }
+
     @ConfigurationProperties('foo')
     static class MyConfig {
         String bar
@@ -99,6 +99,18 @@ class Http2RequestSpec extends Specification {
 
     }
 
+    void "test concurrent HTTP/2 requests are multiplexed over one connection"() {
+        when:
+        List<String> ports = Flux.range(0, 20)
+                .flatMap({ Flux.from(client.retrieve("${server.URL}/http2/port")) })
+                .collectList()
+                .block()
+
+        then:
+        ports.size() == 20
+        ports.unique().size() == 1
+    }
+
     void "test make HTTP/2 request - upgrade over HTTP"() {
         given:
         EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
@@ -170,6 +182,11 @@ class Http2RequestSpec extends Specification {
             return "Version: ${request.httpVersion}"
         }
 
+        @Get(value = '/port', produces = MediaType.TEXT_PLAIN)
+        String port(HttpRequest<?> request) {
+            return request.remoteAddress.port.toString()
+        }
+
         @Post(processes =  MediaType.TEXT_PLAIN)
         String post(HttpRequest<?> request, @Body String body) {
             return "Version: ${request.httpVersion} " + body